@@ -501,6 +501,13 @@ public enum ConfigNodes {
 	NWS_PLOT_MANAGEMENT_REVERT_TIME(
 			"new_world_settings.plot_management.revert_on_unclaim.speed",
 			"1s"),
+	NWS_PLOT_MANAGEMENT_REVERT_TIME_BUDGET(
+			"new_world_settings.plot_management.revert_on_unclaim.time_budget",
+			"2000",
+			"",
+			"# How long, in microseconds, reverting may take each time it runs.",
+			"# The time is shared evenly between every plot being reverted.",
+			"# Like the speed setting, this is used in all worlds."),
 	NWS_PLOT_MANAGEMENT_REVERT_IGNORE(
 			"new_world_settings.plot_management.revert_on_unclaim.block_ignore",
 			"ORES,LAPIS_BLOCK,GOLD_BLOCK,IRON_BLOCK,DIAMOND_BLOCK,EMERALD_BLOCK,NETHERITE_BLOCK,MOSSY_COBBLESTONE,TORCHES,SPAWNER,SIGNS,SHULKER_BOXES,BEACON,LODESTONE,RESPAWN_ANCHOR,NETHER_PORTAL,FURNACE,BLAST_FURNACE,SMOKER,BREWING_STAND,TNT,AIR,FIRE,SKULLS",
@@ -1461,6 +1468,26 @@ public enum ConfigNodes {
 			"&c",
 			"",
 			"# Used when two players are enemies."),
+	FILTERS_PAPI_CACHE(
+			"filters_colour_chat.papi_cache",
+			"",
+			"",
+			"# Placeholder values are cached for each player, so that scoreboard and tab plugins",
+			"# asking for them several times a second don't rebuild them every time.",
+			"# Values are thrown away as soon as Towny sees the player, their town or their nation change."),
+	FILTERS_PAPI_CACHE_TTL(
+			"filters_colour_chat.papi_cache.ttl",
+			"30s",
+			"",
+			"# The longest a value is kept for, in case it changed in a way Towny didn't notice.",
+			"# Set to 0s to disable the cache entirely, every placeholder is then rendered when it is asked for."),
+	FILTERS_PAPI_CACHE_VOLATILE_TTL(
+			"filters_colour_chat.papi_cache.volatile_ttl",
+			"1s",
+			"",
+			"# How long values which depend on where the player is standing, the time of day,",
+			"# bank balances or who is online are kept for. Never longer than the ttl above,",
+			"# set to 0s to not cache these values at all."),
 	
 	PROT(
 			"protection",
@@ -2269,6 +2296,14 @@ public enum ConfigNodes {
 			"# if a resident can't pay his plot tax he loses his plot.",
 			"# if a resident can't pay his town tax then he is kicked from the town.",
 			"# if a town or nation fails to pay it's upkeep it is deleted."),
+	ECO_DAILY_TAXES_BATCH_SIZE(
+			"economy.daily_taxes.batch_size",
+			"250",
+			"",
+			"# How many towns or nations have their taxes and upkeep collected at a time during a new day.",
+			"# What each town in a batch owes is worked out in parallel before its payments are made one at a time.",
+			"# Each town or nation is saved to a checkpoint once it has paid, so a new day interrupted by a crash",
+			"# is finished on the next startup without charging anyone twice."),
 	ECO_DAILY_TAXES_MAX_PLOT_TAX(
 			"economy.daily_taxes.max_plot_tax_amount",
 			"1000.0",
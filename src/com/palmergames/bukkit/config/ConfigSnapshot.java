@@ -0,0 +1,93 @@
+package com.palmergames.bukkit.config;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+
+/**
+ * An immutable copy of every {@link ConfigNodes} value in a config, parsed up
+ * front into each type it may be read as.
+ * <p>
+ * Reading a setting from a snapshot is an array lookup by the node's ordinal,
+ * instead of a lower-cased path lookup and a parse on every call. A new
+ * snapshot is taken whenever the config is loaded or changed, and swapped in
+ * whole, so readers never see a half-updated config.
+ */
+public final class ConfigSnapshot {
+
+	private static final ConfigNodes[] NODES = ConfigNodes.values();
+
+	private final String[] strings = new String[NODES.length];
+	private final boolean[] booleans = new boolean[NODES.length];
+	private final int[] ints = new int[NODES.length];
+	private final double[] doubles = new double[NODES.length];
+	// Whether the node's value parsed as an int or a double, unparseable values are reported when read.
+	private final boolean[] validInts = new boolean[NODES.length];
+	private final boolean[] validDoubles = new boolean[NODES.length];
+
+	private ConfigSnapshot(CommentedConfiguration config) {
+
+		for (ConfigNodes node : NODES) {
+			final int i = node.ordinal();
+			final String value = config.getString(node.getRoot().toLowerCase(Locale.ROOT), node.getDefault());
+			strings[i] = value;
+			booleans[i] = Boolean.parseBoolean(value);
+
+			if (value == null)
+				continue;
+
+			final String trimmed = value.trim();
+			try {
+				ints[i] = Integer.parseInt(trimmed);
+				validInts[i] = true;
+			} catch (NumberFormatException ignored) {}
+
+			try {
+				doubles[i] = Double.parseDouble(trimmed);
+				validDoubles[i] = true;
+			} catch (NumberFormatException ignored) {}
+		}
+	}
+
+	/**
+	 * Takes a snapshot of every {@link ConfigNodes} value in the given config.
+	 *
+	 * @param config Config to read.
+	 * @return a new ConfigSnapshot.
+	 */
+	public static ConfigSnapshot of(@NotNull CommentedConfiguration config) {
+		return new ConfigSnapshot(config);
+	}
+
+	public String getString(ConfigNodes node) {
+		return strings[node.ordinal()];
+	}
+
+	public boolean getBoolean(ConfigNodes node) {
+		return booleans[node.ordinal()];
+	}
+
+	/**
+	 * @param node ConfigNodes to read.
+	 * @return the node's value, or 0 if it isn't a valid int.
+	 */
+	public int getInt(ConfigNodes node) {
+		return ints[node.ordinal()];
+	}
+
+	public boolean isInt(ConfigNodes node) {
+		return validInts[node.ordinal()];
+	}
+
+	/**
+	 * @param node ConfigNodes to read.
+	 * @return the node's value, or 0.0 if it isn't a valid double.
+	 */
+	public double getDouble(ConfigNodes node) {
+		return doubles[node.ordinal()];
+	}
+
+	public boolean isDouble(ConfigNodes node) {
+		return validDoubles[node.ordinal()];
+	}
+}
@@ -37,11 +37,13 @@ import com.palmergames.bukkit.towny.listeners.TownyVehicleListener;
 import com.palmergames.bukkit.towny.listeners.TownyWorldListener;
 import com.palmergames.bukkit.towny.object.PlayerCache;
 import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.TownBlockTypeHandler;
 import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.object.Translatable;
 import com.palmergames.bukkit.towny.object.Translation;
 import com.palmergames.bukkit.towny.object.WorldCoord;
+import com.palmergames.bukkit.towny.object.comparators.ComparatorCaches;
 import com.palmergames.bukkit.towny.object.metadata.MetadataLoader;
 import com.palmergames.bukkit.towny.permissions.BukkitPermSource;
 import com.palmergames.bukkit.towny.permissions.GroupManagerSource;
@@ -269,6 +271,7 @@ public class Towny extends JavaPlugin {
 		if (!TownySettings.getLastRunVersion().equals(getVersion())) {
 			ConfigMigrator migrator = new ConfigMigrator(TownySettings.getConfig(), "config-migration.json", false);
 			migrator.migrate();
+			TownySettings.refreshSnapshot();
 		}
 
 		// Loads Town and Nation Levels after migration has occured.
@@ -283,6 +286,8 @@ public class Towny extends JavaPlugin {
 
 	private void loadConfig(boolean reload) {
 		TownySettings.loadConfig(getDataFolder().toPath().resolve("settings").resolve("config.yml"), getVersion());
+		// Upkeep costs and other sort keys can depend on the config.
+		ComparatorCaches.clear();
 		if (reload) {
 			// If Towny is in Safe Mode (for the main config) turn off Safe Mode.
 			if (isError(TownyInitException.TownyError.MAIN_CONFIG)) {
@@ -932,57 +937,50 @@ public class Towny extends JavaPlugin {
 	}
 
 	/**
-	 * Resets all Online player caches, retaining their location info.
+	 * Invalidates every player's cached permissions. The caches are rebuilt as
+	 * they are next used, rather than all at once.
+	 * <p>
+	 * Prefer {@link com.palmergames.bukkit.towny.object.TownyObject#markModified()}
+	 * on the object which changed, which only invalidates the caches relying on it.
 	 */
 	public void resetCache() {
 
-		for (Player player : BukkitTools.getOnlinePlayers())
-			if (player != null)
-				getCache(player).resetAndUpdate(WorldCoord.parseWorldCoord(player)); // Automatically resets permissions.
+		PlayerCache.invalidateAll();
+		TownyUniverse.getInstance().getPermissionSource().invalidateAllOverrides();
 	}
 
 	/**
-	 * Resets all Online player caches if their location equals this one
+	 * Invalidates the cached permissions of any player which relied on the
+	 * TownBlock at this location.
 	 * 
-	 * @param worldCoord - the location to check for
+	 * @param worldCoord - the location which has changed
 	 */
 	public void updateCache(WorldCoord worldCoord) {
 
-		for (Player player : BukkitTools.getOnlinePlayers())
-			if (player != null)
-				if (WorldCoord.parseWorldCoord(player).equals(worldCoord))
-					getCache(player).resetAndUpdate(worldCoord); // Automatically resets permissions.
+		TownBlock townBlock = worldCoord.getTownBlockOrNull();
+		if (townBlock != null)
+			townBlock.markModified();
 	}
 
 	/**
-	 * Resets all Online player caches if their location has changed
+	 * Moves all Online player caches to their current location.
 	 */
 	public void updateCache() {
 
-		WorldCoord worldCoord = null;
-
-		for (Player player : BukkitTools.getOnlinePlayers()) {
-			if (player != null) {
-				worldCoord = WorldCoord.parseWorldCoord(player);
-				PlayerCache cache = getCache(player);
-				if (cache.getLastTownBlock() != worldCoord)
-					cache.resetAndUpdate(worldCoord);
-			}
-		}
+		for (Player player : BukkitTools.getOnlinePlayers())
+			if (player != null)
+				updateCache(player);
 	}
 
 	/**
-	 * Resets a specific players cache if their location has changed
+	 * Moves a specific players cache to their current location, their
+	 * permissions there are checked for changes when they are next used.
 	 * 
 	 * @param player - Player, whose cache is to be updated.
 	 */
 	public void updateCache(Player player) {
 
-		WorldCoord worldCoord = WorldCoord.parseWorldCoord(player);
-		PlayerCache cache = getCache(player);
-
-		if (!cache.getLastTownBlock().equals(worldCoord))
-			cache.resetAndUpdate(worldCoord);
+		getCache(player).updateCoord(WorldCoord.parseWorldCoord(player));
 	}
 
 	/**
@@ -992,6 +990,7 @@ public class Towny extends JavaPlugin {
 	 */
 	public void resetCache(Player player) {
 
+		TownyUniverse.getInstance().getPermissionSource().invalidateOverrides(player.getUniqueId());
 		getCache(player).resetAndUpdate(WorldCoord.parseWorldCoord(player));
 	}
 
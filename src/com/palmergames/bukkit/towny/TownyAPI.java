@@ -5,6 +5,7 @@ import com.palmergames.bukkit.towny.db.TownyDataSource;
 import com.palmergames.bukkit.towny.event.townblockstatus.NationZoneTownBlockStatusEvent;
 import com.palmergames.bukkit.towny.exceptions.KeyAlreadyRegisteredException;
 import com.palmergames.bukkit.towny.exceptions.TownyException;
+import com.palmergames.bukkit.towny.object.Coord;
 import com.palmergames.bukkit.towny.object.Nation;
 import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.ResidentList;
@@ -374,9 +375,13 @@ public class TownyAPI {
      * @return {@link List} of all online {@link Player}s in the specified {@link ResidentList}.
      */
     public List<Player> getOnlinePlayers(ResidentList owner) {
-		final List<Player> players = new ArrayList<>(Bukkit.getOnlinePlayers());
+		final List<Player> players = new ArrayList<>();
 		
-		players.removeIf(player -> !owner.hasResident(player.getName()));
+		for (Resident resident : owner.getOnlineResidents()) {
+			Player player = resident.hasUUID() ? Bukkit.getPlayer(resident.getUUID()) : resident.getPlayer();
+			if (player != null)
+				players.add(player);
+		}
 		return players;
 	}
     
@@ -424,7 +429,7 @@ public class TownyAPI {
      * @return true if the {@link Block} is in the wilderness, false otherwise.
      */
     public boolean isWilderness(Block block) {
-        return isWilderness(block.getLocation());
+        return isWilderness(block.getWorld(), block.getX(), block.getZ());
     }
     
     /**
@@ -434,7 +439,21 @@ public class TownyAPI {
      * @return true if the {@link Location} is in the wilderness, false otherwise.
      */
     public boolean isWilderness(Location location) {
-        return isWilderness(WorldCoord.parseWorldCoord(location));
+        return isWilderness(location.getWorld(), location.getBlockX(), location.getBlockZ());
+    }
+    
+    /**
+     * Check if the specified block coordinates are in the wilderness, without
+     * allocating a {@link Location} or {@link WorldCoord}.
+     *
+     * @param world {@link World} the coordinates are in.
+     * @param blockX Block X coordinate.
+     * @param blockZ Block Z coordinate.
+     * @return true if the coordinates are in the wilderness, false otherwise.
+     */
+    public boolean isWilderness(@NotNull World world, int blockX, int blockZ) {
+        final TownBlock townBlock = getTownBlock(world, blockX, blockZ);
+        return townBlock == null || !townBlock.hasTown();
     }
     
     /**
@@ -519,7 +538,7 @@ public class TownyAPI {
      */
     @Nullable
     public TownyWorld getTownyWorld(World world) {
-    	return getTownyWorld(world.getName());
+    	return townyUniverse.getWorld(world);
     }
     
     /**
@@ -623,8 +642,22 @@ public class TownyAPI {
      */
     @Nullable
     public TownBlock getTownBlock(Location location) {
-        WorldCoord worldCoord = WorldCoord.parseWorldCoord(location);
-		return worldCoord.getTownBlockOrNull();
+		return getTownBlock(location.getWorld(), location.getBlockX(), location.getBlockZ());
+    }
+    
+    /**
+     * Get the {@link TownBlock} at the specified block coordinates, without
+     * allocating a {@link Location} or {@link WorldCoord}.
+     *
+     * @param world {@link World} the coordinates are in.
+     * @param blockX Block X coordinate.
+     * @param blockZ Block Z coordinate.
+     * @return {@link TownBlock} at these coordinates, or {@code null} for none.
+     */
+    @Nullable
+    public TownBlock getTownBlock(@NotNull World world, int blockX, int blockZ) {
+    	final TownyWorld townyWorld = townyUniverse.getWorld(world);
+    	return townyWorld == null ? null : townyWorld.getTownBlockOrNull(Coord.toCell(blockX), Coord.toCell(blockZ));
     }
     
     /**
@@ -635,7 +668,7 @@ public class TownyAPI {
      */
     @Nullable
     public TownBlock getTownBlock(@NotNull Player player) {
-		return WorldCoord.parseWorldCoord(player.getLocation()).getTownBlockOrNull();
+		return getTownBlock(player.getLocation());
     }
     
     /** 
@@ -675,15 +708,7 @@ public class TownyAPI {
      */
     public List<Resident> getOnlineResidents(ResidentList owner) {
         
-        List<Resident> onlineResidents = new ArrayList<>();
-        for (Player player : BukkitTools.getOnlinePlayers()) {
-            if (player != null)
-                for (Resident resident : owner.getResidents()) {
-                    if (resident.getName().equalsIgnoreCase(player.getName()))
-                        onlineResidents.add(resident);
-                }
-        }
-        return onlineResidents;
+        return new ArrayList<>(owner.getOnlineResidents());
     }
     
 	public void requestTeleport(Player player, Location spawnLoc) {
@@ -42,6 +42,7 @@ import net.kyori.adventure.text.event.HoverEvent;
 import net.kyori.adventure.text.format.NamedTextColor;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -455,7 +456,6 @@ public class TownyMessaging {
 	 */
 	
 	public static void sendTownList(CommandSender sender, List<TextComponent> towns, ComparatorType compType, int page, int total) {
-		Translator translator = Translator.locale(sender);
 		int iMax = Math.min(page * 10, towns.size());
 
 		TextComponent[] townsformatted;
@@ -471,6 +471,20 @@ public class TownyMessaging {
 			townsformatted[i % 10] = towns.get(i);
 		}
 		
+		sendTownListPage(sender, Arrays.asList(townsformatted), compType, page, total);
+	}
+
+	/**
+	 * Sends one page of the town list.
+	 * 
+	 * @param sender CommandSender to send to.
+	 * @param townsformatted The lines on the page, such as from {@link com.palmergames.bukkit.towny.object.comparators.ComparatorCaches#getTownListPage(ComparatorType, int)}.
+	 * @param compType ComparatorType the list is sorted by.
+	 * @param page Page number.
+	 * @param total Total number of pages.
+	 */
+	public static void sendTownListPage(CommandSender sender, List<TextComponent> townsformatted, ComparatorType compType, int page, int total) {
+		Translator translator = Translator.locale(sender);
 		Audience audience = Towny.getAdventure().sender(sender);
 		sendMessage(sender, ChatTools.formatTitle(translator.of("town_plu")));
 		sendMessage(sender, Colors.Blue + translator.of("town_name") + (TownySettings.isTownListRandom() ? "" : Colors.Gray + " - " + Colors.LightBlue + translator.of(compType.getName())));
@@ -506,7 +520,6 @@ public class TownyMessaging {
 	}
 
 	public static void sendNationList(CommandSender sender, List<TextComponent> nations, ComparatorType compType, int page, int total) {
-		Translator translator = Translator.locale(sender);
 		int iMax = Math.min(page * 10, nations.size());
 
 		TextComponent[] nationsformatted;
@@ -521,6 +534,20 @@ public class TownyMessaging {
 			nationsformatted[i % 10] = nations.get(i);
 		}
 
+		sendNationListPage(sender, Arrays.asList(nationsformatted), compType, page, total);
+	}
+
+	/**
+	 * Sends one page of the nation list.
+	 * 
+	 * @param sender CommandSender to send to.
+	 * @param nationsformatted The lines on the page, such as from {@link com.palmergames.bukkit.towny.object.comparators.ComparatorCaches#getNationListPage(ComparatorType, int)}.
+	 * @param compType ComparatorType the list is sorted by.
+	 * @param page Page number.
+	 * @param total Total number of pages.
+	 */
+	public static void sendNationListPage(CommandSender sender, List<TextComponent> nationsformatted, ComparatorType compType, int page, int total) {
+		Translator translator = Translator.locale(sender);
 		sendMessage(sender, ChatTools.formatTitle(translator.of("nation_plu")));
 		sendMessage(sender, Colors.Blue + translator.of("nation_name") + Colors.Gray + " - " + Colors.LightBlue + translator.of(compType.getName()));
 		Audience audience = Towny.getAdventure().sender(sender);
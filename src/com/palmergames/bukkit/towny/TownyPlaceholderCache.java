@@ -0,0 +1,320 @@
+package com.palmergames.bukkit.towny;
+
+import com.github.bsideup.jabel.Desugar;
+import com.palmergames.bukkit.towny.event.DeleteNationEvent;
+import com.palmergames.bukkit.towny.event.DeleteTownEvent;
+import com.palmergames.bukkit.towny.event.GovernmentTagChangeEvent;
+import com.palmergames.bukkit.towny.event.NationAddTownEvent;
+import com.palmergames.bukkit.towny.event.NationRemoveTownEvent;
+import com.palmergames.bukkit.towny.event.NewDayEvent;
+import com.palmergames.bukkit.towny.event.RenameNationEvent;
+import com.palmergames.bukkit.towny.event.RenameResidentEvent;
+import com.palmergames.bukkit.towny.event.RenameTownEvent;
+import com.palmergames.bukkit.towny.event.TownAddResidentEvent;
+import com.palmergames.bukkit.towny.event.TownAddResidentRankEvent;
+import com.palmergames.bukkit.towny.event.TownClaimEvent;
+import com.palmergames.bukkit.towny.event.TownRemoveResidentEvent;
+import com.palmergames.bukkit.towny.event.TownRemoveResidentRankEvent;
+import com.palmergames.bukkit.towny.event.TownyLoadedDatabaseEvent;
+import com.palmergames.bukkit.towny.event.TranslationLoadEvent;
+import com.palmergames.bukkit.towny.event.nation.NationKingChangeEvent;
+import com.palmergames.bukkit.towny.event.nation.NationRankAddEvent;
+import com.palmergames.bukkit.towny.event.nation.NationRankRemoveEvent;
+import com.palmergames.bukkit.towny.event.nation.toggle.NationToggleEvent;
+import com.palmergames.bukkit.towny.event.resident.ResidentJailEvent;
+import com.palmergames.bukkit.towny.event.resident.ResidentUnjailEvent;
+import com.palmergames.bukkit.towny.event.town.TownMayorChangeEvent;
+import com.palmergames.bukkit.towny.event.town.TownUnclaimEvent;
+import com.palmergames.bukkit.towny.event.town.toggle.TownToggleEvent;
+import com.palmergames.bukkit.towny.object.Identifiable;
+import com.palmergames.bukkit.towny.object.Nation;
+import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.towny.object.TownyObject;
+import org.bukkit.NamespacedKey;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Caches the rendered value of each placeholder asked for, per resident.
+ * <p>
+ * An entry remembers the {@link TownyObject#currentModificationStamp()} at the
+ * time it was built, and is thrown away once the resident, their town or
+ * their nation has been marked as modified since, or one of the events below
+ * has touched them. Not every change is marked or has an event, so entries
+ * also expire after a TTL, which is much shorter for values that depend on
+ * where the player stands, the time, bank balances or who is online. A TTL
+ * of 0 turns caching off, and the main TTL caps the shorter one.
+ * <p>
+ * Placeholders are also asked for residents who aren't online, by
+ * leaderboards and scoreboards, so expired entries are swept out once per
+ * TTL rather than waiting for their resident to log out.
+ */
+class TownyPlaceholderCache implements Listener {
+
+	private final Map<UUID, Map<String, Entry>> values = new ConcurrentHashMap<>();
+	// When an event last touched a resident, town or nation, by UUID.
+	private final Map<UUID, Touch> touched = new ConcurrentHashMap<>();
+	private volatile long touchedAllAt = 0;
+	// Read from the config when it is loaded, rather than parsed for every placeholder.
+	private volatile long ttl;
+	private volatile long volatileTTL;
+	private volatile long nextSweepAt = 0;
+
+	@Desugar
+	private record Entry(String value, long builtAt, long expiresAt) {}
+
+	@Desugar
+	private record Touch(long stamp, long at) {}
+
+	TownyPlaceholderCache() {
+		loadTTLs();
+		// A re-registered expansion brings a new cache, which takes over the listener.
+		NamespacedKey key = NamespacedKey.fromString("towny:papi-cache");
+		TownySettings.removeReloadListener(key);
+		TownySettings.addReloadListener(key, config -> loadTTLs());
+	}
+
+	private void loadTTLs() {
+		ttl = TownySettings.getPAPICacheTTL();
+		volatileTTL = Math.min(ttl, TownySettings.getPAPICacheVolatileTTL());
+		values.clear();
+		touched.clear();
+		nextSweepAt = 0;
+	}
+
+	/**
+	 * @param resident Resident the placeholder is for.
+	 * @param identifier Placeholder identifier.
+	 * @param renderer Builds the value when there is no valid cached one.
+	 * @return the cached or newly rendered value, possibly null.
+	 */
+	@Nullable
+	String get(@NotNull Resident resident, @NotNull String identifier, @NotNull Supplier<String> renderer) {
+		long ttl = isVolatile(identifier) ? this.volatileTTL : this.ttl;
+		if (ttl <= 0 || resident.getUUID() == null)
+			return renderer.get();
+
+		long now = System.currentTimeMillis();
+		if (now >= nextSweepAt)
+			sweep(now);
+
+		Map<String, Entry> residentValues = values.computeIfAbsent(resident.getUUID(), k -> new ConcurrentHashMap<>());
+		Entry entry = residentValues.get(identifier);
+		if (entry != null && now < entry.expiresAt() && isValid(resident, entry.builtAt()))
+			return entry.value();
+
+		long builtAt = TownyObject.currentModificationStamp();
+		String value = renderer.get();
+		if (value == null)
+			residentValues.remove(identifier);
+		else
+			residentValues.put(identifier, new Entry(value, builtAt, now + ttl));
+
+		return value;
+	}
+
+	/*
+	 * Drops expired entries, and the residents left without any. A touch can only
+	 * outdate entries built before it, which have all expired a TTL later.
+	 */
+	private synchronized void sweep(long now) {
+		if (now < nextSweepAt)
+			return;
+
+		long ttl = this.ttl;
+		nextSweepAt = now + ttl;
+		values.values().removeIf(residentValues -> {
+			residentValues.values().removeIf(entry -> now >= entry.expiresAt());
+			return residentValues.isEmpty();
+		});
+		touched.values().removeIf(touch -> now >= touch.at() + ttl);
+	}
+
+	private boolean isValid(Resident resident, long builtAt) {
+		if (touchedAllAt > builtAt || changedSince(resident, builtAt))
+			return false;
+
+		Town town = resident.getTownOrNull();
+		if (town != null && changedSince(town, builtAt))
+			return false;
+
+		Nation nation = resident.getNationOrNull();
+		return nation == null || !changedSince(nation, builtAt);
+	}
+
+	private boolean changedSince(TownyObject object, long builtAt) {
+		if (object.getModificationStamp() > builtAt)
+			return true;
+
+		UUID uuid = object instanceof Identifiable identifiable ? identifiable.getUUID() : null;
+		Touch touch = uuid == null ? null : touched.get(uuid);
+		return touch != null && touch.stamp() > builtAt;
+	}
+
+	/**
+	 * @param identifier Placeholder identifier.
+	 * @return true if the value depends on something which changes without Towny marking an object as modified.
+	 */
+	private static boolean isVolatile(String identifier) {
+		return (identifier.startsWith("player_") && !identifier.equals("player_status"))
+			|| identifier.startsWith("time_until_new_day")
+			|| identifier.startsWith("number_of_")
+			|| identifier.contains("balance")
+			|| identifier.endsWith("_online");
+	}
+
+	private void touch(@Nullable UUID uuid) {
+		// With caching off nothing is swept, or needs outdating.
+		if (uuid != null && ttl > 0)
+			touched.put(uuid, new Touch(TownyObject.nextModificationStamp(), System.currentTimeMillis()));
+	}
+
+	private void touchAll() {
+		touchedAllAt = TownyObject.nextModificationStamp();
+		values.clear();
+		touched.clear();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerQuit(PlayerQuitEvent event) {
+		values.remove(event.getPlayer().getUniqueId());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownAddResident(TownAddResidentEvent event) {
+		touch(event.getResident().getUUID());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownRemoveResident(TownRemoveResidentEvent event) {
+		touch(event.getResident().getUUID());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onResidentRename(RenameResidentEvent event) {
+		touch(event.getResident().getUUID());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onResidentJail(ResidentJailEvent event) {
+		touch(event.getResident().getUUID());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onResidentUnjail(ResidentUnjailEvent event) {
+		touch(event.getResident().getUUID());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onTownRankAdd(TownAddResidentRankEvent event) {
+		touch(event.getResident().getUUID());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onTownRankRemove(TownRemoveResidentRankEvent event) {
+		touch(event.getResident().getUUID());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onNationRankAdd(NationRankAddEvent event) {
+		touch(event.getResident().getUUID());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onNationRankRemove(NationRankRemoveEvent event) {
+		touch(event.getResident().getUUID());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownRename(RenameTownEvent event) {
+		touch(event.getTown().getUUID());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onTownMayorChange(TownMayorChangeEvent event) {
+		touch(event.getTown().getUUID());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onTownToggle(TownToggleEvent event) {
+		touch(event.getTown().getUUID());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownClaim(TownClaimEvent event) {
+		Town town = event.getTownBlock().getTownOrNull();
+		if (town != null)
+			touch(town.getUUID());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownUnclaim(TownUnclaimEvent event) {
+		if (event.getTown() != null)
+			touch(event.getTown().getUUID());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNationAddTown(NationAddTownEvent event) {
+		touch(event.getTown().getUUID());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNationRemoveTown(NationRemoveTownEvent event) {
+		touch(event.getTown().getUUID());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNationRename(RenameNationEvent event) {
+		touch(event.getNation().getUUID());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onNationKingChange(NationKingChangeEvent event) {
+		touch(event.getNation().getUUID());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onNationToggle(NationToggleEvent event) {
+		touch(event.getNation().getUUID());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTagChange(GovernmentTagChangeEvent event) {
+		touch(event.getGovernment().getUUID());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownDelete(DeleteTownEvent event) {
+		touchAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNationDelete(DeleteNationEvent event) {
+		touchAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNewDay(NewDayEvent event) {
+		touchAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onDatabaseLoaded(TownyLoadedDatabaseEvent event) {
+		touchAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTranslationLoad(TranslationLoadEvent event) {
+		touchAll();
+	}
+}
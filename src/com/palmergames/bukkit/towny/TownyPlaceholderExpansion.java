@@ -3,7 +3,7 @@ package com.palmergames.bukkit.towny;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.Translation;
 import com.palmergames.bukkit.towny.object.Translatable;
-import com.palmergames.bukkit.towny.utils.CombatUtil;
+import com.palmergames.bukkit.towny.object.TownRelationCache;
 
 import com.palmergames.util.TimeMgmt;
 import org.bukkit.OfflinePlayer;
@@ -33,6 +33,7 @@ public class TownyPlaceholderExpansion extends PlaceholderExpansion implements R
 	final String king = TownySettings.getPAPIFormattingKing() + Translation.of("king_sing");
 	
 	private final Towny plugin;
+	private final TownyPlaceholderCache cache = new TownyPlaceholderCache();
 
 	/**
 	 * Since we register the expansion inside our own plugin, we can simply use this
@@ -42,6 +43,7 @@ public class TownyPlaceholderExpansion extends PlaceholderExpansion implements R
 	 */
 	public TownyPlaceholderExpansion(Towny plugin) {
 		this.plugin = plugin;
+		plugin.getServer().getPluginManager().registerEvents(cache, plugin);
 	}
 
 	/**
@@ -118,18 +120,21 @@ public class TownyPlaceholderExpansion extends PlaceholderExpansion implements R
 		if (res == null || res2 == null)
 			return null;
 		
-		if (!res2.hasTown()) 
+		Town town2 = res2.getTownOrNull();
+		if (town2 == null) 
 			return TownySettings.getPAPIRelationNoTown();
-		else if (CombatUtil.isSameTown(res, res2))
-			return TownySettings.getPAPIRelationSameTown();
-		else if (CombatUtil.isSameNation(res, res2))
-			return TownySettings.getPAPIRelationSameNation();
-		else if (CombatUtil.isAlly(res, res2))
-			return TownySettings.getPAPIRelationAlly();
-		else if (CombatUtil.isEnemy(res, res2))
-			return TownySettings.getPAPIRelationEnemy();
-		else
+
+		Town town = res.getTownOrNull();
+		if (town == null)
 			return TownySettings.getPAPIRelationNone();
+
+		return switch (TownRelationCache.getRelation(town, town2)) {
+			case SAME_TOWN -> TownySettings.getPAPIRelationSameTown();
+			case SAME_NATION -> TownySettings.getPAPIRelationSameNation();
+			case ALLY -> TownySettings.getPAPIRelationAlly();
+			case ENEMY -> TownySettings.getPAPIRelationEnemy();
+			case NONE -> TownySettings.getPAPIRelationNone();
+		};
 	}
 
 	/**
@@ -145,7 +150,11 @@ public class TownyPlaceholderExpansion extends PlaceholderExpansion implements R
 	 */
 	@Override
 	public String onRequest(OfflinePlayer player, String identifier) {
-		return ChatColor.translateAlternateColorCodes('&', getOfflinePlayerPlaceholder(player, identifier));
+		Resident resident = player == null ? null : TownyUniverse.getInstance().getResident(player.getUniqueId());
+		if (resident == null)
+			return ChatColor.translateAlternateColorCodes('&', getOfflinePlayerPlaceholder(player, identifier));
+
+		return cache.get(resident, identifier, () -> ChatColor.translateAlternateColorCodes('&', getOfflinePlayerPlaceholder(player, identifier)));
 	}
 
 	private String getOfflinePlayerPlaceholder(OfflinePlayer player, String identifier) {
@@ -362,7 +371,7 @@ public class TownyPlaceholderExpansion extends PlaceholderExpansion implements R
 			return amount;
 		case "town_residents_online": // %townyadvanced_town_residents_online%
 			if (resident.hasTown()) {
-				amount = String.valueOf(TownyAPI.getInstance().getOnlinePlayers(resident.getTownOrNull()).size());
+				amount = String.valueOf(resident.getTownOrNull().getOnlineResidents().size());
 			}
 			return amount;
 		case "town_townblocks_used": // %townyadvanced_town_townblocks_used%
@@ -413,7 +422,7 @@ public class TownyPlaceholderExpansion extends PlaceholderExpansion implements R
 			return amount;
 		case "nation_residents_online": // %townyadvanced_nation_residents_online%
 			if (resident.hasNation()) {
-				amount = String.valueOf(TownyAPI.getInstance().getOnlinePlayers(resident.getNationOrNull()).size());
+				amount = String.valueOf(resident.getNationOrNull().getOnlineResidents().size());
 			}
 			return amount;
 		case "nation_capital": // %townyadvanced_nation_capital%
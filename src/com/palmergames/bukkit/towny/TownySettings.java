@@ -3,6 +3,7 @@ package com.palmergames.bukkit.towny;
 import com.github.bsideup.jabel.Desugar;
 import com.palmergames.bukkit.config.CommentedConfiguration;
 import com.palmergames.bukkit.config.ConfigNodes;
+import com.palmergames.bukkit.config.ConfigSnapshot;
 import com.palmergames.bukkit.towny.db.DatabaseConfig;
 import com.palmergames.bukkit.towny.event.NationBonusCalculationEvent;
 import com.palmergames.bukkit.towny.event.NationUpkeepCalculationEvent;
@@ -49,6 +50,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -64,6 +66,7 @@ public class TownySettings {
 
 	private static CommentedConfiguration config;
 	private static CommentedConfiguration newConfig;
+	private static volatile ConfigSnapshot snapshot;
 	private static int uuidCount;
 	private static boolean areLevelTypeLimitsConfigured;
 
@@ -74,7 +77,7 @@ public class TownySettings {
 	private static final EnumSet<Material> switchUseMaterials = EnumSet.noneOf(Material.class);
 	private static final List<Class<?>> protectedMobs = new ArrayList<>();
 	
-	private static final Map<NamespacedKey, Consumer<CommentedConfiguration>> CONFIG_RELOAD_LISTENERS = new HashMap<>();
+	private static final Map<NamespacedKey, BiConsumer<CommentedConfiguration, ConfigSnapshot>> CONFIG_RELOAD_LISTENERS = new HashMap<>();
 	
 	public static void newTownLevel(int numResidents, String namePrefix, String namePostfix, String mayorPrefix, String mayorPostfix, int townBlockLimit, double townUpkeepMultiplier, int townOutpostLimit, int townBlockBuyBonusLimit, double debtCapModifier, Map<String, Integer> townBlockTypeLimits) {
 
@@ -312,18 +315,23 @@ public class TownySettings {
 		if (!config.load()) {
 			throw new TownyInitException("Failed to load Towny's config.yml.", TownyInitException.TownyError.MAIN_CONFIG);
 		}
+		// setDefaults reads from the config as it was on disk.
+		snapshot = ConfigSnapshot.of(config);
 
 		setDefaults(version, configPath);
 
 		config.save();
+		snapshot = ConfigSnapshot.of(config);
 
 		loadSwitchAndItemUseMaterialsLists();
 		loadProtectedMobsList();
+		EntityTypeUtil.loadEntityTypeFlags();
 		ChunkNotification.loadFormatStrings();
 		TownBlockTypeHandler.Migrator.migrate();
 		
 		// Always run reload consumers after everything else is reloaded.
-		CONFIG_RELOAD_LISTENERS.values().forEach(consumer -> consumer.accept(config));
+		final ConfigSnapshot loaded = snapshot;
+		CONFIG_RELOAD_LISTENERS.values().forEach(consumer -> consumer.accept(config, loaded));
 	}
 	
 	private static void loadProtectedMobsList() {
@@ -411,34 +419,50 @@ public class TownySettings {
 		return spawnLevel;
 	}
 
+	/**
+	 * @return the typed snapshot of the config as it was last loaded or changed.
+	 */
+	public static ConfigSnapshot getSnapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Takes a new snapshot of the config, for after it has been changed
+	 * outside of TownySettings, ie: by the ConfigMigrator.
+	 */
+	@ApiStatus.Internal
+	public static void refreshSnapshot() {
+		snapshot = ConfigSnapshot.of(config);
+	}
+
 	public static boolean getBoolean(ConfigNodes node) {
 
-		return Boolean.parseBoolean(config.getString(node.getRoot().toLowerCase(Locale.ROOT), node.getDefault()));
+		return snapshot.getBoolean(node);
 	}
 
 	public static double getDouble(ConfigNodes node) {
 
-		try {
-			return Double.parseDouble(config.getString(node.getRoot().toLowerCase(Locale.ROOT), node.getDefault()).trim());
-		} catch (NumberFormatException e) {
+		final ConfigSnapshot snapshot = TownySettings.snapshot;
+		if (!snapshot.isDouble(node)) {
 			sendError(node.getRoot().toLowerCase(Locale.ROOT) + " from config.yml");
 			return 0.0;
 		}
+		return snapshot.getDouble(node);
 	}
 
 	public static int getInt(ConfigNodes node) {
 
-		try {
-			return Integer.parseInt(config.getString(node.getRoot().toLowerCase(Locale.ROOT), node.getDefault()).trim());
-		} catch (NumberFormatException e) {
+		final ConfigSnapshot snapshot = TownySettings.snapshot;
+		if (!snapshot.isInt(node)) {
 			sendError(node.getRoot().toLowerCase(Locale.ROOT) + " from config.yml");
 			return 0;
 		}
+		return snapshot.getInt(node);
 	}
 
 	public static String getString(ConfigNodes node) {
 
-		return config.getString(node.getRoot().toLowerCase(Locale.ROOT), node.getDefault());
+		return snapshot.getString(node);
 	}
 
 	public static String getString(String root, String def) {
@@ -1039,6 +1063,10 @@ public class TownySettings {
 		return DatabaseConfig.getInt(DatabaseConfig.DATABASE_POOLING_CONNECTION_TIMEOUT);
 	}
 
+	public static int getSQLWriterLanes() {
+		return DatabaseConfig.getInt(DatabaseConfig.DATABASE_POOLING_WRITER_LANES);
+	}
+
 	public static int getMaxTownBlocks(Town town) {
 
 		int ratio = getTownBlockRatio();
@@ -1569,6 +1597,7 @@ public class TownySettings {
 	public static void setProperty(String root, Object value) {
 
 		config.set(root.toLowerCase(Locale.ROOT), value.toString());
+		refreshSnapshot();
 	}
 
 	private static void setNewProperty(String root, Object value) {
@@ -1583,6 +1612,7 @@ public class TownySettings {
 	public static void setLanguage(String lang) {
 		config.set(ConfigNodes.LANGUAGE.getRoot(), lang);
 		config.save();
+		refreshSnapshot();
 	}
 
 	public static Object getProperty(String root) {
@@ -1692,6 +1722,10 @@ public class TownySettings {
 		return getBoolean(ConfigNodes.ECO_DAILY_TAXES_ENABLED);
 	}
 
+	public static int getNewDayBatchSize() {
+		return getInt(ConfigNodes.ECO_DAILY_TAXES_BATCH_SIZE);
+	}
+
 	public static double getMaxPlotTax() {
 		return getDouble(ConfigNodes.ECO_DAILY_TAXES_MAX_PLOT_TAX);
 	}
@@ -2202,6 +2236,11 @@ public class TownySettings {
 		return getSeconds(ConfigNodes.NWS_PLOT_MANAGEMENT_REVERT_TIME);
 	}
 
+	public static long getPlotManagementRevertTimeBudget() {
+
+		return getInt(ConfigNodes.NWS_PLOT_MANAGEMENT_REVERT_TIME_BUDGET);
+	}
+
 	public static boolean isUsingPlotManagementWildEntityRegen() {
 
 		return getBoolean(ConfigNodes.NWS_PLOT_MANAGEMENT_WILD_MOB_REVERT_ENABLE);
@@ -3016,6 +3055,14 @@ public class TownySettings {
 	public static String getPAPIRelationEnemy() {
 		return getString(ConfigNodes.FILTERS_PAPI_REL_FORMATTING_ENEMY);
 	}
+
+	public static long getPAPICacheTTL() {
+		return TimeTools.getMillis(getString(ConfigNodes.FILTERS_PAPI_CACHE_TTL));
+	}
+
+	public static long getPAPICacheVolatileTTL() {
+		return TimeTools.getMillis(getString(ConfigNodes.FILTERS_PAPI_CACHE_VOLATILE_TTL));
+	}
 	
 	public static int getMaxDistanceFromTownSpawnForInvite() {
 		return getInt(ConfigNodes.INVITE_SYSTEM_MAX_DISTANCE_FROM_TOWN_SPAWN);
@@ -3356,6 +3403,17 @@ public class TownySettings {
 	}
 
 	public static void addReloadListener(NamespacedKey key, Consumer<CommentedConfiguration> consumer) {
+		addReloadListener(key, (config, snapshot) -> consumer.accept(config));
+	}
+
+	/**
+	 * Registers a listener which is run whenever the config is reloaded, after
+	 * everything else has been reloaded, and is given the new config snapshot.
+	 * 
+	 * @param key Key of the listener, a listener which is already registered is not replaced.
+	 * @param consumer Listener to run with the reloaded config and its snapshot.
+	 */
+	public static void addReloadListener(NamespacedKey key, BiConsumer<CommentedConfiguration, ConfigSnapshot> consumer) {
 		if (!CONFIG_RELOAD_LISTENERS.containsKey(key))
 			CONFIG_RELOAD_LISTENERS.put(key, consumer);
 	}
@@ -15,6 +15,7 @@ import com.palmergames.util.TimeMgmt;
 import com.palmergames.util.TimeTools;
 
 import org.bukkit.Bukkit;
+import org.bukkit.event.HandlerList;
 import org.jetbrains.annotations.ApiStatus;
 
 
@@ -38,6 +39,7 @@ public class TownyTimerHandler{
 	private static int shortTask = -1;
 	private static int mobRemoveTask = -1;
 	private static int healthRegenTask = -1;
+	private static HealthRegenTimerTask healthRegenTimerTask = null;
 	private static int teleportWarmupTask = -1;
 	private static int cooldownTimerTask = -1;
 	private static int drawSmokeTask = -1;
@@ -114,12 +116,20 @@ public class TownyTimerHandler{
 	public static void toggleHealthRegen(boolean on) {
 
 		if (on && !isHealthRegenRunning()) {
-			healthRegenTask = BukkitTools.scheduleSyncRepeatingTask(new HealthRegenTimerTask(plugin, BukkitTools.getServer()), 0, TimeTools.convertToTicks(TownySettings.getHealthRegenSpeed()));
-			if (healthRegenTask == -1)
+			healthRegenTimerTask = new HealthRegenTimerTask(plugin, BukkitTools.getServer());
+			// The task keeps track of who is regenerating through events.
+			Bukkit.getPluginManager().registerEvents(healthRegenTimerTask, plugin);
+			healthRegenTask = BukkitTools.scheduleSyncRepeatingTask(healthRegenTimerTask, 0, TimeTools.convertToTicks(TownySettings.getHealthRegenSpeed()));
+			if (healthRegenTask == -1) {
 				TownyMessaging.sendErrorMsg("Could not schedule health regen loop.");
+				HandlerList.unregisterAll(healthRegenTimerTask);
+				healthRegenTimerTask = null;
+			}
 		} else if (!on && isHealthRegenRunning()) {
 			BukkitTools.getScheduler().cancelTask(healthRegenTask);
 			healthRegenTask = -1;
+			HandlerList.unregisterAll(healthRegenTimerTask);
+			healthRegenTimerTask = null;
 		}
 	}
 
@@ -138,7 +148,7 @@ public class TownyTimerHandler{
 	public static void toggleCooldownTimer(boolean on) {
 		
 		if (on && !isCooldownTimerRunning()) {
-			cooldownTimerTask = BukkitTools.scheduleAsyncRepeatingTask(new CooldownTimerTask(plugin), 0, 20);
+			cooldownTimerTask = BukkitTools.scheduleSyncRepeatingTask(new CooldownTimerTask(plugin), 0, 20);
 			if (cooldownTimerTask == -1)
 				TownyMessaging.sendErrorMsg("Could not schedule cooldown timer loop.");			
 		} else if (!on && isCooldownTimerRunning()) {
@@ -16,8 +16,10 @@ import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.SpawnPoint;
 import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.TownBlock;
+import com.palmergames.bukkit.towny.object.TownRelationCache;
 import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.object.WorldCoord;
+import com.palmergames.bukkit.towny.object.comparators.ComparatorCaches;
 import com.palmergames.bukkit.towny.object.jail.Jail;
 import com.palmergames.bukkit.towny.object.map.TownyMapData;
 import com.palmergames.bukkit.towny.object.metadata.CustomDataField;
@@ -116,6 +118,7 @@ public class TownyUniverse {
      */
     public void clearAllObjects() {
     	worlds.clear();
+    	worldUUIDMap.clear();
         nationNameMap.clear();
         nationUUIDMap.clear();
         townNameMap.clear();
@@ -128,6 +131,8 @@ public class TownyUniverse {
         plotGroupUUIDMap.clear();
         wildernessMapDataMap.clear();
         replacementNamesMap.clear();
+        TownRelationCache.clear();
+        ComparatorCaches.clear();
     }
     
     /**
@@ -206,6 +211,10 @@ public class TownyUniverse {
      */
     private boolean saveDatabase(String saveDbType) {
         try {
+            // The source the database was loaded with is replaced, write out what it still holds and stop its tasks.
+            if (dataSource != null)
+                dataSource.finishTasks();
+
             // Set the new class for saving.
             switch (saveDbType.toLowerCase()) {
                 case "ff":
@@ -567,6 +576,7 @@ public class TownyUniverse {
 		
 		townsTrie.addKey(town.getName());
 		registerTownUUID(town);
+		ComparatorCaches.add(town);
 	}
 
 	/**
@@ -585,6 +595,8 @@ public class TownyUniverse {
 		}
 		
 		townsTrie.removeKey(town.getName());
+		TownRelationCache.invalidateTownFully(town);
+		ComparatorCaches.remove(town);
 		
 		if (town.getUUID() != null) {
 			if (townUUIDMap.remove(town.getUUID()) == null) {
@@ -707,6 +719,7 @@ public class TownyUniverse {
 
 		nationsTrie.addKey(nation.getName());
 		registerNationUUID(nation);
+		ComparatorCaches.add(nation);
 	}
 
 	/**
@@ -725,6 +738,7 @@ public class TownyUniverse {
 		}
 
 		nationsTrie.removeKey(nation.getName());
+		ComparatorCaches.remove(nation);
 
 		if (nation.getUUID() != null) {
 			if (nationUUIDMap.remove(nation.getUUID()) == null) {
@@ -743,6 +757,9 @@ public class TownyUniverse {
 		Preconditions.checkNotNull(world, "World cannot be null!");
 		if (getWorldIDMap().containsKey(world.getUID()))
 			return;
+		// A world loaded from the database by name, link it to the UUID instead of making a second TownyWorld.
+		if (linkWorld(world) != null)
+			return;
 		TownyWorld townyWorld = new TownyWorld(world.getName(), world.getUID());
 		registerTownyWorld(townyWorld);
 		townyWorld.save();
@@ -775,6 +792,38 @@ public class TownyUniverse {
 	public TownyWorld getWorld(String name) {
 		return worlds.get(name.toLowerCase(Locale.ROOT));
 	}
+
+	/**
+	 * Gets the TownyWorld of a Bukkit World, using its UUID so that no
+	 * lower-cased name has to be built for the lookup.
+	 * 
+	 * @param world Bukkit World.
+	 * @return TownyWorld or null if Towny doesn't know this world.
+	 */
+	@Nullable
+	public TownyWorld getWorld(@NotNull World world) {
+		final TownyWorld townyWorld = worldUUIDMap.get(world.getUID());
+		return townyWorld != null ? townyWorld : linkWorld(world);
+	}
+
+	/*
+	 * Worlds loaded from the database are only known by their name, the first
+	 * lookup through the Bukkit World records their UUID.
+	 */
+	@Nullable
+	private TownyWorld linkWorld(@NotNull World world) {
+		final TownyWorld townyWorld = getWorld(world.getName());
+		if (townyWorld == null)
+			return null;
+
+		// The world has been regenerated under the same name.
+		if (townyWorld.getUUID() != null && !townyWorld.getUUID().equals(world.getUID()))
+			worldUUIDMap.remove(townyWorld.getUUID(), townyWorld);
+
+		townyWorld.setUUID(world.getUID());
+		worldUUIDMap.put(world.getUID(), townyWorld);
+		return townyWorld;
+	}
 	
 	public List<TownyWorld> getTownyWorlds() {
 		return new ArrayList<>(worlds.values());
@@ -941,6 +990,7 @@ public class TownyUniverse {
 		if (hasTownBlock(townBlock.getWorldCoord()))
 			return;
 		townBlocks.put(townBlock.getWorldCoord(), townBlock);
+		townBlock.getWorld().addTownBlock(townBlock);
 	}
 
 	/**
@@ -959,6 +1009,7 @@ public class TownyUniverse {
 	public void removeTownBlock(TownBlock townBlock) {
 		
 		if (removeTownBlock(townBlock.getWorldCoord())) {
+			townBlock.getWorld().removeTownBlock(townBlock);
 			if (townBlock.hasResident())
 				townBlock.getResidentOrNull().removeTownBlock(townBlock);
 			if (townBlock.hasTown())
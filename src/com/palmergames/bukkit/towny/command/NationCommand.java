@@ -929,7 +929,7 @@ public class NationCommand extends BaseCommand implements CommandExecutor {
 	    final int pageNumber = page;
 		try {
 			Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-				TownyMessaging.sendNationList(sender, ComparatorCaches.getNationListCache(finalType), finalType, pageNumber, total);
+				TownyMessaging.sendNationListPage(sender, ComparatorCaches.getNationListPage(finalType, pageNumber), finalType, pageNumber, total);
 			});
 		} catch (RuntimeException e) {
 			TownyMessaging.sendErrorMsg(sender, Translatable.of("msg_error_comparator_failed"));
@@ -1121,8 +1121,6 @@ public class NationCommand extends BaseCommand implements CommandExecutor {
 
 			if (finalTooManyResidents)
 				ResidentUtil.reduceResidentCountToFitTownMaxPop(town);
-			
-			plugin.resetCache();
 
 			TownyMessaging.sendPrefixedNationMessage(nation, Translatable.of("msg_nation_town_left", StringMgmt.remUnderscore(town.getName())));
 			TownyMessaging.sendPrefixedTownMessage(town, Translatable.of("msg_town_left_nation", StringMgmt.remUnderscore(nation.getName())));
@@ -1354,7 +1352,6 @@ public class NationCommand extends BaseCommand implements CommandExecutor {
 			}
 
 		}
-		plugin.resetCache();
 		nation.save();
 
 	}
@@ -1457,7 +1454,6 @@ public class NationCommand extends BaseCommand implements CommandExecutor {
 
 		if (kicking.size() > 0) {
 			TownyMessaging.sendPrefixedNationMessage(nation, Translatable.of("msg_nation_kicked", sender.getName(), StringMgmt.join(kicking, ", ")));
-			plugin.resetCache();
 		} else
 			TownyMessaging.sendErrorMsg(sender, Translatable.of("msg_invalid_name"));
 	}
@@ -1738,7 +1734,6 @@ public class NationCommand extends BaseCommand implements CommandExecutor {
 	
 		if (targetNations.size() > 0) {
 			TownyUniverse.getInstance().getDataSource().saveNations();
-			plugin.resetCache();
 		} else {
 			throw new TownyException(Translatable.of("msg_invalid_name"));
 		}
@@ -1933,8 +1928,6 @@ public class NationCommand extends BaseCommand implements CommandExecutor {
 				TownyMessaging.sendPrefixedNationMessage(nation, Translatable.of("msg_enemy_to_neutral", player.getName(), msg));
 
 			TownyUniverse.getInstance().getDataSource().saveNations();
-
-			plugin.resetCache();
 		} else
 			TownyMessaging.sendErrorMsg(player, Translatable.of("msg_invalid_name"));
 	}
@@ -2459,7 +2452,7 @@ public class NationCommand extends BaseCommand implements CommandExecutor {
 		if (peacefulState && TownyEconomyHandler.isActive() && !nation.getAccount().canPayFromHoldings(cost))
 			throw new TownyException(Translatable.of("msg_nation_cant_peaceful"));
 		
-		String uuid = nation.getUUID().toString();
+		UUID uuid = nation.getUUID();
 		
 		if (TownySettings.getPeacefulCoolDownTime() > 0 && 
 			!admin && 
@@ -904,8 +904,8 @@ public class PlotCommand extends BaseCommand implements CommandExecutor {
 					townBlock.save();
 
 					TownyMessaging.sendMsg(player, Translatable.of("msg_set_perms_reset_single"));
-					// Reset all caches as this can affect everyone.
-					plugin.resetCache();
+					// Invalidate any cached permissions which relied on this plot.
+					townBlock.markModified();
 
 					return permChange;
 
@@ -1011,8 +1011,8 @@ public class PlotCommand extends BaseCommand implements CommandExecutor {
 			//Change settings event
 			BukkitTools.fireEvent(new TownBlockSettingsChangedEvent(townBlock));
 
-			// Reset all caches as this can affect everyone.
-			plugin.resetCache();
+			// Invalidate any cached permissions which relied on this plot.
+			townBlock.markModified();
 			return permChange;
 		}
 	}
@@ -1089,12 +1089,12 @@ public class PlotCommand extends BaseCommand implements CommandExecutor {
 					
 					if (TownySettings.getPVPCoolDownTime() > 0 && !permSource.isTownyAdmin(player)) {
 						// Test to see if the pvp cooldown timer is active for the town this plot belongs to.
-						if (CooldownTimerTask.hasCooldown(town.getUUID().toString(), CooldownType.PVP))
-							throw new TownyException(Translatable.of("msg_err_cannot_toggle_pvp_x_seconds_remaining", CooldownTimerTask.getCooldownRemaining(town.getUUID().toString(), CooldownType.PVP)));
+						if (CooldownTimerTask.hasCooldown(town.getUUID(), CooldownType.PVP))
+							throw new TownyException(Translatable.of("msg_err_cannot_toggle_pvp_x_seconds_remaining", CooldownTimerTask.getCooldownRemaining(town.getUUID(), CooldownType.PVP)));
 	
 						// Test to see if the pvp cooldown timer is active for this plot.
-						if (CooldownTimerTask.hasCooldown(townBlock.getWorldCoord().toString(), CooldownType.PVP))
-							throw new TownyException(Translatable.of("msg_err_cannot_toggle_pvp_x_seconds_remaining", CooldownTimerTask.getCooldownRemaining(townBlock.getWorldCoord().toString(), CooldownType.PVP)));
+						if (CooldownTimerTask.hasCooldown(townBlock.getWorldCoord(), CooldownType.PVP))
+							throw new TownyException(Translatable.of("msg_err_cannot_toggle_pvp_x_seconds_remaining", CooldownTimerTask.getCooldownRemaining(townBlock.getWorldCoord(), CooldownType.PVP)));
 					}
 					
 					// Prevent plot pvp from being enabled if admin pvp is disabled
@@ -1118,7 +1118,7 @@ public class PlotCommand extends BaseCommand implements CommandExecutor {
 					townBlock.getPermissions().pvp = choice.orElse(!townBlock.getPermissions().pvp);
 					// Add a cooldown timer for this plot.
 					if (TownySettings.getPVPCoolDownTime() > 0 && !permSource.isTownyAdmin(player))
-						CooldownTimerTask.addCooldownTimer(townBlock.getWorldCoord().toString(), CooldownType.PVP);
+						CooldownTimerTask.addCooldownTimer(townBlock.getWorldCoord(), CooldownType.PVP);
 					TownyMessaging.sendMsg(player, Translatable.of("msg_changed_pvp", "Plot", townBlock.getPermissions().pvp ? Translatable.of("enabled") : Translatable.of("disabled")));
 
 				} else if (split[0].equalsIgnoreCase("explosion")) {
@@ -1209,12 +1209,12 @@ public class PlotCommand extends BaseCommand implements CommandExecutor {
 
 						if (TownySettings.getPVPCoolDownTime() > 0 && !permSource.isTownyAdmin(player)) {
 							// Test to see if the pvp cooldown timer is active for the town this plot belongs to.
-							if (CooldownTimerTask.hasCooldown(town.getUUID().toString(), CooldownType.PVP))
-								throw new TownyException(Translatable.of("msg_err_cannot_toggle_pvp_x_seconds_remaining", CooldownTimerTask.getCooldownRemaining(town.getUUID().toString(), CooldownType.PVP)));
+							if (CooldownTimerTask.hasCooldown(town.getUUID(), CooldownType.PVP))
+								throw new TownyException(Translatable.of("msg_err_cannot_toggle_pvp_x_seconds_remaining", CooldownTimerTask.getCooldownRemaining(town.getUUID(), CooldownType.PVP)));
 
 							// Test to see if the pvp cooldown timer is active for this plot.
-							if (CooldownTimerTask.hasCooldown(groupBlock.getWorldCoord().toString(), CooldownType.PVP))
-								throw new TownyException(Translatable.of("msg_err_cannot_toggle_pvp_x_seconds_remaining", CooldownTimerTask.getCooldownRemaining(groupBlock.getWorldCoord().toString(), CooldownType.PVP)));
+							if (CooldownTimerTask.hasCooldown(groupBlock.getWorldCoord(), CooldownType.PVP))
+								throw new TownyException(Translatable.of("msg_err_cannot_toggle_pvp_x_seconds_remaining", CooldownTimerTask.getCooldownRemaining(groupBlock.getWorldCoord(), CooldownType.PVP)));
 						}
 
 						if (TownySettings.getOutsidersPreventPVPToggle() && choice.orElse(!groupBlock.getPermissions().pvp)) {
@@ -1229,7 +1229,7 @@ public class PlotCommand extends BaseCommand implements CommandExecutor {
 						groupBlock.getPermissions().pvp = choice.orElse(!groupBlock.getPermissions().pvp);
 						// Add a cooldown timer for this plot.
 						if (TownySettings.getPVPCoolDownTime() > 0 && !permSource.isTownyAdmin(player))
-							CooldownTimerTask.addCooldownTimer(groupBlock.getWorldCoord().toString(), CooldownType.PVP);
+							CooldownTimerTask.addCooldownTimer(groupBlock.getWorldCoord(), CooldownType.PVP);
 						
 						endingMessage = Translatable.of("msg_changed_pvp", Translatable.of("msg_the_plot_group"), groupBlock.getPermissions().pvp ? Translatable.of("enabled") : Translatable.of("disabled"));
 
@@ -1625,8 +1625,6 @@ public class PlotCommand extends BaseCommand implements CommandExecutor {
 								BukkitTools.fireEvent(new TownBlockSettingsChangedEvent(tb));
 							});
 
-						plugin.resetCache();
-						
 						TownyPermission perm = plotGroup.getPermissions();
 						TownyMessaging.sendMessage(player, Translatable.of("msg_set_perms").forLocale(player));
 						TownyMessaging.sendMessage(player, (Colors.Green + Translatable.of("status_perm").forLocale(player) + " " + ((townBlockOwner instanceof Resident) ? perm.getColourString().replace("n", "t") : perm.getColourString().replace("f", "r"))));
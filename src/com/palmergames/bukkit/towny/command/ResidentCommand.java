@@ -418,16 +418,16 @@ public class ResidentCommand extends BaseCommand implements CommandExecutor {
 			
 			// Test to see if the pvp cooldown timer is active for the town this resident belongs to.
 			if (TownySettings.getPVPCoolDownTime() > 0 && resident.hasTown() && !resident.isAdmin()) {
-				if (CooldownTimerTask.hasCooldown(resident.getTownOrNull().getUUID().toString(), CooldownType.PVP))
-					throw new TownyException(Translatable.of("msg_err_cannot_toggle_pvp_x_seconds_remaining", CooldownTimerTask.getCooldownRemaining(resident.getTownOrNull().getUUID().toString(), CooldownType.PVP))); 
-				if (CooldownTimerTask.hasCooldown(resident.getName(), CooldownType.PVP))
-					throw new TownyException(Translatable.of("msg_err_cannot_toggle_pvp_x_seconds_remaining", CooldownTimerTask.getCooldownRemaining(resident.getName(), CooldownType.PVP)));
+				if (CooldownTimerTask.hasCooldown(resident.getTownOrNull().getUUID(), CooldownType.PVP))
+					throw new TownyException(Translatable.of("msg_err_cannot_toggle_pvp_x_seconds_remaining", CooldownTimerTask.getCooldownRemaining(resident.getTownOrNull().getUUID(), CooldownType.PVP))); 
+				if (CooldownTimerTask.hasCooldown(resident.getUUID(), CooldownType.PVP))
+					throw new TownyException(Translatable.of("msg_err_cannot_toggle_pvp_x_seconds_remaining", CooldownTimerTask.getCooldownRemaining(resident.getUUID(), CooldownType.PVP)));
 
 			}
 			perm.pvp = choice.orElse(!perm.pvp);
 			// Add a task for the resident.
 			if (TownySettings.getPVPCoolDownTime() > 0 && !resident.isAdmin())
-				CooldownTimerTask.addCooldownTimer(resident.getName(), CooldownType.PVP);
+				CooldownTimerTask.addCooldownTimer(resident.getUUID(), CooldownType.PVP);
 		} else if (newSplit[0].equalsIgnoreCase("fire")) {
 			checkPermOrThrow(player, PermissionNodes.TOWNY_COMMAND_RESIDENT_TOGGLE_FIRE.getNode());
 			perm.fire = choice.orElse(!perm.fire);
@@ -1348,7 +1348,7 @@ public class TownCommand extends BaseCommand implements CommandExecutor {
 		try {
 			if (!TownySettings.isTownListRandom()) {
 				Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-					TownyMessaging.sendTownList(sender, ComparatorCaches.getTownListCache(finalType), finalType, pageNumber, totalNumber);
+					TownyMessaging.sendTownListPage(sender, ComparatorCaches.getTownListPage(finalType, pageNumber), finalType, pageNumber, totalNumber);
 				});
 			} else { 
 				// Make a randomly sorted output.
@@ -1414,7 +1414,7 @@ public class TownCommand extends BaseCommand implements CommandExecutor {
 
 			} else if (split[0].equalsIgnoreCase("pvp")) {
 				
-				String uuid = town.getUUID().toString();
+				UUID uuid = town.getUUID();
 				// If we aren't dealing with an admin using /t toggle pvp:
 				if (!admin) {
 					// Make sure we are allowed to set these permissions.
@@ -1553,7 +1553,7 @@ public class TownCommand extends BaseCommand implements CommandExecutor {
 				
 			} else if (split[0].equalsIgnoreCase("neutral") || split[0].equalsIgnoreCase("peaceful")) {
 
-				String uuid = town.getUUID().toString();
+				UUID uuid = town.getUUID();
 				if (TownySettings.getPeacefulCoolDownTime() > 0 && 
 					!admin && !permSource.isTownyAdmin(sender) &&
 					CooldownTimerTask.hasCooldown(uuid, CooldownType.NEUTRALITY))
@@ -2896,7 +2896,7 @@ public class TownCommand extends BaseCommand implements CommandExecutor {
 		TownyUniverse townyUniverse = TownyUniverse.getInstance();
 
 		// Check if the player has to wait because of recently renaming their town.
-		String uuid = town.getUUID().toString();
+		UUID uuid = town.getUUID();
 		if (CooldownTimerTask.hasCooldown(uuid, CooldownType.TOWN_RENAME)) {
 			TownyMessaging.sendErrorMsg(sender, Translatable.of("msg_you_must_wait_x_seconds_before_renaming_your_town", CooldownTimerTask.getCooldownRemaining(uuid, CooldownType.TOWN_RENAME)));
 			return;
@@ -3045,10 +3045,6 @@ public class TownCommand extends BaseCommand implements CommandExecutor {
 		}
 
 		townKickResidents(player, resident, town, ResidentUtil.getValidatedResidentsOfTown(player, town, names));
-
-		// Reset everyones cache permissions as this player leaving can affect
-		// multiple areas.
-		plugin.resetCache();
 	}
 
 	public static void townAddResidents(CommandSender sender, Town town, List<Resident> invited) {
@@ -678,6 +678,8 @@ public class TownyAdminCommand extends BaseCommand implements CommandExecutor {
 				if (TownySettings.getSaveDatabase().equalsIgnoreCase("mysql") && TownySettings.getLoadDatabase().equalsIgnoreCase("mysql")) {
 					TownyDataSource dataSource = new TownyFlatFileSource(plugin, townyUniverse);
 					dataSource.saveAll();
+					// Write every file now and stop the temporary source's tasks, before reporting the dump as done.
+					dataSource.finishTasks();
 					TownyMessaging.sendMsg(sender, Translatable.of("msg_mysql_dump_success"));
 					return true;
 				} else 
@@ -1,6 +1,5 @@
 package com.palmergames.bukkit.towny.confirmations;
 
-import com.github.bsideup.jabel.Desugar;
 import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownyEconomyHandler;
 import com.palmergames.bukkit.towny.TownyMessaging;
@@ -11,15 +10,17 @@ import com.palmergames.bukkit.towny.exceptions.CancelledEventException;
 import com.palmergames.bukkit.towny.object.Translatable;
 import com.palmergames.bukkit.towny.object.economy.Account;
 import com.palmergames.bukkit.util.BukkitTools;
+import com.palmergames.util.TimingWheel;
 
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
-
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import org.jetbrains.annotations.ApiStatus;
 
 /**
  * A class that handles the processing confirmations sent in Towny.
+ * <p>
+ * Confirmations are held in a {@link TimingWheel} until they are answered,
+ * and time out when the cooldown timer advances the wheel past them.
  * 
  * @author Articdive
  * @author Suneet Tipirneni (Siris)
@@ -27,10 +28,7 @@ import java.util.concurrent.ConcurrentHashMap;
 public class ConfirmationHandler {
 
 	private final static Towny plugin = Towny.getPlugin();
-	private final static Map<CommandSender, ConfirmationContext> confirmations = new ConcurrentHashMap<>();
-	
-	@Desugar
-	private record ConfirmationContext(Confirmation confirmation, int taskID) {}
+	private final static TimingWheel<CommandSender, Confirmation> confirmations = new TimingWheel<>(1000);
 
 	/**
 	 * Revokes the confirmation associated with the given sender.
@@ -38,16 +36,12 @@ public class ConfirmationHandler {
 	 * @param sender The sender to get the confirmation from.
 	 */
 	public static void revokeConfirmation(CommandSender sender) {
-		ConfirmationContext context = confirmations.get(sender);
+		Confirmation confirmation = confirmations.remove(sender);
 		
 		// Only continue if player has an active confirmation
-		if (context == null)
+		if (confirmation == null)
 			return;
 		
-		Bukkit.getScheduler().cancelTask(context.taskID);
-		Confirmation confirmation = context.confirmation;
-		confirmations.remove(sender);
-		
 		// Run the cancel handler.
 		if (confirmation.getCancelHandler() != null) {
 			confirmation.getCancelHandler().run();
@@ -83,18 +77,19 @@ public class ConfirmationHandler {
 		if (event.isSendingMessage())
 			TownyMessaging.sendConfirmationMessage(sender, confirmation);
 
-		// Set up the task to show the timeout message after the expiration.
-		int taskID = Bukkit.getScheduler().runTaskLater(plugin, () -> {
-			// Show cancel messages only if the confirmation still exists.
-			if (hasConfirmation(sender)) {
-				confirmations.remove(sender);
-				TownyMessaging.sendErrorMsg(sender, Translatable.of("msg_confirmation_timed_out"));
-				BukkitTools.fireEvent(new ConfirmationCancelEvent(confirmation, sender, true));
-			}
-		}, (20L * confirmation.getDuration())).getTaskId();
+		// Hold the confirmation until it is answered or times out.
+		confirmations.put(sender, confirmation, 1000L * confirmation.getDuration());
+	}
 
-		// Cache the task.
-		confirmations.put(sender, new ConfirmationContext(confirmation, taskID));
+	/**
+	 * Internal use only. Shows the timeout message for each confirmation which has expired.
+	 */
+	@ApiStatus.Internal
+	public static void expireConfirmations() {
+		confirmations.advance((sender, confirmation) -> {
+			TownyMessaging.sendErrorMsg(sender, Translatable.of("msg_confirmation_timed_out"));
+			BukkitTools.fireEvent(new ConfirmationCancelEvent(confirmation, sender, true));
+		});
 	}
 
 	/**
@@ -104,30 +99,27 @@ public class ConfirmationHandler {
 	 */
 	public static void acceptConfirmation(CommandSender sender) {
 		// Get confirmation
-		ConfirmationContext context = confirmations.get(sender);
+		Confirmation confirmation = confirmations.get(sender);
 		
-		if (context == null)
+		if (confirmation == null)
 			return;
 		
-		ConfirmationConfirmEvent event = new ConfirmationConfirmEvent(context.confirmation, sender);
+		ConfirmationConfirmEvent event = new ConfirmationConfirmEvent(confirmation, sender);
 		if (BukkitTools.isEventCancelled(event)) {
 			TownyMessaging.sendErrorMsg(event.getCancelMessage());
 			return;
 		}
 
 		// Get handler
-		Runnable handler = context.confirmation.getAcceptHandler();
-
-		// Cancel task.
-		Bukkit.getScheduler().cancelTask(context.taskID);
+		Runnable handler = confirmation.getAcceptHandler();
 
 		// Remove confirmation as it's been handled.
 		confirmations.remove(sender);
 
 		// Check if the confirmation has a cancellable event.
-		if (context.confirmation.getEvent() != null) {
+		if (confirmation.getEvent() != null) {
 			try {
-				BukkitTools.ifCancelledThenThrow(context.confirmation.getEvent());
+				BukkitTools.ifCancelledThenThrow(confirmation.getEvent());
 			} catch (CancelledEventException e) {
 				TownyMessaging.sendErrorMsg(sender, e.getCancelMessage());
 				return;
@@ -135,8 +127,8 @@ public class ConfirmationHandler {
 		}
 
 		// Check if there is a Transaction required for this confirmation.
-		if (TownyEconomyHandler.isActive() && context.confirmation.hasCost()) {
-			ConfirmationTransaction transaction = context.confirmation.getTransaction();
+		if (TownyEconomyHandler.isActive() && confirmation.hasCost()) {
+			ConfirmationTransaction transaction = confirmation.getTransaction();
 			// Determine the cost, done in this phase in case the cost could be manipulated before confirming.
 			transaction.supplyCost();
 			double cost = transaction.getCost();
@@ -152,7 +144,7 @@ public class ConfirmationHandler {
 		}
 
 		// Execute handler.
-		if (context.confirmation.isAsync()) {
+		if (confirmation.isAsync()) {
 			Bukkit.getScheduler().runTaskAsynchronously(plugin, handler);
 		} else {
 			Bukkit.getScheduler().runTask(plugin, handler);
@@ -37,7 +37,14 @@ public enum DatabaseConfig {
 		"# it is strongly recommended you do not change these settings."),
 	DATABASE_POOLING_MAX_POOL_SIZE("database.sql.pooling.max_pool_size", "5"),
 	DATABASE_POOLING_MAX_LIFETIME("database.sql.pooling.max_lifetime", "180000"),
-	DATABASE_POOLING_CONNECTION_TIMEOUT("database.sql.pooling.connection_timeout", "5000");
+	DATABASE_POOLING_CONNECTION_TIMEOUT("database.sql.pooling.connection_timeout", "5000"),
+	DATABASE_POOLING_WRITER_LANES(
+		"database.sql.pooling.writer_lanes",
+		"2",
+		"",
+		"# How many connections Towny saves to the database with at once.",
+		"# Every saved object always goes through the same connection, so saves are never reordered.",
+		"# Capped at one less than the max_pool_size, the remaining connection is used for loading.");
 
 	private final String Root;
 	private final String Default;
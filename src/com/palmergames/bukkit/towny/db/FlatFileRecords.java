@@ -0,0 +1,774 @@
+package com.palmergames.bukkit.towny.db;
+
+import com.github.bsideup.jabel.Desugar;
+import com.google.gson.Gson;
+import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.object.PermissionData;
+import com.palmergames.bukkit.towny.object.metadata.CustomDataField;
+import com.palmergames.bukkit.towny.object.metadata.DataFieldIO;
+import com.palmergames.bukkit.towny.utils.MapUtil;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * The flatfile object files, decoded into values but not yet linked to the
+ * objects they refer to.
+ * <p>
+ * Decoding only looks at the file's own keys and the config, never at
+ * TownyUniverse, so the files of a category can all be decoded at once on
+ * the common pool. Resolving names and UUIDs to towns, nations and residents,
+ * and registering the results, is left to the loaders in
+ * {@link TownyFlatFileSource}, which run one object at a time.
+ * <p>
+ * Keys are decoded in the order the loaders used to read them. If one can't
+ * be decoded, decoding stops there and the record keeps the offending line,
+ * so a loader applies what came before it and reports the line like it
+ * always has.
+ */
+final class FlatFileRecords {
+
+	private FlatFileRecords() {}
+
+	abstract static class Decoded {
+		// The line which couldn't be decoded and why, both null when the whole file was decoded.
+		String failedLine;
+		Exception failure;
+
+		boolean failed() {
+			return failure != null;
+		}
+
+		void fail(String line, Exception e) {
+			failedLine = line;
+			failure = e;
+		}
+	}
+
+	static final class ResidentRecord extends Decoded {
+		Long lastOnline;
+		UUID uuid;
+		Long registered;
+		Boolean npc;
+		UUID jail;
+		Integer jailCell;
+		Integer jailHours;
+		Double jailBail;
+		String[] friends;
+		String protectionStatus;
+		Metadata metadata;
+		String town;
+		String title;
+		String surname;
+		List<String> townRanks;
+		List<String> nationRanks;
+		Long joinedTownAt;
+
+		static ResidentRecord decode(Map<String, String> keys) {
+			ResidentRecord r = new ResidentRecord();
+			String line = null;
+			try {
+				line = keys.get("lastOnline");
+				if (line != null)
+					r.lastOnline = Long.parseLong(line);
+
+				line = keys.get("uuid");
+				if (line != null)
+					r.uuid = UUID.fromString(line);
+
+				line = keys.get("registered");
+				if (line != null)
+					r.registered = Long.parseLong(line);
+
+				line = keys.get("isNPC");
+				if (line != null)
+					r.npc = Boolean.parseBoolean(line);
+
+				line = keys.get("jail");
+				if (line != null) {
+					r.jail = UUID.fromString(line);
+
+					line = keys.get("jailCell");
+					if (line != null)
+						r.jailCell = Integer.parseInt(line);
+
+					line = keys.get("jailHours");
+					if (line != null)
+						r.jailHours = Integer.parseInt(line);
+
+					line = keys.get("jailBail");
+					if (line != null)
+						r.jailBail = Double.parseDouble(line);
+				}
+
+				line = keys.get("friends");
+				if (line != null)
+					r.friends = line.split(",");
+
+				r.protectionStatus = keys.get("protectionStatus");
+
+				line = keys.get("metadata");
+				if (line != null && !line.isEmpty())
+					r.metadata = Metadata.parse(line);
+
+				line = keys.get("town");
+				if (line != null) {
+					r.town = line;
+					r.title = keys.get("title");
+					r.surname = keys.get("surname");
+
+					line = keys.get("town-ranks");
+					if (line != null)
+						r.townRanks = Arrays.asList(line.split(","));
+
+					line = keys.get("nation-ranks");
+					if (line != null)
+						r.nationRanks = Arrays.asList(line.split(","));
+
+					line = keys.get("joinedTownAt");
+					if (line != null)
+						r.joinedTownAt = Long.parseLong(line);
+				}
+			} catch (Exception e) {
+				r.fail(line, e);
+			}
+			return r;
+		}
+	}
+
+	static final class TownRecord extends Decoded {
+		String mayor;
+		String[] outlaws;
+		String board;
+		String tag;
+		String protectionStatus;
+		Integer bonusBlocks;
+		Integer purchasedBlocks;
+		Double plotPrice;
+		Boolean hasUpkeep;
+		Boolean hasUnlimitedClaims;
+		Boolean taxPercentage;
+		Double maxPercentTaxAmount;
+		Double taxes;
+		Double plotTax;
+		Double commercialPlotPrice;
+		Double commercialPlotTax;
+		Double embassyPlotPrice;
+		Double embassyPlotTax;
+		Double spawnCost;
+		Boolean adminDisabledPVP;
+		Boolean adminEnabledPVP;
+		Boolean open;
+		Boolean isPublic;
+		Boolean conquered;
+		Integer conqueredDays;
+		Long joinedNationAt;
+		Long movedHomeBlockAt;
+		// The world of a homeBlock line with three parts, and its coords when they could be read.
+		String homeBlockWorld;
+		Integer homeBlockX;
+		Integer homeBlockZ;
+		Spawn spawn;
+		List<Spawn> outpostSpawns;
+		List<Spawn> jailSpawns;
+		UUID uuid;
+		Long registered;
+		Metadata metadata;
+		Integer manualTownLevel;
+		String nation;
+		Boolean ruined;
+		Long ruinedTime;
+		Boolean neutral;
+		Double debtBalance;
+		UUID primaryJail;
+		UUID[] trustedResidents;
+		List<UUID> trustedTowns;
+		String mapColorHexCode;
+		Integer nationZoneOverride;
+		Boolean nationZoneEnabled;
+		List<UUID> allies;
+		List<UUID> enemies;
+
+		static TownRecord decode(Map<String, String> keys) {
+			TownRecord r = new TownRecord();
+			String line = null;
+			try {
+				r.mayor = keys.get("mayor");
+
+				line = keys.get("outlaws");
+				if (line != null)
+					r.outlaws = line.split(",");
+
+				r.board = keys.get("townBoard");
+				r.tag = keys.get("tag");
+				r.protectionStatus = keys.get("protectionStatus");
+
+				line = keys.get("bonusBlocks");
+				if (line != null)
+					r.bonusBlocks = parseInt(line, 0);
+
+				line = keys.get("purchasedBlocks");
+				if (line != null)
+					r.purchasedBlocks = parseInt(line, 0);
+
+				line = keys.get("plotPrice");
+				if (line != null)
+					r.plotPrice = parseDouble(line, 0.0);
+
+				line = keys.get("hasUpkeep");
+				if (line != null)
+					r.hasUpkeep = Boolean.parseBoolean(line);
+
+				line = keys.get("hasUnlimitedClaims");
+				if (line != null)
+					r.hasUnlimitedClaims = Boolean.parseBoolean(line);
+
+				line = keys.get("taxpercent");
+				if (line != null)
+					r.taxPercentage = Boolean.parseBoolean(line);
+
+				line = keys.get("maxPercentTaxAmount");
+				r.maxPercentTaxAmount = line != null ? Double.parseDouble(line) : TownySettings.getMaxTownTaxPercentAmount();
+
+				line = keys.get("taxes");
+				if (line != null)
+					r.taxes = parseDouble(line, 0.0);
+
+				line = keys.get("plotTax");
+				if (line != null)
+					r.plotTax = parseDouble(line, 0.0);
+
+				line = keys.get("commercialPlotPrice");
+				if (line != null)
+					r.commercialPlotPrice = parseDouble(line, 0.0);
+
+				line = keys.get("commercialPlotTax");
+				if (line != null)
+					r.commercialPlotTax = parseDouble(line, 0.0);
+
+				line = keys.get("embassyPlotPrice");
+				if (line != null)
+					r.embassyPlotPrice = parseDouble(line, 0.0);
+
+				line = keys.get("embassyPlotTax");
+				if (line != null)
+					r.embassyPlotTax = parseDouble(line, 0.0);
+
+				line = keys.get("spawnCost");
+				if (line != null)
+					r.spawnCost = parseDouble(line, TownySettings.getSpawnTravelCost());
+
+				line = keys.get("adminDisabledPvP");
+				if (line != null)
+					r.adminDisabledPVP = Boolean.parseBoolean(line);
+
+				line = keys.get("adminEnabledPvP");
+				if (line != null)
+					r.adminEnabledPVP = Boolean.parseBoolean(line);
+
+				line = keys.get("open");
+				if (line != null)
+					r.open = Boolean.parseBoolean(line);
+
+				line = keys.get("public");
+				if (line != null)
+					r.isPublic = Boolean.parseBoolean(line);
+
+				line = keys.get("conquered");
+				if (line != null)
+					r.conquered = Boolean.parseBoolean(line);
+
+				line = keys.get("conqueredDays");
+				if (line != null)
+					r.conqueredDays = Integer.parseInt(line);
+
+				line = keys.get("joinedNationAt");
+				if (line != null)
+					r.joinedNationAt = parseLong(line, null);
+
+				line = keys.get("movedHomeBlockAt");
+				if (line != null)
+					r.movedHomeBlockAt = parseLong(line, null);
+
+				line = keys.get("homeBlock");
+				if (line != null) {
+					String[] tokens = line.split(",");
+					if (tokens.length == 3) {
+						r.homeBlockWorld = tokens[0];
+						try {
+							r.homeBlockX = Integer.parseInt(tokens[1]);
+							r.homeBlockZ = Integer.parseInt(tokens[2]);
+						} catch (NumberFormatException e) {
+							r.homeBlockX = r.homeBlockZ = null;
+						}
+					}
+				}
+
+				line = keys.get("spawn");
+				if (line != null)
+					r.spawn = Spawn.parseOrNull(line);
+
+				line = keys.get("outpostspawns");
+				if (line != null)
+					r.outpostSpawns = Spawn.parseAll(line);
+
+				line = keys.get("jailspawns");
+				if (line != null)
+					r.jailSpawns = Spawn.parseAll(line);
+
+				line = keys.get("uuid");
+				if (line != null) {
+					try {
+						r.uuid = UUID.fromString(line);
+					} catch (IllegalArgumentException e) {
+						r.uuid = UUID.randomUUID();
+					}
+				}
+
+				line = keys.get("registered");
+				if (line != null)
+					r.registered = parseLong(line, 0L);
+
+				line = keys.get("metadata");
+				if (line != null && !line.isEmpty())
+					r.metadata = Metadata.parse(line);
+
+				line = keys.get("manualTownLevel");
+				if (line != null)
+					r.manualTownLevel = Integer.parseInt(line);
+
+				line = keys.get("nation");
+				if (line != null && !line.isEmpty())
+					r.nation = line;
+
+				line = keys.get("ruined");
+				if (line != null)
+					r.ruined = Boolean.parseBoolean(line);
+
+				line = keys.get("ruinedTime");
+				if (line != null)
+					r.ruinedTime = parseLong(line, 0L);
+
+				line = keys.get("neutral");
+				if (line != null)
+					r.neutral = Boolean.parseBoolean(line);
+
+				line = keys.get("debtBalance");
+				if (line != null)
+					r.debtBalance = parseDouble(line, 0.0);
+
+				line = keys.get("primaryJail");
+				if (line != null)
+					r.primaryJail = UUID.fromString(line);
+
+				line = keys.get("trustedResidents");
+				if (line != null && !line.isEmpty())
+					r.trustedResidents = toUUIDArray(line.split(","));
+
+				line = keys.get("trustedTowns");
+				if (line != null && !line.isEmpty())
+					r.trustedTowns = toUUIDList(line);
+
+				line = keys.get("mapColorHexCode");
+				r.mapColorHexCode = line != null ? line : MapUtil.generateRandomTownColourAsHexCode();
+
+				line = keys.get("nationZoneOverride");
+				if (line != null)
+					r.nationZoneOverride = parseInt(line, null);
+
+				line = keys.get("nationZoneEnabled");
+				if (line != null)
+					r.nationZoneEnabled = Boolean.parseBoolean(line);
+
+				line = keys.get("allies");
+				if (line != null && !line.isEmpty())
+					r.allies = toUUIDList(line);
+
+				line = keys.get("enemies");
+				if (line != null && !line.isEmpty())
+					r.enemies = toUUIDList(line);
+			} catch (Exception e) {
+				r.fail(line, e);
+			}
+			return r;
+		}
+	}
+
+	static final class NationRecord extends Decoded {
+		String capital;
+		String board;
+		String mapColorHexCode;
+		String tag;
+		String[] allies;
+		String[] enemies;
+		Double spawnCost;
+		Boolean neutral;
+		UUID uuid;
+		Long registered;
+		Spawn spawn;
+		Boolean isPublic;
+		Boolean open;
+		Boolean taxPercentage;
+		Double maxPercentTaxAmount;
+		Double taxes;
+		Metadata metadata;
+
+		static NationRecord decode(Map<String, String> keys) {
+			NationRecord r = new NationRecord();
+			String line = null;
+			try {
+				r.capital = keys.get("capital");
+				r.board = keys.get("nationBoard");
+
+				line = keys.get("mapColorHexCode");
+				r.mapColorHexCode = line != null ? line : MapUtil.generateRandomNationColourAsHexCode();
+
+				r.tag = keys.get("tag");
+
+				line = keys.get("allies");
+				if (line != null)
+					r.allies = line.split(",");
+
+				line = keys.get("enemies");
+				if (line != null)
+					r.enemies = line.split(",");
+
+				line = keys.get("spawnCost");
+				if (line != null)
+					r.spawnCost = parseDouble(line, TownySettings.getSpawnTravelCost());
+
+				line = keys.get("neutral");
+				if (line != null)
+					r.neutral = Boolean.parseBoolean(line);
+
+				line = keys.get("uuid");
+				if (line != null) {
+					try {
+						r.uuid = UUID.fromString(line);
+					} catch (IllegalArgumentException e) {
+						r.uuid = UUID.randomUUID();
+					}
+				}
+
+				line = keys.get("registered");
+				if (line != null)
+					r.registered = parseLong(line, 0L);
+
+				line = keys.get("nationSpawn");
+				if (line != null)
+					r.spawn = Spawn.parseOrNull(line);
+
+				line = keys.get("isPublic");
+				if (line != null)
+					r.isPublic = Boolean.parseBoolean(line);
+
+				line = keys.get("isOpen");
+				if (line != null)
+					r.open = Boolean.parseBoolean(line);
+
+				line = keys.get("taxpercent");
+				if (line != null)
+					r.taxPercentage = Boolean.parseBoolean(line);
+
+				line = keys.get("maxPercentTaxAmount");
+				r.maxPercentTaxAmount = line != null ? Double.parseDouble(line) : TownySettings.getMaxNationTaxPercentAmount();
+
+				line = keys.get("taxes");
+				if (line != null)
+					r.taxes = parseDouble(line, 0.0);
+
+				line = keys.get("metadata");
+				if (line != null && !line.isEmpty())
+					r.metadata = Metadata.parse(line);
+			} catch (Exception e) {
+				r.fail(line, e);
+			}
+			return r;
+		}
+	}
+
+	static final class TownBlockRecord extends Decoded {
+		// The town line as written, null or empty when the townblock has no town.
+		String town;
+		String name;
+		String type;
+		String resident;
+		Double price;
+		Boolean outpost;
+		String permissions;
+		Boolean changed;
+		Boolean locked;
+		Long claimedAt;
+		Metadata metadata;
+		UUID groupID;
+		UUID[] trustedResidents;
+		Map<UUID, PermissionData> permissionOverrides;
+
+		static TownBlockRecord decode(Map<String, String> keys) {
+			TownBlockRecord r = new TownBlockRecord();
+			String line = null;
+			try {
+				r.town = keys.get("town");
+
+				line = keys.get("name");
+				if (line != null)
+					r.name = line.trim();
+
+				r.type = keys.get("type");
+
+				line = keys.get("resident");
+				if (line != null && !line.isEmpty())
+					r.resident = line.trim();
+
+				line = keys.get("price");
+				if (line != null)
+					r.price = parseDouble(line.trim(), null);
+
+				line = keys.get("outpost");
+				if (line != null)
+					r.outpost = Boolean.parseBoolean(line);
+
+				line = keys.get("permissions");
+				if (line != null && !line.isEmpty())
+					r.permissions = line.trim();
+
+				line = keys.get("changed");
+				if (line != null)
+					r.changed = Boolean.parseBoolean(line.trim());
+
+				line = keys.get("locked");
+				if (line != null)
+					r.locked = Boolean.parseBoolean(line.trim());
+
+				line = keys.get("claimedAt");
+				if (line != null)
+					r.claimedAt = parseLong(line, null);
+
+				line = keys.get("metadata");
+				if (line != null && !line.isEmpty())
+					r.metadata = Metadata.parse(line);
+
+				line = keys.get("groupID");
+				if (line != null && !line.isEmpty())
+					r.groupID = UUID.fromString(line.trim());
+
+				line = keys.get("trustedResidents");
+				if (line != null && !line.isEmpty())
+					r.trustedResidents = toUUIDArray(line.split(","));
+
+				line = keys.get("customPermissionData");
+				if (line != null && !line.isEmpty()) {
+					@SuppressWarnings("unchecked")
+					Map<String, String> map = new Gson().fromJson(line, Map.class);
+
+					r.permissionOverrides = new LinkedHashMap<>();
+					for (Map.Entry<String, String> entry : map.entrySet()) {
+						UUID uuid;
+						try {
+							uuid = UUID.fromString(entry.getKey());
+						} catch (IllegalArgumentException e) {
+							continue;
+						}
+
+						r.permissionOverrides.put(uuid, new PermissionData(entry.getValue()));
+					}
+				}
+			} catch (Exception e) {
+				r.fail(line, e);
+			}
+			return r;
+		}
+	}
+
+	static final class PlotGroupRecord extends Decoded {
+		String name;
+		// The town line as written, null or empty when the group has no town.
+		String town;
+		Double price;
+
+		static PlotGroupRecord decode(Map<String, String> keys) {
+			PlotGroupRecord r = new PlotGroupRecord();
+			String line = null;
+			try {
+				line = keys.get("groupName");
+				if (line != null)
+					r.name = line.trim();
+
+				r.town = keys.get("town");
+
+				line = keys.get("groupPrice");
+				if (line != null && !line.isEmpty())
+					r.price = Double.parseDouble(line.trim());
+			} catch (Exception e) {
+				r.fail(line, e);
+			}
+			return r;
+		}
+	}
+
+	static final class JailRecord extends Decoded {
+		// The townblock line as written, and its coords when they could be read.
+		String townBlock;
+		String townBlockWorld;
+		Integer townBlockX;
+		Integer townBlockZ;
+		// The spawns line as written, its readable spawns, and how many of them couldn't be read.
+		String spawnsLine;
+		List<Spawn> spawns;
+		int invalidSpawns;
+
+		static JailRecord decode(Map<String, String> keys) {
+			JailRecord r = new JailRecord();
+			String line = null;
+			try {
+				line = keys.get("townblock");
+				if (line != null) {
+					r.townBlock = line;
+					String[] tokens = line.split(",");
+					try {
+						r.townBlockWorld = tokens[0];
+						r.townBlockX = Integer.parseInt(tokens[1].trim());
+						r.townBlockZ = Integer.parseInt(tokens[2].trim());
+					} catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+						r.townBlockX = r.townBlockZ = null;
+					}
+				}
+
+				line = keys.get("spawns");
+				if (line != null) {
+					r.spawnsLine = line;
+					r.spawns = new ArrayList<>();
+					for (String spawn : line.split(";")) {
+						try {
+							Spawn parsed = Spawn.parse(spawn);
+							if (parsed != null)
+								r.spawns.add(parsed);
+						} catch (NumberFormatException e) {
+							r.invalidSpawns++;
+						}
+					}
+				}
+			} catch (Exception e) {
+				r.fail(line, e);
+			}
+			return r;
+		}
+	}
+
+	/**
+	 * A spawn location, by the name of its world since worlds are looked up
+	 * when the spawn is linked.
+	 */
+	@Desugar
+	record Spawn(String world, double x, double y, double z, boolean hasRotation, float pitch, float yaw) {
+
+		/**
+		 * @param line - world,x,y,z with an optional pitch,yaw.
+		 * @return the spawn, or null if the line has too few parts to be one.
+		 * @throws NumberFormatException if a coordinate can't be read.
+		 */
+		static Spawn parse(String line) {
+			String[] tokens = line.split(",");
+			if (tokens.length < 4)
+				return null;
+
+			double x = Double.parseDouble(tokens[1]);
+			double y = Double.parseDouble(tokens[2]);
+			double z = Double.parseDouble(tokens[3]);
+			if (tokens.length == 6)
+				return new Spawn(tokens[0], x, y, z, true, Float.parseFloat(tokens[4]), Float.parseFloat(tokens[5]));
+
+			return new Spawn(tokens[0], x, y, z, false, 0, 0);
+		}
+
+		static Spawn parseOrNull(String line) {
+			try {
+				return parse(line);
+			} catch (NumberFormatException e) {
+				return null;
+			}
+		}
+
+		/**
+		 * @param line - Spawns separated by semicolons.
+		 * @return the spawns which could be read, in order.
+		 */
+		static List<Spawn> parseAll(String line) {
+			List<Spawn> spawns = new ArrayList<>();
+			for (String spawn : line.split(";")) {
+				Spawn parsed = parseOrNull(spawn);
+				if (parsed != null)
+					spawns.add(parsed);
+			}
+			return spawns;
+		}
+	}
+
+	/**
+	 * An object's metadata, read ahead of being attached to the object.
+	 *
+	 * @param serialized The metadata as written, trimmed.
+	 * @param fields The fields read from it, or null if it couldn't be read.
+	 */
+	@Desugar
+	record Metadata(String serialized, Collection<CustomDataField<?>> fields) {
+
+		static Metadata parse(String line) {
+			String serialized = line.trim();
+			try {
+				return new Metadata(serialized, DataFieldIO.deserializeMeta(serialized));
+			} catch (IOException e) {
+				// Read again when attached, which reports it against the object it belongs to.
+				return new Metadata(serialized, null);
+			}
+		}
+	}
+
+	private static Integer parseInt(String line, Integer fallback) {
+		try {
+			return Integer.parseInt(line);
+		} catch (NumberFormatException e) {
+			return fallback;
+		}
+	}
+
+	private static Long parseLong(String line, Long fallback) {
+		try {
+			return Long.parseLong(line);
+		} catch (NumberFormatException e) {
+			return fallback;
+		}
+	}
+
+	private static Double parseDouble(String line, Double fallback) {
+		try {
+			return Double.parseDouble(line);
+		} catch (NumberFormatException e) {
+			return fallback;
+		}
+	}
+
+	private static List<UUID> toUUIDList(String line) {
+		return Arrays.stream(line.split(","))
+			.map(UUID::fromString)
+			.collect(Collectors.toList());
+	}
+
+	// The same as TownyDatabaseHandler#toUUIDArray, UUIDs which can't be read are left null.
+	private static UUID[] toUUIDArray(String[] uuidArray) {
+		UUID[] uuids = new UUID[uuidArray.length];
+		for (int i = 0; i < uuidArray.length; i++) {
+			try {
+				uuids[i] = UUID.fromString(uuidArray[i]);
+			} catch (IllegalArgumentException ignored) {}
+		}
+		return uuids;
+	}
+}
@@ -0,0 +1,273 @@
+package com.palmergames.bukkit.towny.db;
+
+import com.palmergames.bukkit.towny.TownyMessaging;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes {@link SQL_Task}s to the database in JDBC batches.
+ * <p>
+ * Pending tasks are first coalesced so only the last task queued for any one
+ * row is written, then grouped by table and column set. Each group is sent as
+ * a single batch of {@code INSERT ... ON DUPLICATE KEY UPDATE} (or
+ * {@code DELETE}) statements. The prepared statement for each group is cached
+ * against the connection it was prepared on and reused by later flushes.
+ * <p>
+ * Every group of a flush is written in one transaction, committed once, so a
+ * flush is applied whole or not at all. A group which fails is rolled back
+ * with the rest, logged and dropped, and the flush is written again without it.
+ */
+class SQL_BatchWriter {
+
+	private final String tb_prefix;
+
+	private final Map<String, String> sqlCache = new HashMap<>();
+	private final Map<String, PreparedStatement> statementCache = new HashMap<>();
+	private Connection statementConnection = null;
+	private boolean failed = false;
+
+	SQL_BatchWriter(String tb_prefix) {
+
+		this.tb_prefix = tb_prefix;
+
+	}
+
+	/**
+	 * Write the given tasks to the database.
+	 *
+	 * @param cntx - Connection to write with.
+	 * @param tasks - Tasks in the order they were queued.
+	 * @return the number of rows written.
+	 */
+	int flush(Connection cntx, List<SQL_Task> tasks) {
+
+		if (tasks.isEmpty())
+			return 0;
+
+		long start = System.nanoTime();
+		failed = false;
+
+		Map<String, List<SQL_Task>> batches = new LinkedHashMap<>();
+		Map<String, List<String>> batchColumns = new HashMap<>();
+
+		for (SQL_Task task : coalesce(tasks)) {
+			List<String> columns = new ArrayList<>(new TreeSet<>(task.args.keySet()));
+			String groupKey = (task.update ? "U:" : "D:") + task.tb_name.toUpperCase() + ":" + String.join(",", columns);
+
+			batches.computeIfAbsent(groupKey, k -> new ArrayList<>()).add(task);
+			batchColumns.putIfAbsent(groupKey, columns);
+		}
+
+		int rows = 0;
+		int batchCount = batches.size();
+		boolean autoCommit = true;
+		try {
+			autoCommit = cntx.getAutoCommit();
+			cntx.setAutoCommit(false);
+
+			while (!batches.isEmpty()) {
+				String failedBatch = writeBatches(cntx, batches, batchColumns);
+				if (failedBatch == null) {
+					cntx.commit();
+					for (List<SQL_Task> batchTasks : batches.values())
+						rows += batchTasks.size();
+					break;
+				}
+
+				// Undo the batches written before it too, then write them again without it.
+				failed = true;
+				cntx.rollback();
+				batches.remove(failedBatch);
+			}
+		} catch (SQLException e) {
+			failed = true;
+			rows = 0;
+			TownyMessaging.sendErrorMsg("SQL: Error flushing queue: " + e.getMessage());
+			try {
+				cntx.rollback();
+			} catch (SQLException ignored) {}
+		} finally {
+			try {
+				cntx.setAutoCommit(autoCommit);
+			} catch (SQLException ignored) {}
+		}
+
+		TownyMessaging.sendDebugMsg("SQL: Flushed " + rows + "/" + tasks.size() + " queued rows in " + batchCount + " batches, "
+			+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms.");
+
+		return rows;
+
+	}
+
+	/**
+	 * Send every batch inside the current transaction, without committing it.
+	 *
+	 * @return the key of the first batch which failed, or null if they were all written.
+	 */
+	private String writeBatches(Connection cntx, Map<String, List<SQL_Task>> batches, Map<String, List<String>> batchColumns) {
+
+		for (Map.Entry<String, List<SQL_Task>> batch : batches.entrySet()) {
+			List<SQL_Task> batchTasks = batch.getValue();
+			SQL_Task first = batchTasks.get(0);
+			List<String> columns = batchColumns.get(batch.getKey());
+			String sql = sqlCache.computeIfAbsent(batch.getKey(), k -> buildSQL(first, columns));
+
+			PreparedStatement stmt = null;
+			try {
+				stmt = getStatement(cntx, sql);
+				for (SQL_Task task : batchTasks) {
+					for (int count = 0; count < columns.size(); count++)
+						setParameter(stmt, count + 1, task.args.get(columns.get(count)));
+
+					stmt.addBatch();
+				}
+
+				stmt.executeBatch();
+			} catch (SQLException e) {
+				TownyMessaging.sendErrorMsg("SQL: Error writing batch of " + batchTasks.size() + " to " + first.tb_name + ": " + e.getMessage() + " --> " + sql);
+				try {
+					if (stmt != null)
+						stmt.clearBatch();
+				} catch (SQLException ignored) {}
+				return batch.getKey();
+			}
+		}
+
+		return null;
+
+	}
+
+	/**
+	 * @return whether any batch in the last flush failed to write.
+	 */
+	boolean lastFlushFailed() {
+
+		return failed;
+
+	}
+
+	/**
+	 * Close every cached statement.
+	 */
+	void close() {
+
+		for (PreparedStatement stmt : statementCache.values()) {
+			try {
+				stmt.close();
+			} catch (SQLException ignored) {}
+		}
+		statementCache.clear();
+		statementConnection = null;
+
+	}
+
+	/**
+	 * Drop every task which is superseded by a later task for the same row, a
+	 * later save or delete of a row is all that needs to reach the database.
+	 */
+	private static List<SQL_Task> coalesce(List<SQL_Task> tasks) {
+
+		Map<Object, SQL_Task> latest = new LinkedHashMap<>();
+		for (SQL_Task task : tasks) {
+			Object rowKey = rowKey(task);
+			latest.remove(rowKey);
+			latest.put(rowKey, task);
+		}
+
+		return new ArrayList<>(latest.values());
+
+	}
+
+	/**
+	 * @param task - Task to identify the row of.
+	 * @return a key equal for every task which writes to the same row.
+	 */
+	static Object rowKey(SQL_Task task) {
+
+		// Deletes match on every column given, saves on their keys.
+		Iterable<String> keyColumns = task.update ? task.keys : new TreeSet<>(task.args.keySet());
+		if (keyColumns == null)
+			return task;
+
+		StringBuilder key = new StringBuilder(task.tb_name.toUpperCase());
+		for (String column : keyColumns)
+			key.append('\0').append(column).append('=').append(parameterValue(task.args.get(column)));
+
+		return key.toString();
+
+	}
+
+	private String buildSQL(SQL_Task task, List<String> columns) {
+
+		String table = tb_prefix + task.tb_name.toUpperCase();
+		StringBuilder code = new StringBuilder();
+
+		if (task.update) {
+			code.append("INSERT INTO ").append(table).append(" (");
+			for (int count = 0; count < columns.size(); count++)
+				code.append(count == 0 ? "" : ", ").append("`").append(columns.get(count)).append("`");
+
+			code.append(") VALUES (");
+			for (int count = 0; count < columns.size(); count++)
+				code.append(count == 0 ? "?" : ", ?");
+
+			code.append(") ON DUPLICATE KEY UPDATE ");
+			for (int count = 0; count < columns.size(); count++) {
+				String column = columns.get(count);
+				code.append(count == 0 ? "" : ", ").append("`").append(column).append("` = VALUES(`").append(column).append("`)");
+			}
+		} else {
+			code.append("DELETE FROM ").append(table).append(" WHERE ");
+			for (int count = 0; count < columns.size(); count++)
+				code.append(count == 0 ? "" : " AND ").append("`").append(columns.get(count)).append("` = ?");
+		}
+
+		return code.toString();
+
+	}
+
+	private PreparedStatement getStatement(Connection cntx, String sql) throws SQLException {
+
+		// Statements belong to the connection they were prepared on.
+		if (statementConnection != cntx) {
+			close();
+			statementConnection = cntx;
+		}
+
+		PreparedStatement stmt = statementCache.get(sql);
+		if (stmt == null || stmt.isClosed()) {
+			stmt = cntx.prepareStatement(sql);
+			statementCache.put(sql, stmt);
+		}
+
+		return stmt;
+
+	}
+
+	private static void setParameter(PreparedStatement stmt, int index, Object element) throws SQLException {
+
+		stmt.setString(index, parameterValue(element));
+
+	}
+
+	private static String parameterValue(Object element) {
+
+		if (element == null || element instanceof String)
+			return (String) element;
+		else if (element instanceof Boolean bool)
+			return bool ? "1" : "0";
+		else
+			return element.toString();
+
+	}
+
+}
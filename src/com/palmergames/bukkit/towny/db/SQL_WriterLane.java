@@ -0,0 +1,257 @@
+package com.palmergames.bukkit.towny.db;
+
+import com.palmergames.bukkit.towny.TownyMessaging;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One stream of writes to the database, with its own thread and its own
+ * pooled connection.
+ * <p>
+ * Tasks handed to a lane are written in the order they were submitted. The
+ * connection is held between flushes, so the statements prepared on it can be
+ * reused, and is only swapped for a fresh one after a failed write or once it
+ * has outlived the pool's max lifetime.
+ * <p>
+ * If no connection can be had, the tasks go back to the head of the lane and
+ * are retried with a growing delay, so nothing is lost while the database is
+ * unreachable. Once the lane is shut down it keeps retrying until its deadline.
+ */
+class SQL_WriterLane {
+
+	static final long MIN_RETRY_DELAY = 500;
+	static final long MAX_RETRY_DELAY = 30_000;
+	// How often shutdown looks at the clock while waiting for the lane to finish.
+	private static final long SHUTDOWN_POLL = 100;
+
+	/**
+	 * The time a lane keeps its deadline and connection age in, and waits on
+	 * between retries. Tests give the lane one which doesn't really wait.
+	 */
+	interface Clock {
+		Clock SYSTEM = new Clock() {
+			@Override
+			public long millis() {
+				return System.currentTimeMillis();
+			}
+
+			@Override
+			public void sleep(long millis) throws InterruptedException {
+				Thread.sleep(millis);
+			}
+		};
+
+		long millis();
+
+		void sleep(long millis) throws InterruptedException;
+	}
+
+	private final int id;
+	private final DataSource dataSource;
+	private final long maxLifetime;
+	private final SQL_BatchWriter writer;
+	private final Clock clock;
+	private final ExecutorService executor;
+
+	// Guarded by itself, batches waiting to be written, oldest first.
+	private final Deque<List<SQL_Task>> pending = new ArrayDeque<>();
+	private volatile long deadline = Long.MAX_VALUE;
+
+	// Only touched from the lane's thread.
+	private Connection connection = null;
+	private long connectedAt = 0;
+	private long retryDelay = MIN_RETRY_DELAY;
+	private boolean givenUp = false;
+
+	SQL_WriterLane(int id, String tb_prefix, DataSource dataSource, long maxLifetime) {
+
+		this(id, dataSource, maxLifetime, new SQL_BatchWriter(tb_prefix), Clock.SYSTEM);
+
+	}
+
+	SQL_WriterLane(int id, DataSource dataSource, long maxLifetime, SQL_BatchWriter writer, Clock clock) {
+
+		this.id = id;
+		this.dataSource = dataSource;
+		this.maxLifetime = maxLifetime;
+		this.writer = writer;
+		this.clock = clock;
+		this.executor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Towny SQL Writer #" + id);
+			thread.setDaemon(true);
+			return thread;
+		});
+
+	}
+
+	/**
+	 * Queue tasks to be written after everything already submitted to this lane.
+	 *
+	 * @param tasks - Tasks in the order they were queued.
+	 */
+	void submit(List<SQL_Task> tasks) {
+
+		synchronized (pending) {
+			pending.addLast(tasks);
+		}
+		executor.execute(this::drain);
+
+	}
+
+	/**
+	 * Write everything already submitted, retrying until the deadline if the
+	 * database can't be reached, then release the connection.
+	 *
+	 * @param deadline - Time in milliseconds, on the lane's clock, to give up at.
+	 */
+	void shutdown(long deadline) {
+
+		this.deadline = deadline;
+		executor.shutdown();
+		try {
+			while (!executor.awaitTermination(SHUTDOWN_POLL, TimeUnit.MILLISECONDS)) {
+				if (clock.millis() >= deadline) {
+					TownyMessaging.sendErrorMsg("SQL: Writer #" + id + " did not finish saving in time.");
+					executor.shutdownNow();
+					break;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		int unsaved = getPendingRows();
+		if (unsaved > 0)
+			TownyMessaging.sendErrorMsg("SQL: Writer #" + id + " could not connect before shutting down, " + unsaved + " queued rows were not saved.");
+
+		// A write still running past the deadline owns the connection, the pool closes it.
+		if (executor.isTerminated())
+			release();
+
+	}
+
+	/**
+	 * @return the number of rows submitted to this lane which have not been written yet.
+	 */
+	int getPendingRows() {
+
+		synchronized (pending) {
+			int rows = 0;
+			for (List<SQL_Task> tasks : pending)
+				rows += tasks.size();
+			return rows;
+		}
+
+	}
+
+	private void drain() {
+
+		List<SQL_Task> tasks;
+		while (!givenUp && (tasks = poll()) != null) {
+			if (write(tasks)) {
+				retryDelay = MIN_RETRY_DELAY;
+				continue;
+			}
+
+			// Keep the rows ahead of anything submitted after them.
+			synchronized (pending) {
+				pending.addFirst(tasks);
+			}
+
+			if (!backOff())
+				givenUp = true;
+		}
+
+	}
+
+	private List<SQL_Task> poll() {
+
+		synchronized (pending) {
+			return pending.pollFirst();
+		}
+
+	}
+
+	/**
+	 * @return false if there was no connection to write with.
+	 */
+	private boolean write(List<SQL_Task> tasks) {
+
+		Connection cntx = getConnection();
+		if (cntx == null)
+			return false;
+
+		writer.flush(cntx, tasks);
+
+		// Don't keep writing down a connection which may have gone bad.
+		if (writer.lastFlushFailed())
+			release();
+
+		return true;
+
+	}
+
+	/**
+	 * Wait before the next attempt to connect, doubling the wait each time.
+	 *
+	 * @return false if the lane's deadline has passed.
+	 */
+	private boolean backOff() {
+
+		long remaining = deadline - clock.millis();
+		if (remaining <= 0)
+			return false;
+
+		long delay = Math.min(retryDelay, remaining);
+		TownyMessaging.sendErrorMsg("SQL: Writer #" + id + " could not connect, retrying " + getPendingRows() + " queued rows in " + delay + "ms.");
+		try {
+			clock.sleep(delay);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+
+		retryDelay = Math.min(retryDelay * 2, MAX_RETRY_DELAY);
+		return true;
+
+	}
+
+	private Connection getConnection() {
+
+		try {
+			if (connection != null && !connection.isClosed() && clock.millis() - connectedAt < maxLifetime)
+				return connection;
+
+			release();
+			connection = dataSource.getConnection();
+			connectedAt = clock.millis();
+			return connection;
+		} catch (SQLException e) {
+			TownyMessaging.sendErrorMsg("SQL: Writer #" + id + " connection error: " + e.getMessage());
+			return null;
+		}
+
+	}
+
+	private void release() {
+
+		writer.close();
+		if (connection != null) {
+			try {
+				// Hands the connection back to the pool.
+				connection.close();
+			} catch (SQLException ignored) {}
+			connection = null;
+		}
+
+	}
+
+}
@@ -39,6 +39,7 @@ import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.object.metadata.DataFieldIO;
 import com.palmergames.bukkit.towny.object.jail.Jail;
 import com.palmergames.bukkit.towny.object.jail.UnJailReason;
+import com.palmergames.bukkit.towny.regen.BlockPalette;
 import com.palmergames.bukkit.towny.regen.PlotBlockData;
 import com.palmergames.bukkit.towny.regen.TownyRegenAPI;
 import com.palmergames.bukkit.towny.tasks.DeleteFileTask;
@@ -1141,6 +1142,26 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
              */
             switch (version) {
                 
+                case 5: {
+                    
+                    // the world's min height, the distinct block states, then the packed indexes into them
+                    plotBlockData.setMinHeight(fin.readInt());
+                    int paletteSize = fin.readInt();
+                    List<String> states = new ArrayList<>(paletteSize);
+                    for (int i = 0; i < paletteSize; i++)
+                        states.add(fin.readUTF());
+                    
+                    int bitsPerEntry = fin.readUnsignedByte();
+                    int size = fin.readInt();
+                    long[] packed = new long[fin.readInt()];
+                    for (int i = 0; i < packed.length; i++)
+                        packed[i] = fin.readLong();
+                    
+                    plotBlockData.setBlockPalette(BlockPalette.fromPacked(states, bitsPerEntry, size, packed));
+                    plotBlockData.resetBlockListRestored();
+                    return plotBlockData;
+                }
+                
                 default:
                 case 4:
                 case 3:
@@ -1169,10 +1190,20 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
         } catch (EOFException ignored) {
         } catch (IOException e) {
             e.printStackTrace();
+        } catch (IllegalArgumentException e) {
+            TownyMessaging.sendErrorMsg("Unable to load plotblockdata for " + plotBlockData.getWorldCoord() + ": " + e.getMessage());
+            return null;
         }
         
         plotBlockData.setBlockList(blockArr);
         plotBlockData.resetBlockListRestored();
+        // Older versions ignored the world's min height and stopped at y=1.
+        plotBlockData.setMinHeight(1);
+        if (version == 4) {
+            // Version 4 holds the same blocks as version 5, rewrite it in the compact format now it's been loaded.
+            plotBlockData.setVersion(5);
+            savePlotData(plotBlockData);
+        }
         return plotBlockData;
     }
     
@@ -6,6 +6,14 @@ import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.TownyUniverse;
+import com.palmergames.bukkit.towny.db.FlatFileRecords.JailRecord;
+import com.palmergames.bukkit.towny.db.FlatFileRecords.Metadata;
+import com.palmergames.bukkit.towny.db.FlatFileRecords.NationRecord;
+import com.palmergames.bukkit.towny.db.FlatFileRecords.PlotGroupRecord;
+import com.palmergames.bukkit.towny.db.FlatFileRecords.ResidentRecord;
+import com.palmergames.bukkit.towny.db.FlatFileRecords.Spawn;
+import com.palmergames.bukkit.towny.db.FlatFileRecords.TownBlockRecord;
+import com.palmergames.bukkit.towny.db.FlatFileRecords.TownRecord;
 import com.palmergames.bukkit.towny.exceptions.AlreadyRegisteredException;
 import com.palmergames.bukkit.towny.exceptions.EmptyNationException;
 import com.palmergames.bukkit.towny.exceptions.InvalidNameException;
@@ -18,39 +26,57 @@ import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.TownBlockTypeHandler;
+import com.palmergames.bukkit.towny.object.TownyObject;
 import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.object.Translation;
 import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.object.metadata.MetadataLoader;
 import com.palmergames.bukkit.towny.object.jail.Jail;
 import com.palmergames.bukkit.towny.tasks.DeleteFileTask;
-import com.palmergames.bukkit.towny.utils.MapUtil;
+import com.palmergames.bukkit.util.BukkitTools;
 import com.palmergames.util.FileMgmt;
 import com.palmergames.util.StringMgmt;
 import org.bukkit.Location;
 import org.bukkit.World;
+import org.bukkit.scheduler.BukkitTask;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public final class TownyFlatFileSource extends TownyDatabaseHandler {
 
 	private final String newLine = System.getProperty("line.separator");
+
+	// How often, in ticks, the objects saved since the last flush are written out.
+	private static final long FLUSH_INTERVAL_TICKS = 20L;
+
+	// Objects saved since the last flush, by identity so that an object is never mistaken for its replacement. Guarded by itself.
+	private final Set<Object> dirtyObjects = Collections.newSetFromMap(new IdentityHashMap<>());
+	private final BukkitTask flushTask;
+
+	// Object files decoded ahead of time by decodeFiles(), keyed by path and taken by readDecoded().
+	private final Map<String, Object> decodedFiles = new ConcurrentHashMap<>();
 	
 	public TownyFlatFileSource(Towny plugin, TownyUniverse universe) {
 		super(plugin, universe);
+		flushTask = BukkitTools.getScheduler().runTaskTimer(plugin, this::flushDirtyObjects, FLUSH_INTERVAL_TICKS, FLUSH_INTERVAL_TICKS);
 		// Create files and folders if non-existent
 		if (!FileMgmt.checkOrCreateFolders(
 			rootFolderPath,
@@ -418,6 +444,108 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		return new File(dataFolderPath + File.separator + folder).listFiles(file -> file.getName().toLowerCase().endsWith(extension));
 	}
 	
+	/*
+	 * Load all of category
+	 *
+	 * Loading a category is done in two passes. First every file in it is
+	 * read and decoded into a FlatFileRecords record in parallel, which
+	 * touches nothing but the file. Then the loaders below run one object at
+	 * a time on this thread, in the same order as before, and only resolve
+	 * the names and UUIDs in the records to other objects and register them.
+	 *
+	 * Worlds are only read ahead, there are too few of them to be worth
+	 * decoding separately.
+	 */
+
+	@Override
+	public boolean loadResidents() {
+		return loadDecoded(universe.getResidents(), this::getResidentFilename, ResidentRecord::decode, super::loadResidents);
+	}
+
+	@Override
+	public boolean loadTowns() {
+		return loadDecoded(universe.getTowns(), this::getTownFilename, TownRecord::decode, super::loadTowns);
+	}
+
+	@Override
+	public boolean loadNations() {
+		return loadDecoded(universe.getNations(), this::getNationFilename, NationRecord::decode, super::loadNations);
+	}
+
+	@Override
+	public boolean loadWorlds() {
+		return loadDecoded(universe.getTownyWorlds(), this::getWorldFilename, Function.identity(), super::loadWorlds);
+	}
+
+	@Override
+	public boolean loadJails() {
+		return loadDecoded(universe.getJails(), this::getJailFilename, JailRecord::decode, super::loadJails);
+	}
+
+	@Override
+	public boolean loadPlotGroups() {
+		return loadDecoded(universe.getGroups(), this::getPlotGroupFilename, PlotGroupRecord::decode, super::loadPlotGroups);
+	}
+
+	@Override
+	public boolean loadTownBlocks() {
+		return loadDecoded(universe.getTownBlocks().values(), this::getTownBlockFilename, TownBlockRecord::decode, this::loadTownBlockFiles);
+	}
+
+	private <T> boolean loadDecoded(Collection<T> objects, Function<T, String> filename, Function<HashMap<String, String>, ?> decoder, BooleanSupplier loader) {
+		decodeFiles(objects.stream().map(filename).collect(Collectors.toList()), decoder);
+		try {
+			return loader.getAsBoolean();
+		} finally {
+			// Drop anything left unread, such as files of objects removed while loading.
+			decodedFiles.clear();
+		}
+	}
+
+	/**
+	 * Read and decode the given object files in parallel, ready for
+	 * readDecoded(). Nothing outside the files is looked at here.
+	 * 
+	 * @param paths - Paths of the files to decode, missing files are skipped.
+	 * @param decoder - Decodes the keys of one file.
+	 */
+	private void decodeFiles(List<String> paths, Function<HashMap<String, String>, ?> decoder) {
+		long start = System.currentTimeMillis();
+		paths.parallelStream().forEach(path -> {
+			File file = new File(path);
+			if (file.isFile())
+				decodedFiles.put(file.getPath(), decoder.apply(FileMgmt.loadFileIntoHashMap(file)));
+		});
+		TownyMessaging.sendDebugMsg("Decoded " + decodedFiles.size() + " files in parallel in " + (System.currentTimeMillis() - start) + "ms.");
+	}
+
+	/**
+	 * @param file - Object file to read.
+	 * @param decoder - Decodes the file's keys, the same decoder it was decoded ahead of time with.
+	 * @return the decoded file, decoded ahead of time by decodeFiles() when possible.
+	 */
+	@SuppressWarnings("unchecked")
+	private <R> R readDecoded(File file, Function<HashMap<String, String>, R> decoder) {
+		R decoded = (R) decodedFiles.remove(file.getPath());
+		return decoded != null ? decoded : decoder.apply(FileMgmt.loadFileIntoHashMap(file));
+	}
+
+	private Location toLocation(Spawn spawn) throws NotRegisteredException {
+		Location loc = new Location(plugin.getServerWorld(spawn.world()), spawn.x(), spawn.y(), spawn.z());
+		if (spawn.hasRotation()) {
+			loc.setPitch(spawn.pitch());
+			loc.setYaw(spawn.yaw());
+		}
+		return loc;
+	}
+
+	private static void loadMetadata(TownyObject object, Metadata metadata) {
+		if (metadata.fields() != null)
+			MetadataLoader.getInstance().loadMetadata(object, metadata.fields());
+		else
+			MetadataLoader.getInstance().deserializeMetadata(object, metadata.serialized());
+	}
+
 	/*
 	 * Load individual towny objects
 	 */
@@ -431,15 +559,14 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		if (fileResident.exists() && fileResident.isFile()) {
 			TownyMessaging.sendDebugMsg(Translation.of("flatfile_dbg_loading_resident", resident.getName()));
 			try {
-				HashMap<String, String> keys = FileMgmt.loadFileIntoHashMap(fileResident);
+				ResidentRecord record = readDecoded(fileResident, ResidentRecord::decode);
 				
-				line = keys.get("lastOnline");
-				if (line != null)
-					resident.setLastOnline(Long.parseLong(line));
+				if (record.lastOnline != null)
+					resident.setLastOnline(record.lastOnline);
 				
-				line = keys.get("uuid");
-				if (line != null) {
-					UUID uuid = UUID.fromString(line);
+				if (record.uuid != null) {
+					UUID uuid = record.uuid;
+					line = uuid.toString();
 					if (universe.hasResident(uuid)) {
 						Resident olderRes = universe.getResident(uuid);
 						if (resident.getLastOnline() > olderRes.getLastOnline()) {
@@ -469,37 +596,30 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 					universe.registerResidentUUID(resident);
 				}
 				
-				line = keys.get("registered");
-				if (line != null)
-					resident.setRegistered(Long.parseLong(line));
-				else
+				if (record.registered != null)
+					resident.setRegistered(record.registered);
+				else if (!record.failed())
 					resident.setRegistered(resident.getLastOnline());
 				
-				line = keys.get("isNPC");
-				if (line != null)
-					resident.setNPC(Boolean.parseBoolean(line));
+				if (record.npc != null)
+					resident.setNPC(record.npc);
 				
-				line = keys.get("jail");
-				if (line != null && universe.hasJail(UUID.fromString(line)))
-					resident.setJail(universe.getJail(UUID.fromString(line)));
+				if (record.jail != null && universe.hasJail(record.jail))
+					resident.setJail(universe.getJail(record.jail));
 				
 				if (resident.isJailed()) {
-					line = keys.get("jailCell");
-					if (line != null)
-						resident.setJailCell(Integer.parseInt(line));
+					if (record.jailCell != null)
+						resident.setJailCell(record.jailCell);
 					
-					line = keys.get("jailHours");
-					if (line != null)
-						resident.setJailHours(Integer.parseInt(line));
+					if (record.jailHours != null)
+						resident.setJailHours(record.jailHours);
 					
-					line = keys.get("jailBail");
-					if (line != null)
-						resident.setJailBailCost(Double.parseDouble(line));
+					if (record.jailBail != null)
+						resident.setJailBailCost(record.jailBail);
 				}
 				
-				line = keys.get("friends");
-				if (line != null) {
-					List<Resident> friends = TownyAPI.getInstance().getResidents(line.split(","));
+				if (record.friends != null) {
+					List<Resident> friends = TownyAPI.getInstance().getResidents(record.friends);
 					for (Resident friend : friends) {
 						try {
 							resident.addFriend(friend);
@@ -507,15 +627,13 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 					}
 				}
 				
-				line = keys.get("protectionStatus");
-				if (line != null)
-					resident.setPermissions(line);
+				if (record.protectionStatus != null)
+					resident.setPermissions(record.protectionStatus);
 
-				line = keys.get("metadata");
-				if (line != null && !line.isEmpty())
-					MetadataLoader.getInstance().deserializeMetadata(resident, line.trim());
+				if (record.metadata != null)
+					loadMetadata(resident, record.metadata);
 
-				line = keys.get("town");
+				line = record.town;
 				if (line != null) {
 					Town town = null;
 					if (universe.hasTown(line)) {
@@ -529,32 +647,32 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 					if (town != null) {
 						resident.setTown(town, false);
 						
-						line = keys.get("title");
-						if (line != null)
-							resident.setTitle(line);
+						if (record.title != null)
+							resident.setTitle(record.title);
 						
-						line = keys.get("surname");
-						if (line != null)
-							resident.setSurname(line);
+						if (record.surname != null)
+							resident.setSurname(record.surname);
 						
 						try {
-							line = keys.get("town-ranks");
-							if (line != null)
-								resident.setTownRanks(Arrays.asList((line.split(","))));
+							if (record.townRanks != null)
+								resident.setTownRanks(record.townRanks);
 						} catch (Exception e) {}
 
 						try {
-							line = keys.get("nation-ranks");
-							if (line != null)
-								resident.setNationRanks(Arrays.asList((line.split(","))));
+							if (record.nationRanks != null)
+								resident.setNationRanks(record.nationRanks);
 						} catch (Exception e) {}
 
-						line = keys.get("joinedTownAt");
-						if (line != null) {
-							resident.setJoinedTownAt(Long.parseLong(line));
+						if (record.joinedTownAt != null) {
+							resident.setJoinedTownAt(record.joinedTownAt);
 						}
 					}
 				}
+
+				if (record.failed()) {
+					line = record.failedLine;
+					throw record.failure;
+				}
 			} catch (Exception e) {
 				TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_reading_resident_at_line", resident.getName(), line, resident.getName()));
 				e.printStackTrace();
@@ -572,15 +690,14 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 	@Override
 	public boolean loadTown(Town town) {
 		String line = null;
-		String[] tokens;
 		String path = getTownFilename(town);
 		File fileTown = new File(path);		
 		if (fileTown.exists() && fileTown.isFile()) {
 			TownyMessaging.sendDebugMsg(Translation.of("flatfile_dbg_loading_town", town.getName()));
 			try {
-				HashMap<String, String> keys = FileMgmt.loadFileIntoHashMap(fileTown);
+				TownRecord record = readDecoded(fileTown, TownRecord::decode);
 
-				line = keys.get("mayor");
+				line = record.mayor;
 				if (line != null)
 					try {
 						Resident res = universe.getResident(line);
@@ -597,10 +714,8 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 						return true;						
 					}
 
-				line = keys.get("outlaws");
-				if (line != null) {
-					tokens = line.split(",");
-					for (String token : tokens) {
+				if (record.outlaws != null) {
+					for (String token : record.outlaws) {
 						if (!token.isEmpty()) {
 							TownyMessaging.sendDebugMsg(Translation.of("flatfile_dbg_town_fetch_outlaw", token));
 							Resident outlaw = universe.getResident(token);
@@ -618,304 +733,144 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 					}
 				}
 
-				line = keys.get("townBoard");
-				if (line != null)
-					town.setBoard(line);
+				if (record.board != null)
+					town.setBoard(record.board);
 
-				line = keys.get("tag");
-				if (line != null)
-					town.setTag(line);
+				if (record.tag != null)
+					town.setTag(record.tag);
 				
-				line = keys.get("protectionStatus");
-				if (line != null)
-					town.setPermissions(line);
+				if (record.protectionStatus != null)
+					town.setPermissions(record.protectionStatus);
 				
-				line = keys.get("bonusBlocks");
-				if (line != null)
-					try {
-						town.setBonusBlocks(Integer.parseInt(line));
-					} catch (Exception e) {
-						town.setBonusBlocks(0);
-					}
+				if (record.bonusBlocks != null)
+					town.setBonusBlocks(record.bonusBlocks);
 				
-				line = keys.get("purchasedBlocks");
-				if (line != null)
-					try {
-						town.setPurchasedBlocks(Integer.parseInt(line));
-					} catch (Exception e) {
-						town.setPurchasedBlocks(0);
-					}
+				if (record.purchasedBlocks != null)
+					town.setPurchasedBlocks(record.purchasedBlocks);
 				
-				line = keys.get("plotPrice");
-				if (line != null)
-					try {
-						town.setPlotPrice(Double.parseDouble(line));
-					} catch (Exception e) {
-						town.setPlotPrice(0);
-					}
+				if (record.plotPrice != null)
+					town.setPlotPrice(record.plotPrice);
 				
-				line = keys.get("hasUpkeep");
-				if (line != null)
-					try {
-						town.setHasUpkeep(Boolean.parseBoolean(line));
-					} catch (Exception ignored) {
-					}
+				if (record.hasUpkeep != null)
+					town.setHasUpkeep(record.hasUpkeep);
 				
-				line = keys.get("hasUnlimitedClaims");
-				if (line != null)
-					try {
-						town.setHasUnlimitedClaims(Boolean.parseBoolean(line));
-					} catch (Exception ignored) {
-					}
+				if (record.hasUnlimitedClaims != null)
+					town.setHasUnlimitedClaims(record.hasUnlimitedClaims);
 				
-				line = keys.get("taxpercent");
-				if (line != null)
-					try {
-						town.setTaxPercentage(Boolean.parseBoolean(line));
-					} catch (Exception ignored) {
-					}
+				if (record.taxPercentage != null)
+					town.setTaxPercentage(record.taxPercentage);
 				
-				line = keys.get("maxPercentTaxAmount");
-				if (line != null)
-					town.setMaxPercentTaxAmount(Double.parseDouble(line));
-				else 
-					town.setMaxPercentTaxAmount(TownySettings.getMaxTownTaxPercentAmount());
+				if (record.maxPercentTaxAmount != null)
+					town.setMaxPercentTaxAmount(record.maxPercentTaxAmount);
 				
-				line = keys.get("taxes");
-				if (line != null)
-					try {
-						town.setTaxes(Double.parseDouble(line));
-					} catch (Exception e) {
-						town.setTaxes(0);
-					}
+				if (record.taxes != null)
+					town.setTaxes(record.taxes);
 				
-				line = keys.get("plotTax");
-				if (line != null)
-					try {
-						town.setPlotTax(Double.parseDouble(line));
-					} catch (Exception e) {
-						town.setPlotTax(0);
-					}
+				if (record.plotTax != null)
+					town.setPlotTax(record.plotTax);
 				
-				line = keys.get("commercialPlotPrice");
-				if (line != null)
-					try {
-						town.setCommercialPlotPrice(Double.parseDouble(line));
-					} catch (Exception e) {
-						town.setCommercialPlotPrice(0);
-					}
+				if (record.commercialPlotPrice != null)
+					town.setCommercialPlotPrice(record.commercialPlotPrice);
 				
-				line = keys.get("commercialPlotTax");
-				if (line != null)
-					try {
-						town.setCommercialPlotTax(Double.parseDouble(line));
-					} catch (Exception e) {
-						town.setCommercialPlotTax(0);
-					}
+				if (record.commercialPlotTax != null)
+					town.setCommercialPlotTax(record.commercialPlotTax);
 				
-				line = keys.get("embassyPlotPrice");
-				if (line != null)
-					try {
-						town.setEmbassyPlotPrice(Double.parseDouble(line));
-					} catch (Exception e) {
-						town.setEmbassyPlotPrice(0);
-					}
+				if (record.embassyPlotPrice != null)
+					town.setEmbassyPlotPrice(record.embassyPlotPrice);
 				
-				line = keys.get("embassyPlotTax");
-				if (line != null)
-					try {
-						town.setEmbassyPlotTax(Double.parseDouble(line));
-					} catch (Exception e) {
-						town.setEmbassyPlotTax(0);
-					}
+				if (record.embassyPlotTax != null)
+					town.setEmbassyPlotTax(record.embassyPlotTax);
 				
-				line = keys.get("spawnCost");
-				if (line != null)
-					try {
-						town.setSpawnCost(Double.parseDouble(line));
-					} catch (Exception e) {
-						town.setSpawnCost(TownySettings.getSpawnTravelCost());
-					}
+				if (record.spawnCost != null)
+					town.setSpawnCost(record.spawnCost);
 				
-				line = keys.get("adminDisabledPvP");
-				if (line != null)
-					try {
-						town.setAdminDisabledPVP(Boolean.parseBoolean(line));
-					} catch (Exception ignored) {
-					}
+				if (record.adminDisabledPVP != null)
+					town.setAdminDisabledPVP(record.adminDisabledPVP);
 				
-				line = keys.get("adminEnabledPvP");
-				if (line != null)
-					try {
-						town.setAdminEnabledPVP(Boolean.parseBoolean(line));
-					} catch (Exception ignored) {
-					}
+				if (record.adminEnabledPVP != null)
+					town.setAdminEnabledPVP(record.adminEnabledPVP);
 				
-				line = keys.get("open");
-				if (line != null)
-					try {
-						town.setOpen(Boolean.parseBoolean(line));
-					} catch (Exception ignored) {
-					}
-				line = keys.get("public");
-				if (line != null)
-					try {
-						town.setPublic(Boolean.parseBoolean(line));
-					} catch (Exception ignored) {
-					}
-				line = keys.get("conquered");
-				if (line != null)
-					try {
-						town.setConquered(Boolean.parseBoolean(line));
-					} catch (Exception ignored) {
-					}
-				line = keys.get("conqueredDays");
-				if (line != null)
-					town.setConqueredDays(Integer.parseInt(line));
+				if (record.open != null)
+					town.setOpen(record.open);
+				if (record.isPublic != null)
+					town.setPublic(record.isPublic);
+				if (record.conquered != null)
+					town.setConquered(record.conquered);
+				if (record.conqueredDays != null)
+					town.setConqueredDays(record.conqueredDays);
 				
-				line = keys.get("joinedNationAt");
-				if (line != null)
-					try {
-						town.setJoinedNationAt(Long.parseLong(line));
-					} catch (Exception ignored) {}
+				if (record.joinedNationAt != null)
+					town.setJoinedNationAt(record.joinedNationAt);
 
-				line = keys.get("movedHomeBlockAt");
-				if (line != null)
-					try {
-						town.setMovedHomeBlockAt(Long.parseLong(line));
-					} catch (Exception ignored) {}
+				if (record.movedHomeBlockAt != null)
+					town.setMovedHomeBlockAt(record.movedHomeBlockAt);
 				
-				line = keys.get("homeBlock");
-				if (line != null) {
-					tokens = line.split(",");
-					if (tokens.length == 3) {
-						TownyWorld world = universe.getWorld(tokens[0]); 
-						if (world == null)
-							TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_homeblock_load_invalid_world", town.getName()));
-						else {
-							try {
-								int x = Integer.parseInt(tokens[1]);
-								int z = Integer.parseInt(tokens[2]);
-								TownBlock homeBlock = universe.getTownBlock(new WorldCoord(world.getName(), x, z));
-								town.forceSetHomeBlock(homeBlock);
-							} catch (NumberFormatException e) {
-								TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_homeblock_load_invalid_location", town.getName()));
-							} catch (NotRegisteredException e) {
-								TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_homeblock_load_invalid_townblock", town.getName()));
-							} catch (TownyException e) {
-								TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_town_homeblock_not_exist", town.getName()));
-							}
+				if (record.homeBlockWorld != null) {
+					TownyWorld world = universe.getWorld(record.homeBlockWorld); 
+					if (world == null)
+						TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_homeblock_load_invalid_world", town.getName()));
+					else if (record.homeBlockX == null)
+						TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_homeblock_load_invalid_location", town.getName()));
+					else {
+						try {
+							TownBlock homeBlock = universe.getTownBlock(new WorldCoord(world.getName(), record.homeBlockX, record.homeBlockZ));
+							town.forceSetHomeBlock(homeBlock);
+						} catch (NotRegisteredException e) {
+							TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_homeblock_load_invalid_townblock", town.getName()));
+						} catch (TownyException e) {
+							TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_town_homeblock_not_exist", town.getName()));
 						}
 					}
 				}
 				
-				line = keys.get("spawn");
-				if (line != null) {
-					tokens = line.split(",");
-					if (tokens.length >= 4)
-						try {
-							World world = plugin.getServerWorld(tokens[0]);
-							double x = Double.parseDouble(tokens[1]);
-							double y = Double.parseDouble(tokens[2]);
-							double z = Double.parseDouble(tokens[3]);
-							
-							Location loc = new Location(world, x, y, z);
-							if (tokens.length == 6) {
-								loc.setPitch(Float.parseFloat(tokens[4]));
-								loc.setYaw(Float.parseFloat(tokens[5]));
-							}
-							town.setSpawn(loc);
-						} catch (NumberFormatException | NullPointerException | NotRegisteredException ignored) {
-						}
-				}
+				if (record.spawn != null)
+					try {
+						town.setSpawn(toLocation(record.spawn));
+					} catch (NullPointerException | NotRegisteredException ignored) {
+					}
 				
 				// Load outpost spawns
-				line = keys.get("outpostspawns");
-				if (line != null) {
-					String[] outposts = line.split(";");
-					for (String spawn : outposts) {
-						tokens = spawn.split(",");
-						if (tokens.length >= 4)
-							try {
-								World world = plugin.getServerWorld(tokens[0]);
-								double x = Double.parseDouble(tokens[1]);
-								double y = Double.parseDouble(tokens[2]);
-								double z = Double.parseDouble(tokens[3]);
-								
-								Location loc = new Location(world, x, y, z);
-								if (tokens.length == 6) {
-									loc.setPitch(Float.parseFloat(tokens[4]));
-									loc.setYaw(Float.parseFloat(tokens[5]));
-								}
-								town.forceAddOutpostSpawn(loc);
-							} catch (NumberFormatException | NullPointerException | NotRegisteredException ignored) {
-							}
-					}
+				if (record.outpostSpawns != null) {
+					for (Spawn spawn : record.outpostSpawns)
+						try {
+							town.forceAddOutpostSpawn(toLocation(spawn));
+						} catch (NullPointerException | NotRegisteredException ignored) {
+						}
 				}
 				
 				// Load legacy jail spawns into new Jail objects.
-				line = keys.get("jailspawns");
-				if (line != null) {
-					String[] jails = line.split(";");
-					for (String spawn : jails) {
-						tokens = spawn.split(",");
-						if (tokens.length >= 4)
-							try {
-								World world = plugin.getServerWorld(tokens[0]);
-								double x = Double.parseDouble(tokens[1]);
-								double y = Double.parseDouble(tokens[2]);
-								double z = Double.parseDouble(tokens[3]);
-								
-								Location loc = new Location(world, x, y, z);
-								if (tokens.length == 6) {
-									loc.setPitch(Float.parseFloat(tokens[4]));
-									loc.setYaw(Float.parseFloat(tokens[5]));
-								}
+				if (record.jailSpawns != null) {
+					for (Spawn spawn : record.jailSpawns)
+						try {
+							Location loc = toLocation(spawn);
 
-								TownBlock tb = universe.getTownBlock(WorldCoord.parseWorldCoord(loc));
-								if (tb == null)
-									continue;
-								Jail jail = new Jail(UUID.randomUUID(), town, tb, new ArrayList<>(Collections.singleton(loc)));
-								universe.registerJail(jail);
-								town.addJail(jail);
-								tb.setJail(jail);
-								jail.save();
-							} catch (NumberFormatException | NullPointerException | NotRegisteredException ignored) {
-							}
-					}
+							TownBlock tb = universe.getTownBlock(WorldCoord.parseWorldCoord(loc));
+							if (tb == null)
+								continue;
+							Jail jail = new Jail(UUID.randomUUID(), town, tb, new ArrayList<>(Collections.singleton(loc)));
+							universe.registerJail(jail);
+							town.addJail(jail);
+							tb.setJail(jail);
+							jail.save();
+						} catch (NullPointerException | NotRegisteredException ignored) {
+						}
 				}
 				
-				line = keys.get("uuid");
-				if (line != null) {
-					UUID townUUID = null;
-					try {
-						townUUID = UUID.fromString(line);
-					} catch (IllegalArgumentException ee) {
-						townUUID = UUID.randomUUID();
-					}
-					
-					town.setUUID(townUUID);
+				if (record.uuid != null) {
+					town.setUUID(record.uuid);
 					universe.registerTownUUID(town);
 				}
-				line = keys.get("registered");
-				if (line != null) {
-					try {
-						town.setRegistered(Long.parseLong(line));
-					} catch (Exception ee) {
-						town.setRegistered(0);
-					}
-				}
+				if (record.registered != null)
+					town.setRegistered(record.registered);
 
-				line = keys.get("metadata");
-				if (line != null && !line.isEmpty())
-					MetadataLoader.getInstance().deserializeMetadata(town, line.trim());
+				if (record.metadata != null)
+					loadMetadata(town, record.metadata);
 				
-				line = keys.get("manualTownLevel");
-				if (line != null)
-					town.setManualTownLevel(Integer.parseInt(line));
+				if (record.manualTownLevel != null)
+					town.setManualTownLevel(record.manualTownLevel);
 				
-				line = keys.get("nation");
-				if (line != null && !line.isEmpty()) {
+				line = record.nation;
+				if (line != null) {
 					Nation nation = null;
 					if (universe.hasNation(line))
 						nation = universe.getNation(line);
@@ -927,93 +882,51 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 						town.setNation(nation, false);
 				}
 					
-				line = keys.get("ruined");
-				if (line != null)
-					try {
-						town.setRuined(Boolean.parseBoolean(line));
-					} catch (Exception e) {
-						town.setRuined(false);
-					}
+				if (record.ruined != null)
+					town.setRuined(record.ruined);
 				
-				line = keys.get("ruinedTime");
-				if (line != null)
-					try {
-						town.setRuinedTime(Long.parseLong(line));
-					} catch (Exception ee) {
-						town.setRuinedTime(0);
-					}
+				if (record.ruinedTime != null)
+					town.setRuinedTime(record.ruinedTime);
 				
-				line = keys.get("neutral");
-				if (line != null)
-					town.setNeutral(Boolean.parseBoolean(line));
+				if (record.neutral != null)
+					town.setNeutral(record.neutral);
 				
-				line = keys.get("debtBalance");
-				if (line != null)
-					try {
-						town.setDebtBalance(Double.parseDouble(line));
-					} catch (Exception e) {
-						town.setDebtBalance(0.0);
-					}
+				if (record.debtBalance != null)
+					town.setDebtBalance(record.debtBalance);
 				
-				line = keys.get("primaryJail");
-				if (line != null) {
-					UUID uuid = UUID.fromString(line);
-					if (universe.hasJail(uuid))
-						town.setPrimaryJail(universe.getJail(uuid));
-				}
+				if (record.primaryJail != null && universe.hasJail(record.primaryJail))
+					town.setPrimaryJail(universe.getJail(record.primaryJail));
 				
-				line = keys.get("trustedResidents");
-				if (line != null && !line.isEmpty()) {
-					for (Resident resident : TownyAPI.getInstance().getResidents(toUUIDArray(line.split(","))))
+				if (record.trustedResidents != null) {
+					for (Resident resident : TownyAPI.getInstance().getResidents(record.trustedResidents))
 						town.addTrustedResident(resident);
 				}
 				
-				line = keys.get("trustedTowns");
-				if (line != null && !line.isEmpty()) {
-					List<UUID> uuids = Arrays.stream(line.split(","))
-						.map(UUID::fromString)
-						.collect(Collectors.toList());
-					town.loadTrustedTowns(TownyAPI.getInstance().getTowns(uuids));
-				}
+				if (record.trustedTowns != null)
+					town.loadTrustedTowns(TownyAPI.getInstance().getTowns(record.trustedTowns));
 
-				line = keys.get("mapColorHexCode");
-				if (line != null) {
-					try {
-						town.setMapColorHexCode(line);
-					} catch (Exception e) {
-						town.setMapColorHexCode(MapUtil.generateRandomTownColourAsHexCode());
-					}
-				} else {
-					town.setMapColorHexCode(MapUtil.generateRandomTownColourAsHexCode());
-				}
+				if (record.mapColorHexCode != null)
+					town.setMapColorHexCode(record.mapColorHexCode);
 				
-				line = keys.get("nationZoneOverride");
-				if (line != null)
+				if (record.nationZoneOverride != null)
 					try {
-						town.setNationZoneOverride(Integer.parseInt(line));
+						town.setNationZoneOverride(record.nationZoneOverride);
 					} catch (Exception ignored) {
 					}
 				
-				line = keys.get("nationZoneEnabled");
-				if (line != null)
-					town.setNationZoneEnabled(Boolean.parseBoolean(line));
+				if (record.nationZoneEnabled != null)
+					town.setNationZoneEnabled(record.nationZoneEnabled);
 				
-				line = keys.get("allies");
-				if (line != null && !line.isEmpty()) {
-					List<UUID> uuids = Arrays.stream(line.split(","))
-							.map(uuid -> UUID.fromString(uuid))
-							.collect(Collectors.toList());
-					town.loadAllies(TownyAPI.getInstance().getTowns(uuids));
-				}
+				if (record.allies != null)
+					town.loadAllies(TownyAPI.getInstance().getTowns(record.allies));
 				
-				line = keys.get("enemies");
-				if (line != null && !line.isEmpty()) {
-					List<UUID> uuids = Arrays.stream(line.split(","))
-						.map(uuid -> UUID.fromString(uuid))
-						.collect(Collectors.toList());
-					town.loadEnemies(TownyAPI.getInstance().getTowns(uuids));
+				if (record.enemies != null)
+					town.loadEnemies(TownyAPI.getInstance().getTowns(record.enemies));
+
+				if (record.failed()) {
+					line = record.failedLine;
+					throw record.failure;
 				}
-				
 			} catch (Exception e) {
 				TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_reading_town_file_at_line", town.getName(), line, town.getName()));
 				e.printStackTrace();
@@ -1031,16 +944,15 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 	public boolean loadNation(Nation nation) {
 		
 		String line = "";
-		String[] tokens;
 		String path = getNationFilename(nation);
 		File fileNation = new File(path);
 		
 		if (fileNation.exists() && fileNation.isFile()) {
 			TownyMessaging.sendDebugMsg(Translation.of("flatfile_dbg_loading_nation", nation.getName()));
 			try {
-				HashMap<String, String> keys = FileMgmt.loadFileIntoHashMap(fileNation);
+				NationRecord record = readDecoded(fileNation, NationRecord::decode);
 				
-				line = keys.get("capital");
+				line = record.capital;
 				String cantLoadCapital = Translation.of("flatfile_err_nation_could_not_load_capital_disband", nation.getName());
 				if (line != null) {
 					Town town = universe.getTown(line);
@@ -1069,133 +981,73 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 						return true;
 					}
 				}
-				line = keys.get("nationBoard");
-				if (line != null)
+				if (record.board != null)
 					try {
-						nation.setBoard(line);
+						nation.setBoard(record.board);
 					} catch (Exception e) {
 						nation.setBoard("");
 					}
 
-				line = keys.get("mapColorHexCode");
-				if (line != null) {
-					try {
-						nation.setMapColorHexCode(line);
-					} catch (Exception e) {
-						nation.setMapColorHexCode(MapUtil.generateRandomNationColourAsHexCode());
-					}
-				} else {
-					nation.setMapColorHexCode(MapUtil.generateRandomNationColourAsHexCode());
-				}
+				if (record.mapColorHexCode != null)
+					nation.setMapColorHexCode(record.mapColorHexCode);
 
-				line = keys.get("tag");
-				if (line != null)
-					nation.setTag(line);
+				if (record.tag != null)
+					nation.setTag(record.tag);
 				
-				line = keys.get("allies");
-				if (line != null) {
-					List<Nation> allies = TownyAPI.getInstance().getNations(line.split(","));
+				if (record.allies != null) {
+					List<Nation> allies = TownyAPI.getInstance().getNations(record.allies);
 					for (Nation ally : allies) {
 						nation.addAlly(ally);
 					}
 				}
 				
-				line = keys.get("enemies");
-				if (line != null) {
-					List<Nation> enemies = TownyAPI.getInstance().getNations(line.split(","));
+				if (record.enemies != null) {
+					List<Nation> enemies = TownyAPI.getInstance().getNations(record.enemies);
 					for (Nation enemy : enemies) {
 						nation.addEnemy(enemy);
 					}
 				}
 				
-				line = keys.get("spawnCost");
-				if (line != null)
-					try {
-						nation.setSpawnCost(Double.parseDouble(line));
-					} catch (Exception e) {
-						nation.setSpawnCost(TownySettings.getSpawnTravelCost());
-					}
+				if (record.spawnCost != null)
+					nation.setSpawnCost(record.spawnCost);
 				
-				line = keys.get("neutral");
-				if (line != null)
-					nation.setNeutral(Boolean.parseBoolean(line));
+				if (record.neutral != null)
+					nation.setNeutral(record.neutral);
 				
-				line = keys.get("uuid");
-				if (line != null) {
-					try {
-						nation.setUUID(UUID.fromString(line));
-					} catch (IllegalArgumentException ee) {
-						nation.setUUID(UUID.randomUUID());
-					}
+				if (record.uuid != null) {
+					nation.setUUID(record.uuid);
 					universe.registerNationUUID(nation);
 				}
-				line = keys.get("registered");
-				if (line != null) {
-					try {
-						nation.setRegistered(Long.parseLong(line));
-					} catch (Exception ee) {
-						nation.setRegistered(0);
-					}
-				}
+				if (record.registered != null)
+					nation.setRegistered(record.registered);
 				
-				line = keys.get("nationSpawn");
-				if (line != null) {
-					tokens = line.split(",");
-					if (tokens.length >= 4)
-						try {
-							World world = plugin.getServerWorld(tokens[0]);
-							double x = Double.parseDouble(tokens[1]);
-							double y = Double.parseDouble(tokens[2]);
-							double z = Double.parseDouble(tokens[3]);
-							
-							Location loc = new Location(world, x, y, z);
-							if (tokens.length == 6) {
-								loc.setPitch(Float.parseFloat(tokens[4]));
-								loc.setYaw(Float.parseFloat(tokens[5]));
-							}
-							nation.setSpawn(loc);
-						} catch (NumberFormatException | NullPointerException | NotRegisteredException ignored) {
-						}
-				}
-				
-				line = keys.get("isPublic");
-				if (line != null)
-					try {
-						nation.setPublic(Boolean.parseBoolean(line));
-					} catch (Exception ignored) {
-					}
-				line = keys.get("isOpen");
-				if (line != null)
+				if (record.spawn != null)
 					try {
-						nation.setOpen(Boolean.parseBoolean(line));
-					} catch (Exception ignored) {
+						nation.setSpawn(toLocation(record.spawn));
+					} catch (NullPointerException | NotRegisteredException ignored) {
 					}
+				
+				if (record.isPublic != null)
+					nation.setPublic(record.isPublic);
+				if (record.open != null)
+					nation.setOpen(record.open);
 
-				line = keys.get("taxpercent");
-				if (line != null)
-					try {
-						nation.setTaxPercentage(Boolean.parseBoolean(line));
-					} catch (Exception ignored) {
-					}
+				if (record.taxPercentage != null)
+					nation.setTaxPercentage(record.taxPercentage);
 
-				line = keys.get("maxPercentTaxAmount");
-				if (line != null)
-					nation.setMaxPercentTaxAmount(Double.parseDouble(line));
-				else
-					nation.setMaxPercentTaxAmount(TownySettings.getMaxNationTaxPercentAmount());
+				if (record.maxPercentTaxAmount != null)
+					nation.setMaxPercentTaxAmount(record.maxPercentTaxAmount);
 				
-				line = keys.get("taxes");
-				if (line != null)
-					try {
-						nation.setTaxes(Double.parseDouble(line));
-					} catch (Exception e) {
-						nation.setTaxes(0.0);
-					}
+				if (record.taxes != null)
+					nation.setTaxes(record.taxes);
 				
-				line = keys.get("metadata");
-				if (line != null && !line.isEmpty())
-					MetadataLoader.getInstance().deserializeMetadata(nation, line.trim());
+				if (record.metadata != null)
+					loadMetadata(nation, record.metadata);
 
+				if (record.failed()) {
+					line = record.failedLine;
+					throw record.failure;
+				}
 			} catch (Exception e) {
 				TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_reading_nation_file_at_line", nation.getName(), line, nation.getName()));
 				e.printStackTrace();
@@ -1224,7 +1076,7 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		if (fileWorld.exists() && fileWorld.isFile()) {
 			TownyMessaging.sendDebugMsg(Translation.of("flatfile_dbg_loading_world", world.getName()));
 			try {
-				HashMap<String, String> keys = FileMgmt.loadFileIntoHashMap(fileWorld);
+				HashMap<String, String> keys = readDecoded(fileWorld, Function.identity());
 				
 				line = keys.get("claimable");
 				if (line != null)
@@ -1537,13 +1389,12 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		File groupFile = new File(path);
 		if (groupFile.exists() && groupFile.isFile()) {
 			try {
-				HashMap<String, String> keys = FileMgmt.loadFileIntoHashMap(groupFile);
+				PlotGroupRecord record = readDecoded(groupFile, PlotGroupRecord::decode);
 				
-				line = keys.get("groupName");
-				if (line != null)
-					group.setName(line.trim());
+				if (record.name != null)
+					group.setName(record.name);
 				
-				line = keys.get("town");
+				line = record.town;
 				if (line != null && !line.isEmpty()) {
 					Town town = universe.getTown(line.trim());
 					if (town != null) {
@@ -1559,10 +1410,13 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 					deletePlotGroup(group);
 				}
 				
-				line = keys.get("groupPrice");
-				if (line != null && !line.isEmpty())
-					group.setPrice(Double.parseDouble(line.trim()));
+				if (record.price != null)
+					group.setPrice(record.price);
 
+				if (record.failed()) {
+					line = record.failedLine;
+					throw record.failure;
+				}
 			} catch (Exception e) {
 				TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_exception_reading_group_file_at_line", path, line));
 				return false;
@@ -1574,8 +1428,7 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		return true;
 	}
 	
-	@Override
-	public boolean loadTownBlocks() {
+	private boolean loadTownBlockFiles() {
 		
 		String line = "";
 		String path;
@@ -1588,9 +1441,9 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 			if (fileTownBlock.exists() && fileTownBlock.isFile()) {
 
 				try {
-					HashMap<String, String> keys = FileMgmt.loadFileIntoHashMap(fileTownBlock);			
+					TownBlockRecord record = readDecoded(fileTownBlock, TownBlockRecord::decode);
 
-					line = keys.get("town");
+					line = record.town;
 					if (line != null) {
 						if (line.isEmpty()) {
 							TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_townblock_file_missing_town_delete", path));
@@ -1627,20 +1480,19 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 						continue;
 					}
 
-					line = keys.get("name");
-					if (line != null)
+					if (record.name != null)
 						try {
-							townBlock.setName(line.trim());
+							townBlock.setName(record.name);
 						} catch (Exception ignored) {
 						}
 					
-					line = keys.get("type");
+					line = record.type;
 					if (line != null)
 						townBlock.setType(TownBlockTypeHandler.getTypeInternal(line));
 					
-					line = keys.get("resident");
-					if (line != null && !line.isEmpty()) {
-						Resident res = universe.getResident(line.trim());
+					line = record.resident;
+					if (line != null) {
+						Resident res = universe.getResident(line);
 						if (res != null) {
 							townBlock.setResident(res, false);
 						}
@@ -1649,59 +1501,32 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 						}
 					}
 					
-					line = keys.get("price");
-					if (line != null)
-						try {
-							townBlock.setPlotPrice(Double.parseDouble(line.trim()));
-						} catch (Exception ignored) {
-						}
+					if (record.price != null)
+						townBlock.setPlotPrice(record.price);
 					
-					line = keys.get("outpost");
-					if (line != null)
-						try {
-							townBlock.setOutpost(Boolean.parseBoolean(line));
-						} catch (Exception ignored) {
-						}
+					if (record.outpost != null)
+						townBlock.setOutpost(record.outpost);
 					
-					line = keys.get("permissions");
-					if ((line != null) && !line.isEmpty())
+					if (record.permissions != null)
 						try {
-							townBlock.setPermissions(line.trim());
+							townBlock.setPermissions(record.permissions);
 						} catch (Exception ignored) {
 						}
 					
-					line = keys.get("changed");
-					if (line != null)
-						try {
-							townBlock.setChanged(Boolean.parseBoolean(line.trim()));
-						} catch (Exception ignored) {
-						}
+					if (record.changed != null)
+						townBlock.setChanged(record.changed);
 					
-					line = keys.get("locked");
-					if (line != null)
-						try {
-							townBlock.setLocked(Boolean.parseBoolean(line.trim()));
-						} catch (Exception ignored) {
-						}
+					if (record.locked != null)
+						townBlock.setLocked(record.locked);
 
-					line = keys.get("claimedAt");
-					if (line != null)
-						try {
-							townBlock.setClaimedAt(Long.parseLong(line));
-						} catch (Exception ignored) {}
-					
-					line = keys.get("metadata");
-					if (line != null && !line.isEmpty())
-						MetadataLoader.getInstance().deserializeMetadata(townBlock, line.trim());
-
-					line = keys.get("groupID");
-					UUID groupID = null;
-					if (line != null && !line.isEmpty()) {
-						groupID = UUID.fromString(line.trim());
-					}
+					if (record.claimedAt != null)
+						townBlock.setClaimedAt(record.claimedAt);
 					
-					if (groupID != null) {
-						PlotGroup group = universe.getGroup(groupID);
+					if (record.metadata != null)
+						loadMetadata(townBlock, record.metadata);
+
+					if (record.groupID != null) {
+						PlotGroup group = universe.getGroup(record.groupID);
 						if (group != null) {
 							townBlock.setPlotObjectGroup(group);
 							if (group.getPermissions() == null && townBlock.getPermissions() != null) 
@@ -1713,37 +1538,31 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 						}
 					}
 
-					line = keys.get("trustedResidents");
-					if (line != null && !line.isEmpty() && townBlock.getTrustedResidents().isEmpty()) {
-						for (Resident resident : TownyAPI.getInstance().getResidents(toUUIDArray(line.split(","))))
+					if (record.trustedResidents != null && townBlock.getTrustedResidents().isEmpty()) {
+						for (Resident resident : TownyAPI.getInstance().getResidents(record.trustedResidents))
 							townBlock.addTrustedResident(resident);
 						
 						if (townBlock.hasPlotObjectGroup() && townBlock.getPlotObjectGroup().getTrustedResidents().isEmpty() && townBlock.getTrustedResidents().size() > 0)
 							townBlock.getPlotObjectGroup().setTrustedResidents(townBlock.getTrustedResidents());
 					}
 					
-					line = keys.get("customPermissionData");
-					if (line != null && !line.isEmpty() && townBlock.getPermissionOverrides().isEmpty()) {
-						Map<String, String> map = new Gson().fromJson(line, Map.class);
-						
-						for (Map.Entry<String, String> entry : map.entrySet()) {
-							Resident resident;
-							try {
-								resident = TownyAPI.getInstance().getResident(UUID.fromString(entry.getKey()));
-							} catch (IllegalArgumentException e) {
-								continue;
-							}
-							
+					if (record.permissionOverrides != null && townBlock.getPermissionOverrides().isEmpty()) {
+						for (Map.Entry<UUID, PermissionData> entry : record.permissionOverrides.entrySet()) {
+							Resident resident = TownyAPI.getInstance().getResident(entry.getKey());
 							if (resident == null)
 								continue;
 							
-							townBlock.getPermissionOverrides().put(resident, new PermissionData(entry.getValue()));
+							townBlock.getPermissionOverrides().put(resident, entry.getValue());
 						}
 						
 						if (townBlock.hasPlotObjectGroup() && townBlock.getPlotObjectGroup().getPermissionOverrides().isEmpty() && townBlock.getPermissionOverrides().size() > 0)
 							townBlock.getPlotObjectGroup().setPermissionOverrides(townBlock.getPermissionOverrides());
 					}
 
+					if (record.failed()) {
+						line = record.failedLine;
+						throw record.failure;
+					}
 				} catch (Exception e) {
 					TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_exception_reading_townblock_file_at_line", path, line));
 					return false;
@@ -1760,55 +1579,36 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 	}
 
 	public boolean loadJail(Jail jail) {
-		String line = "";
-		String[] tokens;
 		String path = getJailFilename(jail);
 		File jailFile = new File(path);
 		if (jailFile.exists() && jailFile.isFile()) {
-			HashMap<String, String> keys = FileMgmt.loadFileIntoHashMap(jailFile);
+			JailRecord record = readDecoded(jailFile, JailRecord::decode);
 			
-			line = keys.get("townblock");
-			if (line != null) {
-				tokens = line.split(",");
-				TownBlock tb = null;
-				try {
-					tb = universe.getTownBlock(new WorldCoord(tokens[0], Integer.parseInt(tokens[1].trim()), Integer.parseInt(tokens[2].trim())));
-					jail.setTownBlock(tb);
-					jail.setTown(tb.getTown());
-					tb.setJail(jail);
-					tb.getTown().addJail(jail);
-				} catch (NumberFormatException | NotRegisteredException e) {
-					TownyMessaging.sendErrorMsg("Jail " + jail.getUUID() + " tried to load invalid townblock " + line + " deleting jail.");
+			if (record.townBlock != null) {
+				TownBlock tb = record.townBlockX == null ? null : universe.getTownBlockOrNull(new WorldCoord(record.townBlockWorld, record.townBlockX, record.townBlockZ));
+				if (tb == null || !tb.hasTown()) {
+					TownyMessaging.sendErrorMsg("Jail " + jail.getUUID() + " tried to load invalid townblock " + record.townBlock + " deleting jail.");
 					removeJail(jail);
 					deleteJail(jail);
 					return true;
 				}
+				jail.setTownBlock(tb);
+				jail.setTown(tb.getTownOrNull());
+				tb.setJail(jail);
+				tb.getTownOrNull().addJail(jail);
 			}
 			
-			line = keys.get("spawns");
-			if (line != null) {
-				String[] jails = line.split(";");
-				for (String spawn : jails) {
-					tokens = spawn.split(",");
-					if (tokens.length >= 4)
-						try {
-							World world = plugin.getServerWorld(tokens[0]);
-							double x = Double.parseDouble(tokens[1]);
-							double y = Double.parseDouble(tokens[2]);
-							double z = Double.parseDouble(tokens[3]);
-							Location loc = new Location(world, x, y, z);
-							if (tokens.length == 6) {
-								loc.setPitch(Float.parseFloat(tokens[4]));
-								loc.setYaw(Float.parseFloat(tokens[5]));
-							}
-							jail.addJailCell(loc);
-						} catch (NumberFormatException | NullPointerException | NotRegisteredException e) {
-							TownyMessaging.sendErrorMsg("Jail " + jail.getUUID() + " tried to load invalid spawn " + line + " skipping.");
-							continue;
-						}
-				}
+			if (record.spawns != null) {
+				for (int i = 0; i < record.invalidSpawns; i++)
+					TownyMessaging.sendErrorMsg("Jail " + jail.getUUID() + " tried to load invalid spawn " + record.spawnsLine + " skipping.");
+				for (Spawn spawn : record.spawns)
+					try {
+						jail.addJailCell(toLocation(spawn));
+					} catch (NullPointerException | NotRegisteredException e) {
+						TownyMessaging.sendErrorMsg("Jail " + jail.getUUID() + " tried to load invalid spawn " + record.spawnsLine + " skipping.");
+					}
 				if (jail.getJailCellLocations().isEmpty()) {
-					TownyMessaging.sendErrorMsg("Jail " + jail.getUUID() + " loaded with zero spawns " + line + " deleting jail.");
+					TownyMessaging.sendErrorMsg("Jail " + jail.getUUID() + " loaded with zero spawns " + record.spawnsLine + " deleting jail.");
 					removeJail(jail);
 					deleteJail(jail);
 					return true;
@@ -1847,8 +1647,106 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 	 * Save individual towny objects
 	 */
 
+	/*
+	 * Saving only marks an object as dirty, it is written out by the next
+	 * flush, however many times it was saved in between.
+	 */
+
 	@Override
 	public boolean saveResident(Resident resident) {
+		return markDirty(resident);
+	}
+
+	@Override
+	public boolean saveTown(Town town) {
+		return markDirty(town);
+	}
+
+	@Override
+	public boolean savePlotGroup(PlotGroup group) {
+		return markDirty(group);
+	}
+
+	@Override
+	public boolean saveNation(Nation nation) {
+		return markDirty(nation);
+	}
+
+	@Override
+	public boolean saveWorld(TownyWorld world) {
+		return markDirty(world);
+	}
+
+	@Override
+	public boolean saveTownBlock(TownBlock townBlock) {
+		return markDirty(townBlock);
+	}
+
+	@Override
+	public boolean saveJail(Jail jail) {
+		return markDirty(jail);
+	}
+
+	private boolean markDirty(Object object) {
+		synchronized (dirtyObjects) {
+			dirtyObjects.add(object);
+		}
+		return true;
+	}
+
+	/*
+	 * Forgets any pending save of an object which is being deleted, so that
+	 * the flush can't write its file back after the delete.
+	 */
+	private void clearDirty(Object object) {
+		synchronized (dirtyObjects) {
+			dirtyObjects.remove(object);
+		}
+	}
+
+	/**
+	 * Serializes every object saved since the last flush, once each, and
+	 * queues their files to be written asynchronously.
+	 * <p>
+	 * Runs on the main thread, so that each object is serialized from a
+	 * consistent state rather than while it is being changed.
+	 */
+	public void flushDirtyObjects() {
+		final List<Object> dirty;
+		synchronized (dirtyObjects) {
+			if (dirtyObjects.isEmpty())
+				return;
+			dirty = new ArrayList<>(dirtyObjects);
+			dirtyObjects.clear();
+		}
+
+		for (Object object : dirty) {
+			if (object instanceof Resident resident)
+				writeResident(resident);
+			else if (object instanceof Town town)
+				writeTown(town);
+			else if (object instanceof PlotGroup group)
+				writePlotGroup(group);
+			else if (object instanceof Nation nation)
+				writeNation(nation);
+			else if (object instanceof TownyWorld world)
+				writeWorld(world);
+			else if (object instanceof TownBlock townBlock)
+				writeTownBlock(townBlock);
+			else if (object instanceof Jail jail)
+				writeJail(jail);
+		}
+	}
+
+	@Override
+	public void finishTasks() {
+		flushTask.cancel();
+		// Write out anything still dirty before the queue is drained for the last time.
+		flushDirtyObjects();
+		super.finishTasks();
+	}
+
+	private void writeResident(Resident resident) {
 
 		List<String> list = new ArrayList<>();
 
@@ -1904,8 +1802,6 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		 */
 		this.queryQueue.add(new FlatFileSaveTask(list, getResidentFilename(resident)));
 
-		return true;
-
 	}
 	
 	@Override
@@ -1916,8 +1812,7 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		return true;
 	}
 
-	@Override
-	public boolean saveTown(Town town) {
+	private void writeTown(Town town) {
 
 		List<String> list = new ArrayList<>();
 
@@ -2047,12 +1942,9 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		 */
 		this.queryQueue.add(new FlatFileSaveTask(list, getTownFilename(town)));
 
-		return true;
-
 	}
 	
-	@Override
-	public boolean savePlotGroup(PlotGroup group) {
+	private void writePlotGroup(PlotGroup group) {
 		
 		List<String> list = new ArrayList<>();
 		
@@ -2067,12 +1959,9 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		
 		// Save file
 		this.queryQueue.add(new FlatFileSaveTask(list, getPlotGroupFilename(group)));
-		
-		return true;
 	}
 
-	@Override
-	public boolean saveNation(Nation nation) {
+	private void writeNation(Nation nation) {
 
 		List<String> list = new ArrayList<>();
 
@@ -2126,12 +2015,9 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		 */
 		this.queryQueue.add(new FlatFileSaveTask(list, getNationFilename(nation)));
 
-		return true;
-
 	}
 
-	@Override
-	public boolean saveWorld(TownyWorld world) {
+	private void writeWorld(TownyWorld world) {
 
 		List<String> list = new ArrayList<>();
 
@@ -2277,12 +2163,9 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		 */
 		this.queryQueue.add(new FlatFileSaveTask(list, getWorldFilename(world)));
 
-		return true;
-
 	}
 
-	@Override
-	public boolean saveTownBlock(TownBlock townBlock) {
+	private void writeTownBlock(TownBlock townBlock) {
 
 		FileMgmt.checkOrCreateFolder(dataFolderPath + File.separator + "townblocks" + File.separator + townBlock.getWorld().getName());
 
@@ -2350,11 +2233,9 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		 */
 		this.queryQueue.add(new FlatFileSaveTask(list, getTownBlockFilename(townBlock)));
 
-		return true;
-
 	}
 
-	public boolean saveJail(Jail jail) {
+	private void writeJail(Jail jail) {
 		
 		List<String> list = new ArrayList<>();
 		
@@ -2371,7 +2252,6 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		list.add(jailArray.toString());
 
 		this.queryQueue.add(new FlatFileSaveTask(list, getJailFilename(jail)));
-		return true;
 	}
 	
 	/*
@@ -2380,6 +2260,7 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 	
 	@Override
 	public void deleteResident(Resident resident) {
+		clearDirty(resident);
 		File file = new File(getResidentFilename(resident));
 		queryQueue.add(new DeleteFileTask(file, false));
 	}
@@ -2392,24 +2273,28 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 	
 	@Override
 	public void deleteTown(Town town) {
+		clearDirty(town);
 		File file = new File(getTownFilename(town));
 		queryQueue.add(new DeleteFileTask(file, false));
 	}
 
 	@Override
 	public void deleteNation(Nation nation) {
+		clearDirty(nation);
 		File file = new File(getNationFilename(nation));
 		queryQueue.add(new DeleteFileTask(file, false));
 	}
 
 	@Override
 	public void deleteWorld(TownyWorld world) {
+		clearDirty(world);
 		File file = new File(getWorldFilename(world));
 		queryQueue.add(new DeleteFileTask(file, false));
 	}
 
 	@Override
 	public void deleteTownBlock(TownBlock townBlock) {
+		clearDirty(townBlock);
 
 		File file = new File(getTownBlockFilename(townBlock));
 		
@@ -2434,12 +2319,14 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 	
 	@Override
 	public void deletePlotGroup(PlotGroup group) {
+		clearDirty(group);
     	File file = new File(getPlotGroupFilename(group));
     	queryQueue.add(new DeleteFileTask(file, false));
 	}
 	
 	@Override
 	public void deleteJail(Jail jail) {
+		clearDirty(jail);
 		File file = new File(getJailFilename(jail));
 		queryQueue.add(new DeleteFileTask(file, false));
 	}
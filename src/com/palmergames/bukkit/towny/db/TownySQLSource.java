@@ -48,20 +48,20 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
-import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public final class TownySQLSource extends TownyDatabaseHandler {
 
 	private final Queue<SQL_Task> queryQueue = new ConcurrentLinkedQueue<>();
+	private final SQL_WriterLane[] writerLanes;
 	private BukkitTask task = null;
 
 	private final String dsn;
@@ -120,6 +120,14 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 		this.hikariDataSource = new HikariDataSource(config);
 
+		/*
+		 * Leave one pooled connection free for loading.
+		 */
+		int lanes = Math.max(1, Math.min(TownySettings.getSQLWriterLanes(), TownySettings.getMaxPoolSize() - 1));
+		this.writerLanes = new SQL_WriterLane[lanes];
+		for (int i = 0; i < lanes; i++)
+			writerLanes[i] = new SQL_WriterLane(i, tb_prefix, hikariDataSource, TownySettings.getMaxLifetime());
+
 		/*
 		 * Register the driver (if possible)
 		 */
@@ -159,21 +167,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 		/*
 		 * Start our Async queue for pushing data to the database.
 		 */
-		task = BukkitTools.getScheduler().runTaskTimerAsynchronously(plugin, () -> {
-
-			while (!TownySQLSource.this.queryQueue.isEmpty()) {
-
-				SQL_Task query = TownySQLSource.this.queryQueue.poll();
-
-				if (query.update) {
-					TownySQLSource.this.QueueUpdateDB(query.tb_name, query.args, query.keys);
-				} else {
-					TownySQLSource.this.QueueDeleteDB(query.tb_name, query.args);
-				}
-
-			}
-
-		}, 5L, 5L);
+		task = BukkitTools.getScheduler().runTaskTimerAsynchronously(plugin, this::flushQueue, 5L, 5L);
 	}
 
 	@Override
@@ -182,19 +176,38 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 		task.cancel();
 
 		// Make sure that *all* tasks are saved before shutting down.
-		while (!queryQueue.isEmpty()) {
-			SQL_Task query = TownySQLSource.this.queryQueue.poll();
+		flushQueue();
+		long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
+		for (SQL_WriterLane lane : writerLanes)
+			lane.shutdown(deadline);
 
-			if (query.update) {
-				TownySQLSource.this.QueueUpdateDB(query.tb_name, query.args, query.keys);
-			} else {
-				TownySQLSource.this.QueueDeleteDB(query.tb_name, query.args);
-			}
-		}
 		// Close the database sources on shutdown to get GC
 		hikariDataSource.close();
 	}
 
+	/**
+	 * Drain the queue and hand everything in it to the writer lanes. Tasks are
+	 * split by table and primary key, so every write to the same row goes to
+	 * the same lane and stays in order.
+	 */
+	private synchronized void flushQueue() {
+
+		if (queryQueue.isEmpty())
+			return;
+
+		List<List<SQL_Task>> partitions = new ArrayList<>(writerLanes.length);
+		for (int i = 0; i < writerLanes.length; i++)
+			partitions.add(new ArrayList<>());
+
+		SQL_Task query;
+		while ((query = queryQueue.poll()) != null)
+			partitions.get(Math.floorMod(SQL_BatchWriter.rowKey(query).hashCode(), writerLanes.length)).add(query);
+
+		for (int i = 0; i < writerLanes.length; i++)
+			if (!partitions.get(i).isEmpty())
+				writerLanes[i].submit(partitions.get(i));
+	}
+
 	/**
 	 * open a connection to the SQL server.
 	 *
@@ -254,154 +267,6 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 	}
 
-	public boolean QueueUpdateDB(String tb_name, HashMap<String, Object> args, List<String> keys) {
-
-		/*
-		 * Attempt to get a database connection.
-		 */
-		if (!getContext())
-			return false;
-
-		StringBuilder code;
-		PreparedStatement stmt = null;
-		List<Object> parameters = new ArrayList<>();
-		int rs = 0;
-
-		try {
-
-			if (keys == null) {
-
-				/*
-				 * No keys so this is an INSERT not an UPDATE.
-				 */
-
-				// Push all values to a parameter list.
-
-				parameters.addAll(args.values());
-
-				String[] aKeys = args.keySet().toArray(new String[0]);
-
-				// Build the prepared statement string appropriate for
-				// the number of keys/values we are inserting.
-
-				code = new StringBuilder("REPLACE INTO " + tb_prefix + (tb_name.toUpperCase()) + " ");
-				StringBuilder keycode = new StringBuilder("(");
-				StringBuilder valuecode = new StringBuilder(" VALUES (");
-
-				for (int count = 0; count < args.size(); count++) {
-
-					keycode.append("`").append(aKeys[count]).append("`");
-					valuecode.append("?");
-
-					if ((count < (args.size() - 1))) {
-						keycode.append(", ");
-						valuecode.append(",");
-					} else {
-						keycode.append(")");
-						valuecode.append(")");
-					}
-				}
-
-				code.append(keycode);
-				code.append(valuecode);
-
-			} else {
-
-				/*
-				 * We have keys so this is a conditional UPDATE.
-				 */
-
-				String[] aKeys = args.keySet().toArray(new String[0]);
-
-				// Build the prepared statement string appropriate for
-				// the number of keys/values we are inserting.
-
-				code = new StringBuilder("UPDATE " + tb_prefix + (tb_name.toUpperCase()) + " SET ");
-
-				for (int count = 0; count < args.size(); count++) {
-
-					code.append("`").append(aKeys[count]).append("` = ?");
-
-					// Push value for each entry.
-
-					parameters.add(args.get(aKeys[count]));
-
-					if ((count < (args.size() - 1))) {
-						code.append(",");
-					}
-				}
-
-				code.append(" WHERE ");
-
-				for (int count = 0; count < keys.size(); count++) {
-
-					code.append("`").append(keys.get(count)).append("` = ?");
-
-					// Add extra values for the WHERE conditionals.
-
-					parameters.add(args.get(keys.get(count)));
-
-					if ((count < (keys.size() - 1))) {
-						code.append(" AND ");
-					}
-				}
-
-			}
-
-			// Populate the prepared statement parameters.
-
-			stmt = cntx.prepareStatement(code.toString());
-
-			for (int count = 0; count < parameters.size(); count++) {
-
-				Object element = parameters.get(count);
-
-				if (element instanceof String) {
-
-					stmt.setString(count + 1, (String) element);
-
-				} else if (element instanceof Boolean) {
-
-					stmt.setString(count + 1, ((Boolean) element) ? "1" : "0");
-
-				} else {
-
-					stmt.setObject(count + 1, element.toString());
-
-				}
-
-			}
-
-			rs = stmt.executeUpdate();
-
-		} catch (SQLException e) {
-
-			TownyMessaging.sendErrorMsg("SQL: " + e.getMessage() + " --> " + stmt.toString());
-
-		} finally {
-
-			try {
-
-				if (stmt != null) {
-					stmt.close();
-				}
-
-				if (rs == 0) // if entry doesn't exist then try to insert
-					return UpdateDB(tb_name, args, null);
-
-			} catch (SQLException e) {
-				TownyMessaging.sendErrorMsg("SQL closing: " + e.getMessage() + " --> " + stmt.toString());
-			}
-
-		}
-
-		// Failed?
-		return rs != 0;
-
-		// Success!
-
-	}
-
 	/**
 	 * Build the SQL string and execute to DELETE
 	 *
@@ -419,40 +284,6 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 	}
 
-	public boolean QueueDeleteDB(String tb_name, HashMap<String, Object> args) {
-
-		if (!getContext())
-			return false;
-		try {
-			StringBuilder wherecode = new StringBuilder(
-					"DELETE FROM " + tb_prefix + (tb_name.toUpperCase()) + " WHERE ");
-			Set<Map.Entry<String, Object>> set = args.entrySet();
-			Iterator<Map.Entry<String, Object>> i = set.iterator();
-			while (i.hasNext()) {
-				Map.Entry<String, Object> me = i.next();
-				wherecode.append("`").append(me.getKey()).append("` = ");
-				if (me.getValue() instanceof String)
-					wherecode.append("'").append(((String) me.getValue()).replace("'", "''")).append("'");
-				else if (me.getValue() instanceof Boolean)
-					wherecode.append("'").append(((Boolean) me.getValue()) ? "1" : "0").append("'");
-				else
-					wherecode.append("'").append(me.getValue()).append("'");
-
-				wherecode.append(i.hasNext() ? " AND " : "");
-			}
-			int rs;
-			try (Statement statement = cntx.createStatement()) {
-				rs = statement.executeUpdate(wherecode.toString());
-			}
-			if (rs == 0) {
-				TownyMessaging.sendDebugMsg("SQL: delete returned 0: " + wherecode);
-			}
-		} catch (SQLException e) {
-			TownyMessaging.sendErrorMsg("SQL: Error delete : " + e.getMessage());
-		}
-		return false;
-	}
-
 	@Override
 	public boolean cleanup() {
 
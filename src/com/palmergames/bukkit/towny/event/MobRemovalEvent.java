@@ -1,5 +1,6 @@
 package com.palmergames.bukkit.towny.event;
 
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.event.Cancellable;
@@ -13,7 +14,7 @@ public class MobRemovalEvent extends Event implements Cancellable {
 	private final Entity entity;
 	
 	public MobRemovalEvent(Entity entity) {
-		super(true);
+		super(!Bukkit.getServer().isPrimaryThread());
 		this.entity = entity;
 	}
 	
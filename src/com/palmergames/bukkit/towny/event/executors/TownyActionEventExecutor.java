@@ -2,23 +2,28 @@ package com.palmergames.bukkit.towny.event.executors;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.palmergames.bukkit.towny.event.damage.TownBlockExplosionTestEvent;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Event;
 import org.bukkit.event.entity.EntityDamageEvent.DamageCause;
+import org.jetbrains.annotations.Nullable;
 
 import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.event.actions.TownyActionEvent;
 import com.palmergames.bukkit.towny.event.actions.TownyBuildEvent;
 import com.palmergames.bukkit.towny.event.actions.TownyBurnEvent;
@@ -27,6 +32,7 @@ import com.palmergames.bukkit.towny.event.actions.TownyExplodingBlocksEvent;
 import com.palmergames.bukkit.towny.event.actions.TownyItemuseEvent;
 import com.palmergames.bukkit.towny.event.actions.TownySwitchEvent;
 import com.palmergames.bukkit.towny.event.damage.TownyExplosionDamagesEntityEvent;
+import com.palmergames.bukkit.towny.object.Coord;
 import com.palmergames.bukkit.towny.object.PlayerCache;
 import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.object.TownyPermission.ActionType;
@@ -95,13 +101,25 @@ public class TownyActionEventExecutor {
 	 * @return true if the explosion is allowed.
 	 */
 	private static boolean isAllowedExplosion(Location loc) {
+		TownyWorld world = TownyUniverse.getInstance().getWorld(loc.getWorld());
+		return isAllowedExplosion(world, world == null ? null : world.getTownBlockOrNull(Coord.toCell(loc.getBlockX()), Coord.toCell(loc.getBlockZ())));
+	}
+
+	/**
+	 * Towny's primary internal test to determine if something can explode
+	 * in the given townblock, based on Towny's plot permissions.
+	 * 
+	 * @param world - TownyWorld being tested.
+	 * @param townBlock - TownBlock being tested, or null in the wilderness.
+	 * @return true if the explosion is allowed.
+	 */
+	private static boolean isAllowedExplosion(@Nullable TownyWorld world, @Nullable TownBlock townBlock) {
 		boolean canExplode = false;
-		TownyWorld world = TownyAPI.getInstance().getTownyWorld(loc.getWorld().getName());
 		if (world == null)
 			canExplode = false;
 		else {
 		
-			if (TownyAPI.getInstance().isWilderness(loc)) {
+			if (townBlock == null || !townBlock.hasTown()) {
 				/*
 				 * Handle occasions in the wilderness first.
 				 */
@@ -113,7 +131,6 @@ public class TownyActionEventExecutor {
 				/*
 				 * Must be inside of a town.
 				 */
-				TownBlock townBlock = TownyAPI.getInstance().getTownBlock(loc);
 				canExplode = world.isForceExpl() || townBlock.getPermissions().explosion;
 				
 				TownBlockExplosionTestEvent event = new TownBlockExplosionTestEvent(townBlock, townBlock.getTownOrNull(), canExplode);
@@ -125,12 +142,36 @@ public class TownyActionEventExecutor {
 		return canExplode;
 	}
 	
+	/**
+	 * Filters the blocks of an explosion by townblock rather than block by
+	 * block. An explosion rarely spans more than a few townblocks, so each
+	 * townblock is looked up, and its TownBlockExplosionTestEvent fired, once.
+	 */
 	private static List<Block> filterExplodingBlockList(List<Block> blocks) {
 
 		List<Block> approvedBlocks = new ArrayList<Block>();
-		
+		Map<Long, Boolean> allowedCells = new HashMap<>();
+		World bukkitWorld = null;
+		TownyWorld world = null;
+
 		for (Block block : blocks) {
-			if (isAllowedExplosion(block.getLocation()))
+			if (block.getWorld() != bukkitWorld) {
+				bukkitWorld = block.getWorld();
+				world = TownyUniverse.getInstance().getWorld(bukkitWorld);
+				allowedCells.clear();
+			}
+
+			int cellX = Coord.toCell(block.getX());
+			int cellZ = Coord.toCell(block.getZ());
+			long key = Coord.pack(cellX, cellZ);
+
+			Boolean allowed = allowedCells.get(key);
+			if (allowed == null) {
+				allowed = isAllowedExplosion(world, world == null ? null : world.getTownBlockOrNull(cellX, cellZ));
+				allowedCells.put(key, allowed);
+			}
+
+			if (allowed)
 				approvedBlocks.add(block);
 		}
 		return approvedBlocks;
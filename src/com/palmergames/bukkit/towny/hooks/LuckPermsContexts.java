@@ -5,35 +5,99 @@ import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.TownyUniverse;
-import com.palmergames.bukkit.towny.object.Nation;
+import com.palmergames.bukkit.towny.event.DeleteNationEvent;
+import com.palmergames.bukkit.towny.event.DeleteTownEvent;
+import com.palmergames.bukkit.towny.event.NationAddTownEvent;
+import com.palmergames.bukkit.towny.event.NationRemoveTownEvent;
+import com.palmergames.bukkit.towny.event.NewNationEvent;
+import com.palmergames.bukkit.towny.event.NewTownEvent;
+import com.palmergames.bukkit.towny.event.PlayerChangePlotEvent;
+import com.palmergames.bukkit.towny.event.PlotChangeOwnerEvent;
+import com.palmergames.bukkit.towny.event.RenameNationEvent;
+import com.palmergames.bukkit.towny.event.RenameTownEvent;
+import com.palmergames.bukkit.towny.event.TownAddResidentEvent;
+import com.palmergames.bukkit.towny.event.TownAddResidentRankEvent;
+import com.palmergames.bukkit.towny.event.TownClaimEvent;
+import com.palmergames.bukkit.towny.event.TownRemoveResidentEvent;
+import com.palmergames.bukkit.towny.event.TownRemoveResidentRankEvent;
+import com.palmergames.bukkit.towny.event.TownyLoadedDatabaseEvent;
+import com.palmergames.bukkit.towny.event.nation.NationKingChangeEvent;
+import com.palmergames.bukkit.towny.event.nation.NationRankAddEvent;
+import com.palmergames.bukkit.towny.event.nation.NationRankRemoveEvent;
+import com.palmergames.bukkit.towny.event.town.TownMayorChangeEvent;
+import com.palmergames.bukkit.towny.event.town.TownUnclaimEvent;
 import com.palmergames.bukkit.towny.object.PlayerCache;
 import com.palmergames.bukkit.towny.object.Resident;
-import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.permissions.TownyPerms;
 import net.luckperms.api.LuckPerms;
 import net.luckperms.api.context.ContextCalculator;
 import net.luckperms.api.context.ContextConsumer;
 import net.luckperms.api.context.ContextSet;
 import net.luckperms.api.context.ImmutableContextSet;
+import net.luckperms.api.event.EventSubscription;
+import net.luckperms.api.event.group.GroupDataRecalculateEvent;
+import net.luckperms.api.event.user.UserDataRecalculateEvent;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
 import org.bukkit.plugin.RegisteredServiceProvider;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
-public class LuckPermsContexts implements ContextCalculator<Player> {
+/**
+ * Provides Towny's contexts to LuckPerms.
+ * <p>
+ * LuckPerms asks for a player's contexts very often, so each player's contexts
+ * are worked out once and kept as an {@link ImmutableContextSet}. When Towny
+ * changes something which they depend on, the players affected are queued and
+ * their contexts are worked out again on the next tick. LuckPerms is only told,
+ * through {@link net.luckperms.api.context.ContextManager#signalContextUpdate(Object)},
+ * when a player's contexts have actually changed. Contexts worked out before
+ * Towny has a {@link PlayerCache} for the player are missing where they stand,
+ * so they are never kept, and are worked out again once the player has joined
+ * or respawned.
+ * <p>
+ * Towny also caches the override nodes it has resolved for each player, so
+ * these are forgotten whenever LuckPerms recalculates a user's or a group's
+ * permissions.
+ */
+public class LuckPermsContexts implements ContextCalculator<Player>, Listener {
+	private final Towny plugin;
 	private LuckPerms luckPerms;
 	private final Set<Calculator> calculators = new HashSet<>();
+	private final Map<UUID, ImmutableContextSet> contexts = new ConcurrentHashMap<>();
+	private final Set<UUID> pendingUpdates = ConcurrentHashMap.newKeySet();
+	private final AtomicBoolean updatesScheduled = new AtomicBoolean(false);
+	private final List<EventSubscription<?>> subscriptions = new ArrayList<>();
+	// The names suggested for the town and nation contexts, kept up to date by the events below.
+	private final Set<String> townNames = ConcurrentHashMap.newKeySet();
+	private final Set<String> nationNames = ConcurrentHashMap.newKeySet();
 
 	public LuckPermsContexts(@NotNull Towny plugin) {
+		this.plugin = plugin;
 		registerContext("towny:resident", resident -> Collections.singleton(String.valueOf(resident.hasTown())), () -> Arrays.asList("true", "false"));
 		registerContext("towny:mayor", resident -> Collections.singleton(String.valueOf(resident.isMayor())), () -> Arrays.asList("true", "false"));
 		registerContext("towny:king", resident -> Collections.singleton(String.valueOf(resident.isKing())), () -> Arrays.asList("true", "false"));
@@ -41,7 +105,7 @@ public class LuckPermsContexts implements ContextCalculator<Player> {
 			PlayerCache cache = plugin.getCacheOrNull(resident.getUUID());
 			if (cache == null)
 				return Collections.emptyList();
-			
+
 			return Optional.ofNullable(cache.getLastTownBlock()).map(wc -> Collections.singleton(String.valueOf(wc.hasTownBlock()))).orElse(Collections.emptySet());
 		}, () -> Arrays.asList("true", "false"));
 		registerContext("towny:insideowntown", resident -> {
@@ -49,62 +113,291 @@ public class LuckPermsContexts implements ContextCalculator<Player> {
 			if (cache == null)
 				return Collections.emptyList();
 
-			return Optional.ofNullable(cache.getLastTownBlock().getTownOrNull()).map(town -> Collections.singleton(String.valueOf(town.hasResident(resident)))).orElse(Collections.emptySet());
+			return Optional.ofNullable(cache.getLastTownBlock()).map(WorldCoord::getTownOrNull).map(town -> Collections.singleton(String.valueOf(town.hasResident(resident)))).orElse(Collections.emptySet());
 		}, () -> Arrays.asList("true", "false"));
 		registerContext("towny:insideownplot", resident -> {
 			PlayerCache cache = plugin.getCacheOrNull(resident.getUUID());
 			if (cache == null)
 				return Collections.emptyList();
 
-			return Optional.ofNullable(cache.getLastTownBlock().getTownBlockOrNull()).map(townBlock -> Collections.singleton(String.valueOf(townBlock.hasResident(resident)))).orElse(Collections.emptySet());
+			return Optional.ofNullable(cache.getLastTownBlock()).map(WorldCoord::getTownBlockOrNull).map(townBlock -> Collections.singleton(String.valueOf(townBlock.hasResident(resident)))).orElse(Collections.emptySet());
 		}, () -> Arrays.asList("true", "false"));
 		registerContext("towny:townrank", Resident::getTownRanks, TownyPerms::getTownRanks);
 		registerContext("towny:nationrank", Resident::getNationRanks, TownyPerms::getNationRanks);
-		registerContext("towny:town", resident -> resident.hasTown() ? Collections.singleton(resident.getTownOrNull().getName()) : Collections.emptyList(), () -> TownyUniverse.getInstance().getTowns().stream().map(Town::getName).collect(Collectors.toSet()));
-		registerContext("towny:nation", resident -> resident.hasNation() ? Collections.singleton(resident.getNationOrNull().getName()) : Collections.emptyList(), () -> TownyUniverse.getInstance().getNations().stream().map(Nation::getName).collect(Collectors.toSet()));
-	
+		registerContext("towny:town", resident -> resident.hasTown() ? Collections.singleton(resident.getTownOrNull().getName()) : Collections.emptyList(), () -> townNames);
+		registerContext("towny:nation", resident -> resident.hasNation() ? Collections.singleton(resident.getNationOrNull().getName()) : Collections.emptyList(), () -> nationNames);
+
 		this.calculators.removeIf(calculator -> !TownySettings.isContextEnabled(calculator.context));
 		plugin.getLogger().info("Enabled LuckPerms contexts: " + this.calculators.stream().map(Calculator::context).collect(Collectors.joining(", ")));
+		loadNames();
 	}
-	
+
 	public void registerContexts() {
 		RegisteredServiceProvider<LuckPerms> provider = Bukkit.getServicesManager().getRegistration(LuckPerms.class);
 		if (provider != null) {
 			this.luckPerms = provider.getProvider();
 			luckPerms.getContextManager().registerCalculator(this);
+			Bukkit.getPluginManager().registerEvents(this, plugin);
+			subscriptions.add(luckPerms.getEventBus().subscribe(plugin, UserDataRecalculateEvent.class, this::onUserDataRecalculate));
+			subscriptions.add(luckPerms.getEventBus().subscribe(plugin, GroupDataRecalculateEvent.class, event -> plugin.resetCache()));
 		} else
 			this.luckPerms = null;
 	}
-	
+
 	public void unregisterContexts() {
-		if (this.luckPerms != null)
+		if (this.luckPerms != null) {
 			this.luckPerms.getContextManager().unregisterCalculator(this);
+			HandlerList.unregisterAll(this);
+			subscriptions.forEach(EventSubscription::close);
+			subscriptions.clear();
+		}
+		contexts.clear();
 	}
-	
+
 	private void registerContext(String context, Function<Resident, Iterable<String>> calculator, Supplier<Iterable<String>> suggestions) {
 		calculators.add(new Calculator(context, calculator, suggestions));
 	}
-	
+
 	@Override
 	public void calculate(@NotNull Player player, @NotNull ContextConsumer contextConsumer) {
-		Resident resident = TownyAPI.getInstance().getResident(player);
-		if (resident == null)
-			return;
-		
-		for (Calculator calculator : this.calculators)
-			calculator.function().apply(resident).forEach(value -> contextConsumer.accept(calculator.context, value));
+		ImmutableContextSet set = contexts.get(player.getUniqueId());
+		if (set == null) {
+			Resident resident = TownyAPI.getInstance().getResident(player);
+			if (resident == null)
+				return;
+
+			set = buildContexts(resident);
+			if (plugin.getCacheOrNull(player.getUniqueId()) != null)
+				contexts.put(player.getUniqueId(), set);
+		}
+
+		contextConsumer.accept(set);
 	}
 
 	@Override
 	public ContextSet estimatePotentialContexts() {
 		ImmutableContextSet.Builder builder = ImmutableContextSet.builder();
-		
+
 		for (Calculator calculator : this.calculators)
 			calculator.suggestions().get().forEach(value -> builder.add(calculator.context, value));
-		
+
 		return builder.build();
 	}
-	
+
+	private ImmutableContextSet buildContexts(Resident resident) {
+		ImmutableContextSet.Builder builder = ImmutableContextSet.builder();
+
+		for (Calculator calculator : this.calculators)
+			calculator.function().apply(resident).forEach(value -> builder.add(calculator.context, value));
+
+		return builder.build();
+	}
+
+	private void loadNames() {
+		townNames.clear();
+		nationNames.clear();
+		TownyUniverse.getInstance().getTowns().forEach(town -> townNames.add(town.getName()));
+		TownyUniverse.getInstance().getNations().forEach(nation -> nationNames.add(nation.getName()));
+	}
+
+	/**
+	 * Queues the resident's contexts to be worked out again on the next tick,
+	 * after whatever fired the event has finished making its change.
+	 *
+	 * @param resident Resident whose contexts may have changed.
+	 */
+	private void update(@Nullable Resident resident) {
+		if (resident != null && resident.getUUID() != null)
+			update(resident.getUUID());
+	}
+
+	private void update(Collection<Resident> residents) {
+		residents.forEach(this::update);
+	}
+
+	private void update(UUID uuid) {
+		pendingUpdates.add(uuid);
+		if (updatesScheduled.compareAndSet(false, true))
+			Bukkit.getScheduler().runTask(plugin, this::runPendingUpdates);
+	}
+
+	private void updateAllOnline() {
+		for (Player player : Bukkit.getOnlinePlayers())
+			update(player.getUniqueId());
+	}
+
+	private void runPendingUpdates() {
+		updatesScheduled.set(false);
+		for (UUID uuid : pendingUpdates) {
+			pendingUpdates.remove(uuid);
+
+			Player player = Bukkit.getPlayer(uuid);
+			Resident resident = player == null ? null : TownyAPI.getInstance().getResident(player);
+			if (resident == null) {
+				contexts.remove(uuid);
+				continue;
+			}
+
+			ImmutableContextSet set = buildContexts(resident);
+			ImmutableContextSet previous = plugin.getCacheOrNull(uuid) != null ? contexts.put(uuid, set) : contexts.remove(uuid);
+			if (set.equals(previous))
+				continue;
+
+			if (luckPerms != null)
+				luckPerms.getContextManager().signalContextUpdate(player);
+		}
+	}
+
+	/*
+	 * The user's permissions have changed, which may change their overrides
+	 * and so the permissions cached for them at each WorldCoord.
+	 */
+	private void onUserDataRecalculate(UserDataRecalculateEvent event) {
+		UUID uuid = event.getUser().getUniqueId();
+		TownyUniverse.getInstance().getPermissionSource().invalidateOverrides(uuid);
+		Resident resident = TownyUniverse.getInstance().getResident(uuid);
+		if (resident != null)
+			resident.markModified();
+	}
+
+	/*
+	 * Anything worked out while the player was joining or respawning may be
+	 * missing their PlayerCache or be for where they were before.
+	 */
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerJoin(PlayerJoinEvent event) {
+		contexts.remove(event.getPlayer().getUniqueId());
+		update(event.getPlayer().getUniqueId());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerRespawn(PlayerRespawnEvent event) {
+		update(event.getPlayer().getUniqueId());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerQuit(PlayerQuitEvent event) {
+		contexts.remove(event.getPlayer().getUniqueId());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerChangePlot(PlayerChangePlotEvent event) {
+		update(TownyAPI.getInstance().getResident(event.getPlayer()));
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownAddResident(TownAddResidentEvent event) {
+		update(event.getResident());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownRemoveResident(TownRemoveResidentEvent event) {
+		update(event.getResident());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onTownRankAdd(TownAddResidentRankEvent event) {
+		update(event.getResident());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onTownRankRemove(TownRemoveResidentRankEvent event) {
+		update(event.getResident());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onNationRankAdd(NationRankAddEvent event) {
+		update(event.getResident());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onNationRankRemove(NationRankRemoveEvent event) {
+		update(event.getResident());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onTownMayorChange(TownMayorChangeEvent event) {
+		update(event.getOldMayor());
+		update(event.getNewMayor());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onNationKingChange(NationKingChangeEvent event) {
+		update(event.getOldKing());
+		update(event.getNewKing());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNationAddTown(NationAddTownEvent event) {
+		update(event.getTown().getResidents());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNationRemoveTown(NationRemoveTownEvent event) {
+		update(event.getTown().getResidents());
+	}
+
+	/*
+	 * Claims and plot sales change the insidetown, insideowntown
+	 * and insideownplot contexts of whoever is standing there.
+	 */
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownClaim(TownClaimEvent event) {
+		updateAllOnline();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownUnclaim(TownUnclaimEvent event) {
+		updateAllOnline();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlotChangeOwner(PlotChangeOwnerEvent event) {
+		updateAllOnline();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNewTown(NewTownEvent event) {
+		townNames.add(event.getTown().getName());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownRename(RenameTownEvent event) {
+		townNames.remove(event.getOldName());
+		townNames.add(event.getTown().getName());
+		update(event.getTown().getResidents());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownDelete(DeleteTownEvent event) {
+		townNames.remove(event.getTownName());
+		updateAllOnline();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNewNation(NewNationEvent event) {
+		nationNames.add(event.getNation().getName());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNationRename(RenameNationEvent event) {
+		nationNames.remove(event.getOldName());
+		nationNames.add(event.getNation().getName());
+		update(event.getNation().getResidents());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNationDelete(DeleteNationEvent event) {
+		nationNames.remove(event.getNationName());
+		updateAllOnline();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onDatabaseLoaded(TownyLoadedDatabaseEvent event) {
+		loadNames();
+		updateAllOnline();
+	}
+
 	@Desugar
 	private record Calculator(String context, Function<Resident, Iterable<String>> function, Supplier<Iterable<String>> suggestions) {}
 }
@@ -6,14 +6,12 @@ import com.palmergames.bukkit.towny.exceptions.TownyException;
 import com.palmergames.bukkit.towny.object.Nation;
 import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.util.TimingWheel;
 
 import java.io.InvalidObjectException;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -24,7 +22,8 @@ public class InviteHandler {
 	private static Towny plugin;
 	
 	private static final Set<Invite> activeInvites = new HashSet<>();
-	private static final Map<Invite, Long> invitesTimes = new HashMap<>();
+	// Invites which expire, held until the cooldown timer advances the wheel past them.
+	private static final TimingWheel<Invite, Invite> expiringInvites = new TimingWheel<>(1000);
 
 	public static void initialize(Towny plugin) {
 
@@ -53,34 +52,32 @@ public class InviteHandler {
 	
 	public static void addInvite(Invite invite) {
 		activeInvites.add(invite);
-		invitesTimes.put(invite, System.currentTimeMillis());
+		if (TownySettings.getInviteExpirationTime() > 0)
+			expiringInvites.put(invite, invite, TownySettings.getInviteExpirationTime() * 1000);
 	}
 	
 	public static void removeInvite(Invite invite) {
 		activeInvites.remove(invite);
-		invitesTimes.remove(invite);
-	}
-	
-	private static long getInviteTime(Invite invite) {
-		return invitesTimes.get(invite);
+		expiringInvites.remove(invite);
 	}
 	
 	public static void searchForExpiredInvites() {
-		final long time = TownySettings.getInviteExpirationTime() * 1000;
-		for (Invite activeInvite : new ArrayList<>(getActiveInvites())) {
-			if (getInviteTime(activeInvite) + time < System.currentTimeMillis()) {
-				// This is a nation to nation ally invite.
-				if (activeInvite.getReceiver() instanceof Nation receiver && activeInvite.getSender() instanceof Nation sender) {
-					receiver.deleteReceivedInvite(activeInvite);
-					sender.deleteSentAllyInvite(activeInvite);
-				// This is a town to resident or nation to town invite.
-				} else {
-					activeInvite.getReceiver().deleteReceivedInvite(activeInvite);
-					activeInvite.getSender().deleteSentInvite(activeInvite);
-				}
-				removeInvite(activeInvite);
+		expiringInvites.advance((invite, activeInvite) -> {
+			// The invite was answered while it was expiring.
+			if (!activeInvites.contains(activeInvite))
+				return;
+
+			// This is a nation to nation ally invite.
+			if (activeInvite.getReceiver() instanceof Nation receiver && activeInvite.getSender() instanceof Nation sender) {
+				receiver.deleteReceivedInvite(activeInvite);
+				sender.deleteSentAllyInvite(activeInvite);
+			// This is a town to resident or nation to town invite.
+			} else {
+				activeInvite.getReceiver().deleteReceivedInvite(activeInvite);
+				activeInvite.getSender().deleteSentInvite(activeInvite);
 			}
-		}
+			removeInvite(activeInvite);
+		});
 	}
 	
 	public static Collection<Invite> getActiveInvites() {
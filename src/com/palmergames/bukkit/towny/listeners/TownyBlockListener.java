@@ -5,7 +5,6 @@ import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.event.executors.TownyActionEventExecutor;
-import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.object.WorldCoord;
@@ -252,26 +251,26 @@ public class TownyBlockListener implements Listener {
 	 * @return true if block the block can move.
 	 */
 	private boolean canBlockMove(Block block, Block blockTo, boolean allowWild) {
-		WorldCoord from = WorldCoord.parseWorldCoord(block);
-		WorldCoord to = WorldCoord.parseWorldCoord(blockTo);
-
-		if (from.equals(to) || (allowWild && to.isWilderness()) || (to.isWilderness() && from.isWilderness()))
+		if (BlockUtil.sameWorldCoord(block, blockTo))
 			return true;
 
-		try {
-			TownBlock currentTownBlock = from.getTownBlock();
-			TownBlock destinationTownBlock = to.getTownBlock();
+		// Looked up by block coordinates, this runs for every piston push and fluid flow.
+		TownBlock currentTownBlock = TownyAPI.getInstance().getTownBlock(block.getWorld(), block.getX(), block.getZ());
+		TownBlock destinationTownBlock = TownyAPI.getInstance().getTownBlock(blockTo.getWorld(), blockTo.getX(), blockTo.getZ());
 
-			//Both townblocks are owned by the same resident.
-			if (currentTownBlock.hasResident() && destinationTownBlock.hasResident() && currentTownBlock.getResidentOrNull() == destinationTownBlock.getResidentOrNull())
-				return true;
+		if ((allowWild && destinationTownBlock == null) || (destinationTownBlock == null && currentTownBlock == null))
+			return true;
 
-			//Both townblocks are owned by the same town.
-			return currentTownBlock.getTown() == destinationTownBlock.getTown() && !currentTownBlock.hasResident() && !destinationTownBlock.hasResident();
-		} catch (NotRegisteredException e) {
-			//The 'from' townblock is wilderness.
+		//One of the townblocks is wilderness.
+		if (currentTownBlock == null || destinationTownBlock == null)
 			return false;
-		}
+
+		//Both townblocks are owned by the same resident.
+		if (currentTownBlock.hasResident() && destinationTownBlock.hasResident() && currentTownBlock.getResidentOrNull() == destinationTownBlock.getResidentOrNull())
+			return true;
+
+		//Both townblocks are owned by the same town.
+		return currentTownBlock.hasTown() && currentTownBlock.getTownOrNull() == destinationTownBlock.getTownOrNull() && !currentTownBlock.hasResident() && !destinationTownBlock.hasResident();
 	}
 	
 	@EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
@@ -114,7 +114,7 @@ public class TownyEntityListener implements Listener {
 			/*
 			 * First we protect all protectedMobs as long as the location cannot explode.
 			 */
-			if (EntityTypeUtil.isInstanceOfAny(TownySettings.getProtectedEntityTypes(), defender)
+			if (EntityTypeUtil.isProtectedEntity(defender)
 				&& TownySettings.areProtectedEntitiesProtectedAgainstMobs()
 				&& !TownyActionEventExecutor.canExplosionDamageEntities(event.getEntity().getLocation(), event.getEntity(), event.getCause()))
 				cancelExplosiveDamage = true;
@@ -292,8 +292,8 @@ public class TownyEntityListener implements Listener {
 
 		for (Block block : blocks) {
 						
-			if (!TownyAPI.getInstance().isWilderness(block.getLocation()) 
-					&& CombatUtil.preventPvP(townyWorld, TownyAPI.getInstance().getTownBlock(block.getLocation()))) {
+			TownBlock townBlock = TownyAPI.getInstance().getTownBlock(block.getWorld(), block.getX(), block.getZ());
+			if (townBlock != null && townBlock.hasTown() && CombatUtil.preventPvP(townyWorld, townBlock)) {
 				event.setCancelled(true);
 				break;
 			}			
@@ -865,7 +865,7 @@ public class TownyEntityListener implements Listener {
 	}
 	@EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
 	public void onDoorBreak(EntityBreakDoorEvent event) {
-		if (TownyAPI.getInstance().isTownyWorld(event.getBlock().getWorld()) && !TownyAPI.getInstance().isWilderness(event.getBlock().getLocation()))
+		if (TownyAPI.getInstance().isTownyWorld(event.getBlock().getWorld()) && !TownyAPI.getInstance().isWilderness(event.getBlock()))
 			event.setCancelled(true);
 	}
 }
\ No newline at end of file
@@ -159,6 +159,9 @@ public class TownyPlayerListener implements Listener {
 			resident.clearModes();
 			resident.save();
 
+			if (resident.hasTown())
+				resident.getTownOrNull().setResidentOnline(resident, false);
+
 			if (TownyTimerHandler.isTeleportWarmupRunning()) {
 				TownyAPI.getInstance().abortTeleportRequest(resident);
 			}
@@ -169,6 +172,7 @@ public class TownyPlayerListener implements Listener {
 
 		plugin.deleteCache(event.getPlayer());
 		TownyPerms.removeAttachment(event.getPlayer().getName());
+		TownyUniverse.getInstance().getPermissionSource().invalidateOverrides(event.getPlayer().getUniqueId());
 	}
 	
 	@EventHandler(priority = EventPriority.NORMAL)
@@ -993,12 +997,12 @@ public class TownyPlayerListener implements Listener {
 			placeholders.put("{townname}", StringMgmt.remUnderscore(TownySettings.isNotificationsTownNamesVerbose() ? town.getFormattedName() : town.getName()));
 			placeholders.put("{town_motd}", town.getBoard());
 			placeholders.put("{town_residents}", town.getNumResidents());
-			placeholders.put("{town_residents_online}", TownyAPI.getInstance().getOnlinePlayers(town).size());
+			placeholders.put("{town_residents_online}", town.getOnlineResidents().size());
 			if (town.hasNation()) {
 				Nation nation = town.getNationOrNull();
 				placeholders.put("{nationname}", String.format(TownySettings.getNotificationTitlesNationNameFormat(), nation.getName()));
 				placeholders.put("{nation_residents}", nation.getNumResidents());
-				placeholders.put("{nation_residents_online}", TownyAPI.getInstance().getOnlinePlayers(nation).size());
+				placeholders.put("{nation_residents_online}", nation.getOnlineResidents().size());
 				placeholders.put("{nation_motd}", nation.getBoard());
 				if (town.isCapital()) 
 					placeholders.put("{nationcapital}", getCapitalSlug(town.getName(), nation.getName()));
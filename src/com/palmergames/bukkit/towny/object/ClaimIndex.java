@@ -0,0 +1,268 @@
+package com.palmergames.bukkit.towny.object;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * A spatial index of the claimed {@link TownBlock}s in a single {@link TownyWorld}.
+ * <p>
+ * Claims are bucketed into square regions of 16x16 cells, which lets the
+ * nearest-claim lookups walk outwards from the queried cell in rings of regions,
+ * stopping as soon as no unvisited region could hold anything closer, instead of
+ * scanning every TownBlock of every Town in the world.
+ * <p>
+ * Three grids are kept: every claim, the claims of towns which belong to a
+ * nation, and the homeblocks of towns. They are kept in sync by the Town's
+ * townblock, homeblock and nation setters.
+ */
+public class ClaimIndex {
+
+	private final Grid claims = new Grid();
+	private final Grid nationClaims = new Grid();
+	private final Grid homeBlocks = new Grid();
+
+	public void addClaim(TownBlock townBlock) {
+		claims.add(townBlock);
+	}
+
+	public void removeClaim(TownBlock townBlock) {
+		claims.remove(townBlock);
+		nationClaims.remove(townBlock);
+	}
+
+	public void addNationClaim(TownBlock townBlock) {
+		nationClaims.add(townBlock);
+	}
+
+	public void removeNationClaim(TownBlock townBlock) {
+		nationClaims.remove(townBlock);
+	}
+
+	public void addHomeBlock(TownBlock townBlock) {
+		homeBlocks.add(townBlock);
+	}
+
+	public void removeHomeBlock(TownBlock townBlock) {
+		homeBlocks.remove(townBlock);
+	}
+
+	/**
+	 * Finds the closest claimed TownBlock to the given cell.
+	 *
+	 * @param x Cell X coordinate.
+	 * @param z Cell Z coordinate.
+	 * @param skipCell When true a TownBlock at the given cell is ignored.
+	 * @param filter Optional test a TownBlock must pass to be returned.
+	 * @return the nearest TownBlock, or null if none match.
+	 */
+	@Nullable
+	public TownBlock getNearestClaim(int x, int z, boolean skipCell, @Nullable Predicate<TownBlock> filter) {
+		return claims.nearest(x, z, skipCell, filter);
+	}
+
+	/**
+	 * Finds the closest TownBlock belonging to a Town with a Nation.
+	 *
+	 * @param x Cell X coordinate.
+	 * @param z Cell Z coordinate.
+	 * @param filter Optional test a TownBlock must pass to be returned.
+	 * @return the nearest TownBlock, or null if none match.
+	 */
+	@Nullable
+	public TownBlock getNearestNationClaim(int x, int z, @Nullable Predicate<TownBlock> filter) {
+		return nationClaims.nearest(x, z, false, filter);
+	}
+
+	/**
+	 * Finds the closest Town homeblock.
+	 *
+	 * @param x Cell X coordinate.
+	 * @param z Cell Z coordinate.
+	 * @param filter Optional test a homeblock must pass to be returned.
+	 * @return the nearest homeblock, or null if none match.
+	 */
+	@Nullable
+	public TownBlock getNearestHomeBlock(int x, int z, @Nullable Predicate<TownBlock> filter) {
+		return homeBlocks.nearest(x, z, false, filter);
+	}
+
+	public void clear() {
+		claims.clear();
+		nationClaims.clear();
+		homeBlocks.clear();
+	}
+
+	private static final class Region {
+		private final TownBlock[] cells = new TownBlock[Grid.REGION_SIZE * Grid.REGION_SIZE];
+		private int count = 0;
+	}
+
+	private static final class Grid {
+		private static final int REGION_SHIFT = 4;
+		private static final int REGION_SIZE = 1 << REGION_SHIFT;
+		private static final int REGION_MASK = REGION_SIZE - 1;
+
+		private final Map<Long, Region> regions = new ConcurrentHashMap<>();
+		// Bounds only ever grow, they are used to cap how far a ring search may walk.
+		private volatile int minRegionX = Integer.MAX_VALUE, maxRegionX = Integer.MIN_VALUE;
+		private volatile int minRegionZ = Integer.MAX_VALUE, maxRegionZ = Integer.MIN_VALUE;
+
+		private static long key(int regionX, int regionZ) {
+			return Coord.pack(regionX, regionZ);
+		}
+
+		private static int slot(int x, int z) {
+			return ((x & REGION_MASK) << REGION_SHIFT) | (z & REGION_MASK);
+		}
+
+		synchronized void add(TownBlock townBlock) {
+			final int regionX = townBlock.getX() >> REGION_SHIFT;
+			final int regionZ = townBlock.getZ() >> REGION_SHIFT;
+			final Region region = regions.computeIfAbsent(key(regionX, regionZ), k -> new Region());
+			final int slot = slot(townBlock.getX(), townBlock.getZ());
+			if (region.cells[slot] == null)
+				region.count++;
+			region.cells[slot] = townBlock;
+
+			if (regionX < minRegionX) minRegionX = regionX;
+			if (regionX > maxRegionX) maxRegionX = regionX;
+			if (regionZ < minRegionZ) minRegionZ = regionZ;
+			if (regionZ > maxRegionZ) maxRegionZ = regionZ;
+		}
+
+		synchronized void remove(TownBlock townBlock) {
+			final long key = key(townBlock.getX() >> REGION_SHIFT, townBlock.getZ() >> REGION_SHIFT);
+			final Region region = regions.get(key);
+			if (region == null)
+				return;
+
+			final int slot = slot(townBlock.getX(), townBlock.getZ());
+			// Only clear the cell if it still holds this TownBlock, not one which has since replaced it.
+			if (region.cells[slot] != townBlock)
+				return;
+
+			region.cells[slot] = null;
+			if (--region.count == 0)
+				regions.remove(key);
+		}
+
+		synchronized void clear() {
+			regions.clear();
+			minRegionX = minRegionZ = Integer.MAX_VALUE;
+			maxRegionX = maxRegionZ = Integer.MIN_VALUE;
+		}
+
+		@Nullable
+		TownBlock nearest(int x, int z, boolean skipCell, @Nullable Predicate<TownBlock> filter) {
+			if (regions.isEmpty())
+				return null;
+
+			final Candidate best = new Candidate();
+			final int centreX = x >> REGION_SHIFT;
+			final int centreZ = z >> REGION_SHIFT;
+			final int maxRing = Math.max(
+				Math.max(Math.abs(centreX - minRegionX), Math.abs(maxRegionX - centreX)),
+				Math.max(Math.abs(centreZ - minRegionZ), Math.abs(maxRegionZ - centreZ)));
+
+			// Walk outwards in rings of regions, as long as that probes fewer map entries than the grid holds.
+			final long probeBudget = regions.size();
+			long probes = 0;
+			int ring = 0;
+			for (; ring <= maxRing; ring++) {
+				if (best.townBlock != null && ring > 0) {
+					// Every cell in this ring is at least this many cells away from (x, z).
+					final long reach = (long) (ring - 1) * REGION_SIZE + 1;
+					if (reach * reach > best.distSqr)
+						return best.townBlock;
+				}
+
+				if (probes > probeBudget)
+					break;
+
+				if (ring == 0) {
+					scanRegion(centreX, centreZ, x, z, skipCell, filter, best);
+					probes++;
+					continue;
+				}
+
+				for (int dx = -ring; dx <= ring; dx++) {
+					scanRegion(centreX + dx, centreZ - ring, x, z, skipCell, filter, best);
+					scanRegion(centreX + dx, centreZ + ring, x, z, skipCell, filter, best);
+				}
+				for (int dz = -ring + 1; dz < ring; dz++) {
+					scanRegion(centreX - ring, centreZ + dz, x, z, skipCell, filter, best);
+					scanRegion(centreX + ring, centreZ + dz, x, z, skipCell, filter, best);
+				}
+				probes += 8L * ring;
+			}
+
+			if (ring > maxRing)
+				return best.townBlock;
+
+			// The claims are sparse around (x, z): finish with a pass over the remaining
+			// regions, skipping those already visited or too far away to beat the best match.
+			final int visited = ring - 1;
+			for (Map.Entry<Long, Region> entry : regions.entrySet()) {
+				final long key = entry.getKey();
+				final int regionX = (int) (key >> 32);
+				final int regionZ = (int) key;
+				if (Math.max(Math.abs(regionX - centreX), Math.abs(regionZ - centreZ)) <= visited)
+					continue;
+				if (best.townBlock != null && minDistSqr(regionX, regionZ, x, z) > best.distSqr)
+					continue;
+				scanRegion(entry.getValue(), regionX, regionZ, x, z, skipCell, filter, best);
+			}
+			return best.townBlock;
+		}
+
+		private void scanRegion(int regionX, int regionZ, int x, int z, boolean skipCell, @Nullable Predicate<TownBlock> filter, Candidate best) {
+			final Region region = regions.get(key(regionX, regionZ));
+			if (region == null)
+				return;
+			if (best.townBlock != null && minDistSqr(regionX, regionZ, x, z) > best.distSqr)
+				return;
+			scanRegion(region, regionX, regionZ, x, z, skipCell, filter, best);
+		}
+
+		private static void scanRegion(Region region, int regionX, int regionZ, int x, int z, boolean skipCell, @Nullable Predicate<TownBlock> filter, Candidate best) {
+			final int baseX = regionX << REGION_SHIFT;
+			final int baseZ = regionZ << REGION_SHIFT;
+			final TownBlock[] cells = region.cells;
+			for (int i = 0; i < cells.length; i++) {
+				final TownBlock townBlock = cells[i];
+				if (townBlock == null)
+					continue;
+
+				final long dx = baseX + (i >> REGION_SHIFT) - (long) x;
+				final long dz = baseZ + (i & REGION_MASK) - (long) z;
+				if (skipCell && dx == 0 && dz == 0)
+					continue;
+
+				final long distSqr = dx * dx + dz * dz;
+				if (distSqr < best.distSqr && (filter == null || filter.test(townBlock))) {
+					best.distSqr = distSqr;
+					best.townBlock = townBlock;
+				}
+			}
+		}
+
+		/*
+		 * The smallest possible squared distance between (x, z) and any cell of the given region.
+		 */
+		private static long minDistSqr(int regionX, int regionZ, int x, int z) {
+			final long lowX = (long) regionX << REGION_SHIFT;
+			final long lowZ = (long) regionZ << REGION_SHIFT;
+			final long dx = Math.max(0, Math.max(lowX - x, x - (lowX + REGION_MASK)));
+			final long dz = Math.max(0, Math.max(lowZ - z, z - (lowZ + REGION_MASK)));
+			return dx * dx + dz * dz;
+		}
+	}
+
+	private static final class Candidate {
+		private TownBlock townBlock = null;
+		private long distSqr = Long.MAX_VALUE;
+	}
+}
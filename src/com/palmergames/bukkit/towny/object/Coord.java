@@ -80,7 +80,7 @@ public class Coord {
 	 * @param value x/z integer
 	 * @return cell position
 	 */
-	protected static int toCell(int value) {
+	public static int toCell(int value) {
 		// Floor divides means that for negative values will round to the next negative value
 		// and positive value to the previous positive value.
 		return Math.floorDiv(value, getCellSize());
@@ -98,6 +98,18 @@ public class Coord {
 		return new Coord(toCell(x), toCell(z));
 	}
 
+	/**
+	 * Pack a pair of grid cell (or region) coordinates into a single long,
+	 * for use as a map key without allocating a Coord.
+	 * 
+	 * @param x - X int (Cell)
+	 * @param z - Z int (Cell)
+	 * @return x in the high 32 bits and z in the low 32 bits.
+	 */
+	public static long pack(int x, int z) {
+		return ((long) x << 32) | (z & 0xFFFFFFFFL);
+	}
+
 	public static Coord parseCoord(Entity entity) {
 
 		return parseCoord(entity.getLocation());
@@ -8,6 +8,7 @@ import com.palmergames.bukkit.towny.exceptions.TownyException;
 import com.palmergames.bukkit.towny.invites.Invite;
 import com.palmergames.bukkit.towny.invites.InviteHandler;
 import com.palmergames.bukkit.towny.invites.exceptions.TooManyInvitesException;
+import com.palmergames.bukkit.towny.object.comparators.ComparatorCaches;
 import com.palmergames.bukkit.towny.object.economy.AccountAuditor;
 import com.palmergames.bukkit.towny.object.economy.BankEconomyHandler;
 import com.palmergames.bukkit.towny.object.economy.BankAccount;
@@ -178,6 +179,7 @@ public abstract class Government extends TownyObject implements BankEconomyHandl
 	 */
 	public final void setRegistered(long registered) {
 		this.registered = registered;
+		ComparatorCaches.update(this);
 	}
 
 	/**
@@ -275,7 +277,7 @@ public abstract class Government extends TownyObject implements BankEconomyHandl
 		if (account == null) {
 			String accountName = StringMgmt.trimMaxLength(getBankAccountPrefix() + getName(), 32);
 			World world = getWorld();
-			account = new BankAccount(accountName, world, getBankCap());
+			account = new BankAccount(accountName, world, getBankCap(), this);
 			account.setAuditor(accountAuditor);
 		}
 
@@ -313,7 +315,9 @@ public abstract class Government extends TownyObject implements BankEconomyHandl
 
 	@Override
 	public void setUUID(UUID uuid) {
+		UUID oldUUID = this.uuid;
 		this.uuid = uuid;
+		reindex(getName(), oldUUID);
 	}
 	
 	public String getMapColorHexCode() {
@@ -0,0 +1,139 @@
+package com.palmergames.bukkit.towny.object;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * An ordered list of towny objects which can be searched by object, by name
+ * or by UUID without a scan of the whole list.
+ * <p>
+ * Every object in the list knows the lists it is in, and tells them when its
+ * name or UUID changes, so the indexes always match the objects they hold.
+ */
+class IndexedList<T extends TownyObject & Identifiable> {
+
+	private final Set<T> members = new LinkedHashSet<>();
+	private final Map<String, T> byName = new HashMap<>();
+	private final Map<UUID, T> byUUID = new HashMap<>();
+	private List<T> view = null;
+
+	/**
+	 * @return an unmodifiable copy of the list, which is reused until the list next changes.
+	 */
+	List<T> asList() {
+		if (view == null)
+			view = Collections.unmodifiableList(new ArrayList<>(members));
+		return view;
+	}
+
+	boolean add(T object) {
+		if (!members.add(object))
+			return false;
+
+		view = null;
+		index(object);
+		object.addIndexedList(this);
+		return true;
+	}
+
+	void addAll(Collection<T> objects) {
+		for (T object : objects)
+			add(object);
+	}
+
+	boolean remove(T object) {
+		if (!members.remove(object))
+			return false;
+
+		view = null;
+		unindex(object, object.getName(), object.getUUID());
+		object.removeIndexedList(this);
+		return true;
+	}
+
+	void clear() {
+		for (T object : members)
+			object.removeIndexedList(this);
+		members.clear();
+		byName.clear();
+		byUUID.clear();
+		view = null;
+	}
+
+	boolean contains(T object) {
+		return members.contains(object);
+	}
+
+	@Nullable
+	T get(String name) {
+		return byName.get(nameKey(name));
+	}
+
+	@Nullable
+	T get(UUID uuid) {
+		return byUUID.get(uuid);
+	}
+
+	boolean contains(String name) {
+		return get(name) != null;
+	}
+
+	int size() {
+		return members.size();
+	}
+
+	boolean isEmpty() {
+		return members.isEmpty();
+	}
+
+	void sort(Comparator<? super T> comparator) {
+		List<T> sorted = new ArrayList<>(members);
+		sorted.sort(comparator);
+		members.clear();
+		members.addAll(sorted);
+		view = null;
+	}
+
+	/**
+	 * Moves an object in the list to the index of its new name and UUID.
+	 * 
+	 * @param object Object which has been renamed or given a new UUID.
+	 * @param oldName Name the object was indexed under.
+	 * @param oldUUID UUID the object was indexed under.
+	 */
+	@SuppressWarnings("unchecked")
+	void reindex(TownyObject object, String oldName, UUID oldUUID) {
+		if (!members.contains(object))
+			return;
+
+		unindex((T) object, oldName, oldUUID);
+		index((T) object);
+	}
+
+	private void index(T object) {
+		byName.put(nameKey(object.getName()), object);
+		if (object.getUUID() != null)
+			byUUID.put(object.getUUID(), object);
+	}
+
+	private void unindex(T object, String name, UUID uuid) {
+		byName.remove(nameKey(name), object);
+		if (uuid != null)
+			byUUID.remove(uuid, object);
+	}
+
+	private static String nameKey(String name) {
+		return name == null ? "" : name.toLowerCase(Locale.ROOT);
+	}
+}
@@ -14,6 +14,7 @@ import com.palmergames.bukkit.towny.invites.Invite;
 import com.palmergames.bukkit.towny.invites.InviteHandler;
 import com.palmergames.bukkit.towny.invites.exceptions.TooManyInvitesException;
 import com.palmergames.bukkit.towny.object.SpawnPoint.SpawnPointType;
+import com.palmergames.bukkit.towny.object.comparators.ComparatorCaches;
 import com.palmergames.bukkit.towny.object.metadata.CustomDataField;
 import com.palmergames.bukkit.towny.permissions.TownyPerms;
 import com.palmergames.bukkit.util.BukkitTools;
@@ -35,9 +36,9 @@ public class Nation extends Government {
 
 	private static final String ECONOMY_ACCOUNT_PREFIX = TownySettings.getNationAccountPrefix();
 
-	private final List<Town> towns = new ArrayList<>();
-	private List<Nation> allies = new ArrayList<>();
-	private List<Nation> enemies = new ArrayList<>();
+	private final IndexedList<Town> towns = new IndexedList<>();
+	private final IndexedList<Nation> allies = new IndexedList<>();
+	private final IndexedList<Nation> enemies = new IndexedList<>();
 	private Town capital;
 	private final List<Invite> sentAllyInvites = new ArrayList<>();
 	private boolean isTaxPercentage = TownySettings.getNationDefaultTaxPercentage();
@@ -61,7 +62,9 @@ public class Nation extends Government {
 			try {
 				removeEnemy(nation);
 			} catch (NotRegisteredException ignored) {}
-			getAllies().add(nation);
+			allies.add(nation);
+			TownRelationCache.invalidateNation(this);
+			markModified();
 		}
 	}
 
@@ -69,8 +72,11 @@ public class Nation extends Government {
 
 		if (!hasAlly(nation))
 			throw new NotRegisteredException();
-		else
-			return getAllies().remove(nation);
+
+		boolean removed = allies.remove(nation);
+		TownRelationCache.invalidateNation(this);
+		markModified();
+		return removed;
 	}
 
 	public boolean removeAllAllies() {
@@ -85,12 +91,12 @@ public class Nation extends Government {
 
 	public boolean hasAlly(Nation nation) {
 
-		return getAllies().contains(nation);
+		return allies.contains(nation);
 	}
 
 	public boolean hasMutualAlly(Nation nation) {
 		
-		return getAllies().contains(nation) && nation.getAllies().contains(this);
+		return hasAlly(nation) && nation.hasAlly(this);
 	}
 
 	/**
@@ -112,7 +118,9 @@ public class Nation extends Government {
 			try {
 				removeAlly(nation);
 			} catch (NotRegisteredException ignored) {}
-			getEnemies().add(nation);
+			enemies.add(nation);
+			TownRelationCache.invalidateNation(this);
+			markModified();
 		}
 
 	}
@@ -121,8 +129,11 @@ public class Nation extends Government {
 
 		if (!hasEnemy(nation))
 			throw new NotRegisteredException();
-		else
-			return getEnemies().remove(nation);
+
+		boolean removed = enemies.remove(nation);
+		TownRelationCache.invalidateNation(this);
+		markModified();
+		return removed;
 	}
 
 	public boolean removeAllEnemies() {
@@ -137,11 +148,11 @@ public class Nation extends Government {
 
 	public boolean hasEnemy(Nation nation) {
 
-		return getEnemies().contains(nation);
+		return enemies.contains(nation);
 	}
 
 	public List<Town> getTowns() {
-		return Collections.unmodifiableList(towns);
+		return towns.asList();
 	}
 
 	public boolean isKing(Resident resident) {
@@ -166,10 +177,7 @@ public class Nation extends Government {
 
 	public boolean hasTown(String name) {
 
-		for (Town town : towns)
-			if (town.getName().equalsIgnoreCase(name))
-				return true;
-		return false;
+		return towns.contains(name);
 	}
 
 	public boolean hasTown(Town town) {
@@ -179,6 +187,9 @@ public class Nation extends Government {
 
 	public void addTown(Town town) {
 		towns.add(town);
+		TownRelationCache.invalidateTownFully(town);
+		markModified();
+		ComparatorCaches.update(this);
 	}
 
 	/**
@@ -206,7 +217,15 @@ public class Nation extends Government {
 	public void setCapital(Town capital) {
 
 		TownyMessaging.sendDebugMsg("Nation " + this.getName() + " has set a capital city of " + capital.getName());
+		Town oldCapital = this.capital;
 		this.capital = capital;
+
+		// Capitals have a larger nation zone.
+		if (oldCapital != capital) {
+			if (oldCapital != null)
+				oldCapital.markNationZoneModified();
+			capital.markNationZoneModified();
+		}
 		
 		if (this.spawn != null && TownySettings.isNationSpawnOnlyAllowedInCapital() && !capital.isInsideTown(this.spawn))
 			this.spawn = capital.getSpawnOrNull();
@@ -217,6 +236,9 @@ public class Nation extends Government {
 			// Dummy catch to prevent errors on startup when setting nation.
 		}
 
+		// The nation's upkeep follows its capital's upkeep setting.
+		ComparatorCaches.update(this);
+
 		// Save the capital city. A town that becomes a capital might have its
 		// peacecful/neutral status overridden and require saving.
 		this.capital.save();
@@ -281,22 +303,34 @@ public class Nation extends Government {
 
 	public void setEnemies(List<Nation> enemies) {
 
-		this.enemies = enemies;
+		this.enemies.clear();
+		this.enemies.addAll(enemies);
+		TownRelationCache.invalidateNation(this);
+		markModified();
 	}
 
+	/**
+	 * @return an unmodifiable list of the nation's enemies.
+	 */
 	public List<Nation> getEnemies() {
 
-		return enemies;
+		return enemies.asList();
 	}
 
 	public void setAllies(List<Nation> allies) {
 
-		this.allies = allies;
+		this.allies.clear();
+		this.allies.addAll(allies);
+		TownRelationCache.invalidateNation(this);
+		markModified();
 	}
 
+	/**
+	 * @return an unmodifiable list of the nation's allies.
+	 */
 	public List<Nation> getAllies() {
 
-		return allies;
+		return allies.asList();
 	}
 
 	public List<Nation> getMutualAllies() {
@@ -345,10 +379,15 @@ public class Nation extends Government {
 	private void remove(Town town) {
 
 		towns.remove(town);
+		TownRelationCache.invalidateTownFully(town);
+		markModified();
+		ComparatorCaches.update(this);
 	}
 
 	private void removeAllTowns() {
 
+		for (Town town : towns.asList())
+			TownRelationCache.invalidateTownFully(town);
 		towns.clear();
 	}
 
@@ -476,6 +515,18 @@ public class Nation extends Government {
 		return out;
 	}
 
+	/**
+	 * @return the nation's residents who are online, gathered from each of its towns.
+	 */
+	@Override
+	public List<Resident> getOnlineResidents() {
+
+		List<Resident> out = new ArrayList<>();
+		for (Town town : getTowns())
+			out.addAll(town.getOnlineResidents());
+		return out;
+	}
+
 	@Override
 	public List<String> getTreeString(int depth) {
 
@@ -1,22 +1,61 @@
 package com.palmergames.bukkit.towny.object;
 
+import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.object.TownyPermission.ActionType;
+import com.palmergames.util.MathUtil;
 
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
-
-import java.util.HashMap;
-
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The statuses and permissions worked out for a player at the WorldCoords they
+ * have recently acted in.
+ * <p>
+ * Each WorldCoord's entry remembers the {@link TownyObject#getModificationStamp()
+ * modification clock} at the time it was built and the TownBlock it was built
+ * against. Before the entry is read it is checked against the TownBlock now at
+ * that WorldCoord, its Town, Nation and owner, and the player's own Resident,
+ * Town and Nation: if any of those have been marked as modified since, the
+ * entry is rebuilt. Changing a Town or a plot therefore only invalidates the
+ * caches which relied on it, without walking the online players.
+ * <p>
+ * Entries in the wilderness remember the Nation whose zone they were in. When
+ * the world's {@link TownyWorld#getNationZoneModificationStamp() nation zones}
+ * change they look it up again, and are only rebuilt if it is now another.
+ */
 public class PlayerCache {
 
-	private final HashMap<Material, Boolean> buildMatPermission = new HashMap<>();
-	private final HashMap<Material, Boolean> destroyMatPermission = new HashMap<>();
-	private final HashMap<Material, Boolean> switchMatPermission = new HashMap<>();
-	private final HashMap<Material, Boolean> itemUseMatPermission = new HashMap<>();
+	/*
+	 * How many recently visited WorldCoords keep their cached permissions, so that
+	 * a player working along a plot border doesn't rebuild their cache on every block.
+	 */
+	private static final int MAX_CACHED_COORDS = 8;
+	private static final int ACTION_TYPES = ActionType.values().length;
+	private static final int MATERIAL_WORDS = (Material.values().length + 63) >>> 6;
+
+	/*
+	 * Entries built before this value of the modification clock are stale, used
+	 * for changes which are not tied to a single TownyObject, ie: config reloads.
+	 */
+	private static volatile long invalidatedAt = 0;
 
-	private WorldCoord lastWorldCoord;
+	private final Map<WorldCoord, CoordCache> recentCoords = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<WorldCoord, CoordCache> eldest) {
+			return size() > MAX_CACHED_COORDS;
+		}
+	};
+	private volatile CoordCache current;
+	@Nullable
+	private final UUID playerUUID;
 	private String blockErrMsg;
 	private Location lastLocation;
 
@@ -24,15 +63,27 @@ public class PlayerCache {
 
 	public PlayerCache(TownyWorld world, Player player) {
 
-		this(new WorldCoord(world.getName(), Coord.parseCoord(player)));
+		this.playerUUID = player.getUniqueId();
+		this.setLastTownBlock(new WorldCoord(world.getName(), Coord.parseCoord(player)));
 		setLastLocation(player.getLocation());
 	}
 
 	public PlayerCache(@NotNull WorldCoord worldCoord) {
 
+		this.playerUUID = null;
 		this.setLastTownBlock(worldCoord);
 	}
 
+	/**
+	 * Marks every PlayerCache entry built so far as stale, for changes which
+	 * can't be pinned to a single TownyObject. The entries are rebuilt as they
+	 * are next used, rather than all at once.
+	 */
+	public static void invalidateAll() {
+
+		invalidatedAt = TownyObject.nextModificationStamp();
+	}
+
 	/**
 	 * Update the cache with new coordinates.
 	 * 
@@ -40,7 +91,7 @@ public class PlayerCache {
 	 */
 	public void setLastTownBlock(@NotNull WorldCoord worldCoord) {
 
-		this.lastWorldCoord = worldCoord;
+		switchTo(worldCoord);
 	}
 	
 	/**
@@ -61,11 +112,12 @@ public class PlayerCache {
 	@NotNull
 	public WorldCoord getLastTownBlock() {
 
-		return lastWorldCoord;
+		return current.worldCoord;
 	}
 	
 	/**
-	 * Update the players WorldCoord, resetting all permissions if it has changed.
+	 * Update the players WorldCoord, switching to the permissions cached for it
+	 * if it was visited recently, or to an empty set if it wasn't.
 	 * 
 	 * @param pos - WorldCoord to setLastTownBlock
 	 * @return true if changed.
@@ -73,119 +125,299 @@ public class PlayerCache {
 	public boolean updateCoord(@NotNull WorldCoord pos) {
 
 		if (!getLastTownBlock().equals(pos)) {
-			reset(pos);
+			switchTo(pos);
 			return true;
 		} else
 			return false;
 	}
 
 	/**
-	 * Checks from cache if a certain ActionType can be performed on a given Material
+	 * Checks from cache if a certain ActionType can be performed on a given
+	 * Material, at the last WorldCoord. When the cached answer is false, the
+	 * message the player was denied with becomes the block error message again.
 	 * 
 	 * @param material - Material to check
 	 * @param action - ActionType to check
-	 * @return true if permission to perform an ActionType based on the material is granted
-	 * @throws NullPointerException if passed an invalid or NULL ActionType
+	 * @return true or false if the permission is cached, null if it has not been
+	 *         worked out yet.
 	 */
-	public boolean getCachePermission(Material material, ActionType action) throws NullPointerException {
-
-		switch (action) {
-
-		case BUILD: // BUILD
-			return getBuildPermission(material);
+	@Nullable
+	public Boolean getPermissionOrNull(Material material, ActionType action) {
+
+		final CoordCache coordCache = validCurrent();
+		final Boolean permission = coordCache.getPermission(material, action);
+		if (permission != null && !permission)
+			blockErrMsg = coordCache.denialMessages[action.ordinal()];
+		return permission;
+	}
 
-		case DESTROY: // DESTROY
-			return getDestroyPermission(material);
+	/**
+	 * Caches whether a certain ActionType can be performed on a given Material,
+	 * at the last WorldCoord. A denial keeps the current block error message, so
+	 * that it can be shown again whenever the cached answer is used.
+	 * 
+	 * @param material - Material to set
+	 * @param action - ActionType to set
+	 * @param value - whether the action is allowed.
+	 */
+	public void setPermission(Material material, ActionType action, boolean value) {
 
-		case SWITCH: // SWITCH
-			return getSwitchPermission(material);
+		final CoordCache coordCache = current;
+		coordCache.setPermission(material, action, value);
+		if (!value)
+			coordCache.denialMessages[action.ordinal()] = blockErrMsg;
+	}
 
-		case ITEM_USE: // ITEM_USE
-			return getItemUsePermission(material);
+	/**
+	 * Checks from cache if a certain ActionType can be performed on a given Material
+	 * 
+	 * @param material - Material to check
+	 * @param action - ActionType to check
+	 * @return true if permission to perform an ActionType based on the material is granted
+	 * @throws NullPointerException if the permission is not cached.
+	 * @deprecated Deprecated as of 0.98.4.4, please use {@link #getPermissionOrNull(Material, ActionType)} instead.
+	 */
+	@Deprecated
+	public boolean getCachePermission(Material material, ActionType action) throws NullPointerException {
 
-		default:
+		Boolean value = getPermissionOrNull(material, action);
+		if (value == null)
 			throw new NullPointerException();
-
-		}
-
+		return value;
 	}
 
 	public void setBuildPermission(Material material, Boolean value) {
 
-		updateMaps(buildMatPermission, material, value);
-
+		if (value != null)
+			setPermission(material, ActionType.BUILD, value);
 	}
 	public void setDestroyPermission(Material material, Boolean value) {
 
-		updateMaps(destroyMatPermission, material, value);
+		if (value != null)
+			setPermission(material, ActionType.DESTROY, value);
 	}
 	public void setSwitchPermission(Material material, Boolean value) {
 
-		updateMaps(switchMatPermission, material, value);
-
+		if (value != null)
+			setPermission(material, ActionType.SWITCH, value);
 	}
 	public void setItemUsePermission(Material material, Boolean value) {
 
-		updateMaps(itemUseMatPermission, material, value);
-		
+		if (value != null)
+			setPermission(material, ActionType.ITEM_USE, value);
 	}
 	
+	/**
+	 * @deprecated Deprecated as of 0.98.4.4, please use {@link #getPermissionOrNull(Material, ActionType)} instead.
+	 */
+	@Deprecated
 	public boolean getBuildPermission(Material material) throws NullPointerException {
 
-		return getBlockPermission(buildMatPermission, material);
-
+		return getCachePermission(material, ActionType.BUILD);
 	}
+	/**
+	 * @deprecated Deprecated as of 0.98.4.4, please use {@link #getPermissionOrNull(Material, ActionType)} instead.
+	 */
+	@Deprecated
 	public boolean getDestroyPermission(Material material) throws NullPointerException {
 
-		return getBlockPermission(destroyMatPermission, material);
-		
+		return getCachePermission(material, ActionType.DESTROY);
 	}
+	/**
+	 * @deprecated Deprecated as of 0.98.4.4, please use {@link #getPermissionOrNull(Material, ActionType)} instead.
+	 */
+	@Deprecated
 	public boolean getSwitchPermission(Material material) throws NullPointerException {
 
-		return getBlockPermission(switchMatPermission, material);
-		
+		return getCachePermission(material, ActionType.SWITCH);
 	}
+	/**
+	 * @deprecated Deprecated as of 0.98.4.4, please use {@link #getPermissionOrNull(Material, ActionType)} instead.
+	 */
+	@Deprecated
 	public Boolean getItemUsePermission(Material material) throws NullPointerException {
 
-		return getBlockPermission(itemUseMatPermission, material);
-		
+		return getCachePermission(material, ActionType.ITEM_USE);
 	}
-	
-	private void updateMaps(HashMap<Material, Boolean> blockMap, Material material, Boolean value) {
-		
-		if (!blockMap.containsKey(material)) {
-			/*
-			 * We have no permissions cached for this block.
-			 */			
-			blockMap.put(material, value);
-		} else {
-			/*
-			 * We have cached permissions for this block type so just push updated data.
-			 */
-			blockMap.get(material);
-		}
+
+	private void switchTo(WorldCoord wc) {
+
+		blockErrMsg = null;
+		current = recentCoords.computeIfAbsent(wc, CoordCache::new);
 	}
-	
-	private boolean getBlockPermission(HashMap<Material, Boolean> blockMap, Material material) throws NullPointerException {
-		
-		if (!blockMap.containsKey(material))
-			throw new NullPointerException();
-		
-		return blockMap.get(material);
-		
+
+	/*
+	 * The current entry, rebuilt first if anything it relied on has changed.
+	 * Setters write to the current entry directly: if something changes while a
+	 * permission is being worked out, the entry's stamp is already older than
+	 * the change and it will be rebuilt on its next read.
+	 */
+	private CoordCache validCurrent() {
+
+		final CoordCache coordCache = current;
+		if (coordCache.isStale(playerUUID == null ? null : TownyUniverse.getInstance().getResident(playerUUID)))
+			coordCache.rebuild();
+		return coordCache;
 	}
 
 	private void reset(WorldCoord wc) {
 
-		lastWorldCoord = wc;
-		townBlockStatus = null;
 		blockErrMsg = null;
 		
-		// Clear all maps
-		buildMatPermission.clear();
-		destroyMatPermission.clear();
-		switchMatPermission.clear();
-		itemUseMatPermission.clear();
+		// Forget every WorldCoord's permissions.
+		recentCoords.clear();
+		current = recentCoords.computeIfAbsent(wc, CoordCache::new);
+	}
+
+	/*
+	 * The status and permissions cached for one WorldCoord. Permissions are held
+	 * as a pair of bitsets per ActionType, indexed by Material ordinal: one
+	 * marking which materials have been worked out, the other their answer.
+	 * The message of the latest denial is kept for each ActionType.
+	 */
+	private static final class CoordCache {
+		private final WorldCoord worldCoord;
+		private TownBlockStatus townBlockStatus = TownBlockStatus.UNKNOWN;
+		private final long[][] known = new long[ACTION_TYPES][];
+		private final long[][] allowed = new long[ACTION_TYPES][];
+		private final String[] denialMessages = new String[ACTION_TYPES];
+		private TownyWorld townyWorld;
+		private TownBlock townBlock;
+		private Nation nationZone;
+		private long builtAt;
+		private long nationZoneCheckedAt;
+
+		private CoordCache(WorldCoord worldCoord) {
+			this.worldCoord = worldCoord;
+			rebuild();
+		}
+
+		private void rebuild() {
+			// Read the clock before anything else, so a change made while this entry is in use always outdates it.
+			builtAt = TownyObject.currentModificationStamp();
+			townyWorld = worldCoord.getTownyWorldOrNull();
+			townBlock = lookupTownBlock();
+			townBlockStatus = TownBlockStatus.UNKNOWN;
+			nationZone = null;
+			nationZoneCheckedAt = builtAt;
+			for (int i = 0; i < ACTION_TYPES; i++) {
+				known[i] = null;
+				allowed[i] = null;
+				denialMessages[i] = null;
+			}
+		}
+
+		@Nullable
+		private TownBlock lookupTownBlock() {
+			return townyWorld == null ? null : townyWorld.getTownBlockOrNull(worldCoord.getX(), worldCoord.getZ());
+		}
+
+		private boolean isStale(@Nullable Resident resident) {
+			if (builtAt < invalidatedAt)
+				return true;
+
+			if (townyWorld == null)
+				// The world may have been registered with Towny since.
+				return worldCoord.getTownyWorldOrNull() != null;
+
+			// The WorldCoord has been claimed, unclaimed or its TownBlock replaced.
+			final TownBlock townBlock = lookupTownBlock();
+			if (townBlock != this.townBlock)
+				return true;
+
+			if (changed(townyWorld))
+				return true;
+
+			if (townBlock == null && isNationZoneStale())
+				return true;
+
+			if (townBlock != null) {
+				final Town town = townBlock.getTownOrNull();
+				if (changed(townBlock) || changed(town) || changed(townBlock.getResidentOrNull())
+					|| (town != null && changed(town.getNationOrNull())))
+					return true;
+			}
+
+			if (resident != null) {
+				final Town town = resident.getTownOrNull();
+				return changed(resident) || changed(town) || (town != null && changed(town.getNationOrNull()));
+			}
+
+			return false;
+		}
+
+		private boolean changed(@Nullable TownyObject object) {
+			return object != null && object.getModificationStamp() > builtAt;
+		}
+
+		/*
+		 * Only wilderness statuses depend on the nation zones, and only when they
+		 * are enabled. A change elsewhere in the world leaves the nation zone this
+		 * WorldCoord is within range of, if any, the same.
+		 */
+		private boolean isNationZoneStale() {
+			if (townBlockStatus != TownBlockStatus.UNCLAIMED_ZONE && townBlockStatus != TownBlockStatus.NATION_ZONE)
+				return false;
+
+			if (!TownySettings.getNationZonesEnabled() || townyWorld.getNationZoneModificationStamp() <= nationZoneCheckedAt)
+				return false;
+
+			final long checkedAt = TownyObject.currentModificationStamp();
+			if (lookupNationZone() != nationZone)
+				return true;
+
+			nationZoneCheckedAt = checkedAt;
+			return false;
+		}
+
+		/*
+		 * The Nation whose zone covers this WorldCoord, following
+		 * TownyAPI#hasNationZone(WorldCoord) without firing its event.
+		 */
+		@Nullable
+		private Nation lookupNationZone() {
+			final TownBlock nearest = townyWorld.getClosestTownblockWithNationFromCoord(worldCoord);
+			final Town town = nearest == null ? null : nearest.getTownOrNull();
+			if (town == null || !town.isNationZoneEnabled())
+				return null;
+
+			final Nation nation = town.getNationOrNull();
+			if (nation == null || (TownySettings.getNationZonesWarDisables() && nation.hasActiveWar()))
+				return null;
+
+			final int distance = (int) MathUtil.distance(worldCoord.getX(), nearest.getX(), worldCoord.getZ(), nearest.getZ());
+			return distance <= town.getNationZoneSize() ? nation : null;
+		}
+
+		@Nullable
+		private Boolean getPermission(Material material, ActionType action) {
+			final long[] knownBits = known[action.ordinal()];
+			if (knownBits == null)
+				return null;
+
+			final int word = material.ordinal() >>> 6;
+			final long bit = 1L << material.ordinal();
+			if ((knownBits[word] & bit) == 0)
+				return null;
+
+			return (allowed[action.ordinal()][word] & bit) != 0;
+		}
+
+		private void setPermission(Material material, ActionType action, boolean value) {
+			final int index = action.ordinal();
+			if (known[index] == null) {
+				known[index] = new long[MATERIAL_WORDS];
+				allowed[index] = new long[MATERIAL_WORDS];
+			}
+
+			final int word = material.ordinal() >>> 6;
+			final long bit = 1L << material.ordinal();
+			known[index][word] |= bit;
+			if (value)
+				allowed[index][word] |= bit;
+			else
+				allowed[index][word] &= ~bit;
+		}
 	}
 
 	public enum TownBlockStatus {
@@ -209,19 +441,21 @@ public class PlayerCache {
 		PLOT_TRUSTED,
 	}
 
-	private TownBlockStatus townBlockStatus = TownBlockStatus.UNKNOWN;
-
 	public void setStatus(TownBlockStatus townBlockStatus) {
 
-		this.townBlockStatus = townBlockStatus;
+		final CoordCache coordCache = current;
+		coordCache.townBlockStatus = townBlockStatus;
+		if (townBlockStatus == TownBlockStatus.NATION_ZONE && coordCache.townyWorld != null)
+			coordCache.nationZone = coordCache.lookupNationZone();
 	}
 
 	public TownBlockStatus getStatus() throws NullPointerException {
 
-		if (townBlockStatus == null)
+		final CoordCache coordCache = validCurrent();
+		if (coordCache.townBlockStatus == null)
 			throw new NullPointerException();
 		else
-			return townBlockStatus;
+			return coordCache.townBlockStatus;
 	}
 
 	public void setBlockErrMsg(String blockErrMsg) {
@@ -119,7 +119,9 @@ public class Resident extends TownyObject implements InviteReceiver, EconomyHand
 	
 	@Override
 	public void setUUID(UUID uuid) {
+		UUID oldUUID = this.uuid;
 		this.uuid = uuid;
+		reindex(getName(), oldUUID);
 	}
 	
 	public boolean hasUUID() {
@@ -265,6 +267,7 @@ public class Resident extends TownyObject implements InviteReceiver, EconomyHand
 		if (town == null) {
 			this.town = null;
 			updatePerms();
+			markModified();
 			return;
 		}
 
@@ -274,6 +277,7 @@ public class Resident extends TownyObject implements InviteReceiver, EconomyHand
 		this.town = town;
 		updatePerms();
 		town.addResident(this);
+		markModified();
 
 		if (updateJoinedAt) {
 			setJoinedTownAt(System.currentTimeMillis());
@@ -330,14 +334,12 @@ public class Resident extends TownyObject implements InviteReceiver, EconomyHand
 		}
 		
 		this.save();
-		
-		// Reset everyones cache permissions as this player losing their could affect multiple areas
-		Towny.getPlugin().resetCache();
 	}
 
 	public void setFriends(List<Resident> newFriends) {
 
 		friends = newFriends;
+		markModified();
 	}
 
 	public List<Resident> getFriends() {
@@ -346,8 +348,10 @@ public class Resident extends TownyObject implements InviteReceiver, EconomyHand
 
 	public void removeFriend(Resident resident) {
 
-		if (hasFriend(resident))
+		if (hasFriend(resident)) {
 			friends.remove(resident);
+			markModified();
+		}
 	}
 
 	public boolean hasFriend(Resident resident) {
@@ -359,13 +363,16 @@ public class Resident extends TownyObject implements InviteReceiver, EconomyHand
 
 		if (hasFriend(resident) || this.equals(resident) || resident.isNPC())
 			throw new AlreadyRegisteredException();
-		else
+		else {
 			friends.add(resident);
+			markModified();
+		}
 	}
 
 	public void removeAllFriends() {
 		// Wipe the array.
 		friends.clear();
+		markModified();
 	}
 
 	public void updatePerms() {
@@ -839,6 +846,7 @@ public class Resident extends TownyObject implements InviteReceiver, EconomyHand
 	@Override
 	public void setPermissions(String line) {
 		this.permissions.load(line);
+		markModified();
 	}
 
 	@Override
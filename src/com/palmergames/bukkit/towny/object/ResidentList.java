@@ -1,6 +1,7 @@
 package com.palmergames.bukkit.towny.object;
 
 import java.util.Collection;
+import java.util.stream.Collectors;
 
 /**
  * Represents an object capable of storing residents within it.
@@ -21,6 +22,15 @@ public interface ResidentList {
 	 */
 	boolean hasResident(String name);
 
+	/**
+	 * Gets the residents of this object who are currently online.
+	 * 
+	 * @return The online residents in this object.
+	 */
+	default Collection<Resident> getOnlineResidents() {
+		return getResidents().stream().filter(Resident::isOnline).collect(Collectors.toList());
+	}
+
 	/**
 	 * Gets the unmodifiable list of outlaws.
 	 * 
@@ -22,6 +22,7 @@ import com.palmergames.bukkit.towny.exceptions.EmptyTownException;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.exceptions.TownyException;
 import com.palmergames.bukkit.towny.object.SpawnPoint.SpawnPointType;
+import com.palmergames.bukkit.towny.object.comparators.ComparatorCaches;
 import com.palmergames.bukkit.towny.object.jail.Jail;
 import com.palmergames.bukkit.towny.object.metadata.CustomDataField;
 import com.palmergames.bukkit.towny.permissions.TownyPerms;
@@ -31,6 +32,7 @@ import net.kyori.adventure.audience.Audience;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -55,8 +57,10 @@ public class Town extends Government implements TownBlockOwner {
 
 	private static final String ECONOMY_ACCOUNT_PREFIX = TownySettings.getTownAccountPrefix();
 
-	private final List<Resident> residents = new ArrayList<>();
-	private final List<Resident> outlaws = new ArrayList<>();
+	private final IndexedList<Resident> residents = new IndexedList<>();
+	// The residents who are online, kept up to date as they log in and out, and join and leave the town.
+	private final Set<Resident> onlineResidents = ConcurrentHashMap.newKeySet();
+	private final IndexedList<Resident> outlaws = new IndexedList<>();
 	private Map<UUID, Town> allies = new LinkedHashMap<>();
 	private Map<UUID, Town> enemies = new LinkedHashMap<>();
 	private final Set<Resident> trustedResidents = new HashSet<>();
@@ -140,9 +144,15 @@ public class Town extends Government implements TownBlockOwner {
 			throw new AlreadyRegisteredException();
 		else {
 			townBlocks.put(townBlock.getWorldCoord(), townBlock);
+			townBlock.getWorld().getClaimIndex().addClaim(townBlock);
+			if (hasNation()) {
+				townBlock.getWorld().getClaimIndex().addNationClaim(townBlock);
+				townBlock.getWorld().markNationZoneModified();
+			}
 			if (townBlocks.size() < 2 && !hasHomeBlock())
 				setHomeBlock(townBlock);
 			getTownBlockTypeCache().addTownBlockOfType(townBlock.getType());
+			ComparatorCaches.update(this);
 		}
 	}
 	
@@ -202,6 +212,7 @@ public class Town extends Government implements TownBlockOwner {
 		this.mayor = mayor;
 		
 		TownyPerms.assignPermissions(mayor, null);	
+		markModified();
 	}
 
 	public Nation getNation() throws NotRegisteredException {
@@ -272,6 +283,11 @@ public class Town extends Government implements TownBlockOwner {
 
 		if (nation == null) {
 			this.nation = null;
+			townBlocks.values().forEach(tb -> tb.getWorld().getClaimIndex().removeNationClaim(tb));
+			TownRelationCache.invalidateTownFully(this);
+			markModified();
+			markNationZoneModified();
+			ComparatorCaches.update(this);
 			return;
 		}
 
@@ -280,6 +296,11 @@ public class Town extends Government implements TownBlockOwner {
 
 		this.nation = nation;
 		nation.addTown(this);
+		townBlocks.values().forEach(tb -> tb.getWorld().getClaimIndex().addNationClaim(tb));
+		TownRelationCache.invalidateTownFully(this);
+		markModified();
+		markNationZoneModified();
+		ComparatorCaches.update(this);
 
 		if (updateJoinedAt)
 			setJoinedNationAt(System.currentTimeMillis());
@@ -295,7 +316,7 @@ public class Town extends Government implements TownBlockOwner {
 		if (!residentsSorted)
 			sortResidents();
 		
-		return Collections.unmodifiableList(residents);
+		return residents.asList();
 	}
 
 	public List<Resident> getRank(String rank) {
@@ -312,10 +333,7 @@ public class Town extends Government implements TownBlockOwner {
 	@Override
 	public boolean hasResident(String name) {
 
-		for (Resident resident : residents)
-			if (resident.getName().equalsIgnoreCase(name))
-				return true;
-		return false;
+		return residents.contains(name);
 	}
 
 	public boolean hasResident(Resident resident) {
@@ -330,8 +348,7 @@ public class Town extends Government implements TownBlockOwner {
 	
 	public boolean hasResident(UUID uuid) {
 		
-		Resident resident = TownyAPI.getInstance().getResident(uuid);
-		return resident != null && hasResident(resident);
+		return residents.get(uuid) != null;
 	}
 	
 	public boolean hasResidentWithRank(Resident resident, String rank) {
@@ -340,6 +357,33 @@ public class Town extends Government implements TownBlockOwner {
 
 	void addResident(Resident resident) {
 		residents.add(resident);
+		if (resident.isOnline())
+			onlineResidents.add(resident);
+		markModified();
+		ComparatorCaches.update(this);
+	}
+
+	/**
+	 * @return an unmodifiable view of the town's residents who are online.
+	 */
+	@Override
+	public Collection<Resident> getOnlineResidents() {
+		return Collections.unmodifiableSet(onlineResidents);
+	}
+
+	/**
+	 * Updates whether one of the town's residents is counted as online.
+	 * 
+	 * @param resident Resident logging in or out.
+	 * @param online Whether the resident is now online.
+	 */
+	@ApiStatus.Internal
+	public void setResidentOnline(Resident resident, boolean online) {
+		if (online && residents.contains(resident))
+			onlineResidents.add(resident);
+		else
+			onlineResidents.remove(resident);
+		ComparatorCaches.update(this);
 	}
 
 	public void addResidentCheck(Resident resident) throws AlreadyRegisteredException {
@@ -378,6 +422,7 @@ public class Town extends Government implements TownBlockOwner {
 	public void setHasUpkeep(boolean hasUpkeep) {
 
 		this.hasUpkeep = hasUpkeep;
+		ComparatorCaches.update(this);
 	}
 
 	public boolean hasUpkeep() {
@@ -627,6 +672,7 @@ public class Town extends Government implements TownBlockOwner {
 	 */
 	public void setHomeBlock(@Nullable TownBlock homeBlock) {
 
+		reindexHomeBlock(this.homeBlock, homeBlock);
 		this.homeBlock = homeBlock;
 		
 		if (homeBlock == null)
@@ -676,6 +722,7 @@ public class Town extends Government implements TownBlockOwner {
 	 */
 	public void forceSetHomeBlock(TownBlock homeBlock) throws TownyException {
 
+		reindexHomeBlock(this.homeBlock, homeBlock);
 		if (homeBlock == null) {
 			this.homeBlock = null;
 			TownyMessaging.sendErrorMsg("town.forceSetHomeblock() is returning null.");
@@ -690,6 +737,18 @@ public class Town extends Government implements TownBlockOwner {
 
 	}
 
+	/*
+	 * Moves this Town's entry in the homeblock index of the TownyWorlds involved.
+	 */
+	private void reindexHomeBlock(@Nullable TownBlock oldHomeBlock, @Nullable TownBlock newHomeBlock) {
+		if (oldHomeBlock == newHomeBlock)
+			return;
+		if (oldHomeBlock != null)
+			oldHomeBlock.getWorld().getClaimIndex().removeHomeBlock(oldHomeBlock);
+		if (newHomeBlock != null)
+			newHomeBlock.getWorld().getClaimIndex().addHomeBlock(newHomeBlock);
+	}
+
 	public TownBlock getHomeBlock() throws TownyException {
 
 		if (hasHomeBlock())
@@ -777,6 +836,9 @@ public class Town extends Government implements TownBlockOwner {
 		}
 		// Remove resident.
 		residents.remove(resident);
+		onlineResidents.remove(resident);
+		markModified();
+		ComparatorCaches.update(this);
 	}
 	
 	/** 
@@ -890,11 +952,15 @@ public class Town extends Government implements TownBlockOwner {
 			}
 
 			townBlocks.remove(townBlock.getWorldCoord());
+			townBlock.getWorld().getClaimIndex().removeClaim(townBlock);
+			if (hasNation())
+				townBlock.getWorld().markNationZoneModified();
 			getTownBlockTypeCache().removeTownBlockOfType(townBlock.getType());
 			if (townBlock.isForSale())
 				getTownBlockTypeCache().removeTownBlockOfTypeForSale(townBlock.getType());
 			if (townBlock.hasResident())
 				getTownBlockTypeCache().removeTownBlockOfTypeResidentOwned(townBlock.getType());
+			ComparatorCaches.update(this);
 			this.save();
 		}
 	}
@@ -902,6 +968,7 @@ public class Town extends Government implements TownBlockOwner {
 	@Override
 	public void setPermissions(String line) {
 		permissions.load(line);
+		markModified();
 	}
 
 	@Override
@@ -1105,11 +1172,11 @@ public class Town extends Government implements TownBlockOwner {
 
 	@Override
 	public Collection<Resident> getOutlaws() {
-		return Collections.unmodifiableList(outlaws);
+		return outlaws.asList();
 	}
 	
 	public boolean hasOutlaw (String name) {
-		return outlaws.stream().anyMatch(outlaw -> outlaw.getName().equalsIgnoreCase(name));
+		return outlaws.contains(name);
 	}
 	
 	public boolean hasOutlaw(Resident outlaw) {
@@ -1121,6 +1188,7 @@ public class Town extends Government implements TownBlockOwner {
 
 		addOutlawCheck(resident);
 		outlaws.add(resident);
+		markModified();
 	}
 	
 	public void addOutlawCheck(Resident resident) throws AlreadyRegisteredException {
@@ -1138,8 +1206,10 @@ public class Town extends Government implements TownBlockOwner {
 	
 	public void removeOutlaw(Resident resident) {
 
-		if (hasOutlaw(resident))
+		if (hasOutlaw(resident)) {
 			outlaws.remove(resident);
+			markModified();
+		}
 	}
 	
 	public void loadOutlaws(List<Resident> outlaws) {
@@ -1403,6 +1473,7 @@ public class Town extends Government implements TownBlockOwner {
 	
 	public void setRuined(boolean b) {
 		ruined = b;
+		markModified();
 	}
 	
 	public void setRuinedTime(long time) {
@@ -1455,6 +1526,7 @@ public class Town extends Government implements TownBlockOwner {
 	
 	public void setNationZoneOverride(int size) {
 		this.nationZoneOverride = size;
+		markNationZoneModified();
 	}
 	
 	public boolean hasNationZoneOverride() {
@@ -1478,9 +1550,7 @@ public class Town extends Government implements TownBlockOwner {
 	}
 
 	private void sortResidents() {
-		List<Resident> sortedResidents = residents.stream().sorted(Comparator.comparingLong(Resident::getJoinedTownAt)).collect(Collectors.toList());
-		residents.clear();
-		residents.addAll(sortedResidents);
+		residents.sort(Comparator.comparingLong(Resident::getJoinedTownAt));
 		residentsSorted = true;
 	}
 
@@ -1495,10 +1565,12 @@ public class Town extends Government implements TownBlockOwner {
 	
 	public void addTrustedResident(Resident resident) {
 		trustedResidents.add(resident);
+		markModified();
 	}
 	
 	public void removeTrustedResident(Resident resident) {
 		trustedResidents.remove(resident);
+		markModified();
 	}
 
 	@Override
@@ -1522,6 +1594,7 @@ public class Town extends Government implements TownBlockOwner {
 	public void loadAllies(List<Town> towns) {
 		for (Town town : towns)
 			allies.put(town.getUUID(), town);
+		TownRelationCache.invalidateTown(this);
 	}
 	
 	public void addAlly(Town town) {
@@ -1532,6 +1605,8 @@ public class Town extends Government implements TownBlockOwner {
 		}
 		enemies.remove(town.getUUID());
 		allies.put(town.getUUID(), town);
+		TownRelationCache.invalidateTown(this);
+		markModified();
 	}
 
 	public void removeAlly(Town town) {
@@ -1541,6 +1616,8 @@ public class Town extends Government implements TownBlockOwner {
 			return;
 		}
 		allies.remove(town.getUUID());
+		TownRelationCache.invalidateTown(this);
+		markModified();
 	}
 
 	public boolean removeAllAllies() {
@@ -1570,10 +1647,12 @@ public class Town extends Government implements TownBlockOwner {
 
 	public void addTrustedTown(Town town) {
 		trustedTowns.put(town.getUUID(), town);
+		markModified();
 	}
 
 	public void removeTrustedTown(Town town) {
 		trustedTowns.remove(town.getUUID());
+		markModified();
 	}
 
 	public boolean removeAllTrustedTowns() {
@@ -1594,6 +1673,7 @@ public class Town extends Government implements TownBlockOwner {
 	public void loadEnemies(List<Town> towns) {
 		for (Town town : towns)
 			enemies.put(town.getUUID(), town);
+		TownRelationCache.invalidateTown(this);
 	}
 
 	
@@ -1605,6 +1685,8 @@ public class Town extends Government implements TownBlockOwner {
 		}
 		allies.remove(town.getUUID());
 		enemies.put(town.getUUID(), town);
+		TownRelationCache.invalidateTown(this);
+		markModified();
 	}
 
 	public void removeEnemy(Town town) {
@@ -1614,6 +1696,8 @@ public class Town extends Government implements TownBlockOwner {
 			return;
 		}
 		enemies.remove(town.getUUID());
+		TownRelationCache.invalidateTown(this);
+		markModified();
 	}
 
 	public boolean removeAllEnemies() {
@@ -1666,6 +1750,19 @@ public class Town extends Government implements TownBlockOwner {
 	
 	public void setNationZoneEnabled(boolean nationZoneEnabled) {
 		this.nationZoneEnabled = nationZoneEnabled;
+		markNationZoneModified();
+	}
+
+	/*
+	 * The nation zone around this town's claims lies in the wilderness, which has
+	 * no TownBlock to mark as modified, so the nation zones of the worlds holding
+	 * the claims are marked.
+	 */
+	void markNationZoneModified() {
+		Set<TownyWorld> worlds = new HashSet<>();
+		for (TownBlock townBlock : townBlocks.values())
+			if (worlds.add(townBlock.getWorld()))
+				townBlock.getWorld().markNationZoneModified();
 	}
 
 	/**
@@ -74,6 +74,7 @@ public class TownBlock extends TownyObject {
 			
 			permissionOverrides.clear();
 		} catch (AlreadyRegisteredException | NullPointerException ignored) {}
+		markModified();
 	}
 
 	public Town getTown() throws NotRegisteredException {
@@ -157,6 +158,7 @@ public class TownBlock extends TownyObject {
 		
 		this.resident = resident;
 		permissionOverrides.clear();
+		markModified();
 	}
 
 	public Resident getResident() throws NotRegisteredException {
@@ -217,6 +219,7 @@ public class TownBlock extends TownyObject {
 
 		//permissions.reset(); not needed, already done in permissions.load()
 		permissions.load(line);
+		markModified();
 	}
 
 	public TownyPermission getPermissions() {
@@ -318,6 +321,7 @@ public class TownBlock extends TownyObject {
 		
 		// Set the changed status.
 		this.setChanged(false);
+		markModified();
 	}
 
 	/**
@@ -352,14 +356,14 @@ public class TownBlock extends TownyObject {
 			&& TownySettings.getPVPCoolDownTime() > 0
 			&& !TownyUniverse.getInstance().getPermissionSource().isTownyAdmin(resident.getPlayer())) {
 			// Test to see if this town is on pvp cooldown.
-			if (CooldownTimerTask.hasCooldown(town.getUUID().toString(), CooldownType.PVP))
-				throw new TownyException(Translatable.of("msg_err_cannot_toggle_pvp_x_seconds_remaining", CooldownTimerTask.getCooldownRemaining(town.getUUID().toString(), CooldownType.PVP)));
+			if (CooldownTimerTask.hasCooldown(town.getUUID(), CooldownType.PVP))
+				throw new TownyException(Translatable.of("msg_err_cannot_toggle_pvp_x_seconds_remaining", CooldownTimerTask.getCooldownRemaining(town.getUUID(), CooldownType.PVP)));
 			// Test to see if the pvp cooldown timer is active for this plot.
-			if (CooldownTimerTask.hasCooldown(getWorldCoord().toString(), CooldownType.PVP))
-				throw new TownyException(Translation.of("msg_err_cannot_toggle_pvp_x_seconds_remaining", CooldownTimerTask.getCooldownRemaining(getWorldCoord().toString(), CooldownType.PVP)));
+			if (CooldownTimerTask.hasCooldown(getWorldCoord(), CooldownType.PVP))
+				throw new TownyException(Translation.of("msg_err_cannot_toggle_pvp_x_seconds_remaining", CooldownTimerTask.getCooldownRemaining(getWorldCoord(), CooldownType.PVP)));
 
 			setType(type);
-			CooldownTimerTask.addCooldownTimer(getWorldCoord().toString(), CooldownType.PVP);
+			CooldownTimerTask.addCooldownTimer(getWorldCoord(), CooldownType.PVP);
 		} else
 			setType(type);
 
@@ -455,6 +459,7 @@ public class TownBlock extends TownyObject {
 	public void setLocked(boolean locked) {
 
 		this.locked = locked;
+		markModified();
 	}
 
 	public void setWorld(TownyWorld world) {
@@ -526,6 +531,7 @@ public class TownBlock extends TownyObject {
 	
 	public void removePlotObjectGroup() {
 		this.plotGroup = null;
+		markModified();
 	}
 
 	public void setPlotObjectGroup(PlotGroup group) {
@@ -571,10 +577,12 @@ public class TownBlock extends TownyObject {
 	
 	public void addTrustedResident(Resident resident) {
 		trustedResidents.add(resident);
+		markModified();
 	}
 	
 	public void removeTrustedResident(Resident resident) {
 		trustedResidents.remove(resident);
+		markModified();
 	}
 	
 	public boolean hasResident(Resident resident) {
@@ -586,10 +594,12 @@ public class TownBlock extends TownyObject {
 
 	public void setTrustedResidents(Set<Resident> trustedResidents) {
 		this.trustedResidents = new HashSet<>(trustedResidents);
+		markModified();
 	}
 
 	public void setPermissionOverrides(Map<Resident, PermissionData> permissionOverrides) {
 		this.permissionOverrides = new HashMap<>(permissionOverrides);
+		markModified();
 	}
 
 	/**
@@ -0,0 +1,21 @@
+package com.palmergames.bukkit.towny.object;
+
+/**
+ * How one town stands towards another, strongest relation first.
+ * 
+ * @see TownRelationCache
+ */
+public enum TownRelation {
+	SAME_TOWN,
+	SAME_NATION,
+	ALLY,
+	ENEMY,
+	NONE;
+
+	/**
+	 * @return true if the relation counts as allied for combat, which includes same town and same nation.
+	 */
+	public boolean isAllied() {
+		return this == SAME_TOWN || this == SAME_NATION || this == ALLY;
+	}
+}
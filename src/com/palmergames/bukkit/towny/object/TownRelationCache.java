@@ -0,0 +1,118 @@
+package com.palmergames.bukkit.towny.object;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the {@link TownRelation} of every pair of towns which has been asked about.
+ * <p>
+ * Relations are directional: town A can list town B as an ally or enemy without
+ * B doing the same, so each town keeps its own row of the towns it has been
+ * compared against. Entries are dropped, never recomputed eagerly, when
+ * something they were built from changes:
+ * <ul>
+ * <li>a town's own allies or enemies change, which drops that town's row,</li>
+ * <li>a town joins or leaves a nation, or is deleted, which drops its row and its entry in every other row,</li>
+ * <li>a nation's allies or enemies change, which drops the rows of the nation's towns.</li>
+ * </ul>
+ * Lookups may come from off the main thread (ie: PlaceholderAPI), so an entry
+ * computed while an invalidation was running is thrown away rather than kept.
+ */
+public class TownRelationCache {
+
+	private static final Map<Town, Map<Town, TownRelation>> relations = new ConcurrentHashMap<>();
+	private static final AtomicLong generation = new AtomicLong();
+
+	private TownRelationCache() {}
+
+	/**
+	 * @param a Town doing the looking.
+	 * @param b Town being looked at.
+	 * @return how town a stands towards town b.
+	 */
+	@NotNull
+	public static TownRelation getRelation(@NotNull Town a, @NotNull Town b) {
+		if (a == b)
+			return TownRelation.SAME_TOWN;
+
+		Map<Town, TownRelation> row = relations.computeIfAbsent(a, k -> new ConcurrentHashMap<>());
+		TownRelation relation = row.get(b);
+		if (relation != null)
+			return relation;
+
+		long gen = generation.get();
+		relation = computeRelation(a, b);
+		row.put(b, relation);
+
+		// Something changed while computing, the relation may be stale.
+		if (generation.get() != gen)
+			row.remove(b, relation);
+
+		return relation;
+	}
+
+	/**
+	 * @return a number which changes whenever any cached relation is dropped, so that callers
+	 * holding onto something built from relations can tell when to rebuild it.
+	 */
+	public static long getGeneration() {
+		return generation.get();
+	}
+
+	private static TownRelation computeRelation(Town a, Town b) {
+		Nation nationA = a.getNationOrNull();
+		Nation nationB = b.getNationOrNull();
+
+		if (nationA != null && nationA == nationB)
+			return TownRelation.SAME_NATION;
+		if (a.hasAlly(b) || nationA != null && nationB != null && nationA.hasAlly(nationB))
+			return TownRelation.ALLY;
+		if (a.hasEnemy(b) || nationA != null && nationB != null && nationA.hasEnemy(nationB))
+			return TownRelation.ENEMY;
+		return TownRelation.NONE;
+	}
+
+	/**
+	 * Drops the relations of the given town towards every other town, used when its allies or enemies change.
+	 * 
+	 * @param town Town which changed.
+	 */
+	public static void invalidateTown(@NotNull Town town) {
+		generation.incrementAndGet();
+		relations.remove(town);
+	}
+
+	/**
+	 * Drops every relation to or from the given town, used when it joins or leaves a nation or is deleted.
+	 * 
+	 * @param town Town which changed.
+	 */
+	public static void invalidateTownFully(@NotNull Town town) {
+		generation.incrementAndGet();
+		relations.remove(town);
+		for (Map<Town, TownRelation> row : relations.values())
+			row.remove(town);
+	}
+
+	/**
+	 * Drops the relations of each of the nation's towns, used when the nation's allies or enemies change.
+	 * 
+	 * @param nation Nation which changed.
+	 */
+	public static void invalidateNation(@NotNull Nation nation) {
+		generation.incrementAndGet();
+		for (Town town : nation.getTowns())
+			relations.remove(town);
+	}
+
+	/**
+	 * Drops every cached relation.
+	 */
+	public static void clear() {
+		generation.incrementAndGet();
+		relations.clear();
+	}
+}
@@ -2,6 +2,7 @@ package com.palmergames.bukkit.towny.object;
 
 import com.google.common.base.Preconditions;
 import com.palmergames.bukkit.towny.object.metadata.CustomDataField;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
@@ -13,18 +14,31 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 public abstract class TownyObject implements Nameable, Savable {
+	/*
+	 * Shared by every TownyObject, so that stamps from different objects can be
+	 * compared with each other and with the time a cache entry was built.
+	 */
+	private static final AtomicLong MODIFICATION_CLOCK = new AtomicLong();
+
 	private String name;
 	
 	private Map<String, CustomDataField<?>> metadata = null;
+	private volatile long modificationStamp = 0;
+	// IndexedLists holding this object, which have to follow its name and UUID.
+	private List<IndexedList<?>> indexedLists = null;
 	
 	protected TownyObject(String name) {
 		this.name = name;
 	}
 	
 	public void setName(String name) {
+		String oldName = this.name;
 		this.name = name;
+		reindex(oldName, this instanceof Identifiable identifiable ? identifiable.getUUID() : null);
 	}
 	
 	@Override
@@ -56,6 +70,66 @@ public abstract class TownyObject implements Nameable, Savable {
 		return getName();
 	}
 
+	void addIndexedList(IndexedList<?> list) {
+		if (indexedLists == null)
+			indexedLists = new ArrayList<>(1);
+		indexedLists.add(list);
+	}
+
+	void removeIndexedList(IndexedList<?> list) {
+		if (indexedLists != null && indexedLists.remove(list) && indexedLists.isEmpty())
+			indexedLists = null;
+	}
+
+	/**
+	 * Updates the IndexedLists holding this object after its name or UUID has changed.
+	 * 
+	 * @param oldName Name before the change.
+	 * @param oldUUID UUID before the change.
+	 */
+	void reindex(String oldName, UUID oldUUID) {
+		if (indexedLists != null)
+			for (IndexedList<?> list : indexedLists)
+				list.reindex(this, oldName, oldUUID);
+	}
+
+	/**
+	 * Marks this object as changed in a way which can affect what players are
+	 * allowed to do, so that any PlayerCache entries which relied on it are
+	 * rebuilt the next time they are used.
+	 * <p>
+	 * Call this after the change has been made.
+	 */
+	public void markModified() {
+		modificationStamp = MODIFICATION_CLOCK.incrementAndGet();
+	}
+
+	/**
+	 * @return the value of the modification clock when this object was last
+	 *         marked as modified, or 0 if it never has been.
+	 */
+	public long getModificationStamp() {
+		return modificationStamp;
+	}
+
+	/**
+	 * @return the current value of the modification clock shared by all TownyObjects.
+	 */
+	@ApiStatus.Internal
+	public static long currentModificationStamp() {
+		return MODIFICATION_CLOCK.get();
+	}
+
+	/**
+	 * Advances the modification clock without marking any object.
+	 * 
+	 * @return the new value of the modification clock.
+	 */
+	@ApiStatus.Internal
+	public static long nextModificationStamp() {
+		return MODIFICATION_CLOCK.incrementAndGet();
+	}
+
 	/**
 	 * Add a specific metadata to this TownyObject.
 	 * Overrides existing metadata of the same key.
@@ -3,9 +3,9 @@ package com.palmergames.bukkit.towny.object;
 import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
-import com.palmergames.bukkit.towny.exceptions.TownyException;
 import com.palmergames.bukkit.towny.object.TownyPermission.ActionType;
 import com.palmergames.bukkit.towny.object.metadata.CustomDataField;
+import com.palmergames.util.ConcurrentLongObjectMap;
 import com.palmergames.util.MathUtil;
 
 import com.palmergames.util.StringMgmt;
@@ -32,6 +32,9 @@ public class TownyWorld extends TownyObject {
 	private UUID uuid;
 
 	private HashMap<String, Town> towns = new HashMap<>();
+	private final ClaimIndex claimIndex = new ClaimIndex();
+	private final ConcurrentLongObjectMap<TownBlock> townBlockTable = new ConcurrentLongObjectMap<>();
+	private volatile long nationZoneModificationStamp = 0;
 
 	private boolean isDeletingEntitiesOnUnclaim = TownySettings.isDeletingEntitiesOnUnclaim();
 	private EnumSet<EntityType> unclaimDeleteEntityTypes = null;
@@ -127,19 +130,102 @@ public class TownyWorld extends TownyObject {
 	}
 
 	public TownBlock getTownBlock(Coord coord) throws NotRegisteredException {
-		if (!hasTownBlock(coord))
-			throw new NotRegisteredException();
-		return TownyUniverse.getInstance().getTownBlock(new WorldCoord(this.getName(), coord));
+		return getTownBlock(coord.getX(), coord.getZ());
 	}
 
 	public boolean hasTownBlock(Coord key) {
 
-		return TownyUniverse.getInstance().hasTownBlock(new WorldCoord(this.getName(), key));
+		return hasTownBlock(key.getX(), key.getZ());
 	}
 
 	public TownBlock getTownBlock(int x, int z) throws NotRegisteredException {
 
-		return getTownBlock(new Coord(x, z));
+		TownBlock townBlock = getTownBlockOrNull(x, z);
+		if (townBlock == null)
+			throw new NotRegisteredException();
+		return townBlock;
+	}
+
+	/**
+	 * Gets the TownBlock at the given cell coordinates, without allocating a
+	 * Coord or WorldCoord to look it up.
+	 * 
+	 * @param x Cell X coordinate.
+	 * @param z Cell Z coordinate.
+	 * @return the TownBlock at the cell or null if it is not claimed.
+	 */
+	@Nullable
+	public TownBlock getTownBlockOrNull(int x, int z) {
+		return townBlockTable.get(toKey(x, z));
+	}
+
+	public boolean hasTownBlock(int x, int z) {
+		return townBlockTable.containsKey(toKey(x, z));
+	}
+
+	/**
+	 * Used by the TownyUniverse to mirror its townblock map into this world's claim table.
+	 * The TownBlock and the TownBlocks around it are marked as modified.
+	 * 
+	 * @param townBlock TownBlock to add.
+	 */
+	@ApiStatus.Internal
+	public void addTownBlock(TownBlock townBlock) {
+		townBlockTable.put(toKey(townBlock.getX(), townBlock.getZ()), townBlock);
+		markClaimModified(townBlock);
+	}
+
+	/**
+	 * Used by the TownyUniverse to mirror its townblock map into this world's claim table.
+	 * The TownBlock and the TownBlocks around it are marked as modified.
+	 * 
+	 * @param townBlock TownBlock to remove.
+	 */
+	@ApiStatus.Internal
+	public void removeTownBlock(TownBlock townBlock) {
+		if (townBlockTable.remove(toKey(townBlock.getX(), townBlock.getZ()), townBlock) != null)
+			markClaimModified(townBlock);
+	}
+
+	/*
+	 * PlayerCache entries at the claim itself see their TownBlock come or go,
+	 * entries next to it were built against the TownBlocks marked here. The
+	 * wilderness around it is left alone: only a nation's claims change it, and
+	 * the Town marks this world's nation zones for those.
+	 */
+	private void markClaimModified(TownBlock townBlock) {
+		townBlock.markModified();
+		for (int x = -1; x <= 1; x++)
+			for (int z = -1; z <= 1; z++) {
+				if (x == 0 && z == 0)
+					continue;
+				TownBlock neighbour = getTownBlockOrNull(townBlock.getX() + x, townBlock.getZ() + z);
+				if (neighbour != null)
+					neighbour.markModified();
+			}
+	}
+
+	/**
+	 * Marks the nation zones in this world as changed. PlayerCache entries in the
+	 * wilderness then look up the nation zone they lie in again, and are only
+	 * rebuilt if it isn't the one they were built with.
+	 */
+	@ApiStatus.Internal
+	public void markNationZoneModified() {
+		nationZoneModificationStamp = nextModificationStamp();
+	}
+
+	/**
+	 * @return the value of the modification clock when this world's nation zones
+	 *         last changed, or 0 if they never have.
+	 */
+	@ApiStatus.Internal
+	public long getNationZoneModificationStamp() {
+		return nationZoneModificationStamp;
+	}
+
+	private static long toKey(int x, int z) {
+		return Coord.pack(x, z);
 	}
 
 	public List<TownBlock> getTownBlocks(Town town) {
@@ -757,30 +843,8 @@ public class TownyWorld extends TownyObject {
 	 * @return the closest distance to another towns homeblock.
 	 */
 	public int getMinDistanceFromOtherTowns(Coord key, Town homeTown) {
-		double minSqr = -1;
-		final int keyX = key.getX();
-		final int keyZ = key.getZ();
-		
-		for (Town town : getTowns().values()) {
-			try {
-				Coord townCoord = town.getHomeBlock().getCoord();
-				if (homeTown != null) {
-					// If the townblock either: the town is the same as homeTown OR
-					// both towns are in the same nation (and this is set to ignore distance in the config,) skip over the proximity filter.
-					if (homeTown.getUUID().equals(town.getUUID())
-						|| (TownySettings.isMinDistanceIgnoringTownsInSameNation() && homeTown.hasNation() && town.hasNation() && town.getNationOrNull().equals(homeTown.getNationOrNull()))
-						|| (TownySettings.isMinDistanceIgnoringTownsInAlliedNation() && homeTown.isAlliedWith(town)))
-						continue;
-				}
-				if (!town.getHomeblockWorld().equals(this)) continue;
-				
-				final double distSqr = MathUtil.distanceSquared((double) townCoord.getX() - keyX, (double) townCoord.getZ() - keyZ);
-				if (minSqr == -1 || distSqr < minSqr)
-					minSqr = distSqr;
-			} catch (TownyException e) {
-			}
-		}
-		return minSqr == -1 ? Integer.MAX_VALUE : (int) Math.ceil(Math.sqrt(minSqr));
+		final TownBlock nearest = claimIndex.getNearestHomeBlock(key.getX(), key.getZ(), homeTown == null ? null : tb -> !isIgnoredByProximity(homeTown, tb.getTownOrNull()));
+		return nearest == null ? Integer.MAX_VALUE : (int) Math.ceil(MathUtil.distance(key, nearest.getCoord()));
 	}
 
 	/**
@@ -802,36 +866,21 @@ public class TownyWorld extends TownyObject {
 	 * @return the closest distance to another towns nearest plot.
 	 */
 	public int getMinDistanceFromOtherTownsPlots(Coord key, Town homeTown) {
-		final int keyX = key.getX();
-		final int keyZ = key.getZ();
-		
-		double minSqr = -1;
-		for (Town town : getTowns().values()) {
-			if (homeTown != null)
-				// If the townblock either: the town is the same as homeTown OR 
-				// both towns are in the same nation (and this is set to ignore distance in the config,) skip over the proximity filter.
-				if (homeTown.getUUID().equals(town.getUUID())
-					|| (TownySettings.isMinDistanceIgnoringTownsInSameNation() && homeTown.hasNation() && town.hasNation() && town.getNationOrNull().equals(homeTown.getNationOrNull()))
-					|| (TownySettings.isMinDistanceIgnoringTownsInAlliedNation() && homeTown.isAlliedWith(town)))
-					continue;
-			for (TownBlock b : town.getTownBlocks()) {
-				if (!b.getWorld().equals(this)) continue;
+		final TownBlock nearest = claimIndex.getNearestClaim(key.getX(), key.getZ(), true, homeTown == null ? null : tb -> !isIgnoredByProximity(homeTown, tb.getTownOrNull()));
+		return nearest == null ? Integer.MAX_VALUE : (int) Math.ceil(MathUtil.distance(key, nearest.getCoord()));
+	}
 
-				final int tbX = b.getX();
-				final int tbZ = b.getZ();
-				
-				if (keyX == tbX && keyZ == tbZ)
-					continue;
-				
-				final double distSqr = MathUtil.distanceSquared((double) tbX - keyX, (double) tbZ - keyZ);
-				if (minSqr == -1 || distSqr < minSqr)
-					minSqr = distSqr;
-			}
-		}
-		return minSqr == -1 ? Integer.MAX_VALUE : (int) Math.ceil(Math.sqrt(minSqr));
+	/*
+	 * If the townblock either: the town is the same as homeTown OR both towns are in the same nation
+	 * or allied nations (and this is set to ignore distance in the config,) skip over the proximity filter.
+	 */
+	private static boolean isIgnoredByProximity(Town homeTown, Town town) {
+		return town == null 
+			|| homeTown.getUUID().equals(town.getUUID())
+			|| (TownySettings.isMinDistanceIgnoringTownsInSameNation() && homeTown.hasNation() && town.hasNation() && town.getNationOrNull().equals(homeTown.getNationOrNull()))
+			|| (TownySettings.isMinDistanceIgnoringTownsInAlliedNation() && homeTown.isAlliedWith(town));
 	}
 	
-	
 	/**
 	 * Returns the distance to the closest townblock 
 	 * from the given coord, for the give town. 
@@ -869,26 +918,8 @@ public class TownyWorld extends TownyObject {
 	 * @return the nearest town belonging to a nation.   
 	 */
 	public Town getClosestTownWithNationFromCoord(Coord key, Town nearestTown) {
-		final int keyX = key.getX();
-		final int keyZ = key.getZ();
-		
-		double minSqr = -1;
-		for (Town town : getTowns().values()) {
-			if (!town.hasNation()) continue;
-			for (TownBlock b : town.getTownBlocks()) {
-				if (!b.getWorld().equals(this)) continue;
-				
-				final int tbX = b.getX();
-				final int tbZ = b.getZ();
-				
-				double distSqr = MathUtil.distanceSquared((double) tbX - keyX, (double) tbZ - keyZ);
-				if (minSqr == -1 || distSqr < minSqr) {
-					minSqr = distSqr;
-					nearestTown = town;
-				}						
-			}		
-		}		
-		return (nearestTown);		
+		final TownBlock nearest = getClosestTownblockWithNationFromCoord(key);
+		return nearest == null ? nearestTown : nearest.getTownOrNull();
 	}
 
 	/**
@@ -901,31 +932,15 @@ public class TownyWorld extends TownyObject {
 	 */
 	@Nullable
 	public TownBlock getClosestTownblockWithNationFromCoord(Coord key) {
-		final int keyX = key.getX();
-		final int keyZ = key.getZ();
-		
-		double minSqr = -1;
-		TownBlock tb = null;
-		
-		for (Town town : getTowns().values()) {
-			if (!town.hasNation())
-				continue;
-			for (TownBlock b : town.getTownBlocks()) {
-				if (!b.getWorld().equals(this))
-					continue;
+		return claimIndex.getNearestNationClaim(key.getX(), key.getZ(), null);
+	}
 
-				final int tbX = b.getX();
-				final int tbZ = b.getZ();
-				
-				double distSqr = MathUtil.distanceSquared((double) tbX - keyX, (double) tbZ - keyZ);
-				if (minSqr == -1 || distSqr < minSqr) {
-					minSqr = distSqr;
-					tb = b;
-				}
-			}
-		}
-		
-		return tb;
+	/**
+	 * @return the spatial index of the claims made in this world.
+	 */
+	@ApiStatus.Internal
+	public ClaimIndex getClaimIndex() {
+		return claimIndex;
 	}
 
 	@Override
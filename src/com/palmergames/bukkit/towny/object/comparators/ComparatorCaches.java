@@ -1,8 +1,12 @@
 package com.palmergames.bukkit.towny.object.comparators;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
@@ -11,7 +15,6 @@ import com.palmergames.bukkit.towny.object.Translatable;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
-import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownyEconomyHandler;
 import com.palmergames.bukkit.towny.TownyFormatter;
 import com.palmergames.bukkit.towny.TownyUniverse;
@@ -20,6 +23,7 @@ import com.palmergames.bukkit.towny.event.nation.NationListDisplayedNumOnlinePla
 import com.palmergames.bukkit.towny.event.nation.NationListDisplayedNumResidentsCalculationEvent;
 import com.palmergames.bukkit.towny.event.nation.NationListDisplayedNumTownBlocksCalculationEvent;
 import com.palmergames.bukkit.towny.event.nation.NationListDisplayedNumTownsCalculationEvent;
+import com.palmergames.bukkit.towny.object.Government;
 import com.palmergames.bukkit.towny.object.Nation;
 import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.Translation;
@@ -31,6 +35,7 @@ import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.event.ClickEvent;
 import net.kyori.adventure.text.event.HoverEvent;
 import net.kyori.adventure.text.format.NamedTextColor;
+import org.jetbrains.annotations.ApiStatus;
 
 public class ComparatorCaches {
 	
@@ -67,6 +72,176 @@ public class ComparatorCaches {
 			return new ArrayList<>();
 		}
 	}
+
+	/*
+	 * Leaderboards for the comparators whose values change all the time, kept
+	 * up to date as towns and nations change instead of being sorted again.
+	 */
+	private static final Map<ComparatorType, Leaderboard<Town>> townBoards = new EnumMap<>(ComparatorType.class);
+	private static final Map<ComparatorType, Leaderboard<Nation>> nationBoards = new EnumMap<>(ComparatorType.class);
+	// The level each nation was last updated at, as the upkeep of its towns depends on it.
+	private static final Map<Nation, Integer> nationLevels = new ConcurrentHashMap<>();
+
+	static {
+		for (ComparatorType compType : Arrays.asList(ComparatorType.RESIDENTS, ComparatorType.TOWNBLOCKS, ComparatorType.BALANCE, ComparatorType.ONLINE, ComparatorType.FOUNDED, ComparatorType.UPKEEP)) {
+			townBoards.put(compType, new Leaderboard<>(() -> TownyUniverse.getInstance().getTowns(), town -> getSortKey(compType, town)));
+			nationBoards.put(compType, new Leaderboard<>(() -> TownyUniverse.getInstance().getNations(), nation -> getSortKey(compType, nation)));
+		}
+		nationBoards.put(ComparatorType.TOWNS, new Leaderboard<>(() -> TownyUniverse.getInstance().getNations(), nation -> getSortKey(ComparatorType.TOWNS, nation)));
+	}
+
+	/**
+	 * Gets one page of the /town list output, only rendering the towns on that page.
+	 * 
+	 * @param compType ComparatorType to sort by.
+	 * @param page Page number, starting at 1.
+	 * @return the lines of the page.
+	 */
+	public static List<TextComponent> getTownListPage(ComparatorType compType, int page) {
+		Leaderboard<Town> board = townBoards.get(compType);
+		if (board == null)
+			return getPage(getTownListCache(compType), page);
+
+		List<TextComponent> output = new ArrayList<>();
+		for (Town town : board.getPage(page, 10))
+			output.add(townLine(town, compType));
+		return output;
+	}
+
+	/**
+	 * Gets one page of the /nation list output, only rendering the nations on that page.
+	 * 
+	 * @param compType ComparatorType to sort by.
+	 * @param page Page number, starting at 1.
+	 * @return the lines of the page.
+	 */
+	public static List<TextComponent> getNationListPage(ComparatorType compType, int page) {
+		Leaderboard<Nation> board = nationBoards.get(compType);
+		// Plugins listening to the sort event expect to see, and may reorder, the whole list.
+		if (board == null || DisplayedNationsListSortEvent.getHandlerList().getRegisteredListeners().length > 0)
+			return getPage(getNationListCache(compType), page);
+
+		List<TextComponent> output = new ArrayList<>();
+		for (Nation nation : board.getPage(page, 10))
+			output.add(nationLine(nation, compType));
+		return output;
+	}
+
+	/**
+	 * @param town Town to look for.
+	 * @param compType ComparatorType to rank by.
+	 * @return the town's place in /town list, starting at 1, or 0 if the comparator isn't ranked.
+	 */
+	public static int getTownRank(Town town, ComparatorType compType) {
+		Leaderboard<Town> board = townBoards.get(compType);
+		return board == null ? 0 : board.getRank(town);
+	}
+
+	/**
+	 * @param nation Nation to look for.
+	 * @param compType ComparatorType to rank by.
+	 * @return the nation's place in /nation list, starting at 1, or 0 if the comparator isn't ranked.
+	 */
+	public static int getNationRank(Nation nation, ComparatorType compType) {
+		Leaderboard<Nation> board = nationBoards.get(compType);
+		return board == null ? 0 : board.getRank(nation);
+	}
+
+	/**
+	 * Moves a town or nation to its current place on each leaderboard. A
+	 * town's nation is moved along with it, and a nation's towns are moved on
+	 * the upkeep leaderboard when the nation's level changes.
+	 * 
+	 * @param government Town or Nation which has changed.
+	 */
+	@ApiStatus.Internal
+	public static void update(Government government) {
+		if (government instanceof Town town) {
+			for (Leaderboard<Town> board : townBoards.values())
+				board.update(town);
+			Nation nation = town.getNationOrNull();
+			if (nation != null)
+				update(nation);
+		} else if (government instanceof Nation nation) {
+			for (Leaderboard<Nation> board : nationBoards.values())
+				board.update(nation);
+
+			Integer level = nation.getLevel();
+			if (!level.equals(nationLevels.put(nation, level))) {
+				Leaderboard<Town> upkeep = townBoards.get(ComparatorType.UPKEEP);
+				for (Town town : nation.getTowns())
+					upkeep.update(town);
+			}
+		}
+	}
+
+	/**
+	 * @param government Town or Nation which has just been registered.
+	 */
+	@ApiStatus.Internal
+	public static void add(Government government) {
+		if (government instanceof Town town)
+			townBoards.values().forEach(board -> board.add(town));
+		else if (government instanceof Nation nation)
+			nationBoards.values().forEach(board -> board.add(nation));
+	}
+
+	/**
+	 * @param government Town or Nation which is no longer registered.
+	 */
+	@ApiStatus.Internal
+	public static void remove(Government government) {
+		if (government instanceof Town town)
+			townBoards.values().forEach(board -> board.remove(town));
+		else if (government instanceof Nation nation) {
+			nationBoards.values().forEach(board -> board.remove(nation));
+			nationLevels.remove(nation);
+		}
+	}
+
+	/**
+	 * Drops every cached list and leaderboard, to be built again when next used.
+	 */
+	@ApiStatus.Internal
+	public static void clear() {
+		townCompCache.invalidateAll();
+		nationCompCache.invalidateAll();
+		townBoards.values().forEach(Leaderboard::invalidate);
+		nationBoards.values().forEach(Leaderboard::invalidate);
+		nationLevels.clear();
+	}
+
+	/*
+	 * Matches the order of the comparators in GovernmentComparators and
+	 * NationComparators, lowest first.
+	 */
+	private static double getSortKey(ComparatorType compType, Government government) {
+		switch (compType) {
+		case RESIDENTS:
+			return -government.getResidents().size();
+		case TOWNBLOCKS:
+			return -government.getTownBlocks().size();
+		case BALANCE:
+			return TownyEconomyHandler.isActive() ? -government.getAccount().getCachedBalance(false) : 0;
+		case ONLINE:
+			return -government.getOnlineResidents().size();
+		case FOUNDED:
+			return government.getRegistered();
+		case UPKEEP:
+			if (!TownySettings.isTaxingDaily())
+				return 0;
+			return government instanceof Town town ? TownySettings.getTownUpkeepCost(town) : TownySettings.getNationUpkeepCost((Nation) government);
+		case TOWNS:
+			return government instanceof Nation nation ? -nation.getNumTowns() : 0;
+		default:
+			return 0;
+		}
+	}
+
+	private static List<TextComponent> getPage(List<TextComponent> lines, int page) {
+		int from = Math.max(0, (page - 1) * 10);
+		return new ArrayList<>(lines.subList(Math.min(from, lines.size()), Math.min(from + 10, lines.size())));
+	}
 	
 	@SuppressWarnings("unchecked")
 	private static List<TextComponent> gatherTownLines(ComparatorType compType) {
@@ -74,52 +249,54 @@ public class ComparatorCaches {
 		List<Town> towns = new ArrayList<>(TownyUniverse.getInstance().getTowns());
 		towns.sort((Comparator<? super Town>) compType.getComparator());
 		
-		for (Town town : towns) {
-			TextComponent townName = Component.text(StringMgmt.remUnderscore(town.getName()), NamedTextColor.AQUA)
-					.clickEvent(ClickEvent.runCommand("/towny:town spawn " + town + " -ignore"));
-				
-			String slug = "";
-			switch (compType) {
-			case BALANCE:
-				slug = "(" + TownyEconomyHandler.getFormattedBalance(town.getAccount().getCachedBalance()) + ")";
-				break;
-			case TOWNBLOCKS:
-				slug = "(" + town.getTownBlocks().size() + ")";
-				break;
-			case RUINED:
-				slug = "(" + town.getResidents().size() + ") " + (town.isRuined() ? Translation.of("msg_ruined"):"");
-				break;
-			case BANKRUPT:
-				slug = "(" + town.getResidents().size() + ") " + (town.isBankrupt() ? Translation.of("msg_bankrupt"):"");
-				break;
-			case ONLINE:
-				slug = "(" + TownyAPI.getInstance().getOnlinePlayersInTown(town).size() + ")";
-				break;
-			case FOUNDED:
-				if (town.getRegistered() != 0)
-					slug = "(" + TownyFormatter.registeredFormat.format(town.getRegistered()) + ")";
-				break;
-			case UPKEEP:
-				slug = "(" + TownyEconomyHandler.getFormattedBalance(TownySettings.getTownUpkeepCost(town)) + ")";
-				break;
-			default:
-				slug = "(" + town.getResidents().size() + ")";
-				break;
-			}
-			
-			townName = townName.append(Component.text(" - ", NamedTextColor.DARK_GRAY)).append(Component.text(slug, NamedTextColor.AQUA));
+		for (Town town : towns)
+			output.add(townLine(town, compType));
+		return output;
+	}
+
+	private static TextComponent townLine(Town town, ComparatorType compType) {
+		TextComponent townName = Component.text(StringMgmt.remUnderscore(town.getName()), NamedTextColor.AQUA)
+				.clickEvent(ClickEvent.runCommand("/towny:town spawn " + town + " -ignore"));
 			
-			if (town.isOpen())
-				townName = townName.append(Component.space()).append(Translatable.of("status_title_open").component());
+		String slug = "";
+		switch (compType) {
+		case BALANCE:
+			slug = "(" + TownyEconomyHandler.getFormattedBalance(town.getAccount().getCachedBalance()) + ")";
+			break;
+		case TOWNBLOCKS:
+			slug = "(" + town.getTownBlocks().size() + ")";
+			break;
+		case RUINED:
+			slug = "(" + town.getResidents().size() + ") " + (town.isRuined() ? Translation.of("msg_ruined"):"");
+			break;
+		case BANKRUPT:
+			slug = "(" + town.getResidents().size() + ") " + (town.isBankrupt() ? Translation.of("msg_bankrupt"):"");
+			break;
+		case ONLINE:
+			slug = "(" + town.getOnlineResidents().size() + ")";
+			break;
+		case FOUNDED:
+			if (town.getRegistered() != 0)
+				slug = "(" + TownyFormatter.registeredFormat.format(town.getRegistered()) + ")";
+			break;
+		case UPKEEP:
+			slug = "(" + TownyEconomyHandler.getFormattedBalance(TownySettings.getTownUpkeepCost(town)) + ")";
+			break;
+		default:
+			slug = "(" + town.getResidents().size() + ")";
+			break;
+		}
+		
+		townName = townName.append(Component.text(" - ", NamedTextColor.DARK_GRAY)).append(Component.text(slug, NamedTextColor.AQUA));
+		
+		if (town.isOpen())
+			townName = townName.append(Component.space()).append(Translatable.of("status_title_open").component());
 
-			Translatable spawnCost = Translatable.of("msg_spawn_cost_free");
-			if (TownyEconomyHandler.isActive())
-				spawnCost = Translatable.of("msg_spawn_cost", TownyEconomyHandler.getFormattedBalance(town.getSpawnCost()));
+		Translatable spawnCost = Translatable.of("msg_spawn_cost_free");
+		if (TownyEconomyHandler.isActive())
+			spawnCost = Translatable.of("msg_spawn_cost", TownyEconomyHandler.getFormattedBalance(town.getSpawnCost()));
 
-			townName = townName.hoverEvent(HoverEvent.showText(Translatable.of("msg_click_spawn", town).append("\n").append(spawnCost).component()));
-			output.add(townName);
-		}
-		return output;
+		return townName.hoverEvent(HoverEvent.showText(Translatable.of("msg_click_spawn", town).append("\n").append(spawnCost).component()));
 	}
 	
 	@SuppressWarnings("unchecked")
@@ -133,60 +310,62 @@ public class ComparatorCaches {
 		BukkitTools.fireEvent(nationListSortEvent);
 		nations = nationListSortEvent.getNations();
 
-		for (Nation nation : nations) {
-			TextComponent nationName = Component.text(StringMgmt.remUnderscore(nation.getName()), NamedTextColor.AQUA)
-					.clickEvent(ClickEvent.runCommand("/towny:nation spawn " + nation + " -ignore"));
-
-			String slug = "";
-			switch (compType) {
-			case BALANCE:
-				slug = TownyEconomyHandler.getFormattedBalance(nation.getAccount().getCachedBalance());
-				break;
-			case TOWNBLOCKS:
-				int rawNumTownsBlocks = nation.getTownBlocks().size();
-				NationListDisplayedNumTownBlocksCalculationEvent tbEvent = new NationListDisplayedNumTownBlocksCalculationEvent(nation, rawNumTownsBlocks);
-				BukkitTools.fireEvent(tbEvent);
-				slug = tbEvent.getDisplayedValue() + "";
-				break;
-			case TOWNS:
-				int rawNumTowns = nation.getTowns().size();
-				NationListDisplayedNumTownsCalculationEvent tEvent = new NationListDisplayedNumTownsCalculationEvent(nation, rawNumTowns);
-				BukkitTools.fireEvent(tEvent);
-				slug = tEvent.getDisplayedValue() + "";
-				break;
-			case ONLINE:
-				int rawNumOnlinePlayers = TownyAPI.getInstance().getOnlinePlayersInNation(nation).size();
-				NationListDisplayedNumOnlinePlayersCalculationEvent opEvent = new NationListDisplayedNumOnlinePlayersCalculationEvent(nation, rawNumOnlinePlayers);
-				BukkitTools.fireEvent(opEvent);
-				slug = opEvent.getDisplayedValue() + "";
-				break;
-			case FOUNDED:
-				if (nation.getRegistered() != 0)
-					slug = TownyFormatter.registeredFormat.format(nation.getRegistered());
-				break;
-			case UPKEEP:
-				slug = TownyEconomyHandler.getFormattedBalance(TownySettings.getNationUpkeepCost(nation));
-				break;
-			default:
-				int rawNumResidents = nation.getResidents().size();
-				NationListDisplayedNumResidentsCalculationEvent rEvent = new NationListDisplayedNumResidentsCalculationEvent(nation, rawNumResidents);
-				BukkitTools.fireEvent(rEvent);
-				slug = rEvent.getDisplayedValue() + "";
-				break;
-			}
-			
-			nationName = nationName.append(Component.text(" - ", NamedTextColor.DARK_GRAY)).append(Component.text("(" + slug + ")", NamedTextColor.AQUA));
+		for (Nation nation : nations)
+			output.add(nationLine(nation, compType));
+		return output;
+	}
 
-			if (nation.isOpen())
-				nationName = nationName.append(Component.space()).append(Translatable.of("status_title_open").component());
+	private static TextComponent nationLine(Nation nation, ComparatorType compType) {
+		TextComponent nationName = Component.text(StringMgmt.remUnderscore(nation.getName()), NamedTextColor.AQUA)
+				.clickEvent(ClickEvent.runCommand("/towny:nation spawn " + nation + " -ignore"));
 
-			Translatable spawnCost = Translatable.of("msg_spawn_cost_free");
-			if (TownyEconomyHandler.isActive())
-				spawnCost = Translatable.of("msg_spawn_cost", TownyEconomyHandler.getFormattedBalance(nation.getSpawnCost()));
-			
-			nationName = nationName.hoverEvent(HoverEvent.showText(Translatable.of("msg_click_spawn", nation).append("\n").append(spawnCost).component()));
-			output.add(nationName);
+		String slug = "";
+		switch (compType) {
+		case BALANCE:
+			slug = TownyEconomyHandler.getFormattedBalance(nation.getAccount().getCachedBalance());
+			break;
+		case TOWNBLOCKS:
+			int rawNumTownsBlocks = nation.getTownBlocks().size();
+			NationListDisplayedNumTownBlocksCalculationEvent tbEvent = new NationListDisplayedNumTownBlocksCalculationEvent(nation, rawNumTownsBlocks);
+			BukkitTools.fireEvent(tbEvent);
+			slug = tbEvent.getDisplayedValue() + "";
+			break;
+		case TOWNS:
+			int rawNumTowns = nation.getTowns().size();
+			NationListDisplayedNumTownsCalculationEvent tEvent = new NationListDisplayedNumTownsCalculationEvent(nation, rawNumTowns);
+			BukkitTools.fireEvent(tEvent);
+			slug = tEvent.getDisplayedValue() + "";
+			break;
+		case ONLINE:
+			int rawNumOnlinePlayers = nation.getOnlineResidents().size();
+			NationListDisplayedNumOnlinePlayersCalculationEvent opEvent = new NationListDisplayedNumOnlinePlayersCalculationEvent(nation, rawNumOnlinePlayers);
+			BukkitTools.fireEvent(opEvent);
+			slug = opEvent.getDisplayedValue() + "";
+			break;
+		case FOUNDED:
+			if (nation.getRegistered() != 0)
+				slug = TownyFormatter.registeredFormat.format(nation.getRegistered());
+			break;
+		case UPKEEP:
+			slug = TownyEconomyHandler.getFormattedBalance(TownySettings.getNationUpkeepCost(nation));
+			break;
+		default:
+			int rawNumResidents = nation.getResidents().size();
+			NationListDisplayedNumResidentsCalculationEvent rEvent = new NationListDisplayedNumResidentsCalculationEvent(nation, rawNumResidents);
+			BukkitTools.fireEvent(rEvent);
+			slug = rEvent.getDisplayedValue() + "";
+			break;
 		}
-		return output;
+		
+		nationName = nationName.append(Component.text(" - ", NamedTextColor.DARK_GRAY)).append(Component.text("(" + slug + ")", NamedTextColor.AQUA));
+
+		if (nation.isOpen())
+			nationName = nationName.append(Component.space()).append(Translatable.of("status_title_open").component());
+
+		Translatable spawnCost = Translatable.of("msg_spawn_cost_free");
+		if (TownyEconomyHandler.isActive())
+			spawnCost = Translatable.of("msg_spawn_cost", TownyEconomyHandler.getFormattedBalance(nation.getSpawnCost()));
+		
+		return nationName.hoverEvent(HoverEvent.showText(Translatable.of("msg_click_spawn", nation).append("\n").append(spawnCost).component()));
 	}
 }
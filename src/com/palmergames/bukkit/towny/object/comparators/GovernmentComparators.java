@@ -1,6 +1,5 @@
 package com.palmergames.bukkit.towny.object.comparators;
 
-import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.object.Government;
 import com.palmergames.bukkit.towny.object.Nation;
@@ -16,7 +15,7 @@ public class GovernmentComparators {
 	public static final Comparator<Government> BY_NUM_RESIDENTS = (t1, t2) -> t2.getResidents().size() - t1.getResidents().size();
 	public static final Comparator<Government> BY_NAME = Comparator.comparing(TownyObject::getName);
 	public static final Comparator<Government> BY_BANK_BALANCE = (g1, g2) -> Double.compare(g2.getAccount().getCachedBalance(false), g1.getAccount().getCachedBalance(false));
-	public static final Comparator<Government> BY_NUM_ONLINE = (g1, g2) -> TownyAPI.getInstance().getOnlinePlayers(g2).size() - TownyAPI.getInstance().getOnlinePlayers(g1).size();
+	public static final Comparator<Government> BY_NUM_ONLINE = (g1, g2) -> g2.getOnlineResidents().size() - g1.getOnlineResidents().size();
 	public static final Comparator<Government> BY_TOWNBLOCKS_CLAIMED = (g1, g2) -> Double.compare(g2.getTownBlocks().size(), g1.getTownBlocks().size());
 	public static final Comparator<Government> BY_FOUNDED = Comparator.comparingLong(Government::getRegistered);
 	public static final Comparator<Government> BY_OPEN = (t1, t2) -> {
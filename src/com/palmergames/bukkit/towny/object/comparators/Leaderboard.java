@@ -0,0 +1,163 @@
+package com.palmergames.bukkit.towny.object.comparators;
+
+import com.palmergames.bukkit.towny.object.Government;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A list of {@link Government}s kept sorted by a single numeric key, lowest first.
+ * <p>
+ * Each entry remembers the key it was sorted by, so a Government whose value
+ * has changed can be found by binary search and moved to its new place
+ * without sorting the rest of the list again. Rank lookups and pages are
+ * served straight from the sorted list. Ties are broken by UUID, so that
+ * equal values keep a stable order.
+ * <p>
+ * The list is only built the first time it is read, updates made before then
+ * are ignored.
+ *
+ * @param <T> Town or Nation.
+ */
+class Leaderboard<T extends Government> {
+
+	private static final Comparator<Entry<?>> ORDER = Comparator.<Entry<?>>comparingDouble(entry -> entry.key).thenComparing(entry -> entry.tiebreak);
+
+	private final Supplier<Collection<T>> source;
+	private final ToDoubleFunction<T> keyFunction;
+	private final List<Entry<T>> entries = new ArrayList<>();
+	private final Map<T, Entry<T>> byObject = new HashMap<>();
+	private boolean built = false;
+
+	private static class Entry<T> {
+		private final T object;
+		private final double key;
+		private final String tiebreak;
+
+		private Entry(T object, double key, String tiebreak) {
+			this.object = object;
+			this.key = key;
+			this.tiebreak = tiebreak;
+		}
+	}
+
+	/**
+	 * @param source Every Government which belongs on the leaderboard.
+	 * @param keyFunction The value to sort by, lowest first.
+	 */
+	Leaderboard(Supplier<Collection<T>> source, ToDoubleFunction<T> keyFunction) {
+		this.source = source;
+		this.keyFunction = keyFunction;
+	}
+
+	/**
+	 * Moves the Government to its place for its current value, if it is on the leaderboard.
+	 *
+	 * @param object Government which may have changed.
+	 */
+	synchronized void update(T object) {
+		if (built && byObject.containsKey(object))
+			add(object);
+	}
+
+	/**
+	 * Puts the Government in its place for its current value, moving it if it is already on the leaderboard.
+	 *
+	 * @param object Government to add.
+	 */
+	synchronized void add(T object) {
+		if (!built)
+			return;
+
+		double key = keyFunction.applyAsDouble(object);
+		Entry<T> old = byObject.get(object);
+		if (old != null) {
+			if (Double.compare(old.key, key) == 0)
+				return;
+			entries.remove(indexOf(old));
+		}
+
+		Entry<T> entry = newEntry(object, key);
+		int index = Collections.binarySearch(entries, entry, ORDER);
+		entries.add(index < 0 ? -index - 1 : index, entry);
+		byObject.put(object, entry);
+	}
+
+	/**
+	 * @param object Government to take off the leaderboard.
+	 */
+	synchronized void remove(T object) {
+		if (!built)
+			return;
+
+		Entry<T> old = byObject.remove(object);
+		if (old != null)
+			entries.remove(indexOf(old));
+	}
+
+	/**
+	 * Drops the leaderboard, to be built again the next time it is read.
+	 */
+	synchronized void invalidate() {
+		built = false;
+		entries.clear();
+		byObject.clear();
+	}
+
+	/**
+	 * @param page Page number, starting at 1.
+	 * @param perPage Number of Governments on each page.
+	 * @return the Governments on the given page, which may be empty.
+	 */
+	synchronized List<T> getPage(int page, int perPage) {
+		build();
+
+		int from = Math.max(0, (page - 1) * perPage);
+		int to = Math.min(entries.size(), from + perPage);
+		List<T> out = new ArrayList<>(Math.max(0, to - from));
+		for (int i = from; i < to; i++)
+			out.add(entries.get(i).object);
+		return out;
+	}
+
+	/**
+	 * @param object Government to look for.
+	 * @return the Government's place on the leaderboard, starting at 1, or 0 if it isn't on it.
+	 */
+	synchronized int getRank(T object) {
+		build();
+
+		Entry<T> entry = byObject.get(object);
+		return entry == null ? 0 : indexOf(entry) + 1;
+	}
+
+	private void build() {
+		if (built)
+			return;
+
+		for (T object : source.get()) {
+			Entry<T> entry = newEntry(object, keyFunction.applyAsDouble(object));
+			entries.add(entry);
+			byObject.put(object, entry);
+		}
+		entries.sort(ORDER);
+		built = true;
+	}
+
+	private int indexOf(Entry<T> entry) {
+		int index = Collections.binarySearch(entries, entry, ORDER);
+		// Entries are unique by their tiebreak, this only misses if two Governments share a UUID.
+		return index >= 0 && entries.get(index) == entry ? index : entries.indexOf(entry);
+	}
+
+	private Entry<T> newEntry(T object, double key) {
+		return new Entry<>(object, key, object.getUUID() != null ? object.getUUID().toString() : object.getName());
+	}
+}
@@ -285,6 +285,11 @@ public abstract class Account implements Nameable {
 		addObserver(auditor);
 	}
 	
+	/**
+	 * Called after the cached balance has changed, possibly off the main thread.
+	 */
+	protected void onCachedBalanceChanged() {}
+
 	class CachedBalance {
 		private double balance = 0;
 		private long time;
@@ -303,8 +308,11 @@ public abstract class Account implements Nameable {
 		}
 
 		void setBalance(double _balance) {
+			boolean changed = balance != _balance;
 			balance = _balance;
 			time = System.currentTimeMillis();
+			if (changed)
+				onCachedBalanceChanged();
 		}
 
 		void updateCache() {
@@ -4,7 +4,9 @@ import com.palmergames.bukkit.towny.TownyEconomyHandler;
 import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.TownyUniverse;
+import com.palmergames.bukkit.towny.object.Government;
 import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.towny.object.comparators.ComparatorCaches;
 import org.bukkit.World;
 import org.jetbrains.annotations.Nullable;
 
@@ -17,10 +19,29 @@ public class BankAccount extends Account {
 	
 	private double balanceCap;
 	private double debtCap;
+	private final Government government;
 
 	public BankAccount(String name, World world, double balanceCap) {
+		this(name, world, balanceCap, null);
+	}
+
+	/**
+	 * @param name Account name.
+	 * @param world World the account is in.
+	 * @param balanceCap Max amount allowed in this account.
+	 * @param government Town or Nation which owns the account, kept informed of balance changes.
+	 */
+	public BankAccount(String name, World world, double balanceCap, @Nullable Government government) {
 		super(name, world);
 		this.balanceCap = balanceCap;
+		this.government = government;
+	}
+
+	@Override
+	protected void onCachedBalanceChanged() {
+		// The super constructor caches the first balance before the government is set.
+		if (government != null)
+			ComparatorCaches.update(government);
 	}
 
 
@@ -75,6 +75,17 @@ public class MetadataLoader {
 			e.printStackTrace();
 		}
 		
+		loadMetadata(object, fields);
+	}
+
+	/**
+	 * Attach metadata which was already read with {@link DataFieldIO#deserializeMeta(String)},
+	 * which unlike attaching it can be done off the main thread.
+	 * 
+	 * @param object TownyObject to attach the metadata to.
+	 * @param fields The deserialized, possibly raw, metadata of the object.
+	 */
+	public void loadMetadata(TownyObject object, Collection<CustomDataField<?>> fields) {
 		if (!fields.isEmpty()) {
 			boolean hasCustomTypes = false;
 			for (CustomDataField<?> cdf : fields) {
@@ -15,6 +15,10 @@ import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.object.Translatable;
 import com.palmergames.bukkit.util.BukkitTools;
 
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * @author ElgarL
  * 
@@ -28,6 +32,21 @@ public abstract class TownyPermissionSource {
 
 	protected GroupManager groupManager = null;
 
+	private static final int ACTION_TYPES = TownyPermission.ActionType.values().length;
+	private static final int MATERIAL_WORDS = (Material.values().length + 63) >>> 6;
+
+	/*
+	 * Every wild and claimed override node, indexed by [scope][action][material
+	 * ordinal], so that checking an override never has to build its node.
+	 */
+	private static final String[][][] OVERRIDE_NODES = buildOverrideNodes();
+
+	/*
+	 * Each online player's resolved override nodes, cleared whenever Towny
+	 * reassigns their permissions.
+	 */
+	private final Map<UUID, OverrideCache> overrideCaches = new ConcurrentHashMap<>();
+
 	abstract public String getPrefixSuffix(Resident resident, String node);
 
 	abstract public int getGroupPermissionIntNode(String playerName, String node);
@@ -77,8 +96,6 @@ public abstract class TownyPermissionSource {
 
 		// check for permissions
 
-		String blockPerm = PermissionNodes.TOWNY_WILD_ALL.getNode(action.toString().toLowerCase() + "." + material);
-
 		/*
 		 * If the player has the data node permission registered directly
 		 *  or
@@ -86,7 +103,7 @@ public abstract class TownyPermissionSource {
 		 *  or
 		 * no node set but we are using permissions so check world settings
 		 */
-		return has(player, blockPerm) || unclaimedZoneAction(world, material, action);
+		return hasOverride(player, OverrideScope.WILD, material, action) || unclaimedZoneAction(world, material, action);
 
 	}
 
@@ -119,7 +136,6 @@ public abstract class TownyPermissionSource {
 	public boolean hasOwnTownOverride(Player player, Material material, TownyPermission.ActionType action) {
 
 		//check for permissions
-		String blockPerm = PermissionNodes.TOWNY_CLAIMED_ALL.getNode("owntown." + action.toString().toLowerCase() + "." + material);
 
 		/*
 		 * If the player has the data node permission registered directly
@@ -128,7 +144,7 @@ public abstract class TownyPermissionSource {
 		 *  or
 		 * the player has an All town Override
 		 */
-		return has(player, blockPerm) || hasAllTownOverride(player, material, action);
+		return hasOverride(player, OverrideScope.OWN_TOWN, material, action) || hasAllTownOverride(player, material, action);
 	}
 
 	/**
@@ -142,7 +158,6 @@ public abstract class TownyPermissionSource {
 	public boolean hasTownOwnedOverride(Player player, Material material, TownyPermission.ActionType action) {
 
 		//check for permissions
-		String blockPerm = PermissionNodes.TOWNY_CLAIMED_ALL.getNode("townowned." + action.toString().toLowerCase() + "." + material);
 
 		/*
 		 * If the player has the data node permission registered directly
@@ -153,7 +168,7 @@ public abstract class TownyPermissionSource {
 		 *  or
 		 * the player has an All town Override
 		 */
-		return has(player, blockPerm) || hasOwnTownOverride(player, material, action) || hasAllTownOverride(player, material, action);
+		return hasOverride(player, OverrideScope.TOWN_OWNED, material, action) || hasOwnTownOverride(player, material, action);
 	}
 
 	/**
@@ -167,14 +182,128 @@ public abstract class TownyPermissionSource {
 	public boolean hasAllTownOverride(Player player, Material material, TownyPermission.ActionType action) {
 
 		//check for permissions
-		String blockPerm = PermissionNodes.TOWNY_CLAIMED_ALL.getNode("alltown." + action.toString().toLowerCase() + "." + material);
 
 		/*
 		 * If the player has the data node permission registered directly
 		 *  or
 		 * the player has the block permission and the data node isn't registered
 		 */
-		return has(player, blockPerm);
+		return hasOverride(player, OverrideScope.ALL_TOWN, material, action);
+	}
+
+	/**
+	 * Forget the override nodes resolved for a player, so they are looked up
+	 * again on their next check. Called whenever their permissions change.
+	 * 
+	 * @param uuid - UUID of the player.
+	 */
+	public void invalidateOverrides(UUID uuid) {
+		overrideCaches.remove(uuid);
+	}
+
+	/**
+	 * Forget the override nodes resolved for every player.
+	 */
+	public void invalidateAllOverrides() {
+		overrideCaches.clear();
+	}
+
+	/*
+	 * Tests a single override node, from the player's cache when it has
+	 * already been resolved for them.
+	 */
+	private boolean hasOverride(Player player, OverrideScope scope, Material material, TownyPermission.ActionType action) {
+
+		if (player.isOp())
+			return true;
+
+		final OverrideCache cache = overrideCaches.computeIfAbsent(player.getUniqueId(), k -> new OverrideCache());
+		final Boolean cached = cache.get(scope, action, material);
+		if (cached != null)
+			return cached;
+
+		final boolean result = strictHas(player, getOverrideNode(scope, action, material));
+		cache.set(scope, action, material, result);
+		return result;
+	}
+
+	private static String getOverrideNode(OverrideScope scope, TownyPermission.ActionType action, Material material) {
+
+		final String node = OVERRIDE_NODES[scope.ordinal()][action.ordinal()][material.ordinal()];
+		return node != null ? node : scope.buildNode(action, material);
+	}
+
+	private static String[][][] buildOverrideNodes() {
+
+		final Material[] materials = Material.values();
+		final String[][][] nodes = new String[OverrideScope.values().length][ACTION_TYPES][materials.length];
+		for (OverrideScope scope : OverrideScope.values())
+			for (TownyPermission.ActionType action : TownyPermission.ActionType.values())
+				for (Material material : materials)
+					// Legacy materials never reach the listeners, their nodes are built on demand if they ever do.
+					if (!material.name().startsWith("LEGACY_"))
+						nodes[scope.ordinal()][action.ordinal()][material.ordinal()] = scope.buildNode(action, material);
+		return nodes;
+	}
+
+	private enum OverrideScope {
+		WILD(PermissionNodes.TOWNY_WILD_ALL, ""),
+		OWN_TOWN(PermissionNodes.TOWNY_CLAIMED_ALL, "owntown."),
+		TOWN_OWNED(PermissionNodes.TOWNY_CLAIMED_ALL, "townowned."),
+		ALL_TOWN(PermissionNodes.TOWNY_CLAIMED_ALL, "alltown.");
+
+		private final PermissionNodes parent;
+		private final String prefix;
+
+		OverrideScope(PermissionNodes parent, String prefix) {
+			this.parent = parent;
+			this.prefix = prefix;
+		}
+
+		private String buildNode(TownyPermission.ActionType action, Material material) {
+			return parent.getNode(prefix + action.toString().toLowerCase() + "." + material);
+		}
+	}
+
+	/*
+	 * A player's resolved override nodes, held as a pair of bitsets per scope
+	 * and ActionType, indexed by Material ordinal: one marking which nodes have
+	 * been resolved, the other their answer.
+	 */
+	private static final class OverrideCache {
+		private final long[][] known = new long[OverrideScope.values().length * ACTION_TYPES][];
+		private final long[][] allowed = new long[OverrideScope.values().length * ACTION_TYPES][];
+
+		private Boolean get(OverrideScope scope, TownyPermission.ActionType action, Material material) {
+			final int index = scope.ordinal() * ACTION_TYPES + action.ordinal();
+			final long[] knownBits = known[index];
+			if (knownBits == null)
+				return null;
+
+			final int word = material.ordinal() >>> 6;
+			final long bit = 1L << material.ordinal();
+			if ((knownBits[word] & bit) == 0)
+				return null;
+
+			return (allowed[index][word] & bit) != 0;
+		}
+
+		private void set(OverrideScope scope, TownyPermission.ActionType action, Material material, boolean value) {
+			final int index = scope.ordinal() * ACTION_TYPES + action.ordinal();
+			if (known[index] == null) {
+				allowed[index] = new long[MATERIAL_WORDS];
+				known[index] = new long[MATERIAL_WORDS];
+			}
+
+			final int word = material.ordinal() >>> 6;
+			final long bit = 1L << material.ordinal();
+			// Publish the answer before marking it as known.
+			if (value)
+				allowed[index][word] |= bit;
+			else
+				allowed[index][word] &= ~bit;
+			known[index][word] |= bit;
+		}
 	}
 	
 	public boolean isTownyAdmin(Player player) {
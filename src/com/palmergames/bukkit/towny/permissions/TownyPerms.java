@@ -3,6 +3,7 @@ package com.palmergames.bukkit.towny.permissions;
 import com.palmergames.bukkit.config.CommentedConfiguration;
 import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownyAPI;
+import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.exceptions.initialization.TownyInitException;
 import com.palmergames.bukkit.towny.object.Nation;
 import com.palmergames.bukkit.towny.object.Resident;
@@ -192,6 +193,9 @@ public class TownyPerms {
 		 */
 		attachments.put(resident.getName(), attachment);
 
+		// Their cached permissions may depend on the nodes they have just been given.
+		TownyUniverse.getInstance().getPermissionSource().invalidateOverrides(player.getUniqueId());
+		resident.markModified();
 	}
 	
 	/**
@@ -0,0 +1,210 @@
+package com.palmergames.bukkit.towny.regen;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A list of block states, stored as a palette of the distinct states plus a
+ * bit-packed array of indexes into that palette.
+ * <p>
+ * A plot rarely holds more than a few dozen distinct block states, so every
+ * block costs a few bits instead of its own String. Indexes never span two
+ * longs, each long holds {@code 64 / bitsPerEntry} of them.
+ */
+public class BlockPalette {
+
+	private final List<String> states;
+	private final Map<String, Integer> stateIds = new HashMap<>();
+	private int bitsPerEntry;
+	private long[] data;
+	private int size;
+
+	public BlockPalette() {
+
+		this(64);
+	}
+
+	/**
+	 * @param capacity Number of blocks expected, the palette grows past it as needed.
+	 */
+	public BlockPalette(int capacity) {
+
+		this.states = new ArrayList<>();
+		this.bitsPerEntry = 1;
+		this.data = new long[longsFor(Math.max(capacity, 1), bitsPerEntry)];
+	}
+
+	private BlockPalette(List<String> states, int bitsPerEntry, int size, long[] data) {
+
+		this.states = new ArrayList<>(states);
+		this.bitsPerEntry = bitsPerEntry;
+		this.size = size;
+		this.data = data;
+
+		for (int i = 0; i < this.states.size(); i++)
+			stateIds.putIfAbsent(this.states.get(i), i);
+	}
+
+	/**
+	 * Packs a list of block states, such as one loaded from an older plot snapshot.
+	 *
+	 * @param blocks Block states to pack, in order.
+	 * @return a BlockPalette holding the same blocks.
+	 */
+	public static BlockPalette of(List<String> blocks) {
+
+		BlockPalette palette = new BlockPalette(blocks.size());
+		for (String block : blocks)
+			palette.add(block);
+
+		return palette;
+	}
+
+	/**
+	 * Rebuilds a BlockPalette from the output of {@link #getStates()},
+	 * {@link #getBitsPerEntry()}, {@link #size()} and {@link #getData()}.
+	 *
+	 * @param states Distinct block states.
+	 * @param bitsPerEntry Bits used by each index.
+	 * @param size Number of blocks.
+	 * @param data Packed indexes.
+	 * @return a BlockPalette holding the packed blocks.
+	 * @throws IllegalArgumentException if the data doesn't describe a valid palette.
+	 */
+	public static BlockPalette fromPacked(List<String> states, int bitsPerEntry, int size, long[] data) {
+
+		if (bitsPerEntry < 1 || bitsPerEntry > 32 || size < 0 || data.length < longsFor(size, bitsPerEntry))
+			throw new IllegalArgumentException("Invalid block palette: " + bitsPerEntry + " bits per entry, " + size + " blocks, " + data.length + " longs.");
+
+		BlockPalette palette = new BlockPalette(states, bitsPerEntry, size, data);
+		for (int i = 0; i < size; i++)
+			if (palette.getId(i) >= states.size())
+				throw new IllegalArgumentException("Invalid block palette: index " + i + " is outside of the palette.");
+
+		return palette;
+	}
+
+	/**
+	 * Appends a block state to the end of the list.
+	 *
+	 * @param state Block state to add.
+	 */
+	public void add(String state) {
+
+		Integer id = stateIds.get(state);
+		if (id == null) {
+			id = states.size();
+			states.add(state);
+			stateIds.put(state, id);
+
+			if (id >= 1L << bitsPerEntry)
+				repack(bitsPerEntry + 1, capacity());
+		}
+
+		if (size == capacity())
+			repack(bitsPerEntry, capacity() * 2);
+
+		setId(size++, id);
+	}
+
+	/**
+	 * @param index Position of the block.
+	 * @return the block state at the given position.
+	 */
+	public String get(int index) {
+
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+
+		return states.get(getId(index));
+	}
+
+	/**
+	 * @param index Position of the block.
+	 * @return the position of the block's state in {@link #getStates()}.
+	 */
+	public int getId(int index) {
+
+		int perLong = 64 / bitsPerEntry;
+		int shift = (index % perLong) * bitsPerEntry;
+		return (int) ((data[index / perLong] >>> shift) & ((1L << bitsPerEntry) - 1));
+	}
+
+	public int size() {
+
+		return size;
+	}
+
+	public boolean isEmpty() {
+
+		return size == 0;
+	}
+
+	/**
+	 * @return the distinct block states, in the order they were first added.
+	 */
+	public List<String> getStates() {
+
+		return Collections.unmodifiableList(states);
+	}
+
+	public int getBitsPerEntry() {
+
+		return bitsPerEntry;
+	}
+
+	/**
+	 * @return a copy of the packed indexes, trimmed to the number of blocks.
+	 */
+	public long[] getData() {
+
+		return Arrays.copyOf(data, longsFor(size, bitsPerEntry));
+	}
+
+	/**
+	 * @return every block state, unpacked into a list.
+	 */
+	public List<String> toList() {
+
+		List<String> list = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+			list.add(states.get(getId(i)));
+
+		return list;
+	}
+
+	private void setId(int index, int id) {
+
+		int perLong = 64 / bitsPerEntry;
+		int shift = (index % perLong) * bitsPerEntry;
+		long mask = ((1L << bitsPerEntry) - 1) << shift;
+		data[index / perLong] = (data[index / perLong] & ~mask) | ((long) id << shift);
+	}
+
+	private int capacity() {
+
+		return data.length * (64 / bitsPerEntry);
+	}
+
+	private void repack(int newBitsPerEntry, int newCapacity) {
+
+		int[] ids = new int[size];
+		for (int i = 0; i < size; i++)
+			ids[i] = getId(i);
+
+		bitsPerEntry = newBitsPerEntry;
+		data = new long[longsFor(newCapacity, newBitsPerEntry)];
+		for (int i = 0; i < size; i++)
+			setId(i, ids[i]);
+	}
+
+	private static int longsFor(int entries, int bitsPerEntry) {
+
+		int perLong = 64 / bitsPerEntry;
+		return (entries + perLong - 1) / perLong;
+	}
+}
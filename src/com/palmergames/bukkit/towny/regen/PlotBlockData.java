@@ -7,22 +7,25 @@ import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.regen.block.BlockObject;
 import com.palmergames.bukkit.util.BukkitTools;
 
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Block;
-import java.util.ArrayList;
 import java.util.List;
 
 public class PlotBlockData {
 
-	private int defaultVersion = 4;
+	private int defaultVersion = 5;
 
 	private String worldName;
 	private TownBlock townBlock;
-	private int x, z, size, height, version;
+	private int x, z, size, height, minHeight, version;
 
-	private List<String> blockList = new ArrayList<>(); // Stores the original plot blocks
+	private BlockPalette blocks = new BlockPalette(); // Stores the original plot blocks
+	private BlockObject[] decodedStates; // blocks' palette states, parsed as they are first restored
+	private ChunkSnapshot[][] chunkSnapshots; // chunks under the plot, from captureChunks() until they are read
 	private int blockListRestored; // counter for the next block to test
+	private int blocksReverted; // number of blocks changed back so far
 
 	public PlotBlockData(TownBlock townBlock) {
 
@@ -33,52 +36,84 @@ public class PlotBlockData {
 		this.worldName = townBlock.getWorld().getName();
 		this.setVersion(defaultVersion);
 		setHeight(townBlock.getWorldCoord().getBukkitWorld().getMaxHeight() - 1);
+		setMinHeight(townBlock.getWorldCoord().getBukkitWorld().getMinHeight());
 		this.blockListRestored = 0;
 	}
 
+	/**
+	 * Takes a new snapshot of the plot, on the main thread.
+	 */
 	public void initialize() {
 
-		List<String> blocks = getBlockArr();
-		if (blocks != null) {
-			setBlockList(blocks); //fill array
-			resetBlockListRestored();
-		}
+		captureChunks();
+		initializeFromChunks();
+	}
+
+	/**
+	 * Copies the chunks under the plot, ready for {@link #initializeFromChunks()}.
+	 * Must be called on the main thread, but is far cheaper than reading the
+	 * plot block by block.
+	 */
+	public void captureChunks() {
+
+		World world = this.townBlock.getWorldCoord().getBukkitWorld();
+		int minChunkX = (getX() * size) >> 4, maxChunkX = ((getX() * size) + size - 1) >> 4;
+		int minChunkZ = (getZ() * size) >> 4, maxChunkZ = ((getZ() * size) + size - 1) >> 4;
+
+		ChunkSnapshot[][] chunks = new ChunkSnapshot[maxChunkX - minChunkX + 1][maxChunkZ - minChunkZ + 1];
+		for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++)
+			for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++)
+				chunks[chunkX - minChunkX][chunkZ - minChunkZ] = world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false);
+
+		this.chunkSnapshots = chunks;
 	}
 
 	/**
-	 * Fills an array with the current Block types from the plot.
+	 * Fills the stored blocks from the chunks copied by {@link #captureChunks()}.
+	 * Only reads those copies, so it is safe to call off the main thread.
+	 */
+	public void initializeFromChunks() {
+
+		if (chunkSnapshots == null)
+			return;
+
+		setBlockPalette(getBlockArr(chunkSnapshots)); //fill array
+		resetBlockListRestored();
+		chunkSnapshots = null;
+	}
+
+	/**
+	 * Fills a palette with the Block types from the plot's chunk snapshots.
 	 * 
 	 * @return
 	 */
-	private List<String> getBlockArr() {
+	private BlockPalette getBlockArr(ChunkSnapshot[][] chunks) {
 
-		List<String> list = new ArrayList<>();
-		Block block = null;
+		BlockPalette list = new BlockPalette(size * size * getColumnHeight());
+		ChunkSnapshot chunk;
+		int worldx = getX() * size, worldz = getZ() * size;
+		int minChunkX = worldx >> 4, minChunkZ = worldz >> 4;
 
-		World world = this.townBlock.getWorldCoord().getBukkitWorld();
-		/*
-		 * if (!world.isChunkLoaded(MinecraftTools.calcChunk(getX()),
-		 * MinecraftTools.calcChunk(getZ()))) {
-		 * return null;
-		 * }
-		 */
 		for (int z = 0; z < size; z++)
-			for (int x = 0; x < size; x++)
-				for (int y = height; y > 0; y--) { // Top down to account for falling blocks.
-					block = world.getBlockAt((getX() * size) + x, y, (getZ() * size) + z);
+			for (int x = 0; x < size; x++) {
+				int blockX = worldx + x, blockZ = worldz + z;
+				chunk = chunks[(blockX >> 4) - minChunkX][(blockZ >> 4) - minChunkZ];
+				for (int y = height; y > getColumnBottom(); y--) { // Top down to account for falling blocks.
 					switch (defaultVersion) {
 
 					case 1:
 					case 2:
 					case 3:
 					case 4:
-						list.add(block.getBlockData().getAsString(true));
+					case 5:
+						list.add(chunk.getBlockData(blockX & 15, y, blockZ & 15).getAsString(true));
 						break;
 					default:
-						list.add(block.getType().getKey().toString());
+						list.add(chunk.getBlockType(blockX & 15, y, blockZ & 15).getKey().toString());
 
-					}					
+					}
 				}
+			}
 		return list;
 	}
 
@@ -115,18 +150,19 @@ public class PlotBlockData {
 				scale = 1;
 		}
 
-		reverse = (blockList.size() - blockListRestored) / scale;
+		int columnHeight = getColumnHeight();
+		reverse = (blocks.size() - blockListRestored) / scale;
 		
 		while (reverse > 0) {
 			reverse--; //regen bottom up to stand a better chance of restoring tree's and plants.
-			y = height - (reverse % height);
-			x = (reverse / height) % size;
-			z = (reverse / height / size) % size;
+			y = height - (reverse % columnHeight);
+			x = (reverse / columnHeight) % size;
+			z = (reverse / columnHeight / size) % size;
 	
 			block = world.getBlockAt(worldx + x, y, worldz + z);
 			blockMat = block.getType();
 			try {
-				storedData = getStoredBlockData((blockList.size() - 1) - blockListRestored);
+				storedData = getStoredBlockData((blocks.size() - 1) - blockListRestored);
 			} catch (IllegalArgumentException e1) {
 				TownyMessaging.sendDebugMsg("Towny's revert-on-unclaim feature encountered a block which will not load on the current version of MC. Ignoring and skipping to next block.");
 				continue;
@@ -138,6 +174,7 @@ public class PlotBlockData {
 				case 2:				
 				case 3:
 				case 4:
+				case 5:
 					blockListRestored += scale;
 					
 					mat = storedData.getMaterial();
@@ -148,6 +185,7 @@ public class PlotBlockData {
 							try {								
 								block.setType(mat, false);
 								block.setBlockData(storedData.getBlockData());
+								blocksReverted++;
 								return true;
 							} catch (Exception e) {
 								TownyMessaging.sendErrorMsg("Exception in PlotBlockData.java");
@@ -156,6 +194,7 @@ public class PlotBlockData {
 			
 						} else {					
 							block.setType(Material.AIR);
+							blocksReverted++;
 							return true;
 						}
 			
@@ -174,20 +213,122 @@ public class PlotBlockData {
 		return false;
 	}
 
-	private BlockObject getStoredBlockData(int index) {
+	/**
+	 * Reverts as many changed blocks as fit before the deadline. The snapshot
+	 * is compared against a copy of the live chunks, so blocks which already
+	 * match cost next to nothing and only changed blocks are touched.
+	 * 
+	 * @param deadline {@link System#nanoTime()} after which no more blocks are reverted.
+	 * @return true if there are more blocks to check.
+	 */
+	public boolean restoreBlocks(long deadline) {
 
-		//return based upon version
-		switch (version) {
+		// Versions 1-3 store two entries per block.
+		if (version < 4)
+			return restoreNextBlock();
+
+		// Copying the live chunks is the dearest part, don't start on it once out of time.
+		if (System.nanoTime() >= deadline)
+			return true;
+
+		World world = this.townBlock.getWorldCoord().getBukkitWorld();
+		int worldx = getX() * size, worldz = getZ() * size;
+		int minChunkX = worldx >> 4, maxChunkX = (worldx + size - 1) >> 4;
+		int minChunkZ = worldz >> 4, maxChunkZ = (worldz + size - 1) >> 4;
+
+		// Skip plots which aren't loaded, rather than loading them.
+		ChunkSnapshot[][] live = new ChunkSnapshot[maxChunkX - minChunkX + 1][maxChunkZ - minChunkZ + 1];
+		for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++)
+			for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+				if (!world.isChunkLoaded(chunkX, chunkZ))
+					return true;
+				live[chunkX - minChunkX][chunkZ - minChunkZ] = world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false);
+			}
+
+		int columnHeight = getColumnHeight();
+		int checked = 0;
+		BlockObject storedData;
+		Material mat;
+
+		while (blockListRestored < blocks.size()) {
+			// Regen bottom up to stand a better chance of restoring tree's and plants.
+			int index = (blocks.size() - 1) - blockListRestored++;
+			int y = height - (index % columnHeight);
+			int blockX = worldx + (index / columnHeight) % size;
+			int blockZ = worldz + (index / columnHeight / size) % size;
+
+			// Checking the time is dearer than checking a block which already matches.
+			if (++checked % 64 == 0 && System.nanoTime() >= deadline)
+				return true;
+
+			try {
+				storedData = getStoredBlockData(index);
+			} catch (IllegalArgumentException e1) {
+				TownyMessaging.sendDebugMsg("Towny's revert-on-unclaim feature encountered a block which will not load on the current version of MC. Ignoring and skipping to next block.");
+				continue;
+			}
+
+			mat = storedData.getMaterial();
+			if (mat == null) {
+				TownyMessaging.sendErrorMsg("PlotBlockData:restoreBlocks() - Material Null, skipping block.");
+				continue;
+			}
+
+			if (mat == live[(blockX >> 4) - minChunkX][(blockZ >> 4) - minChunkZ].getBlockType(blockX & 15, y, blockZ & 15))
+				continue;
+
+			Block block = world.getBlockAt(blockX, y, blockZ);
+			try {
+				if (!this.townBlock.getWorld().isPlotManagementIgnoreIds(mat)) {
+					block.setType(mat, false);
+					block.setBlockData(storedData.getBlockData());
+				} else {
+					block.setType(Material.AIR);
+				}
+				blocksReverted++;
+			} catch (Exception e) {
+				TownyMessaging.sendErrorMsg("Exception in PlotBlockData.java");
+			}
 
-		case 1:
-		case 2:
-		case 3:
-		case 4:
-			return new BlockObject(blockList.get(index));
-		default:
-			return new BlockObject(blockList.get(index));
+			if (System.nanoTime() >= deadline && blockListRestored < blocks.size())
+				return true;
 		}
 
+		// reset as we are finished with the regeneration
+		resetBlockListRestored();
+		return false;
+	}
+
+	private BlockObject getStoredBlockData(int index) {
+
+		// Each distinct state is only parsed once, however many blocks share it.
+		int id = blocks.getId(index);
+		if (decodedStates == null)
+			decodedStates = new BlockObject[blocks.getStates().size()];
+
+		if (decodedStates[id] == null)
+			decodedStates[id] = new BlockObject(blocks.getStates().get(id));
+
+		return decodedStates[id];
+	}
+
+	/**
+	 * Snapshots before version 5 ignored the world's min height and stopped
+	 * at y=1, they are loaded with a min height of 1.
+	 * 
+	 * @return the y just below the lowest block stored in each column.
+	 */
+	private int getColumnBottom() {
+
+		return minHeight - 1;
+	}
+
+	/**
+	 * @return the number of blocks stored for each x/z column of the plot.
+	 */
+	private int getColumnHeight() {
+
+		return height - getColumnBottom();
 	}
 
 	public int getX() {
@@ -230,6 +371,16 @@ public class PlotBlockData {
 		this.height = height;
 	}
 
+	public int getMinHeight() {
+
+		return minHeight;
+	}
+
+	public void setMinHeight(int minHeight) {
+
+		this.minHeight = minHeight;
+	}
+
 	public String getWorldName() {
 
 		return worldName;
@@ -253,10 +404,12 @@ public class PlotBlockData {
 
 	/**
 	 * @return the blockList
+	 * @deprecated Deprecated as of 0.98.4.4, unpacks every block into a new list, please use {@link #getBlockPalette()} instead.
 	 */
+	@Deprecated
 	public List<String> getBlockList() {
 
-		return blockList;
+		return blocks.toList();
 	}
 
 	/**
@@ -266,7 +419,26 @@ public class PlotBlockData {
 	 */
 	public void setBlockList(List<String> blockList) {
 
-		this.blockList = blockList;
+		setBlockPalette(BlockPalette.of(blockList));
+	}
+
+	/**
+	 * @return the stored plot blocks.
+	 */
+	public BlockPalette getBlockPalette() {
+
+		return blocks;
+	}
+
+	/**
+	 * fills the stored plot blocks
+	 * 
+	 * @param blocks - BlockPalette
+	 */
+	public void setBlockPalette(BlockPalette blocks) {
+
+		this.blocks = blocks;
+		this.decodedStates = null;
 	}
 
 	/**
@@ -278,6 +450,30 @@ public class PlotBlockData {
 		blockListRestored = 0;
 	}
 
+	/**
+	 * @return the number of blocks the current revert has checked against the snapshot.
+	 */
+	public int getBlocksChecked() {
+
+		return blockListRestored;
+	}
+
+	/**
+	 * @return how much of the plot the current revert has checked, from 0 to 1.
+	 */
+	public double getRestoreProgress() {
+
+		return blocks.isEmpty() ? 1 : (double) blockListRestored / blocks.size();
+	}
+
+	/**
+	 * @return the number of blocks which have been changed back to the snapshot.
+	 */
+	public int getBlocksReverted() {
+
+		return blocksReverted;
+	}
+
 	public WorldCoord getWorldCoord() {
 		return new WorldCoord(getWorldName(), getX(), getZ());
 	}
@@ -75,7 +75,7 @@ public class TownyRegenAPI {
 	 * @param plotChunk PlotBlockData which finished up.
 	 */
 	public static void finishPlotBlockData(PlotBlockData plotChunk) {
-		TownyMessaging.sendDebugMsg("Revert on unclaim complete for " + plotChunk.getWorldName() + " " + plotChunk.getX() +"," + plotChunk.getZ());
+		TownyMessaging.sendDebugMsg("Revert on unclaim complete for " + plotChunk.getWorldName() + " " + plotChunk.getX() +"," + plotChunk.getZ() + ", " + plotChunk.getBlocksReverted() + " blocks reverted.");
 		removeFromRegenQueueList(plotChunk.getWorldCoord()); // Remove the WorldCoord from the queue.
 		removeFromActiveRegeneration(plotChunk); // Remove from the active HashTable.
 		deletePlotChunkSnapshot(plotChunk); // Remove from the database.
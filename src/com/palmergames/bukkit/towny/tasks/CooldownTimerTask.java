@@ -1,15 +1,34 @@
 package com.palmergames.bukkit.towny.tasks;
 
-import java.util.AbstractMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+
 import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownySettings;
-
+import com.palmergames.bukkit.towny.TownyUniverse;
+import com.palmergames.bukkit.towny.confirmations.ConfirmationHandler;
+import com.palmergames.bukkit.towny.invites.InviteHandler;
+import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.WorldCoord;
+import com.palmergames.util.TimingWheel;
+
+/**
+ * Keeps track of cooldowns, and expires timed out invites and confirmations.
+ * <p>
+ * Every {@link CooldownType} holds its cooldowns in its own {@link TimingWheel},
+ * keyed by the UUID of the resident, town or nation they belong to, or by the
+ * {@link WorldCoord} of a plot. Checking a cooldown is a single lookup in that
+ * wheel which allocates nothing, and each run only looks at the cooldowns
+ * which have actually ended. Cooldowns added by other plugins get a wheel for
+ * each lower-cased type name. Invites and confirmations keep their own wheels,
+ * which are advanced from here on the main thread.
+ */
 public class CooldownTimerTask extends TownyTimerTask {
-	
-	private static ConcurrentHashMap<AbstractMap.SimpleEntry<String, String>, Long> cooldowns;
 
+	// Cooldowns added by other plugins, by the lower-cased name of their type.
+	private static final Map<String, TimingWheel<Object, Boolean>> customCooldowns = new ConcurrentHashMap<>();
 
 	public enum CooldownType{
 		PVP(TownySettings.getPVPCoolDownTime()),
@@ -17,9 +36,11 @@ public class CooldownTimerTask extends TownyTimerTask {
 		TELEPORT(TownySettings.getSpawnCooldownTime()),
 		TOWN_RENAME(60),
 		OUTLAW_WARNING(TownySettings.getOutlawWarningMessageCooldown());
-		
+
+		private static final CooldownType[] VALUES = values();
 		private final int seconds;
-		
+		private final TimingWheel<Object, Boolean> cooldowns = new TimingWheel<>(1000);
+
 		private int getSeconds() {
 			return seconds;
 		}
@@ -27,66 +48,183 @@ public class CooldownTimerTask extends TownyTimerTask {
 		CooldownType(int seconds) {
 			this.seconds = seconds;
 		}
-		
+
 	}
 
 	public CooldownTimerTask(Towny plugin) {
 
 		super(plugin);
-		cooldowns = new ConcurrentHashMap<>();
+		for (CooldownType type : CooldownType.VALUES)
+			type.cooldowns.clear();
+		customCooldowns.clear();
 	}
 
 	@Override
 	public void run() {
-		long currentTime = System.currentTimeMillis();
-
-		while (!cooldowns.isEmpty()) {
-			for (AbstractMap.SimpleEntry<String, String> map : cooldowns.keySet()) {
-				long time = cooldowns.get(map);
-				if (time < currentTime)
-					cooldowns.remove(map);
-			}
-			break;
-		}
+		for (CooldownType type : CooldownType.VALUES)
+			type.cooldowns.advance(null);
+		for (TimingWheel<Object, Boolean> cooldowns : customCooldowns.values())
+			cooldowns.advance(null);
+		InviteHandler.searchForExpiredInvites();
+		ConfirmationHandler.expireConfirmations();
+	}
+
+	/**
+	 * @param object UUID of the resident, town or nation.
+	 * @param type Type of cooldown, which decides how long it lasts.
+	 */
+	public static void addCooldownTimer(UUID object, CooldownType type) {
+		addCooldownTimer(object, type, type.getSeconds());
+	}
+
+	public static void addCooldownTimer(UUID object, CooldownType type, int coolDownSeconds) {
+		put(type.cooldowns, object, coolDownSeconds);
+	}
+
+	/**
+	 * @param plot WorldCoord of the plot.
+	 * @param type Type of cooldown, which decides how long it lasts.
+	 */
+	public static void addCooldownTimer(WorldCoord plot, CooldownType type) {
+		put(type.cooldowns, plot, type.getSeconds());
+	}
+
+	/**
+	 * Adds a cooldown of a type which isn't one of Towny's own.
+	 *
+	 * @param object UUID of the resident, town or nation.
+	 * @param cooldownTypeName Name of the type of cooldown, in any case.
+	 * @param coolDownSeconds How long the cooldown lasts.
+	 */
+	public static void addCooldownTimer(UUID object, String cooldownTypeName, int coolDownSeconds) {
+		put(wheelOf(cooldownTypeName), object, coolDownSeconds);
+	}
+
+	public static boolean hasCooldown(UUID object, CooldownType type) {
+		return type.cooldowns.containsKey(object);
+	}
+
+	public static boolean hasCooldown(WorldCoord plot, CooldownType type) {
+		return type.cooldowns.containsKey(plot);
 	}
-	
+
+	public static boolean hasCooldown(UUID object, String cooldownTypeName) {
+		return hasCooldownByName(object, cooldownTypeName);
+	}
+
+	public static int getCooldownRemaining(UUID object, CooldownType type) {
+		return getSecondsRemaining(type.cooldowns, object);
+	}
+
+	public static int getCooldownRemaining(WorldCoord plot, CooldownType type) {
+		return getSecondsRemaining(type.cooldowns, plot);
+	}
+
+	public static int getCooldownRemaining(UUID object, String cooldownTypeName) {
+		return getCooldownRemainingByName(object, cooldownTypeName);
+	}
+
+	/**
+	 * @deprecated Deprecated as of 0.98.4.4, please use {@link #addCooldownTimer(UUID, CooldownType)} instead.
+	 */
+	@Deprecated
 	public static void addCooldownTimer(String object, CooldownType type) {
-		addCooldownTimer(object, type.name(), type.getSeconds());
+		put(type.cooldowns, keyOf(object), type.getSeconds());
 	}
 
+	/**
+	 * @deprecated Deprecated as of 0.98.4.4, please use {@link #addCooldownTimer(UUID, String, int)} instead.
+	 */
+	@Deprecated
 	public static void addCooldownTimer(String object, String cooldownTypeName, int coolDownSeconds) {
-		cooldowns.put(mapOf(object, cooldownTypeName.toLowerCase(Locale.ROOT)), getCooldownEndTime(coolDownSeconds));
+		put(wheelOf(cooldownTypeName), keyOf(object), coolDownSeconds);
 	}
 
+	/**
+	 * @deprecated Deprecated as of 0.98.4.4, please use {@link #hasCooldown(UUID, CooldownType)} instead.
+	 */
+	@Deprecated
 	public static boolean hasCooldown(String object, CooldownType type) {
-		return hasCooldown(object, type.name());
+		return type.cooldowns.containsKey(keyOf(object));
 	}
 
+	/**
+	 * @deprecated Deprecated as of 0.98.4.4, please use {@link #hasCooldown(UUID, String)} instead.
+	 */
+	@Deprecated
 	public static boolean hasCooldown(String object, String cooldownTypeName) {
-		return cooldowns.containsKey(mapOf(object, cooldownTypeName.toLowerCase(Locale.ROOT)));
+		return hasCooldownByName(keyOf(object), cooldownTypeName);
 	}
 
+	/**
+	 * @deprecated Deprecated as of 0.98.4.4, please use {@link #getCooldownRemaining(UUID, CooldownType)} instead.
+	 */
+	@Deprecated
 	public static int getCooldownRemaining(String object, CooldownType type) {
-		return getCooldownRemaining(object, type.name());
+		return getSecondsRemaining(type.cooldowns, keyOf(object));
 	}
 
+	/**
+	 * @deprecated Deprecated as of 0.98.4.4, please use {@link #getCooldownRemaining(UUID, String)} instead.
+	 */
+	@Deprecated
 	public static int getCooldownRemaining(String object, String cooldownTypeName) {
-		AbstractMap.SimpleEntry<String, String> map = mapOf(object, cooldownTypeName.toLowerCase(Locale.ROOT));
-		if (cooldowns.containsKey(map))
-			return getSecondsRemaining(map);
-		return 0;
+		return getCooldownRemainingByName(keyOf(object), cooldownTypeName);
+	}
+
+	private static boolean hasCooldownByName(Object key, String cooldownTypeName) {
+		TimingWheel<Object, Boolean> cooldowns = findWheel(cooldownTypeName);
+		return cooldowns != null && cooldowns.containsKey(key);
+	}
+
+	private static int getCooldownRemainingByName(Object key, String cooldownTypeName) {
+		TimingWheel<Object, Boolean> cooldowns = findWheel(cooldownTypeName);
+		return cooldowns == null ? 0 : getSecondsRemaining(cooldowns, key);
+	}
+
+	private static void put(TimingWheel<Object, Boolean> cooldowns, Object key, int coolDownSeconds) {
+		cooldowns.put(key, Boolean.TRUE, coolDownSeconds * 1000L);
+	}
+
+	// Names of Towny's own cooldowns share the wheel of their CooldownType, in any case.
+	private static TimingWheel<Object, Boolean> findWheel(String cooldownTypeName) {
+		for (CooldownType type : CooldownType.VALUES)
+			if (type.name().equalsIgnoreCase(cooldownTypeName))
+				return type.cooldowns;
+		return customCooldowns.get(cooldownTypeName.toLowerCase(Locale.ROOT));
 	}
 
-	private static AbstractMap.SimpleEntry<String, String> mapOf(String object, String cooldownTypeName) {
-		return new AbstractMap.SimpleEntry<String, String>(object, cooldownTypeName);
+	private static TimingWheel<Object, Boolean> wheelOf(String cooldownTypeName) {
+		TimingWheel<Object, Boolean> cooldowns = findWheel(cooldownTypeName);
+		return cooldowns != null ? cooldowns : customCooldowns.computeIfAbsent(cooldownTypeName.toLowerCase(Locale.ROOT), name -> new TimingWheel<>(1000));
 	}
 
-	private static Long getCooldownEndTime(int coolDownSeconds) {
-		return System.currentTimeMillis() + (coolDownSeconds * 1000);
+	/*
+	 * Cooldowns used to be keyed by strings: the UUID of a town or nation, the
+	 * name of a resident or the WorldCoord of a plot. Those are mapped onto the
+	 * keys they have now, anything else is kept as it is.
+	 */
+	private static Object keyOf(String object) {
+		if (object.length() == 36)
+			try {
+				return UUID.fromString(object);
+			} catch (IllegalArgumentException ignored) {}
+
+		String[] coord = object.split(",");
+		if (coord.length == 3)
+			try {
+				return new WorldCoord(coord[0], Integer.parseInt(coord[1].trim()), Integer.parseInt(coord[2].trim()));
+			} catch (NumberFormatException ignored) {}
+
+		Resident resident = TownyUniverse.getInstance().getResident(object);
+		if (resident != null && resident.hasUUID())
+			return resident.getUUID();
+
+		return object;
 	}
 
-	private static int getSecondsRemaining(AbstractMap.SimpleEntry<String, String> map) {
-		return (int) ((cooldowns.get(map) - System.currentTimeMillis()) / 1000);
+	private static int getSecondsRemaining(TimingWheel<Object, Boolean> cooldowns, Object key) {
+		return (int) (cooldowns.getRemainingMillis(key) / 1000);
 	}
 
 }
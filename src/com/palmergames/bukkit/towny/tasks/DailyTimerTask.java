@@ -9,6 +9,7 @@ import com.palmergames.bukkit.towny.event.PreNewDayEvent;
 import com.palmergames.bukkit.towny.event.time.dailytaxes.NewDayTaxAndUpkeepPreCollectionEvent;
 import com.palmergames.bukkit.towny.event.time.dailytaxes.PreTownPaysNationTaxEvent;
 import com.palmergames.bukkit.towny.event.town.TownUnconquerEvent;
+import com.palmergames.bukkit.towny.object.Government;
 import com.palmergames.bukkit.towny.object.Nation;
 import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Town;
@@ -21,9 +22,20 @@ import com.palmergames.bukkit.util.BukkitTools;
 import com.palmergames.util.StringMgmt;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 import org.bukkit.Bukkit;
+import org.jetbrains.annotations.Nullable;
 
 public class DailyTimerTask extends TownyTimerTask {
 	
@@ -32,16 +44,61 @@ public class DailyTimerTask extends TownyTimerTask {
 	private final List<String> bankruptedTowns = new ArrayList<>();
 	private final List<String> removedTowns = new ArrayList<>();
 	private final List<String> removedNations = new ArrayList<>();
+	private final Map<String, Long> phaseTimings = new LinkedHashMap<>();
+	private final boolean resume;
+	private NewDayCheckpoint checkpoint;
+	private static final AtomicBoolean running = new AtomicBoolean(false);
+	// Set when a new day comes round while the previous one is still being processed.
+	private static final AtomicBoolean queued = new AtomicBoolean(false);
 
 	public DailyTimerTask(Towny plugin) {
 
+		this(plugin, false);
+	}
+
+	/**
+	 * @param plugin Towny instance.
+	 * @param resume Whether to carry on from the checkpoint left by an interrupted new day.
+	 */
+	DailyTimerTask(Towny plugin, boolean resume) {
+
 		super(plugin);
+		this.resume = resume;
+	}
+
+	/**
+	 * @return true if a new day was interrupted part way through recently enough that it should be finished.
+	 */
+	static boolean hasInterruptedNewDay() {
+		return !running.get() && NewDayCheckpoint.hasInterruptedNewDay();
 	}
 
 	@Override
 	public void run() {
+		if (!running.compareAndSet(false, true)) {
+			queued.set(true);
+			plugin.getLogger().warning("A new day has come round while the previous new day is still being processed, it will be run as soon as that one finishes.");
+			return;
+		}
+
+		do {
+			try {
+				newDay();
+			} finally {
+				running.set(false);
+			}
+			// Run any new day which came round in the meantime, unless another task has already picked it up.
+		} while (queued.getAndSet(false) && running.compareAndSet(false, true));
+	}
+
+	private void newDay() {
 
 		long start = System.currentTimeMillis();
+		phaseTimings.clear();
+		checkpoint = resume ? NewDayCheckpoint.resume() : NewDayCheckpoint.start();
+		if (checkpoint.isResumed())
+			plugin.getLogger().info("Resuming a new day which was interrupted before it could finish, towns and nations which have already paid will not be charged again.");
+
 		totalTownUpkeep = 0.0;
 		totalNationUpkeep = 0.0;
 		bankruptedTowns.clear();
@@ -59,13 +116,13 @@ public class DailyTimerTask extends TownyTimerTask {
 			if (!BukkitTools.isEventCancelled(new NewDayTaxAndUpkeepPreCollectionEvent())) {
 				TownyMessaging.sendGlobalMessage(Translatable.of("msg_new_day_tax"));
 				TownyMessaging.sendDebugMsg("Collecting Town Taxes");
-				collectTownTaxes();
+				timePhase("town taxes", this::collectTownTaxes);
 				TownyMessaging.sendDebugMsg("Collecting Nation Taxes");
-				collectNationTaxes();
+				timePhase("nation taxes", this::collectNationTaxes);
 				TownyMessaging.sendDebugMsg("Collecting Town Costs");
-				collectTownCosts();
+				timePhase("town upkeep", this::collectTownCosts);
 				TownyMessaging.sendDebugMsg("Collecting Nation Costs");
-				collectNationCosts();
+				timePhase("nation upkeep", this::collectNationCosts);
 			} else {
 				TownyMessaging.sendGlobalMessage(Translatable.of("msg_new_day"));
 			}
@@ -75,6 +132,7 @@ public class DailyTimerTask extends TownyTimerTask {
 		/*
 		 * If enabled, remove old residents who haven't logged in for the configured number of days.
 		 */	
+		long cleanupStart = System.currentTimeMillis();
 		if (TownySettings.isDeletingOldResidents()) {
 			// Run a purge in it's own thread
 			new ResidentPurge(plugin, null, TownySettings.getDeleteTime() * 1000, TownySettings.isDeleteTownlessOnly(), null).start();
@@ -103,23 +161,27 @@ public class DailyTimerTask extends TownyTimerTask {
 		 * Reduce the number of days conquered towns are conquered for.
 		 */
 		for (Town town : universe.getTowns()) {
-			if (town.isConquered()) {
+			if (town.isConquered() && !checkpoint.isDone(NewDayCheckpoint.Phase.CONQUERED_DAYS, town.getUUID())) {
 				if (town.getConqueredDays() == 1)
 					Bukkit.getScheduler().runTask(plugin, () -> unconquer(town));
 				else
 					town.setConqueredDays(town.getConqueredDays() - 1);
+				checkpoint.markDone(NewDayCheckpoint.Phase.CONQUERED_DAYS, town.getUUID());
 			}
 		}
+		phaseTimings.put("cleanup", System.currentTimeMillis() - cleanupStart);
 
 		/*
 		 * Run backup on a separate thread, to let the DailyTimerTask thread terminate as intended.
 		 */
 		if (TownySettings.isBackingUpDaily()) {			
-			universe.performCleanupAndBackup();
+			timePhase("backup", universe::performCleanupAndBackup);
 		}
 
 		// Fire the new-day event.
-		BukkitTools.fireEvent(new NewDayEvent(bankruptedTowns, removedTowns, removedNations, totalTownUpkeep, totalNationUpkeep, start));
+		timePhase("new day event", () -> BukkitTools.fireEvent(new NewDayEvent(bankruptedTowns, removedTowns, removedNations, totalTownUpkeep, totalNationUpkeep, start)));
+		checkpoint.finish();
+		checkpoint = null;
 		
 		TownyMessaging.sendDebugMsg("Finished New Day Code");
 		TownyMessaging.sendDebugMsg("Universe Stats:");
@@ -134,7 +196,7 @@ public class DailyTimerTask extends TownyTimerTask {
 		TownyMessaging.sendDebugMsg(String.format("%8d Mb (total)", Runtime.getRuntime().totalMemory() / 1024 / 1024));
 		TownyMessaging.sendDebugMsg(String.format("%8d Mb (free)", Runtime.getRuntime().freeMemory() / 1024 / 1024));
 		TownyMessaging.sendDebugMsg(String.format("%8d Mb (used=total-free)", (Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()) / 1024 / 1024));
-		Towny.getPlugin().getLogger().info("Towny DailyTimerTask took " + (System.currentTimeMillis() - start) + "ms to process.");
+		Towny.getPlugin().getLogger().info("Towny DailyTimerTask took " + (System.currentTimeMillis() - start) + "ms to process (" + formatPhaseTimings() + ").");
 		
 		// Run the new day scheduler again one minute later to begin scheduling the next New Day.
 		if (!NewDayScheduler.isNewDaySchedulerRunning())
@@ -149,23 +211,85 @@ public class DailyTimerTask extends TownyTimerTask {
 		town.setConqueredDays(0);
 	}
 
+	private void timePhase(String name, Runnable phase) {
+		long phaseStart = System.currentTimeMillis();
+		phase.run();
+		phaseTimings.merge(name, System.currentTimeMillis() - phaseStart, Long::sum);
+	}
+
+	private String formatPhaseTimings() {
+		List<String> timings = new ArrayList<>();
+		phaseTimings.forEach((name, time) -> timings.add(name + ": " + time + "ms"));
+		return String.join(", ", timings);
+	}
+
+	/**
+	 * @param phase Phase of the new day.
+	 * @param government Town or nation the charge is made for.
+	 * @param charge Identifies the charge within the town or nation.
+	 * @return true if the charge was already made before the new day was interrupted.
+	 */
+	private boolean isCharged(NewDayCheckpoint.Phase phase, Government government, String charge) {
+		return checkpoint != null && checkpoint.isDone(phase, government.getUUID(), charge);
+	}
+
+	/**
+	 * Records a charge in the checkpoint just before it is made, so that it
+	 * isn't made again if the new day is interrupted and resumed.
+	 */
+	private void markCharged(NewDayCheckpoint.Phase phase, Government government, String charge) {
+		if (checkpoint != null)
+			checkpoint.markDone(phase, government.getUUID(), charge);
+	}
+
+	/**
+	 * Runs the collector over each town or nation a batch at a time, skipping
+	 * any which the checkpoint shows have already been processed. Before each
+	 * batch is collected from, what each town or nation in it needs is worked
+	 * out in parallel by the snapshot function. Payments are always made one
+	 * at a time, because economy plugins and event listeners can't be trusted
+	 * to be thread-safe.
+	 * 
+	 * @param phase Phase of the new day, used by the checkpoint.
+	 * @param objects Towns or nations to collect from.
+	 * @param snapshot Works out what a town or nation needs ahead of its payments, or null if nothing is needed.
+	 * @param collector Makes the payments for a town or nation, given its snapshot.
+	 */
+	private <T extends Government, S> void collectInBatches(NewDayCheckpoint.Phase phase, List<T> objects, @Nullable Function<T, S> snapshot, BiConsumer<T, S> collector) {
+		int batchSize = Math.max(1, TownySettings.getNewDayBatchSize());
+
+		for (int from = 0; from < objects.size(); from += batchSize) {
+			List<T> batch = new ArrayList<>(batchSize);
+			for (T object : objects.subList(from, Math.min(objects.size(), from + batchSize)))
+				if (checkpoint == null || !checkpoint.isDone(phase, object.getUUID()))
+					batch.add(object);
+
+			Map<T, S> snapshots = snapshot == null || batch.isEmpty()
+				? Collections.emptyMap()
+				: batch.parallelStream().collect(Collectors.toMap(Function.identity(), snapshot));
+
+			for (T object : batch) {
+				collector.accept(object, snapshots.get(object));
+				if (checkpoint != null)
+					checkpoint.markDone(phase, object.getUUID());
+			}
+
+			TownyMessaging.sendDebugMsg("    " + Math.min(objects.size(), from + batchSize) + "/" + objects.size() + " processed.");
+		}
+	}
+
 	/**
 	 * Collect taxes for all nations due from their member towns
 	 */
 	public void collectNationTaxes() {
-		List<Nation> nations = new ArrayList<>(universe.getNations());
-		ListIterator<Nation> nationItr = nations.listIterator();
-		Nation nation;
-
-		while (nationItr.hasNext()) {
-			nation = nationItr.next();
+		collectInBatches(NewDayCheckpoint.Phase.NATION_TAXES, new ArrayList<>(universe.getNations()), null, (nation, ignored) -> {
 			/*
 			 * Only collect tax for this nation if it really still exists.
 			 * We are running in an Async thread so MUST verify all objects.
 			 */
 			if (universe.hasNation(nation.getName()))
 				collectNationTaxes(nation);
-		}
+		});
 	}
 
 	/**
@@ -195,6 +319,11 @@ public class DailyTimerTask extends TownyTimerTask {
 				if (universe.hasTown(town.getName())) {
 					if ((town.isCapital() && !TownySettings.doCapitalsPayNationTax()) || !town.hasUpkeep() || town.isRuined())
 						continue;
+
+					String charge = "town " + town.getUUID();
+					if (isCharged(NewDayCheckpoint.Phase.NATION_TAXES, nation, charge))
+						continue;
+					markCharged(NewDayCheckpoint.Phase.NATION_TAXES, nation, charge);
 					
 					if (nation.isTaxPercentage()) {
 						taxAmount = town.getAccount().getHoldingBalance() * taxAmount / 100;
@@ -291,20 +420,15 @@ public class DailyTimerTask extends TownyTimerTask {
 	 * Collect taxes for all towns due from their residents.
 	 */
 	public void collectTownTaxes() {
-		List<Town> towns = new ArrayList<>(universe.getTowns());
-		ListIterator<Town> townItr = towns.listIterator();
-		Town town;
-
-		while (townItr.hasNext()) {
-			town = townItr.next();
+		collectInBatches(NewDayCheckpoint.Phase.TOWN_TAXES, new ArrayList<>(universe.getTowns()), DailyTimerTask::getTaxExemptResidents, (town, taxExempt) -> {
 			/*
 			 * Only collect resident tax for this town if it really still
 			 * exists.
 			 * We are running in an Async thread so MUST verify all objects.
 			 */
 			if (universe.hasTown(town.getName()) && !town.isRuined())
-				collectTownTaxes(town);
-		}
+				collectTownTaxes(town, taxExempt);
+		});
 	}
 
 	/**
@@ -313,6 +437,25 @@ public class DailyTimerTask extends TownyTimerTask {
 	 * @param town - Town to collect taxes from
 	 */
 	protected void collectTownTaxes(Town town) {
+		collectTownTaxes(town, getTaxExemptResidents(town));
+	}
+
+	/**
+	 * Working out a resident's permissions is expensive, so it is done once
+	 * for each resident, ahead of collecting their town and plot taxes.
+	 * 
+	 * @param town Town whose residents are checked.
+	 * @return the residents of the town who have the towny.tax_exempt permission.
+	 */
+	private static Set<Resident> getTaxExemptResidents(Town town) {
+		Set<Resident> taxExempt = new HashSet<>();
+		for (Resident resident : new ArrayList<>(town.getResidents()))
+			if (TownyPerms.getResidentPerms(resident).containsKey("towny.tax_exempt"))
+				taxExempt.add(resident);
+		return taxExempt;
+	}
+
+	private void collectTownTaxes(Town town, Set<Resident> taxExempt) {
 		// Resident Tax
 		if (town.getTaxes() > 0) {
 
@@ -330,12 +473,16 @@ public class DailyTimerTask extends TownyTimerTask {
 				 * still exists. We are running in an Async thread so MUST
 				 * verify all objects.
 				 */
-				if (universe.hasResident(resident.getName())) {
+				String charge = "resident " + (resident.getUUID() != null ? resident.getUUID() : resident.getName());
+				if (universe.hasResident(resident.getName()) && !isCharged(NewDayCheckpoint.Phase.TOWN_TAXES, town, charge)) {
 
-					if (TownyPerms.getResidentPerms(resident).containsKey("towny.tax_exempt") || resident.isNPC() || resident.isMayor()) {
+					if (taxExempt.contains(resident) || resident.isNPC() || resident.isMayor()) {
 						TownyMessaging.sendMsg(resident, Translatable.of("msg_tax_exempt"));
 						continue;
-					} else if (town.isTaxPercentage()) {
+					}
+
+					markCharged(NewDayCheckpoint.Phase.TOWN_TAXES, town, charge);
+					if (town.isTaxPercentage()) {
 						tax = resident.getAccount().getHoldingBalance() * tax / 100;
 						
 						// Make sure that the town percent tax doesn't remove above the
@@ -396,11 +543,14 @@ public class DailyTimerTask extends TownyTimerTask {
 			 * still exists. We are running in an Async thread so MUST
 			 * verify all objects.
 			 */
-			if (universe.hasResident(resident.getName())) {
+			String charge = "plot " + townBlock.getWorldCoord();
+			if (universe.hasResident(resident.getName()) && !isCharged(NewDayCheckpoint.Phase.TOWN_TAXES, town, charge)) {
 				if (resident.hasTown() && resident.getTownOrNull() == town)
-					if (TownyPerms.getResidentPerms(resident).containsKey("towny.tax_exempt") || resident.isNPC())
+					if (taxExempt.contains(resident) || resident.isNPC())
 						continue;
 
+				markCharged(NewDayCheckpoint.Phase.TOWN_TAXES, town, charge);
+
 				// The PlotTax might be negative, in order to pay the resident for owning a special plot type.
 				if (tax < 0 && town.getAccount().canPayFromHoldings(Math.abs(tax))) {
 					tax = Math.abs(tax);
@@ -445,117 +595,8 @@ public class DailyTimerTask extends TownyTimerTask {
 	 * Collect or pay upkeep for all towns.
 	 */
 	public void collectTownCosts() {
-		List<Town> towns = new ArrayList<>(universe.getTowns());
-		ListIterator<Town> townItr = towns.listIterator();
-		Town town;
 		double neutralityCost = TownySettings.getTownNeutralityCost();
-
-		while (townItr.hasNext()) {
-			town = townItr.next();
-
-			/*
-			 * Only charge/pay upkeep for this town if it really still exists.
-			 * We are running in an Async thread so MUST verify all objects.
-			 */
-			if (universe.hasTown(town.getName()) && town.hasUpkeep() && !town.isRuined()) {
-
-				double upkeep = TownySettings.getTownUpkeepCost(town);
-				double upkeepPenalty = TownySettings.getTownPenaltyUpkeepCost(town);
-				if (upkeepPenalty > 0 && upkeep > 0)
-					upkeep = upkeep + upkeepPenalty;
-			
-				totalTownUpkeep = totalTownUpkeep + upkeep;
-				if (upkeep > 0) {
-					
-					if (town.getAccount().canPayFromHoldings(upkeep)) {
-					// Town is able to pay the upkeep.
-						town.getAccount().withdraw(upkeep, "Town Upkeep");
-						TownyMessaging.sendPrefixedTownMessage(town, Translatable.of("msg_your_town_payed_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));
-					} else {
-					// Town is unable to pay the upkeep.
-						if (!TownySettings.isTownBankruptcyEnabled()) {
-						// Bankruptcy is disabled, remove the town for not paying upkeep.
-							TownyMessaging.sendPrefixedTownMessage(town, Translatable.of("msg_your_town_couldnt_pay_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));
-							universe.getDataSource().removeTown(town);
-							removedTowns.add(town.getName());
-							continue;
-						}
-						
-						// Bankruptcy is enabled.
-						boolean townWasBankrupt = town.isBankrupt();
-						town.getAccount().setDebtCap(MoneyUtil.getEstimatedValueOfTown(town));
-					
-						if (town.getAccount().getHoldingBalance() - upkeep < town.getAccount().getDebtCap() * -1) {
-						// The town will exceed their debt cap to pay the upkeep.
-						// Eventually when the cap is reached they will pay 0 upkeep.
-												
-							if (TownySettings.isUpkeepDeletingTownsThatReachDebtCap()) {
-							// Alternatively, if configured, towns will not be allowed to exceed
-							// their debt and be deleted from the server for non-payment finally.
-								TownyMessaging.sendPrefixedTownMessage(town, Translatable.of("msg_your_town_couldnt_pay_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));
-								universe.getDataSource().removeTown(town);
-								removedTowns.add(town.getName());
-								continue;
-							}
-							upkeep = town.getAccount().getDebtCap() - Math.abs(town.getAccount().getHoldingBalance());
-						}
-						
-						// Finally pay the upkeep or the modified upkeep up to the debtcap. 
-						town.getAccount().withdraw(upkeep, "Town Upkeep");
-						TownyMessaging.sendPrefixedTownMessage(town, Translatable.of("msg_your_town_payed_upkeep_with_debt", TownyEconomyHandler.getFormattedBalance(upkeep)));
-						
-						// Check if the town was newly bankrupted and punish them for it.
-						if(!townWasBankrupt) {
-							town.setOpen(false);
-							town.save();
-							bankruptedTowns.add(town.getName());
-						}
-					}
-
-					
-				} else if (upkeep < 0) {
-					// Negative upkeep
-					upkeep = Math.abs(upkeep);
-					
-					if (TownySettings.isUpkeepPayingPlots()) {
-						// Pay each plot owner a share of the negative
-						// upkeep
-						List<TownBlock> plots = new ArrayList<>(town.getTownBlocks());
-						double payment = upkeep / plots.size();
-						double townPayment = 0;
-
-						for (TownBlock townBlock : plots) {
-							if (townBlock.hasResident()) {
-								Resident resident = townBlock.getResidentOrNull();
-								if (resident != null)
-									resident.getAccount().deposit(payment, "Negative Town Upkeep - Plot income");
-							} else
-								townPayment = townPayment + payment;
-
-						}
-						if (townPayment > 0)
-							town.getAccount().deposit(townPayment, "Negative Town Upkeep - Plot income");
-
-					} else {
-						// Not paying plot owners so just pay the town
-						town.getAccount().deposit(upkeep, "Negative Town Upkeep");
-					}
-
-				}
-				
-				// Charge towns for keeping a peaceful status.
-				if (neutralityCost > 0 && town.isNeutral()) {
-					if ((town.isBankrupt() && !TownySettings.canBankruptTownsPayForNeutrality())
-						|| !town.getAccount().withdraw(neutralityCost, "Town Peace Upkeep")) {
-						town.setNeutral(false);
-						town.save();
-						TownyMessaging.sendPrefixedTownMessage(town, Translatable.of("msg_town_not_peaceful"));
-					} else {
-						TownyMessaging.sendPrefixedTownMessage(town, Translatable.of("msg_town_paid_for_neutral_status", TownyEconomyHandler.getFormattedBalance(neutralityCost)));
-					}
-				}
-			}			
-		}
+		collectInBatches(NewDayCheckpoint.Phase.TOWN_COSTS, new ArrayList<>(universe.getTowns()), null, (town, ignored) -> collectTownCosts(town, neutralityCost));
 
 		String msg1 = "msg_bankrupt_town2";
 		String msg2 = "msg_bankrupt_town_multiple";
@@ -578,54 +619,130 @@ public class DailyTimerTask extends TownyTimerTask {
 	}
 
 	/**
-	 * Collect upkeep due from all nations.
+	 * Collect or pay upkeep for a single town.
+	 * 
+	 * @param town - Town to collect upkeep from.
+	 * @param neutralityCost - Cost of the town's peaceful status.
 	 */
-	public void collectNationCosts() {
-		List<Nation> nations = new ArrayList<>(universe.getNations());
-		ListIterator<Nation> nationItr = nations.listIterator();
-		Nation nation;
-		double neutralityCost = TownySettings.getNationNeutralityCost();
-
-		while (nationItr.hasNext()) {
-			nation = nationItr.next();
-
-			/*
-			 * Only charge upkeep for this nation if it really still exists,
-			 * and its capital town also pays upkeep costs.
-			 * We are running in an Async thread so MUST verify all objects.
-			 */
-			if (universe.hasNation(nation.getUUID()) && nation.getCapital().hasUpkeep()) {
-
-				double upkeep = TownySettings.getNationUpkeepCost(nation);
+	private void collectTownCosts(Town town, double neutralityCost) {
+		/*
+		 * Only charge/pay upkeep for this town if it really still exists.
+		 * We are running in an Async thread so MUST verify all objects.
+		 */
+		if (universe.hasTown(town.getName()) && town.hasUpkeep() && !town.isRuined()) {
 
-				totalNationUpkeep = totalNationUpkeep + upkeep;
-				if (upkeep > 0) {
-					// Town is paying upkeep
+			double upkeep = TownySettings.getTownUpkeepCost(town);
+			double upkeepPenalty = TownySettings.getTownPenaltyUpkeepCost(town);
+			if (upkeepPenalty > 0 && upkeep > 0)
+				upkeep = upkeep + upkeepPenalty;
+		
+			totalTownUpkeep = totalTownUpkeep + upkeep;
+			boolean upkeepCharged = isCharged(NewDayCheckpoint.Phase.TOWN_COSTS, town, "upkeep");
+			if (upkeep > 0 && !upkeepCharged) {
+				markCharged(NewDayCheckpoint.Phase.TOWN_COSTS, town, "upkeep");
+				
+				if (town.getAccount().canPayFromHoldings(upkeep)) {
+				// Town is able to pay the upkeep.
+					town.getAccount().withdraw(upkeep, "Town Upkeep");
+					TownyMessaging.sendPrefixedTownMessage(town, Translatable.of("msg_your_town_payed_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));
+				} else {
+				// Town is unable to pay the upkeep.
+					if (!TownySettings.isTownBankruptcyEnabled()) {
+					// Bankruptcy is disabled, remove the town for not paying upkeep.
+						TownyMessaging.sendPrefixedTownMessage(town, Translatable.of("msg_your_town_couldnt_pay_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));
+						universe.getDataSource().removeTown(town);
+						removedTowns.add(town.getName());
+						return;
+					}
 					
-					if (nation.getAccount().canPayFromHoldings(upkeep)) {
-						nation.getAccount().withdraw(upkeep, "Nation Upkeep");
-						TownyMessaging.sendPrefixedNationMessage(nation, Translatable.of("msg_your_nation_payed_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));						
-					} else {
-						TownyMessaging.sendPrefixedNationMessage(nation, Translatable.of("msg_your_nation_couldnt_pay_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));
-						universe.getDataSource().removeNation(nation);
-						removedNations.add(nation.getName());
+					// Bankruptcy is enabled.
+					boolean townWasBankrupt = town.isBankrupt();
+					town.getAccount().setDebtCap(MoneyUtil.getEstimatedValueOfTown(town));
+				
+					if (town.getAccount().getHoldingBalance() - upkeep < town.getAccount().getDebtCap() * -1) {
+					// The town will exceed their debt cap to pay the upkeep.
+					// Eventually when the cap is reached they will pay 0 upkeep.
+											
+						if (TownySettings.isUpkeepDeletingTownsThatReachDebtCap()) {
+						// Alternatively, if configured, towns will not be allowed to exceed
+						// their debt and be deleted from the server for non-payment finally.
+							TownyMessaging.sendPrefixedTownMessage(town, Translatable.of("msg_your_town_couldnt_pay_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));
+							universe.getDataSource().removeTown(town);
+							removedTowns.add(town.getName());
+							return;
+						}
+						upkeep = town.getAccount().getDebtCap() - Math.abs(town.getAccount().getHoldingBalance());
+					}
+					
+					// Finally pay the upkeep or the modified upkeep up to the debtcap. 
+					town.getAccount().withdraw(upkeep, "Town Upkeep");
+					TownyMessaging.sendPrefixedTownMessage(town, Translatable.of("msg_your_town_payed_upkeep_with_debt", TownyEconomyHandler.getFormattedBalance(upkeep)));
+					
+					// Check if the town was newly bankrupted and punish them for it.
+					if(!townWasBankrupt) {
+						town.setOpen(false);
+						town.save();
+						bankruptedTowns.add(town.getName());
 					}
-				} else if (upkeep < 0) {
-					nation.getAccount().withdraw(upkeep, "Negative Nation Upkeep");
 				}
 
-				// Charge nations for keeping a peaceful status.
-				if (neutralityCost > 0 && nation.isNeutral()) {
-					if (!nation.getAccount().withdraw(neutralityCost, "Nation Peace Upkeep")) {
-						nation.setNeutral(false);
-						nation.save();
-						TownyMessaging.sendPrefixedNationMessage(nation, Translatable.of("msg_nation_not_peaceful"));
-					} else {
-						TownyMessaging.sendPrefixedNationMessage(nation, Translatable.of("msg_nation_paid_for_neutral_status", TownyEconomyHandler.getFormattedBalance(neutralityCost)));
+				
+			} else if (upkeep < 0 && !upkeepCharged) {
+				// Negative upkeep
+				upkeep = Math.abs(upkeep);
+				
+				if (TownySettings.isUpkeepPayingPlots()) {
+					// Pay each plot owner a share of the negative
+					// upkeep
+					List<TownBlock> plots = new ArrayList<>(town.getTownBlocks());
+					double payment = upkeep / plots.size();
+					double townPayment = 0;
+
+					for (TownBlock townBlock : plots) {
+						if (townBlock.hasResident()) {
+							Resident resident = townBlock.getResidentOrNull();
+							String charge = "plot income " + townBlock.getWorldCoord();
+							if (resident != null && !isCharged(NewDayCheckpoint.Phase.TOWN_COSTS, town, charge)) {
+								markCharged(NewDayCheckpoint.Phase.TOWN_COSTS, town, charge);
+								resident.getAccount().deposit(payment, "Negative Town Upkeep - Plot income");
+							}
+						} else
+							townPayment = townPayment + payment;
+
 					}
+					if (townPayment > 0)
+						town.getAccount().deposit(townPayment, "Negative Town Upkeep - Plot income");
+
+				} else {
+					// Not paying plot owners so just pay the town
+					town.getAccount().deposit(upkeep, "Negative Town Upkeep");
+				}
+				markCharged(NewDayCheckpoint.Phase.TOWN_COSTS, town, "upkeep");
+
+			}
+			
+			// Charge towns for keeping a peaceful status.
+			if (neutralityCost > 0 && town.isNeutral() && !isCharged(NewDayCheckpoint.Phase.TOWN_COSTS, town, "neutrality")) {
+				markCharged(NewDayCheckpoint.Phase.TOWN_COSTS, town, "neutrality");
+				if ((town.isBankrupt() && !TownySettings.canBankruptTownsPayForNeutrality())
+					|| !town.getAccount().withdraw(neutralityCost, "Town Peace Upkeep")) {
+					town.setNeutral(false);
+					town.save();
+					TownyMessaging.sendPrefixedTownMessage(town, Translatable.of("msg_town_not_peaceful"));
+				} else {
+					TownyMessaging.sendPrefixedTownMessage(town, Translatable.of("msg_town_paid_for_neutral_status", TownyEconomyHandler.getFormattedBalance(neutralityCost)));
 				}
 			}
 		}
+	}
+
+	/**
+	 * Collect upkeep due from all nations.
+	 */
+	public void collectNationCosts() {
+		double neutralityCost = TownySettings.getNationNeutralityCost();
+		collectInBatches(NewDayCheckpoint.Phase.NATION_COSTS, new ArrayList<>(universe.getNations()), null, (nation, ignored) -> collectNationCosts(nation, neutralityCost));
+
 		if (removedNations != null && !removedNations.isEmpty()) {
 			if (removedNations.size() == 1)
 				TownyMessaging.sendGlobalMessage(Translatable.of("msg_bankrupt_nation2", removedNations.get(0)));
@@ -633,4 +750,54 @@ public class DailyTimerTask extends TownyTimerTask {
 				TownyMessaging.sendGlobalMessage(Translatable.of("msg_bankrupt_nation_multiple").append(StringMgmt.join(removedNations, ", ")));
 		}
 	}
+
+	/**
+	 * Collect upkeep due from a single nation.
+	 * 
+	 * @param nation - Nation to collect upkeep from.
+	 * @param neutralityCost - Cost of the nation's peaceful status.
+	 */
+	private void collectNationCosts(Nation nation, double neutralityCost) {
+		/*
+		 * Only charge upkeep for this nation if it really still exists,
+		 * and its capital town also pays upkeep costs.
+		 * We are running in an Async thread so MUST verify all objects.
+		 */
+		if (universe.hasNation(nation.getUUID()) && nation.getCapital().hasUpkeep()) {
+
+			double upkeep = TownySettings.getNationUpkeepCost(nation);
+
+			totalNationUpkeep = totalNationUpkeep + upkeep;
+			boolean upkeepCharged = isCharged(NewDayCheckpoint.Phase.NATION_COSTS, nation, "upkeep");
+			if (upkeep != 0 && !upkeepCharged)
+				markCharged(NewDayCheckpoint.Phase.NATION_COSTS, nation, "upkeep");
+
+			if (upkeep > 0 && !upkeepCharged) {
+				// Town is paying upkeep
+				
+				if (nation.getAccount().canPayFromHoldings(upkeep)) {
+					nation.getAccount().withdraw(upkeep, "Nation Upkeep");
+					TownyMessaging.sendPrefixedNationMessage(nation, Translatable.of("msg_your_nation_payed_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));						
+				} else {
+					TownyMessaging.sendPrefixedNationMessage(nation, Translatable.of("msg_your_nation_couldnt_pay_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));
+					universe.getDataSource().removeNation(nation);
+					removedNations.add(nation.getName());
+				}
+			} else if (upkeep < 0 && !upkeepCharged) {
+				nation.getAccount().withdraw(upkeep, "Negative Nation Upkeep");
+			}
+
+			// Charge nations for keeping a peaceful status.
+			if (neutralityCost > 0 && nation.isNeutral() && !isCharged(NewDayCheckpoint.Phase.NATION_COSTS, nation, "neutrality")) {
+				markCharged(NewDayCheckpoint.Phase.NATION_COSTS, nation, "neutrality");
+				if (!nation.getAccount().withdraw(neutralityCost, "Nation Peace Upkeep")) {
+					nation.setNeutral(false);
+					nation.save();
+					TownyMessaging.sendPrefixedNationMessage(nation, Translatable.of("msg_nation_not_peaceful"));
+				} else {
+					TownyMessaging.sendPrefixedNationMessage(nation, Translatable.of("msg_nation_paid_for_neutral_status", TownyEconomyHandler.getFormattedBalance(neutralityCost)));
+				}
+			}
+		}
+	}
 }
@@ -1,23 +1,61 @@
 package com.palmergames.bukkit.towny.tasks;
 
+import com.palmergames.bukkit.towny.Towny;
+import com.palmergames.bukkit.towny.TownyUniverse;
+import com.palmergames.bukkit.towny.event.DeleteTownEvent;
+import com.palmergames.bukkit.towny.event.PlayerChangePlotEvent;
+import com.palmergames.bukkit.towny.event.PlotChangeTypeEvent;
+import com.palmergames.bukkit.towny.event.TownAddResidentEvent;
+import com.palmergames.bukkit.towny.event.TownClaimEvent;
+import com.palmergames.bukkit.towny.event.TownRemoveResidentEvent;
+import com.palmergames.bukkit.towny.event.town.TownReclaimedEvent;
+import com.palmergames.bukkit.towny.event.town.TownRuinedEvent;
+import com.palmergames.bukkit.towny.event.town.TownUnclaimEvent;
 import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.TownBlock;
+import com.palmergames.bukkit.towny.object.TownBlockType;
+import com.palmergames.bukkit.towny.object.TownRelationCache;
+import com.palmergames.bukkit.towny.object.WorldCoord;
+import com.palmergames.bukkit.towny.utils.CombatUtil;
+import com.palmergames.bukkit.util.BukkitTools;
+
 import org.bukkit.Server;
 import org.bukkit.attribute.Attribute;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityRegainHealthEvent;
 import org.bukkit.event.entity.EntityRegainHealthEvent.RegainReason;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
 
-import com.palmergames.bukkit.towny.Towny;
-import com.palmergames.bukkit.towny.TownyAPI;
-import com.palmergames.bukkit.towny.TownyUniverse;
-import com.palmergames.bukkit.towny.object.TownBlock;
-import com.palmergames.bukkit.towny.object.TownBlockType;
-import com.palmergames.bukkit.towny.utils.CombatUtil;
-import com.palmergames.bukkit.util.BukkitTools;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
-public class HealthRegenTimerTask extends TownyTimerTask {
+/**
+ * Heals the players who are standing in their own town, or a town allied with it.
+ * <p>
+ * Rather than checking every online player each run, the task keeps the set
+ * of players who are in a place where they regenerate. The events below only
+ * mark a player, or everyone, as needing to be checked again, and the checks
+ * are made at the start of the next run on the main thread. Alliances are
+ * followed through {@link TownRelationCache#getGeneration()}.
+ */
+public class HealthRegenTimerTask extends TownyTimerTask implements Listener {
 
 	private final Server server;
+	// Players standing in friendly town land which isn't an arena. Only used on the main thread.
+	private final Set<UUID> regenerating = new HashSet<>();
+	// Players who need to be checked again, which can be added to from any thread.
+	private final Set<UUID> changed = ConcurrentHashMap.newKeySet();
+	private volatile boolean rebuildNeeded = true;
+	private long relationGeneration = -1;
 
 	public HealthRegenTimerTask(Towny plugin, Server server) {
 
@@ -28,32 +66,138 @@ public class HealthRegenTimerTask extends TownyTimerTask {
 	@Override
 	public void run() {
 
-		for (Player player : server.getOnlinePlayers()) {
-			if (player.getHealth() <= 0)
+		if (rebuildNeeded || relationGeneration != TownRelationCache.getGeneration())
+			rebuild();
+		else
+			updateChanged();
+
+		for (UUID uuid : new ArrayList<>(regenerating)) {
+			Player player = server.getPlayer(uuid);
+			if (player == null) {
+				regenerating.remove(uuid);
 				continue;
-			
-			// Is wilderness
-			if (TownyAPI.getInstance().isWilderness(player.getLocation()))
+			}
+
+			if (player.getHealth() <= 0)
 				continue;
-			
-			TownBlock townBlock = TownyAPI.getInstance().getTownBlock(player);
-			Resident resident = TownyUniverse.getInstance().getResident(player.getUniqueId());
-
-			if (resident != null 
-				&& resident.hasTown()
-				&& !resident.getTownOrNull().hasActiveWar()
-				&& CombatUtil.isAlly(townBlock.getTownOrNull(), TownyAPI.getInstance().getResidentTownOrNull(resident))
-				&& !townBlock.getType().equals(TownBlockType.ARENA)) // only regen if not in an arena
+
+			Resident resident = TownyUniverse.getInstance().getResident(uuid);
+			if (resident != null && resident.hasTown() && !resident.getTownOrNull().hasActiveWar())
 				incHealth(player);
 		}
 	}
 
+	private void rebuild() {
+		rebuildNeeded = false;
+		relationGeneration = TownRelationCache.getGeneration();
+		changed.clear();
+		regenerating.clear();
+
+		for (Player player : server.getOnlinePlayers())
+			if (canRegenerate(player))
+				regenerating.add(player.getUniqueId());
+	}
+
+	private void updateChanged() {
+		for (Iterator<UUID> iterator = changed.iterator(); iterator.hasNext();) {
+			UUID uuid = iterator.next();
+			iterator.remove();
+
+			Player player = server.getPlayer(uuid);
+			if (player != null && canRegenerate(player))
+				regenerating.add(uuid);
+			else
+				regenerating.remove(uuid);
+		}
+	}
+
+	private boolean canRegenerate(Player player) {
+		TownBlock townBlock = WorldCoord.parseWorldCoord(player).getTownBlockOrNull();
+		// Is wilderness, or an arena where nobody regenerates.
+		if (townBlock == null || !townBlock.hasTown() || townBlock.getType().equals(TownBlockType.ARENA))
+			return false;
+
+		Resident resident = TownyUniverse.getInstance().getResident(player.getUniqueId());
+		return resident != null
+			&& resident.hasTown()
+			&& CombatUtil.isAlly(townBlock.getTownOrNull(), resident.getTownOrNull());
+	}
+
+	private void residentChanged(Resident resident) {
+		if (resident.getUUID() != null)
+			changed.add(resident.getUUID());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerChangePlot(PlayerChangePlotEvent event) {
+		changed.add(event.getPlayer().getUniqueId());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerJoin(PlayerJoinEvent event) {
+		changed.add(event.getPlayer().getUniqueId());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerRespawn(PlayerRespawnEvent event) {
+		changed.add(event.getPlayer().getUniqueId());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerQuit(PlayerQuitEvent event) {
+		changed.add(event.getPlayer().getUniqueId());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownAddResident(TownAddResidentEvent event) {
+		residentChanged(event.getResident());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownRemoveResident(TownRemoveResidentEvent event) {
+		residentChanged(event.getResident());
+	}
+
+	/*
+	 * Changes to what land belongs to a town are rare, so they
+	 * have everyone checked again instead of finding who is on it.
+	 */
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownClaim(TownClaimEvent event) {
+		rebuildNeeded = true;
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownUnclaim(TownUnclaimEvent event) {
+		rebuildNeeded = true;
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlotChangeType(PlotChangeTypeEvent event) {
+		rebuildNeeded = true;
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownRuined(TownRuinedEvent event) {
+		rebuildNeeded = true;
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownReclaimed(TownReclaimedEvent event) {
+		rebuildNeeded = true;
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownDelete(DeleteTownEvent event) {
+		rebuildNeeded = true;
+	}
+
 	public void incHealth(Player player) {
 
 		// Keep saturation above zero while in town.
-		if (player.getSaturation() == 0)			
+		if (player.getSaturation() == 0)
 			player.setSaturation(1F);
-		
+
 		// Heal while in town.
 		double currentHP = player.getHealth();
 		double maxHP = player.getAttribute(Attribute.GENERIC_MAX_HEALTH).getValue();
@@ -11,7 +11,6 @@ import org.bukkit.Bukkit;
 import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.event.time.NewHourEvent;
-import com.palmergames.bukkit.towny.invites.InviteHandler;
 import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.jail.UnJailReason;
 import com.palmergames.bukkit.towny.utils.JailUtil;
@@ -37,9 +36,6 @@ public class HourlyTimerTask extends TownyTimerTask {
 			TownRuinUtil.evaluateRuinedTownRemovals();
 		}
 		
-		if (TownySettings.getInviteExpirationTime() > 0)
-			InviteHandler.searchForExpiredInvites();
-
 		if (!universe.getJailedResidentMap().isEmpty())
 			decrementJailedHoursAndIncurJailFees();
 		
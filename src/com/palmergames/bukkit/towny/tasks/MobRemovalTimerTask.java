@@ -1,54 +1,79 @@
 package com.palmergames.bukkit.towny.tasks;
 
+import com.github.bsideup.jabel.Desugar;
 import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.TownyTimerHandler;
 import com.palmergames.bukkit.towny.event.MobRemovalEvent;
+import com.palmergames.bukkit.towny.object.Coord;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.utils.EntityTypeUtil;
 import com.palmergames.bukkit.util.BukkitTools;
 
 import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.World;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Rabbit;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
-
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Removes the mobs which aren't allowed in the world, the wilderness or a town.
+ * <p>
+ * Each run starts a sweep over the loaded chunks of every Towny world, on the
+ * main thread. A sweep only uses {@link #SLICE_BUDGET_NANOS} of each tick and
+ * carries on where it left off on the next tick, so large worlds are spread
+ * over several ticks instead of stalling one. The townblocks under a chunk are
+ * looked up once per chunk, and chunks which have no claims in a world that
+ * only removes mobs from towns are skipped without looking at their entities.
+ */
 public class MobRemovalTimerTask extends TownyTimerTask {
 
+	// How much of a tick one slice of a sweep may take before the rest is left for the next tick.
+	private static final long SLICE_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
 	public static List<Class<?>> classesOfWorldMobsToRemove = new ArrayList<>();
 	public static List<Class<?>> classesOfWildernessMobsToRemove = new ArrayList<>();
 	public static List<Class<?>> classesOfTownMobsToRemove = new ArrayList<>();
 	private final boolean isRemovingKillerBunny;
+	private final Deque<PendingChunk> pendingChunks = new ArrayDeque<>();
+	private boolean skipRemovalEvent;
+
+	@Desugar
+	private record PendingChunk(TownyWorld townyWorld, Chunk chunk) {}
 
 	public MobRemovalTimerTask(Towny plugin) {
 		super(plugin);
 
-		classesOfWorldMobsToRemove = EntityTypeUtil.parseLivingEntityClassNames(TownySettings.getWorldMobRemovalEntities(), "WorldMob: ");
-		classesOfWildernessMobsToRemove = EntityTypeUtil.parseLivingEntityClassNames(TownySettings.getWildernessMobRemovalEntities(),"WildernessMob: ");
-		classesOfTownMobsToRemove = EntityTypeUtil.parseLivingEntityClassNames(TownySettings.getTownMobRemovalEntities(), "TownMob: ");
 		isRemovingKillerBunny = TownySettings.isRemovingKillerBunny();
 	}
 
 	public static boolean isRemovingWorldEntity(LivingEntity livingEntity) {
-		return EntityTypeUtil.isInstanceOfAny(classesOfWorldMobsToRemove, livingEntity);
+		return EntityTypeUtil.isRemovingWorldEntity(livingEntity);
 	}
-	
+
 	public static boolean isRemovingWildernessEntity(LivingEntity livingEntity) {
-		return  EntityTypeUtil.isInstanceOfAny(classesOfWildernessMobsToRemove, livingEntity);
+		return EntityTypeUtil.isRemovingWildernessEntity(livingEntity);
 	}
 
 	public static boolean isRemovingTownEntity(LivingEntity livingEntity) {
-		return EntityTypeUtil.isInstanceOfAny(classesOfTownMobsToRemove, livingEntity);
+		return EntityTypeUtil.isRemovingTownEntity(livingEntity);
 	}
 
 	@Override
 	public void run() {
-		final boolean skipRemovalEvent = MobRemovalEvent.getHandlerList().getRegisteredListeners().length == 0;
+		// The last sweep is still going, let it finish rather than starting over.
+		if (!pendingChunks.isEmpty())
+			return;
 
 		for (World world : Bukkit.getWorlds()) {
 			// Filter worlds not using towny.
@@ -63,67 +88,109 @@ public class MobRemovalTimerTask extends TownyTimerTask {
 			if (townyWorld.isForceTownMobs() && townyWorld.hasWorldMobs())
 				continue;
 
-			final List<LivingEntity> entities = world.getLivingEntities();
-			Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-				// Build a list of mobs to be removed
-				List<LivingEntity> entitiesToRemove = new ArrayList<>();
-
-				for (LivingEntity entity : entities) {
-					Location livingEntityLoc = entity.getLocation();
-
-					// Check if entity is a Citizens NPC
-					if (BukkitTools.checkCitizens(entity))
-						continue;
-
-					// Handles entities Globally.
-					if (!townyWorld.hasWorldMobs() && isRemovingWorldEntity(entity)) {
-						entitiesToRemove.add(entity);
-						continue;
-					}
-
-					// Handles entities in the wilderness.
-					if (TownyAPI.getInstance().isWilderness(livingEntityLoc)) {
-						if (townyWorld.hasWildernessMobs() || !isRemovingWildernessEntity(entity))
-							continue;
-					} else {
-						// The entity is inside of a town.
-						TownBlock townBlock = TownyAPI.getInstance().getTownBlock(livingEntityLoc);
-
-						// Check if mobs are always allowed inside towns in this world.
-						if (townyWorld.isForceTownMobs() || townBlock.getPermissions().mobs)
-							continue;
-
-						// Check that Towny is removing this type of entity inside towns.
-						if (!isRemovingTownEntity(entity))
-							continue;
-					}
-
-					if (TownySettings.isSkippingRemovalOfNamedMobs() && entity.getCustomName() != null)
-						continue;
-
-					// Special check if it's a rabbit, for the Killer Bunny variant.
-					if (entity instanceof Rabbit rabbit) {
-						if (isRemovingKillerBunny && rabbit.getRabbitType() == Rabbit.Type.THE_KILLER_BUNNY) {
-							entitiesToRemove.add(entity);
-							continue;
-						}
-					}
-
-					// Ensure the entity hasn't been removed since
-					if (entity.isDead())
-						continue;
-
-					if (!skipRemovalEvent && BukkitTools.isEventCancelled(new MobRemovalEvent(entity)))
-						continue;
-
-					entitiesToRemove.add(entity);
+			for (Chunk chunk : world.getLoadedChunks())
+				pendingChunks.add(new PendingChunk(townyWorld, chunk));
+		}
+
+		if (pendingChunks.isEmpty())
+			return;
+
+		skipRemovalEvent = MobRemovalEvent.getHandlerList().getRegisteredListeners().length == 0;
+		runSlice();
+	}
+
+	private void runSlice() {
+		// Mob removal was turned off, or Towny reloaded, part way through the sweep.
+		if (!TownyTimerHandler.isMobRemovalRunning()) {
+			pendingChunks.clear();
+			return;
+		}
+
+		long deadline = System.nanoTime() + SLICE_BUDGET_NANOS;
+		while (!pendingChunks.isEmpty() && System.nanoTime() < deadline) {
+			PendingChunk pending = pendingChunks.poll();
+			if (pending.chunk().isLoaded())
+				removeMobs(pending.townyWorld(), pending.chunk());
+		}
+
+		if (!pendingChunks.isEmpty())
+			Bukkit.getScheduler().runTask(plugin, this::runSlice);
+	}
+
+	private void removeMobs(TownyWorld townyWorld, Chunk chunk) {
+		final boolean removingWorldMobs = !townyWorld.hasWorldMobs();
+		final boolean removingWildernessMobs = !townyWorld.hasWildernessMobs();
+
+		// Look up each townblock cell that the chunk covers, once.
+		final int minCellX = Coord.toCell(chunk.getX() << 4);
+		final int minCellZ = Coord.toCell(chunk.getZ() << 4);
+		final int width = Coord.toCell((chunk.getX() << 4) + 15) - minCellX + 1;
+		final int depth = Coord.toCell((chunk.getZ() << 4) + 15) - minCellZ + 1;
+		final TownBlock[] cells = new TownBlock[width * depth];
+		boolean claimed = false;
+		for (int x = 0; x < width; x++)
+			for (int z = 0; z < depth; z++) {
+				TownBlock townBlock = townyWorld.getTownBlockOrNull(minCellX + x, minCellZ + z);
+				cells[x + z * width] = townBlock;
+				claimed |= townBlock != null && townBlock.hasTown();
+			}
+
+		// Nothing in an unclaimed chunk can be removed unless the world or the wilderness is removing mobs.
+		if (!claimed && !removingWorldMobs && !removingWildernessMobs)
+			return;
+
+		for (Entity chunkEntity : chunk.getEntities()) {
+			if (!(chunkEntity instanceof LivingEntity entity) || entity.isDead())
+				continue;
+
+			// Check if entity is a Citizens NPC
+			if (BukkitTools.checkCitizens(entity))
+				continue;
+
+			// Handles entities Globally.
+			if (removingWorldMobs && isRemovingWorldEntity(entity)) {
+				entity.remove();
+				continue;
+			}
+
+			Location livingEntityLoc = entity.getLocation();
+			int cellX = Coord.toCell(livingEntityLoc.getBlockX()) - minCellX;
+			int cellZ = Coord.toCell(livingEntityLoc.getBlockZ()) - minCellZ;
+			TownBlock townBlock = cellX >= 0 && cellX < width && cellZ >= 0 && cellZ < depth
+				? cells[cellX + cellZ * width]
+				: townyWorld.getTownBlockOrNull(cellX + minCellX, cellZ + minCellZ);
+
+			// Handles entities in the wilderness.
+			if (townBlock == null || !townBlock.hasTown()) {
+				if (!removingWildernessMobs || !isRemovingWildernessEntity(entity))
+					continue;
+			} else {
+				// The entity is inside of a town.
+
+				// Check if mobs are always allowed inside towns in this world.
+				if (townyWorld.isForceTownMobs() || townBlock.getPermissions().mobs)
+					continue;
+
+				// Check that Towny is removing this type of entity inside towns.
+				if (!isRemovingTownEntity(entity))
+					continue;
+			}
+
+			if (TownySettings.isSkippingRemovalOfNamedMobs() && entity.getCustomName() != null)
+				continue;
+
+			// Special check if it's a rabbit, for the Killer Bunny variant.
+			if (entity instanceof Rabbit rabbit) {
+				if (isRemovingKillerBunny && rabbit.getRabbitType() == Rabbit.Type.THE_KILLER_BUNNY) {
+					entity.remove();
+					continue;
 				}
-				
-				Bukkit.getScheduler().runTask(plugin, () -> {
-					for (LivingEntity entity : entitiesToRemove)
-						entity.remove();
-				});
-			});
+			}
+
+			if (!skipRemovalEvent && BukkitTools.isEventCancelled(new MobRemovalEvent(entity)))
+				continue;
+
+			entity.remove();
 		}
 	}
 }
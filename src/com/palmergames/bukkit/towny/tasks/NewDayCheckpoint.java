@@ -0,0 +1,220 @@
+package com.palmergames.bukkit.towny.tasks;
+
+import com.palmergames.bukkit.towny.Towny;
+import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.TownyUniverse;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Records which towns and nations have already been charged during a new day.
+ * <p>
+ * Every single charge is written to the checkpoint file just before it is
+ * made, and every town or nation once it has been processed for a phase, and the file is deleted once the new day has finished. If the
+ * server stops part way through, the file is left behind and the new day is
+ * finished on the next startup, skipping everything already written, so a
+ * town stopped half way through its residents' taxes isn't charged twice.
+ * <p>
+ * The file starts with the time the new day began, followed by one
+ * {@code PHASE uuid} line for each town or nation that has been processed
+ * and one {@code PHASE uuid charge} line for each charge made.
+ */
+class NewDayCheckpoint {
+
+	enum Phase {
+		TOWN_TAXES,
+		NATION_TAXES,
+		TOWN_COSTS,
+		NATION_COSTS,
+		CONQUERED_DAYS
+	}
+
+	private final Path path;
+	private final long started;
+	// Entries read back from an interrupted new day, or made since, as "uuid" or "uuid charge".
+	private final Map<Phase, Set<String>> done = new EnumMap<>(Phase.class);
+	private BufferedWriter writer;
+
+	private NewDayCheckpoint(Path path, long started) {
+		this.path = path;
+		this.started = started;
+		for (Phase phase : Phase.values())
+			done.put(phase, new HashSet<>());
+	}
+
+	/**
+	 * Starts a new checkpoint, throwing away any which was left behind.
+	 *
+	 * @return a new empty checkpoint.
+	 */
+	static NewDayCheckpoint start() {
+		NewDayCheckpoint checkpoint = new NewDayCheckpoint(getPath(), System.currentTimeMillis());
+		checkpoint.open(StandardOpenOption.TRUNCATE_EXISTING);
+		return checkpoint;
+	}
+
+	/**
+	 * Loads the checkpoint left behind by an interrupted new day, so that it can be finished.
+	 *
+	 * @return the interrupted checkpoint, or a new empty one if there isn't one to resume.
+	 */
+	static NewDayCheckpoint resume() {
+		Path path = getPath();
+		if (!Files.exists(path))
+			return start();
+
+		try {
+			List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+			NewDayCheckpoint checkpoint = new NewDayCheckpoint(path, Long.parseLong(lines.get(0).trim()));
+			for (String line : lines.subList(1, lines.size())) {
+				String[] split = line.trim().split(" ", 2);
+				if (split.length == 2)
+					checkpoint.done.get(Phase.valueOf(split[0])).add(split[1]);
+			}
+			checkpoint.open(StandardOpenOption.APPEND);
+			return checkpoint;
+		} catch (IOException | RuntimeException e) {
+			Towny.getPlugin().getLogger().log(Level.WARNING, "Could not read the new day checkpoint, starting the new day from the beginning.", e);
+			return start();
+		}
+	}
+
+	/**
+	 * @return true if a new day was interrupted recently enough that it should still be finished.
+	 */
+	static boolean hasInterruptedNewDay() {
+		Path path = getPath();
+		if (!Files.exists(path))
+			return false;
+
+		try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			long started = Long.parseLong(reader.readLine().trim());
+			// Once a whole day has passed since it began, the next new day has already taken its place.
+			return System.currentTimeMillis() - started < TimeUnit.SECONDS.toMillis(TownySettings.getDayInterval());
+		} catch (IOException | RuntimeException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @return true if this checkpoint carries on from an interrupted new day.
+	 */
+	boolean isResumed() {
+		return done.values().stream().anyMatch(set -> !set.isEmpty());
+	}
+
+	/**
+	 * @param phase Phase of the new day.
+	 * @param uuid UUID of the town or nation.
+	 * @return true if the town or nation has already been processed for the phase.
+	 */
+	synchronized boolean isDone(Phase phase, UUID uuid) {
+		return uuid != null && done.get(phase).contains(uuid.toString());
+	}
+
+	/**
+	 * @param phase Phase of the new day.
+	 * @param uuid UUID of the town or nation the charge is made for.
+	 * @param charge Identifies the charge within the town or nation, ie: the resident paying it.
+	 * @return true if the charge was already made before the new day was interrupted.
+	 */
+	synchronized boolean isDone(Phase phase, UUID uuid, String charge) {
+		return uuid != null && done.get(phase).contains(uuid + " " + charge);
+	}
+
+	/**
+	 * Records that the town or nation has been processed for the phase, writing it out straight away.
+	 *
+	 * @param phase Phase of the new day.
+	 * @param uuid UUID of the town or nation.
+	 */
+	synchronized void markDone(Phase phase, UUID uuid) {
+		if (uuid != null && done.get(phase).add(uuid.toString()))
+			write(phase, uuid.toString());
+	}
+
+	/**
+	 * Records that a single charge has been made, writing it out straight away.
+	 * Charges are only kept in memory when read back from an interrupted new
+	 * day, as each is only made once within a run.
+	 *
+	 * @param phase Phase of the new day.
+	 * @param uuid UUID of the town or nation the charge is made for.
+	 * @param charge Identifies the charge within the town or nation, ie: the resident paying it.
+	 */
+	synchronized void markDone(Phase phase, UUID uuid, String charge) {
+		if (uuid != null)
+			write(phase, uuid + " " + charge);
+	}
+
+	private void write(Phase phase, String entry) {
+		if (writer == null)
+			return;
+
+		try {
+			writer.write(phase.name() + " " + entry);
+			writer.newLine();
+			writer.flush();
+		} catch (IOException e) {
+			Towny.getPlugin().getLogger().log(Level.WARNING, "Could not write to the new day checkpoint.", e);
+		}
+	}
+
+	/**
+	 * Closes and deletes the checkpoint, once the new day has finished.
+	 */
+	synchronized void finish() {
+		close();
+		try {
+			Files.deleteIfExists(path);
+		} catch (IOException e) {
+			Towny.getPlugin().getLogger().log(Level.WARNING, "Could not delete the new day checkpoint.", e);
+		}
+	}
+
+	private void open(StandardOpenOption option) {
+		try {
+			Files.createDirectories(path.getParent());
+			if (option == StandardOpenOption.APPEND) {
+				writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+			} else {
+				writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+				writer.write(String.valueOf(started));
+				writer.newLine();
+				writer.flush();
+			}
+		} catch (IOException e) {
+			Towny.getPlugin().getLogger().log(Level.WARNING, "Could not create the new day checkpoint, an interrupted new day will not be resumed.", e);
+			close();
+		}
+	}
+
+	private void close() {
+		if (writer == null)
+			return;
+
+		try {
+			writer.close();
+		} catch (IOException ignored) {}
+		writer = null;
+	}
+
+	private static Path getPath() {
+		return new File(TownyUniverse.getInstance().getRootFolder() + File.separator + "data" + File.separator + "newday.checkpoint").toPath();
+	}
+}
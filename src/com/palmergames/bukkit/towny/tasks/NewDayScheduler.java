@@ -33,11 +33,19 @@ public class NewDayScheduler extends TownyTimerTask {
 	private static Timer newDayTimer;
 	private static int scheduleTask = -1;
 	private static int newDayTask = -1;
+	private static boolean checkedForInterruptedNewDay = false;
 	
 	@Override
 	public void run() {
 		logTime();
 		cancelScheduledNewDay();
+
+		// Finish a new day which was cut short by the server stopping, once per startup.
+		if (!checkedForInterruptedNewDay) {
+			checkedForInterruptedNewDay = true;
+			if (DailyTimerTask.hasInterruptedNewDay())
+				resumeInterruptedNewDay();
+		}
 		
 		newDayInterval = TownySettings.getDayInterval();
 
@@ -122,6 +130,14 @@ public class NewDayScheduler extends TownyTimerTask {
 			TownyMessaging.sendErrorMsg("Could not run newDay.");
 	}
 	
+	private void resumeInterruptedNewDay() {
+		TownyMessaging.sendDebugMsg("Resuming a new day which was interrupted before it could finish.");
+		if (TownySettings.isEconomyAsync())
+			Bukkit.getScheduler().runTaskAsynchronously(plugin, new DailyTimerTask(plugin, true));
+		else
+			Bukkit.getScheduler().runTask(plugin, new DailyTimerTask(plugin, true));
+	}
+	
 	public static void logTime() {
 		Towny.getPlugin().getLogger().info("Time until a New Day: " + TimeMgmt.formatCountdownTime(TimeMgmt.townyTime()));
 	}
@@ -142,6 +142,9 @@ public class OnPlayerLogin implements Runnable {
 
 		if (resident != null) {
 			TownyPerms.assignPermissions(resident, player);
+
+			if (resident.hasTown() && player.isOnline())
+				resident.getTownOrNull().setResidentOnline(resident, true);
 				
 			if (resident.hasTown()) {
 				Town town = resident.getTownOrNull();
@@ -181,7 +181,6 @@ public class PlotClaim extends Thread {
 		}
 		
 		resident.save();
-		plugin.resetCache();
 
 	}
 
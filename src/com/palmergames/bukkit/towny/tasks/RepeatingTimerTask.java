@@ -5,11 +5,15 @@ import org.bukkit.Bukkit;
 import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.regen.PlotBlockData;
 import com.palmergames.bukkit.towny.regen.TownyRegenAPI;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 public class RepeatingTimerTask extends TownyTimerTask {
 
 	public RepeatingTimerTask(Towny plugin) {
@@ -18,11 +22,12 @@ public class RepeatingTimerTask extends TownyTimerTask {
 	}
 
 	private Long timerCounter = 0L;
+	private int nextPlot = 0;
 
 	@Override
 	public void run() {
 
-		// Perform a single block regen in each regen area, if any are left to do.
+		// Revert the regen areas as far as the time budget allows, if any are left to do.
 		if (TownyRegenAPI.hasActiveRegenerations()) {
 			revertAnotherBlockToWilderness();
 		}
@@ -52,9 +57,31 @@ public class RepeatingTimerTask extends TownyTimerTask {
 		if (Math.max(1L, TownySettings.getPlotManagementSpeed()) > ++timerCounter)
 			return;
 
-		for (PlotBlockData plotBlockData : TownyRegenAPI.getActivePlotBlockDatas())
-			if (plotBlockData != null && !plotBlockData.restoreNextBlock())
+		List<PlotBlockData> plotBlockDatas = TownyRegenAPI.getActivePlotBlockDatas();
+		int plots = plotBlockDatas.size();
+		long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(Math.max(1L, TownySettings.getPlotManagementRevertTimeBudget()));
+
+		// Start where the last run ran out of time, so every plot gets its turn.
+		int first = plots == 0 ? 0 : nextPlot % plots;
+		nextPlot = first + 1;
+		for (int i = 0; i < plots; i++) {
+			long now = System.nanoTime();
+			if (now >= deadline) {
+				nextPlot = first + i;
+				break;
+			}
+
+			PlotBlockData plotBlockData = plotBlockDatas.get((first + i) % plots);
+			if (plotBlockData == null)
+				continue;
+
+			// Each plot gets an even share of whatever is left of the budget.
+			if (!plotBlockData.restoreBlocks(now + (deadline - now) / (plots - i)))
 				TownyRegenAPI.finishPlotBlockData(plotBlockData);
+			else
+				TownyMessaging.sendDebugMsg(String.format("Reverting %s %d,%d: %d blocks checked (%.1f%%), %d blocks reverted.", plotBlockData.getWorldName(),
+					plotBlockData.getX(), plotBlockData.getZ(), plotBlockData.getBlocksChecked(), plotBlockData.getRestoreProgress() * 100, plotBlockData.getBlocksReverted()));
+		}
 
 		timerCounter = 0L;
 	}
@@ -65,14 +92,27 @@ public class RepeatingTimerTask extends TownyTimerTask {
 		if (townBlock == null)
 			return;
 		PlotBlockData plotChunk = new PlotBlockData(townBlock);
-		plotChunk.initialize(); // Create a new snapshot.
-		if (!plotChunk.getBlockList().isEmpty() && !(plotChunk.getBlockList() == null))
-			TownyRegenAPI.addPlotChunkSnapshot(plotChunk); // Save the snapshot.
-		plotChunk = null;
-		
-		townBlock.setLocked(false);
-		townBlock.save();
-		plugin.updateCache(townBlock.getWorldCoord());
+		plotChunk.captureChunks(); // Copy the chunks on the main thread.
+		Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+			plotChunk.initializeFromChunks(); // Create a new snapshot from the copies.
+			Bukkit.getScheduler().runTask(plugin, () -> finishPlotSnapshot(townBlock, plotChunk));
+		});
+	}
+
+	/**
+	 * Saves a snapshot made by {@link #makeNextPlotSnapshot()} and unlocks its
+	 * townblock, which stays locked until the snapshot is saved.
+	 */
+	private void finishPlotSnapshot(TownBlock townBlock, PlotBlockData plotChunk) {
+		// Don't save a townblock, or its snapshot, which was unclaimed while the snapshot was made.
+		if (TownyUniverse.getInstance().getTownBlockOrNull(townBlock.getWorldCoord()) == townBlock) {
+			if (!plotChunk.getBlockPalette().isEmpty())
+				TownyRegenAPI.addPlotChunkSnapshot(plotChunk); // Save the snapshot.
+
+			townBlock.setLocked(false);
+			townBlock.save();
+			plugin.updateCache(townBlock.getWorldCoord());
+		}
 
 		if (!TownyRegenAPI.hasWorldCoords())
 			TownyMessaging.sendDebugMsg("Plot snapshots completed.");
@@ -8,6 +8,7 @@ import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Translatable;
 import com.palmergames.bukkit.towny.object.Translation;
+import com.palmergames.bukkit.towny.tasks.CooldownTimerTask.CooldownType;
 import io.papermc.lib.PaperLib;
 
 import org.bukkit.Location;
@@ -48,7 +49,7 @@ public class TeleportWarmupTimerTask extends TownyTimerTask {
 				if (p != null) {
 					PaperLib.teleportAsync(p, resident.getTeleportDestination(), TeleportCause.COMMAND);
 					if (cooldown > 0)
-						CooldownTimerTask.addCooldownTimer(resident.getName(), "teleport", cooldown);
+						CooldownTimerTask.addCooldownTimer(resident.getUUID(), CooldownType.TELEPORT, cooldown);
 				}
 				
 				teleportQueue.poll();
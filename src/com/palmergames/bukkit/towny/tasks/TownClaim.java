@@ -150,8 +150,6 @@ public class TownClaim extends Thread {
 			}
 		}
 
-		plugin.resetCache();
-
 		if (player != null) {
 			if (claim) {
 				TownyMessaging.sendMsg(player, Translatable.of("msg_annexed_area", (selection.size() > 5) ? "Total TownBlocks: " + selection.size() : Arrays.toString(selection.toArray(new WorldCoord[0]))));
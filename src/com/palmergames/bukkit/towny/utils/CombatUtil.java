@@ -16,6 +16,8 @@ import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.TownBlockType;
+import com.palmergames.bukkit.towny.object.TownRelation;
+import com.palmergames.bukkit.towny.object.TownRelationCache;
 import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.object.TownyPermission.ActionType;
@@ -190,7 +192,7 @@ public class CombatUtil {
 					/*
 					 * Farm Animals - based on whether this is allowed using the PlayerCache and then a cancellable event.
 					 */
-					if (defenderTB.getType() == TownBlockType.FARM && TownySettings.getFarmAnimals().contains(defendingEntity.getType().toString()))
+					if (defenderTB.getType() == TownBlockType.FARM && EntityTypeUtil.isFarmAnimal(defendingEntity.getType()))
 						return !TownyActionEventExecutor.canDestroy(attackingPlayer, defendingEntity.getLocation(), Material.WHEAT);
 
 					/*
@@ -282,14 +284,14 @@ public class CombatUtil {
 			     * Prevents projectiles fired by non-players harming non-player entities.
 			     * Could be a monster or it could be a dispenser.
 			     */
-				if (projectileAttacker != null && EntityTypeUtil.isInstanceOfAny(TownySettings.getProtectedEntityTypes(), defendingEntity)) {
+				if (projectileAttacker != null && EntityTypeUtil.isProtectedEntity(defendingEntity)) {
 					return true;
 				}
 
 				/*
 				* Allow wolves to attack unprotected entites (such as skeletons), but not protected ones.
 				*/
-				if (attackingEntity instanceof Wolf wolf && EntityTypeUtil.isInstanceOfAny(TownySettings.getProtectedEntityTypes(), defendingEntity)) {
+				if (attackingEntity instanceof Wolf wolf && EntityTypeUtil.isProtectedEntity(defendingEntity)) {
 					if (isATamedWolfWithAOnlinePlayer(wolf)) {
 						Player owner = BukkitTools.getPlayerExact(wolf.getOwner().getName());
 						return !PlayerCacheUtil.getCachePermission(owner, defendingEntity.getLocation(), Material.AIR, ActionType.DESTROY);
@@ -300,7 +302,7 @@ public class CombatUtil {
 					}
 				}
 				
-				if (attackingEntity.getType().name().equals("AXOLOTL") && EntityTypeUtil.isInstanceOfAny(TownySettings.getProtectedEntityTypes(), defendingEntity)) {
+				if (attackingEntity.getType().name().equals("AXOLOTL") && EntityTypeUtil.isProtectedEntity(defendingEntity)) {
 					return true;
 				}
 			}
@@ -479,15 +481,7 @@ public class CombatUtil {
 	 */
 	public static boolean isAlly(Town a, Town b) {
 
-		if (isSameTown(a, b))
-			return true;
-		if (a.hasAlly(b))
-			return true;
-		if (isSameNation(a, b))
-			return true;
-		if (a.hasNation() && b.hasNation() && a.getNationOrNull().hasAlly(b.getNationOrNull()))
-			return true;
-		return false;
+		return TownRelationCache.getRelation(a, b).isAllied();
 	}
 
 	/**
@@ -499,11 +493,8 @@ public class CombatUtil {
 	 */
 	public static boolean isSameNation(Town a, Town b) {
 
-		if (isSameTown(a, b))
-			return true;
-		if (a.hasNation() && b.hasNation() && a.getNationOrNull().equals(b.getNationOrNull()))
-			return true;
-		return false;
+		TownRelation relation = TownRelationCache.getRelation(a, b);
+		return relation == TownRelation.SAME_TOWN || relation == TownRelation.SAME_NATION;
 	}
 
 	/**
@@ -639,15 +630,16 @@ public class CombatUtil {
 	 */
 	public static boolean isEnemy(Town a, Town b) {
 
-		if (a.hasEnemy(b))
+		TownRelation relation = TownRelationCache.getRelation(a, b);
+		if (relation == TownRelation.ENEMY)
 			return true;
-		if (!a.hasNation() || !b.hasNation())
-			return false;
-		if (isSameTown(a, b) || isSameNation(a, b))
+		if (relation == TownRelation.NONE || relation == TownRelation.SAME_TOWN)
 			return false;
-		if (a.getNationOrNull().hasEnemy(b.getNationOrNull()))
+
+		// A stronger relation hides that the town can still list b as an enemy, or that an allied town's nation can be an enemy.
+		if (a.hasEnemy(b))
 			return true;
-		return false;
+		return relation == TownRelation.ALLY && a.hasNation() && b.hasNation() && a.getNationOrNull().hasEnemy(b.getNationOrNull());
 	}
 
 	/**
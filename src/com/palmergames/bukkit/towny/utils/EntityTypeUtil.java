@@ -2,12 +2,15 @@ package com.palmergames.bukkit.towny.utils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.tasks.MobRemovalTimerTask;
 import org.bukkit.Material;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -41,6 +44,24 @@ public class EntityTypeUtil {
 			EntityType.PRIMED_TNT,
 			EntityType.ENDER_CRYSTAL);
 	
+	private static final int PROTECTED = 1;
+	private static final int FARM_ANIMAL = 1 << 1;
+	private static final int WORLD_MOB_REMOVAL = 1 << 2;
+	private static final int WILDERNESS_MOB_REMOVAL = 1 << 3;
+	private static final int TOWN_MOB_REMOVAL = 1 << 4;
+	private static final int EXPLOSIVE = 1 << 5;
+	private static final int PVP_EXPLOSIVE = 1 << 6;
+	private static final int PVM_EXPLOSIVE = 1 << 7;
+	// Set for EntityTypes without an entity class, whose entities have to be checked against the class lists one at a time.
+	private static final int UNRESOLVED = 1 << 8;
+
+	/*
+	 * The flags above for every EntityType, indexed by EntityType#ordinal(),
+	 * so that classifying an entity is a single array read. Rebuilt by
+	 * loadEntityTypeFlags() whenever the config is loaded.
+	 */
+	private static volatile int[] entityTypeFlags = buildEntityTypeFlags(Collections.emptyList());
+
 	public static boolean isInstanceOfAny(List<Class<?>> classes, Object obj) {
 
 		for (Class<?> c : classes)
@@ -50,7 +71,103 @@ public class EntityTypeUtil {
 	}
 	
 	public static boolean isProtectedEntity(Entity entity) {
-		return isInstanceOfAny(TownySettings.getProtectedEntityTypes(), entity);
+		return hasFlag(entity, PROTECTED, TownySettings.getProtectedEntityTypes());
+	}
+
+	/**
+	 * @param entityType EntityType to test.
+	 * @return true if the EntityType is one of the config's farm animals.
+	 */
+	public static boolean isFarmAnimal(EntityType entityType) {
+		return hasFlag(entityType, FARM_ANIMAL);
+	}
+
+	/**
+	 * @param entity Entity to test.
+	 * @return true if Towny removes this kind of entity from worlds which have world mobs disabled.
+	 */
+	public static boolean isRemovingWorldEntity(Entity entity) {
+		return hasFlag(entity, WORLD_MOB_REMOVAL, MobRemovalTimerTask.classesOfWorldMobsToRemove);
+	}
+
+	/**
+	 * @param entity Entity to test.
+	 * @return true if Towny removes this kind of entity from the wilderness when wilderness mobs are disabled.
+	 */
+	public static boolean isRemovingWildernessEntity(Entity entity) {
+		return hasFlag(entity, WILDERNESS_MOB_REMOVAL, MobRemovalTimerTask.classesOfWildernessMobsToRemove);
+	}
+
+	/**
+	 * @param entity Entity to test.
+	 * @return true if Towny removes this kind of entity from towns which have mobs disabled.
+	 */
+	public static boolean isRemovingTownEntity(Entity entity) {
+		return hasFlag(entity, TOWN_MOB_REMOVAL, MobRemovalTimerTask.classesOfTownMobsToRemove);
+	}
+
+	/**
+	 * Parses the mob removal lists and rebuilds the classification of every
+	 * EntityType from them, the protected mobs and the farm animals. Called
+	 * when the config is loaded, after the protected mobs list.
+	 */
+	@ApiStatus.Internal
+	public static void loadEntityTypeFlags() {
+		MobRemovalTimerTask.classesOfWorldMobsToRemove = parseLivingEntityClassNames(TownySettings.getWorldMobRemovalEntities(), "WorldMob: ");
+		MobRemovalTimerTask.classesOfWildernessMobsToRemove = parseLivingEntityClassNames(TownySettings.getWildernessMobRemovalEntities(), "WildernessMob: ");
+		MobRemovalTimerTask.classesOfTownMobsToRemove = parseLivingEntityClassNames(TownySettings.getTownMobRemovalEntities(), "TownMob: ");
+		entityTypeFlags = buildEntityTypeFlags(TownySettings.getFarmAnimals());
+	}
+
+	private static int[] buildEntityTypeFlags(List<String> farmAnimals) {
+		EntityType[] entityTypes = EntityType.values();
+		int[] flags = new int[entityTypes.length];
+		List<Class<?>> protectedTypes = TownySettings.getProtectedEntityTypes();
+
+		for (EntityType entityType : entityTypes) {
+			int flag = 0;
+			Class<?> entityClass = entityType.getEntityClass();
+			if (entityClass == null)
+				flag |= UNRESOLVED;
+			else {
+				if (isAssignableToAny(protectedTypes, entityClass))
+					flag |= PROTECTED;
+				if (isAssignableToAny(MobRemovalTimerTask.classesOfWorldMobsToRemove, entityClass))
+					flag |= WORLD_MOB_REMOVAL;
+				if (isAssignableToAny(MobRemovalTimerTask.classesOfWildernessMobsToRemove, entityClass))
+					flag |= WILDERNESS_MOB_REMOVAL;
+				if (isAssignableToAny(MobRemovalTimerTask.classesOfTownMobsToRemove, entityClass))
+					flag |= TOWN_MOB_REMOVAL;
+			}
+			if (farmAnimals.contains(entityType.toString()))
+				flag |= FARM_ANIMAL;
+			if (ExplosiveEntityTypes.contains(entityType))
+				flag |= EXPLOSIVE;
+			if (ExplosivePVPEntityTypes.contains(entityType))
+				flag |= PVP_EXPLOSIVE;
+			if (ExplosivePVMEntityTypes.contains(entityType))
+				flag |= PVM_EXPLOSIVE;
+			flags[entityType.ordinal()] = flag;
+		}
+		return flags;
+	}
+
+	private static boolean isAssignableToAny(List<Class<?>> classes, Class<?> entityClass) {
+		for (Class<?> c : classes)
+			if (c.isAssignableFrom(entityClass))
+				return true;
+		return false;
+	}
+
+	private static boolean hasFlag(EntityType entityType, int flag) {
+		return (entityTypeFlags[entityType.ordinal()] & flag) != 0;
+	}
+
+	private static boolean hasFlag(Entity entity, int flag, List<Class<?>> classes) {
+		int flags = entityTypeFlags[entity.getType().ordinal()];
+		if ((flags & UNRESOLVED) != 0)
+			return isInstanceOfAny(classes, entity);
+		return (flags & flag) != 0;
 	}
 
 	public static List<Class<?>> parseLivingEntityClassNames(List<String> mobClassNames, String errorPrefix) {
@@ -126,7 +243,7 @@ public class EntityTypeUtil {
 	 */
 	public static boolean isExplosive(EntityType entityType) {
 
-		return ExplosiveEntityTypes.contains(entityType);	
+		return hasFlag(entityType, EXPLOSIVE);	
 	}
 	
 	/**
@@ -137,7 +254,7 @@ public class EntityTypeUtil {
 	 */
 	public static boolean isPVPExplosive(EntityType entityType) {
 
-		return ExplosivePVPEntityTypes.contains(entityType);	
+		return hasFlag(entityType, PVP_EXPLOSIVE);	
 	}
 	
 	/**
@@ -148,6 +265,6 @@ public class EntityTypeUtil {
 	 */
 	public static boolean isPVMExplosive(EntityType entityType) {
 
-		return ExplosivePVMEntityTypes.contains(entityType);	
+		return hasFlag(entityType, PVM_EXPLOSIVE);	
 	}
 }
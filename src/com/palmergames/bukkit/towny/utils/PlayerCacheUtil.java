@@ -7,7 +7,6 @@ import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.event.player.PlayerCacheGetTownBlockStatusEvent;
 import com.palmergames.bukkit.towny.exceptions.TownyException;
-import com.palmergames.bukkit.towny.object.Coord;
 import com.palmergames.bukkit.towny.object.Nation;
 import com.palmergames.bukkit.towny.object.PlayerCache;
 import com.palmergames.bukkit.towny.object.PlayerCache.TownBlockStatus;
@@ -65,71 +64,42 @@ public class PlayerCacheUtil {
 	 */
 	public static boolean getCachePermission(Player player, Location location, Material material, ActionType action) {
 
-		WorldCoord worldCoord;
-
-		try {
-			// Test required for portalCreateEvent in WorldListener, player hasn't changed worlds yet.
-			if (location.getWorld().equals(player.getWorld())) 
-				worldCoord = new WorldCoord(player.getWorld().getName(), Coord.parseCoord(location));
-			else 
-				worldCoord = new WorldCoord(location.getWorld().getName(), Coord.parseCoord(location));
-			PlayerCache cache = plugin.getCache(player);
-			cache.updateCoord(worldCoord);
-
-			TownyMessaging.sendDebugMsg("Cache permissions for " + action.toString() + " : " + cache.getCachePermission(material, action));
-			return cache.getCachePermission(material, action); // Throws NullPointerException if the cache is empty
-
-		} catch (NullPointerException e) {
-			// New or old cache permission was null, update it
-
-			// Test required for portalCreateEvent in WorldListener, player hasn't changed worlds yet.
-			if (location.getWorld().equals(player.getWorld())) 
-				worldCoord = new WorldCoord(player.getWorld().getName(), Coord.parseCoord(location));
-			else 
-				worldCoord = new WorldCoord(location.getWorld().getName(), Coord.parseCoord(location));
+		// Use the location's world, for the portalCreateEvent in WorldListener the player hasn't changed worlds yet.
+		WorldCoord worldCoord = WorldCoord.parseWorldCoord(location);
+		PlayerCache cache = plugin.getCache(player);
+		cache.updateCoord(worldCoord);
 
-			TownBlockStatus status = cacheStatus(player, worldCoord, fetchTownBlockStatus(player, worldCoord));
-			triggerCacheCreate(player, location, worldCoord, status, material, action);
+		Boolean cached = cache.getPermissionOrNull(material, action);
+		if (cached != null) {
+			TownyMessaging.sendDebugMsg("Cache permissions for " + action.toString() + " : " + cached);
+			return cached;
+		}
 
-			PlayerCache cache = plugin.getCache(player);
-			cache.updateCoord(worldCoord);
-			
-			TownyMessaging.sendDebugMsg("New Cache Created and updated!");
+		// Nothing cached for this material at this WorldCoord, work it out and cache it.
+		TownBlockStatus status = cacheStatus(player, worldCoord, fetchTownBlockStatus(player, worldCoord));
+		boolean permission = getPermission(player, status, worldCoord, material, action);
+		cachePermission(player, worldCoord, material, action, permission);
 
-			TownyMessaging.sendDebugMsg("New Cache permissions for " + material + ":" + action.toString() + ":" + status.name() + " = " + cache.getCachePermission(material, action));
-			return cache.getCachePermission(material, action);
-		}
+		TownyMessaging.sendDebugMsg("New Cache permissions for " + material + ":" + action.toString() + ":" + status.name() + " = " + permission);
+		return permission;
 	}
 
 	/**
-	 * Generate a new cache for this player/action.
+	 * Update the player cache for the given action's rights at this WorldCoord.
 	 * 
 	 * @param player - Player
-	 * @param location - Location
 	 * @param worldCoord - WorldCoord
-	 * @param status - TownBlockStatus
 	 * @param material - Material
 	 * @param action - ActionType
+	 * @param permission - whether the action is allowed.
 	 */
-	private static void triggerCacheCreate(Player player, Location location, WorldCoord worldCoord, TownBlockStatus status, Material material, ActionType action) {
-
-		switch (action) {
-
-		case BUILD: // BUILD
-			cacheBuild(player, worldCoord, material, getPermission(player, status, worldCoord, material, action));
-			return;
-		case DESTROY: // DESTROY
-			cacheDestroy(player, worldCoord, material, getPermission(player, status, worldCoord, material, action));
-			return;
-		case SWITCH: // SWITCH
-			cacheSwitch(player, worldCoord, material, getPermission(player, status, worldCoord, material, action));
-			return;
-		case ITEM_USE: // ITEM_USE
-			cacheItemUse(player, worldCoord, material, getPermission(player, status, worldCoord, material, action));
-			return;
-		default:
-			//for future expansion of permissions
-		}
+	private static void cachePermission(Player player, WorldCoord worldCoord, Material material, ActionType action, boolean permission) {
+
+		PlayerCache cache = plugin.getCache(player);
+		cache.updateCoord(worldCoord);
+		cache.setPermission(material, action, permission);
+
+		TownyMessaging.sendDebugMsg(player.getName() + " (" + worldCoord.toString() + ") Cached " + action.getCommonName() + ": " + permission);
 	}
 	
 	/**
@@ -151,74 +121,6 @@ public class PlayerCacheUtil {
 		return townBlockStatus;
 	}
 
-	/**
-	 * Update the player cache for Build rights at this WorldCoord.
-	 * 
-	 * @param player - Player
-	 * @param worldCoord - WorldCoord
-	 * @param material - Material
-	 * @param buildRight - Boolean
-	 */
-	private static void cacheBuild(Player player, WorldCoord worldCoord, Material material, Boolean buildRight) {
-
-		PlayerCache cache = plugin.getCache(player);
-		cache.updateCoord(worldCoord);
-		cache.setBuildPermission(material, buildRight);
-
-		TownyMessaging.sendDebugMsg(player.getName() + " (" + worldCoord.toString() + ") Cached Build: " + buildRight);
-	}
-
-	/**
-	 * Update the player cache for Destroy rights at this WorldCoord.
-	 * 
-	 * @param player - Player
-	 * @param worldCoord - WorldCoord
-	 * @param material - Material
-	 * @param destroyRight - Boolean
-	 */
-	private static void cacheDestroy(Player player, WorldCoord worldCoord, Material material, Boolean destroyRight) {
-
-		PlayerCache cache = plugin.getCache(player);
-		cache.updateCoord(worldCoord);
-		cache.setDestroyPermission(material, destroyRight);
-
-		TownyMessaging.sendDebugMsg(player.getName() + " (" + worldCoord.toString() + ") Cached Destroy: " + destroyRight);
-	}
-
-	/**
-	 * Update the player cache for Switch rights at this WorldCoord.
-	 * 
-	 * @param player - Player
-	 * @param worldCoord - WorldCoord
-	 * @param material - Material
-	 * @param switchRight - Boolean
-	 */
-	private static void cacheSwitch(Player player, WorldCoord worldCoord, Material material, Boolean switchRight) {
-
-		PlayerCache cache = plugin.getCache(player);
-		cache.updateCoord(worldCoord);
-		cache.setSwitchPermission(material, switchRight);
-
-		TownyMessaging.sendDebugMsg(player.getName() + " (" + worldCoord.toString() + ") Cached Switch: " + switchRight);
-	}
-
-	/**
-	 * Update the player cache for Item_use rights at this WorldCoord.
-	 * 
-	 * @param player - Player
-	 * @param worldCoord - WorldCoord
-	 * @param material - Material
-	 * @param itemUseRight - Boolean
-	 */
-	private static void cacheItemUse(Player player, WorldCoord worldCoord, Material material, Boolean itemUseRight) {
-
-		PlayerCache cache = plugin.getCache(player);
-		cache.updateCoord(worldCoord);
-		cache.setItemUsePermission(material, itemUseRight);
-
-		TownyMessaging.sendDebugMsg(player.getName() + " (" + worldCoord.toString() + ") Cached Item Use: " + itemUseRight);
-	}
-
 	/**
 	 * Update the cached BlockErrMsg for this player.
 	 * 
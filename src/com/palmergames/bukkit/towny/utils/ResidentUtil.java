@@ -53,7 +53,7 @@ public class ResidentUtil {
 	 * @return - List of residents that can actually be seen.
 	 */
 	public static List<Resident> getOnlineResidentsViewable(Player viewer, ResidentList residentList) {
-		return residentList.getResidents().stream()
+		return residentList.getOnlineResidents().stream()
 			.filter(res -> viewer != null ?  res.isOnline() && viewer.canSee(res.getPlayer()) : res.isOnline())
 			.collect(Collectors.toList());
 	}
@@ -285,9 +285,9 @@ public class ResidentUtil {
 		boolean hasBypassNode = outlaw.hasPermissionNode(PermissionNodes.TOWNY_ADMIN_OUTLAW_TELEPORT_BYPASS.getNode());
 		
 		// Admins are omitted so towns won't be informed an admin might be spying on them.
-		if (TownySettings.doTownsGetWarnedOnOutlaw() && !hasBypassNode && !CooldownTimerTask.hasCooldown(outlaw.getName(), CooldownType.OUTLAW_WARNING)) {
+		if (TownySettings.doTownsGetWarnedOnOutlaw() && !hasBypassNode && !CooldownTimerTask.hasCooldown(outlaw.getUUID(), CooldownType.OUTLAW_WARNING)) {
 			if (TownySettings.getOutlawWarningMessageCooldown() > 0)
-				CooldownTimerTask.addCooldownTimer(outlaw.getName(), CooldownType.OUTLAW_WARNING);
+				CooldownTimerTask.addCooldownTimer(outlaw.getUUID(), CooldownType.OUTLAW_WARNING);
 			TownyMessaging.sendPrefixedTownMessage(town, Translatable.of("msg_outlaw_town_notify", outlaw.getFormattedName()));
 		}
 		// If outlaws can enter towns OR the outlaw has towny.admin.outlaw.teleport_bypass perm, player is warned but not teleported.
@@ -38,6 +38,7 @@ import com.palmergames.bukkit.towny.object.EconomyAccount;
 import com.palmergames.bukkit.towny.object.TownyObject;
 import com.palmergames.bukkit.towny.permissions.PermissionNodes;
 import com.palmergames.bukkit.towny.tasks.CooldownTimerTask;
+import com.palmergames.bukkit.towny.tasks.CooldownTimerTask.CooldownType;
 import com.palmergames.bukkit.util.BukkitTools;
 
 public class SpawnUtil {
@@ -186,8 +187,8 @@ public class SpawnUtil {
 			throw new TownyException(Translatable.of("msg_err_not_registered_1", player.getName()));
 			
 		// Test if the resident is in a teleport cooldown.
-		if (CooldownTimerTask.hasCooldown(resident.getName(), "teleport"))
-			throw new TownyException(Translatable.of("msg_err_cannot_spawn_x_seconds_remaining", CooldownTimerTask.getCooldownRemaining(resident.getName(), "teleport")));
+		if (CooldownTimerTask.hasCooldown(resident.getUUID(), CooldownType.TELEPORT))
+			throw new TownyException(Translatable.of("msg_err_cannot_spawn_x_seconds_remaining", CooldownTimerTask.getCooldownRemaining(resident.getUUID(), CooldownType.TELEPORT)));
 
 		// Disallow jailed players from teleporting.
 		if (resident.isJailed())
@@ -578,7 +579,7 @@ public class SpawnUtil {
 				player.getVehicle().eject();
 			PaperLib.teleportAsync(player, spawnLoc, TeleportCause.COMMAND);
 			if (cooldown > 0 && !hasPerm(player, PermissionNodes.TOWNY_SPAWN_ADMIN_NOCOOLDOWN))
-				CooldownTimerTask.addCooldownTimer(player.getName(), "teleport", cooldown);
+				CooldownTimerTask.addCooldownTimer(player.getUniqueId(), CooldownType.TELEPORT, cooldown);
 		}
 	}
 
@@ -9,6 +9,7 @@ import org.bukkit.block.BlockFace;
 import org.bukkit.entity.Player;
 
 import com.palmergames.bukkit.towny.TownyUniverse;
+import com.palmergames.bukkit.towny.object.Coord;
 import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.TownBlock;
@@ -108,7 +109,9 @@ public class BlockUtil {
 	}
 
 	public static boolean sameWorldCoord(Block b1, Block b2) {
-		return sameWorldCoord(WorldCoord.parseWorldCoord(b1), WorldCoord.parseWorldCoord(b2));
+		return b1.getWorld().equals(b2.getWorld())
+				&& Coord.toCell(b1.getX()) == Coord.toCell(b2.getX())
+				&& Coord.toCell(b1.getZ()) == Coord.toCell(b2.getZ());
 	}
 	
 	public static boolean sameWorldCoord(WorldCoord wc, WorldCoord wc2) {
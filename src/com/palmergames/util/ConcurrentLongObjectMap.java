@@ -0,0 +1,170 @@
+package com.palmergames.util;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An open-addressing hash map keyed by primitive longs, which never boxes its
+ * keys or allocates on lookup.
+ * <p>
+ * Reads are lock-free and may run on any thread, writes are serialized on the
+ * map. Removed entries are left behind as tombstones, so a slot's key never
+ * changes while a reader may be looking at it; tombstones are dropped when the
+ * table is rebuilt.
+ *
+ * @param <V> Type of the values, which may not be null.
+ */
+public class ConcurrentLongObjectMap<V> {
+
+	private static final int MIN_CAPACITY = 16;
+	private static final Object TOMBSTONE = new Object();
+
+	private volatile Table table = new Table(MIN_CAPACITY);
+	private volatile int size = 0;
+	// Live entries plus tombstones in the current table, guarded by this.
+	private int used = 0;
+
+	private static final class Table {
+		private final long[] keys;
+		private final AtomicReferenceArray<Object> values;
+		private final int mask;
+
+		private Table(int capacity) {
+			this.keys = new long[capacity];
+			this.values = new AtomicReferenceArray<>(capacity);
+			this.mask = capacity - 1;
+		}
+	}
+
+	private static int hash(long key) {
+		final long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * @param key Key to look up.
+	 * @return the value mapped to the key, or null if there is none.
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		final Table t = table;
+		for (int i = hash(key) & t.mask; ; i = (i + 1) & t.mask) {
+			// The value is read first: it is published after its key, so a non-null value means the key is visible.
+			final Object value = t.values.get(i);
+			if (value == null)
+				return null;
+			if (value != TOMBSTONE && t.keys[i] == key)
+				return (V) value;
+		}
+	}
+
+	public boolean containsKey(long key) {
+		return get(key) != null;
+	}
+
+	/**
+	 * @param key Key to map the value to.
+	 * @param value Value to store.
+	 * @return the value previously mapped to the key, or null if there was none.
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized V put(long key, V value) {
+		Objects.requireNonNull(value);
+		Table t = table;
+		int i = hash(key) & t.mask;
+		for (; ; i = (i + 1) & t.mask) {
+			final Object existing = t.values.get(i);
+			if (existing == null)
+				break;
+			if (existing != TOMBSTONE && t.keys[i] == key) {
+				t.values.set(i, value);
+				return (V) existing;
+			}
+		}
+
+		if ((used + 1) * 2 > t.keys.length) {
+			t = rebuild(size + 1);
+			i = hash(key) & t.mask;
+			while (t.values.get(i) != null)
+				i = (i + 1) & t.mask;
+		}
+
+		t.keys[i] = key;
+		t.values.set(i, value);
+		used++;
+		size++;
+		return null;
+	}
+
+	/**
+	 * @param key Key to remove.
+	 * @return the value which was mapped to the key, or null if there was none.
+	 */
+	public synchronized V remove(long key) {
+		return remove(key, null);
+	}
+
+	/**
+	 * Removes the key only if it is currently mapped to the given value.
+	 *
+	 * @param key Key to remove.
+	 * @param value Value the key must be mapped to, or null to remove whatever is mapped.
+	 * @return the value which was removed, or null if nothing was removed.
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized V remove(long key, Object value) {
+		final Table t = table;
+		for (int i = hash(key) & t.mask; ; i = (i + 1) & t.mask) {
+			final Object existing = t.values.get(i);
+			if (existing == null)
+				return null;
+			if (existing != TOMBSTONE && t.keys[i] == key) {
+				if (value != null && existing != value)
+					return null;
+				t.values.set(i, TOMBSTONE);
+				size--;
+				return (V) existing;
+			}
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public synchronized void clear() {
+		table = new Table(MIN_CAPACITY);
+		used = 0;
+		size = 0;
+	}
+
+	/*
+	 * Copies the live entries into a new table with room for at least the given
+	 * number of entries, and publishes it to readers.
+	 */
+	private Table rebuild(int expected) {
+		int capacity = MIN_CAPACITY;
+		while (capacity < expected * 4)
+			capacity <<= 1;
+
+		final Table old = table;
+		final Table t = new Table(capacity);
+		for (int j = 0; j < old.keys.length; j++) {
+			final Object value = old.values.get(j);
+			if (value == null || value == TOMBSTONE)
+				continue;
+			int i = hash(old.keys[j]) & t.mask;
+			while (t.values.get(i) != null)
+				i = (i + 1) & t.mask;
+			t.keys[i] = old.keys[j];
+			t.values.set(i, value);
+		}
+		used = size;
+		table = t;
+		return t;
+	}
+}
@@ -1,6 +1,7 @@
 package com.palmergames.util;
 
 import com.palmergames.bukkit.towny.Towny;
+import com.palmergames.bukkit.towny.regen.BlockPalette;
 import com.palmergames.bukkit.towny.regen.PlotBlockData;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
@@ -21,7 +22,6 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Properties;
@@ -450,9 +450,24 @@ public final class FileMgmt {
 				fout.write(data.getVersion());
 				// Write the plot height (who knows Mojang might change it a second time.
 				fout.writeInt(data.getHeight());
-				// Write the actual blocks with their BlockData included.
-				for (String block : new ArrayList<>(data.getBlockList()))
-					fout.writeUTF(block);
+				BlockPalette blocks = data.getBlockPalette();
+				if (data.getVersion() < 5) {
+					// Write the actual blocks with their BlockData included.
+					for (String block : blocks.toList())
+						fout.writeUTF(block);
+				} else {
+					// Write the world's min height, then each distinct BlockData once, then the bit-packed indexes into them.
+					fout.writeInt(data.getMinHeight());
+					fout.writeInt(blocks.getStates().size());
+					for (String state : blocks.getStates())
+						fout.writeUTF(state);
+					fout.writeByte(blocks.getBitsPerEntry());
+					fout.writeInt(blocks.size());
+					long[] packed = blocks.getData();
+					fout.writeInt(packed.length);
+					for (long entries : packed)
+						fout.writeLong(entries);
+				}
 			}
 		} catch (IOException e1) {
 			e1.printStackTrace();
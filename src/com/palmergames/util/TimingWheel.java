@@ -0,0 +1,221 @@
+package com.palmergames.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * A hierarchical timing wheel, holding values which expire after a delay.
+ * <p>
+ * Every value is kept in a map for lookups, and linked into the slot of the
+ * wheel that its expiry falls in. The lowest wheel has one slot per tick, and
+ * each wheel above it has slots which span a whole turn of the wheel below.
+ * Adding, looking up and removing a value are O(1), and advancing only visits
+ * the slots which have come due, moving values down a wheel as their expiry
+ * gets close, instead of looking at every value held.
+ * <p>
+ * Lookups compare against the exact expiry time, so a value stops being
+ * returned as soon as it expires, even before the wheel is advanced past it.
+ * All methods may be called from any thread; the expiry handler given to
+ * {@link #advance(long, BiConsumer)} runs on the thread advancing the wheel.
+ *
+ * @param <K> Type of the keys.
+ * @param <V> Type of the values.
+ */
+public class TimingWheel<K, V> {
+
+	private static final int SLOT_BITS = 6;
+	private static final int SLOTS = 1 << SLOT_BITS;
+	private static final int SLOT_MASK = SLOTS - 1;
+	private static final int LEVELS = 4;
+	// Values expiring further away than this are parked in the top wheel until they come into range.
+	private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+	private final long tickMillis;
+	private final Map<K, Node<K, V>> nodes = new HashMap<>();
+	private final Node<K, V>[][] wheels;
+	private long currentTick;
+
+	private static final class Node<K, V> {
+		private final K key;
+		private final V value;
+		private final long expiresAt;
+		private final long tick;
+		private Node<K, V> prev = this;
+		private Node<K, V> next = this;
+
+		private Node(K key, V value, long expiresAt, long tick) {
+			this.key = key;
+			this.value = value;
+			this.expiresAt = expiresAt;
+			this.tick = tick;
+		}
+
+		private void unlink() {
+			prev.next = next;
+			next.prev = prev;
+			prev = next = this;
+		}
+	}
+
+	/**
+	 * @param tickMillis Length of one slot of the lowest wheel, values expire at most this late.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public TimingWheel(long tickMillis) {
+		if (tickMillis <= 0)
+			throw new IllegalArgumentException("tickMillis must be positive");
+
+		this.tickMillis = tickMillis;
+		this.currentTick = System.currentTimeMillis() / tickMillis;
+		this.wheels = new Node[LEVELS][SLOTS];
+		for (Node<K, V>[] wheel : wheels)
+			for (int slot = 0; slot < SLOTS; slot++)
+				wheel[slot] = new Node<>(null, null, 0, 0);
+	}
+
+	/**
+	 * Adds a value which expires after the delay, replacing any value already held for the key.
+	 *
+	 * @param key Key to store the value under.
+	 * @param value Value to store.
+	 * @param delayMillis Milliseconds until the value expires.
+	 * @return the value previously held for the key, or null if there was none.
+	 */
+	public synchronized V put(K key, V value, long delayMillis) {
+		final long expiresAt = System.currentTimeMillis() + Math.max(0, delayMillis);
+		// Round up, so that the value is never expired early.
+		final Node<K, V> node = new Node<>(key, value, expiresAt, (expiresAt + tickMillis - 1) / tickMillis);
+		final Node<K, V> previous = nodes.put(key, node);
+		if (previous != null)
+			previous.unlink();
+
+		// The slot of the current tick has already been handled, so the earliest a new value can expire is the next tick.
+		place(node, currentTick + 1);
+		return previous == null || previous.expiresAt <= System.currentTimeMillis() ? null : previous.value;
+	}
+
+	/**
+	 * @param key Key to look up.
+	 * @return the value held for the key, or null if there is none or it has expired.
+	 */
+	public synchronized V get(K key) {
+		final Node<K, V> node = nodes.get(key);
+		return node == null || node.expiresAt <= System.currentTimeMillis() ? null : node.value;
+	}
+
+	public boolean containsKey(K key) {
+		return get(key) != null;
+	}
+
+	/**
+	 * @param key Key to look up.
+	 * @return the milliseconds until the value held for the key expires, or 0 if there is none.
+	 */
+	public synchronized long getRemainingMillis(K key) {
+		final Node<K, V> node = nodes.get(key);
+		return node == null ? 0 : Math.max(0, node.expiresAt - System.currentTimeMillis());
+	}
+
+	/**
+	 * Removes the value held for the key, without passing it to an expiry handler.
+	 *
+	 * @param key Key to remove.
+	 * @return the value which was held for the key, or null if there was none or it had expired.
+	 */
+	public synchronized V remove(K key) {
+		final Node<K, V> node = nodes.remove(key);
+		if (node == null)
+			return null;
+
+		node.unlink();
+		return node.expiresAt <= System.currentTimeMillis() ? null : node.value;
+	}
+
+	public synchronized int size() {
+		return nodes.size();
+	}
+
+	/**
+	 * Removes everything, without passing it to an expiry handler.
+	 */
+	public synchronized void clear() {
+		for (Node<K, V> node : nodes.values())
+			node.unlink();
+		nodes.clear();
+	}
+
+	/**
+	 * Advances the wheel to the current time.
+	 *
+	 * @param onExpire Handler given each value which has expired, may be null.
+	 */
+	public void advance(BiConsumer<K, V> onExpire) {
+		advance(System.currentTimeMillis(), onExpire);
+	}
+
+	/**
+	 * Advances the wheel, removing every value which expires at or before the given time.
+	 * The handler is called after the wheel has been updated, so it may add values back.
+	 *
+	 * @param nowMillis Time to advance the wheel to.
+	 * @param onExpire Handler given each value which has expired, may be null.
+	 */
+	public void advance(long nowMillis, BiConsumer<K, V> onExpire) {
+		final List<Node<K, V>> expired = new ArrayList<>();
+		synchronized (this) {
+			final long targetTick = nowMillis / tickMillis;
+			// Nothing to find on the way, so skip straight there rather than turning the wheels.
+			if (nodes.isEmpty() && targetTick > currentTick)
+				currentTick = targetTick;
+
+			while (currentTick < targetTick) {
+				currentTick++;
+
+				// Each time a wheel completes a turn, the next slot of the wheel above is spread over the wheels below.
+				for (int level = 1; level < LEVELS; level++) {
+					if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0)
+						break;
+					cascade(wheels[level][(int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK)]);
+				}
+
+				final Node<K, V> head = wheels[0][(int) (currentTick & SLOT_MASK)];
+				while (head.next != head) {
+					final Node<K, V> node = head.next;
+					node.unlink();
+					nodes.remove(node.key);
+					expired.add(node);
+				}
+			}
+		}
+
+		if (onExpire != null)
+			for (Node<K, V> node : expired)
+				onExpire.accept(node.key, node.value);
+	}
+
+	private void cascade(Node<K, V> head) {
+		while (head.next != head) {
+			final Node<K, V> node = head.next;
+			node.unlink();
+			// Anything now due goes into the slot of the current tick, which is emptied straight after.
+			place(node, currentTick);
+		}
+	}
+
+	private void place(Node<K, V> node, long earliestTick) {
+		final long tick = Math.max(node.tick, earliestTick);
+		final long delta = Math.min(tick - currentTick, MAX_DELTA);
+		int level = 0;
+		while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1)))
+			level++;
+
+		final Node<K, V> head = wheels[level][(int) (((currentTick + delta) >>> (SLOT_BITS * level)) & SLOT_MASK)];
+		node.prev = head.prev;
+		node.next = head;
+		head.prev.next = node;
+		head.prev = node;
+	}
+}
@@ -0,0 +1,101 @@
+package com.palmergames.bukkit.towny.db;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SQL_BatchWriterTest {
+
+	@Test
+	void commitsOncePerFlush() {
+		RecordingConnection db = new RecordingConnection();
+		SQL_BatchWriter writer = new SQL_BatchWriter("TOWNY_");
+
+		int rows = writer.flush(db.connection, Arrays.asList(task("TOWNS", "a"), task("TOWNS", "b"), task("NATIONS", "c")));
+
+		assertEquals(3, rows);
+		assertFalse(writer.lastFlushFailed());
+		assertEquals(Collections.singletonList("commit"), db.transaction);
+		assertEquals(Arrays.asList("TOWNY_TOWNS", "TOWNY_NATIONS"), db.committedTables);
+	}
+
+	@Test
+	void rollsBackTheWholeFlushWhenABatchFails() {
+		RecordingConnection db = new RecordingConnection();
+		SQL_BatchWriter writer = new SQL_BatchWriter("TOWNY_");
+
+		int rows = writer.flush(db.connection, Arrays.asList(task("TOWNS", "a"), task("BROKEN", "b"), task("NATIONS", "c")));
+
+		// The towns batch written before the failure is undone with it, then written again in the flush's only commit.
+		assertEquals(2, rows);
+		assertTrue(writer.lastFlushFailed());
+		assertEquals(Arrays.asList("rollback", "commit"), db.transaction);
+		assertEquals(Arrays.asList("TOWNY_TOWNS", "TOWNY_NATIONS"), db.committedTables);
+	}
+
+	private static SQL_Task task(String table, String name) {
+		HashMap<String, Object> args = new HashMap<>();
+		args.put("name", name);
+		return new SQL_Task(table, args, Collections.singletonList("name"));
+	}
+
+	/**
+	 * A connection which fails any batch written to a BROKEN table and records
+	 * the tables of the batches each commit made it to.
+	 */
+	private static class RecordingConnection {
+		private final List<String> transaction = new ArrayList<>();
+		private final List<String> uncommittedTables = new ArrayList<>();
+		private final List<String> committedTables = new ArrayList<>();
+		private final Connection connection;
+
+		RecordingConnection() {
+			connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+						case "prepareStatement":
+							return statement((String) args[0]);
+						case "commit":
+							transaction.add("commit");
+							committedTables.addAll(uncommittedTables);
+							uncommittedTables.clear();
+							return null;
+						case "rollback":
+							transaction.add("rollback");
+							uncommittedTables.clear();
+							return null;
+						case "getAutoCommit":
+							return true;
+						default:
+							return method.getReturnType() == boolean.class ? false : null;
+					}
+				});
+		}
+
+		private PreparedStatement statement(String sql) {
+			String table = sql.split(" ")[2];
+			return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {PreparedStatement.class},
+				(proxy, method, args) -> {
+					if (method.getName().equals("executeBatch")) {
+						if (table.equals("TOWNY_BROKEN"))
+							throw new SQLException("Table doesn't exist");
+						uncommittedTables.add(table);
+						return new int[0];
+					}
+					return method.getReturnType() == boolean.class ? false : null;
+				});
+		}
+	}
+}
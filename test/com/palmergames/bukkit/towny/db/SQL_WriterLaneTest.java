@@ -0,0 +1,120 @@
+package com.palmergames.bukkit.towny.db;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SQL_WriterLaneTest {
+
+	@Test
+	void retriesUntilConnectedWithoutReordering() {
+		RecordingWriter writer = new RecordingWriter();
+		FakeClock clock = new FakeClock();
+		SQL_WriterLane lane = new SQL_WriterLane(0, dataSource(2), Long.MAX_VALUE, writer, clock);
+
+		lane.submit(Collections.singletonList(task("first")));
+		lane.submit(Collections.singletonList(task("second")));
+		lane.shutdown(Long.MAX_VALUE);
+
+		assertEquals(0, lane.getPendingRows());
+		assertEquals(Arrays.asList("first", "second"), writer.written);
+		assertEquals(Arrays.asList(SQL_WriterLane.MIN_RETRY_DELAY, 2 * SQL_WriterLane.MIN_RETRY_DELAY), clock.sleeps);
+	}
+
+	@Test
+	void keepsRowsUntilTheShutdownDeadline() {
+		RecordingWriter writer = new RecordingWriter();
+		FakeClock clock = new FakeClock();
+		SQL_WriterLane lane = new SQL_WriterLane(0, dataSource(Integer.MAX_VALUE), Long.MAX_VALUE, writer, clock);
+
+		lane.submit(Collections.singletonList(task("first")));
+		lane.submit(Collections.singletonList(task("second")));
+
+		long deadline = 2 * SQL_WriterLane.MIN_RETRY_DELAY;
+		lane.shutdown(deadline);
+
+		// The lane only gives up once its retries have waited out the deadline.
+		assertTrue(clock.millis() >= deadline);
+		assertEquals(2, lane.getPendingRows());
+		assertTrue(writer.written.isEmpty());
+	}
+
+	private static SQL_Task task(String name) {
+		HashMap<String, Object> args = new HashMap<>();
+		args.put("name", name);
+		return new SQL_Task("TOWNS", args, Collections.singletonList("name"));
+	}
+
+	/**
+	 * @param failures Number of times to fail to connect before handing out connections.
+	 */
+	private static DataSource dataSource(int failures) {
+		AtomicInteger attempts = new AtomicInteger();
+		Connection connection = (Connection) Proxy.newProxyInstance(SQL_WriterLaneTest.class.getClassLoader(), new Class<?>[] {Connection.class},
+			(proxy, method, args) -> method.getReturnType() == boolean.class ? false : null);
+
+		return (DataSource) Proxy.newProxyInstance(SQL_WriterLaneTest.class.getClassLoader(), new Class<?>[] {DataSource.class},
+			(proxy, method, args) -> {
+				if (!method.getName().equals("getConnection"))
+					throw new UnsupportedOperationException(method.getName());
+				if (attempts.getAndIncrement() < failures)
+					throw new SQLException("Connection refused");
+				return connection;
+			});
+	}
+
+	/**
+	 * A clock which starts at 0 and only moves when the lane sleeps on it.
+	 */
+	private static class FakeClock implements SQL_WriterLane.Clock {
+		private final List<Long> sleeps = Collections.synchronizedList(new ArrayList<>());
+		private final AtomicLong now = new AtomicLong();
+
+		@Override
+		public long millis() {
+			return now.get();
+		}
+
+		@Override
+		public void sleep(long millis) {
+			sleeps.add(millis);
+			now.addAndGet(millis);
+		}
+	}
+
+	private static class RecordingWriter extends SQL_BatchWriter {
+		private final List<String> written = new ArrayList<>();
+
+		RecordingWriter() {
+			super("TOWNY_");
+		}
+
+		@Override
+		int flush(Connection cntx, List<SQL_Task> tasks) {
+			for (SQL_Task task : tasks)
+				written.add((String) task.args.get("name"));
+			return tasks.size();
+		}
+
+		@Override
+		boolean lastFlushFailed() {
+			return false;
+		}
+
+		@Override
+		void close() {}
+	}
+}
@@ -0,0 +1,110 @@
+package com.palmergames.bukkit.towny.object;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexedListTest {
+
+	@Test
+	void looksUpByNameIgnoringCaseAndByUUID() {
+		IndexedList<Entry> list = new IndexedList<>();
+		Entry alice = new Entry("Alice");
+		list.add(alice);
+
+		assertSame(alice, list.get("alice"));
+		assertSame(alice, list.get(alice.getUUID()));
+		assertTrue(list.contains("ALICE"));
+		assertFalse(list.add(alice));
+		assertEquals(1, list.size());
+	}
+
+	@Test
+	void followsRenamesAndNewUUIDs() {
+		IndexedList<Entry> first = new IndexedList<>();
+		IndexedList<Entry> second = new IndexedList<>();
+		Entry entry = new Entry("Old");
+		first.add(entry);
+		second.add(entry);
+
+		entry.setName("New");
+		UUID oldUUID = entry.getUUID();
+		entry.setUUID(UUID.randomUUID());
+
+		for (IndexedList<Entry> list : Arrays.asList(first, second)) {
+			assertNull(list.get("old"));
+			assertNull(list.get(oldUUID));
+			assertSame(entry, list.get("new"));
+			assertSame(entry, list.get(entry.getUUID()));
+		}
+	}
+
+	@Test
+	void stopsFollowingObjectsOnceRemoved() {
+		IndexedList<Entry> list = new IndexedList<>();
+		Entry entry = new Entry("Old");
+		list.add(entry);
+		assertTrue(list.remove(entry));
+
+		entry.setName("New");
+		assertNull(list.get("old"));
+		assertNull(list.get("new"));
+		assertNull(list.get(entry.getUUID()));
+		assertFalse(list.remove(entry));
+	}
+
+	@Test
+	void keepsInsertionOrderUntilSorted() {
+		IndexedList<Entry> list = new IndexedList<>();
+		Entry c = new Entry("c"), a = new Entry("a"), b = new Entry("b");
+		list.addAll(Arrays.asList(c, a, b));
+		assertEquals(Arrays.asList(c, a, b), list.asList());
+
+		list.remove(a);
+		assertEquals(Arrays.asList(c, b), list.asList());
+
+		list.add(a);
+		list.sort(Comparator.comparing(Entry::getName));
+		List<Entry> sorted = list.asList();
+		assertEquals(Arrays.asList(a, b, c), sorted);
+		assertThrows(UnsupportedOperationException.class, () -> sorted.remove(0));
+
+		list.clear();
+		assertTrue(list.isEmpty());
+		assertEquals(3, sorted.size());
+		assertNull(list.get("a"));
+	}
+
+	private static class Entry extends TownyObject implements Identifiable {
+		private UUID uuid = UUID.randomUUID();
+
+		Entry(String name) {
+			super(name);
+		}
+
+		@Override
+		public UUID getUUID() {
+			return uuid;
+		}
+
+		@Override
+		public void setUUID(UUID uuid) {
+			UUID oldUUID = this.uuid;
+			this.uuid = uuid;
+			reindex(getName(), oldUUID);
+		}
+
+		@Override
+		public void save() {}
+	}
+}
@@ -0,0 +1,99 @@
+package com.palmergames.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+	private static final long HOUR = 60 * 60 * 1000L;
+
+	@Test
+	void expiresValuesOnceTheirDelayHasPassed() {
+		TimingWheel<String, Integer> wheel = new TimingWheel<>(1000);
+		long now = System.currentTimeMillis();
+		wheel.put("short", 1, HOUR);
+		wheel.put("long", 2, 3 * HOUR);
+
+		List<String> expired = new ArrayList<>();
+		wheel.advance(now + HOUR - 2000, (key, value) -> expired.add(key));
+		assertTrue(expired.isEmpty());
+
+		wheel.advance(now + 2 * HOUR, (key, value) -> expired.add(key));
+		assertEquals(Arrays.asList("short"), expired);
+		assertEquals(1, wheel.size());
+
+		wheel.advance(now + 4 * HOUR, (key, value) -> expired.add(key));
+		assertEquals(Arrays.asList("short", "long"), expired);
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void replacingOrRemovingAValueCancelsItsExpiry() {
+		TimingWheel<String, Integer> wheel = new TimingWheel<>(1000);
+		long now = System.currentTimeMillis();
+		wheel.put("replaced", 1, HOUR);
+		assertEquals(1, wheel.put("replaced", 2, 2 * HOUR));
+		wheel.put("removed", 3, HOUR);
+		assertEquals(3, wheel.remove("removed"));
+
+		Map<String, Integer> expired = new HashMap<>();
+		wheel.advance(now + HOUR + 2000, expired::put);
+		assertTrue(expired.isEmpty());
+		assertEquals(2, wheel.get("replaced"));
+		assertFalse(wheel.containsKey("removed"));
+
+		wheel.advance(now + 2 * HOUR + 2000, expired::put);
+		assertEquals(2, expired.get("replaced"));
+	}
+
+	@Test
+	void lookupsStopAsSoonAsAValueExpires() {
+		TimingWheel<String, Integer> wheel = new TimingWheel<>(HOUR);
+		wheel.put("gone", 1, 0);
+		wheel.put("kept", 2, HOUR);
+
+		assertNull(wheel.get("gone"));
+		assertEquals(0, wheel.getRemainingMillis("gone"));
+		assertEquals(2, wheel.get("kept"));
+		assertTrue(wheel.getRemainingMillis("kept") > HOUR - 1000);
+	}
+
+	@Test
+	void expiresEveryValueAtTheRightTickAcrossAllWheels() {
+		// One millisecond ticks, so delays of up to a day pass through every level of the wheel.
+		TimingWheel<Integer, Long> wheel = new TimingWheel<>(1);
+		Random random = new Random(42);
+		long now = System.currentTimeMillis();
+		Map<Integer, Long> expiries = new HashMap<>();
+		for (int i = 0; i < 2000; i++) {
+			long delay = (long) Math.pow(2, random.nextDouble() * 26);
+			wheel.put(i, now + delay, delay);
+			expiries.put(i, now + delay);
+		}
+
+		long time = now;
+		while (!expiries.isEmpty()) {
+			final long previous = time;
+			final long advancedTo = time += 1 + random.nextInt(60_000);
+			wheel.advance(advancedTo, (key, expiresAt) -> {
+				assertTrue(expiresAt <= advancedTo, "expired early");
+				assertTrue(expiresAt > previous, "expired late");
+				assertEquals(expiries.remove(key), expiresAt);
+			});
+			for (long expiresAt : expiries.values())
+				assertTrue(expiresAt > advancedTo, "missed an expiry");
+		}
+		assertEquals(0, wheel.size());
+	}
+}